@@ -2,6 +2,7 @@ plugins {
     java
     id("org.springframework.boot") version "3.2.0"
     id("io.spring.dependency-management") version "1.1.4"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "com.officemate"
@@ -9,7 +10,7 @@ version = "1.0.0"
 
 java {
     toolchain {
-        languageVersion = JavaLanguageVersion.of(19)
+        languageVersion = JavaLanguageVersion.of(21)
     }
 }
 
@@ -80,6 +81,18 @@ dependencies {
     testImplementation("org.testcontainers:junit-jupiter:1.19.3")
 }
 
+// JMH microbenchmarks (src/jmh/java), run with ./gradlew jmh
+jmh {
+    warmupIterations.set(2)
+    iterations.set(3)
+    fork.set(1)
+    zip64.set(true)
+    // Restrict to a subset, e.g. ./gradlew jmh -PjmhIncludes=JwtTokenCodecBenchmark
+    if (project.hasProperty("jmhIncludes")) {
+        includes.set(listOf(project.property("jmhIncludes").toString()))
+    }
+}
+
 tasks.withType<Test> {
     useJUnitPlatform()
 }
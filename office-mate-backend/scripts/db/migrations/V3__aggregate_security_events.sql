@@ -0,0 +1,8 @@
+-- Migration: Aggregate identical security events
+-- Version: V3
+-- Description: Adds event count and first/last-seen timestamps to security_event_logs. Identical events
+-- (same type, identifier and IP address) within a flush window are stored as one row.
+
+ALTER TABLE IF EXISTS security_event_logs ADD COLUMN IF NOT EXISTS event_count INTEGER DEFAULT 1;
+ALTER TABLE IF EXISTS security_event_logs ADD COLUMN IF NOT EXISTS first_seen_at TIMESTAMP;
+ALTER TABLE IF EXISTS security_event_logs ADD COLUMN IF NOT EXISTS last_seen_at TIMESTAMP;
@@ -0,0 +1,176 @@
+-- Migration: Monthly range partitioning of log tables
+-- Version: V4
+-- Description: Partitions audit_logs, security_event_logs and cancellation_logs by month on their
+-- timestamp column. Existing tables are converted in place: the old table becomes the partition for all
+-- rows before next month. A V1-layout audit_logs table (no timestamp column) is kept as audit_logs_v1. Monthly partitions are then created ahead of time and dropped after their
+-- retention period by LogPartitionManager; rows outside every monthly partition land in <table>_default.
+
+-- Convert an existing non-partitioned log table. A table without a timestamp column (the V1 audit_logs
+-- layout: log_id, created_at, details) is not a log table this migration can partition; it is renamed to
+-- <table>_v1 with its rows and indexes kept, and the partitioned table is created in its place below.
+CREATE OR REPLACE FUNCTION officemate_partition_log_table(p_table TEXT, p_id_column TEXT)
+RETURNS VOID AS $$
+DECLARE
+    v_legacy TEXT := p_table || '_legacy';
+    v_bound TEXT := p_table || '_legacy_partition_bound';
+    v_boundary TIMESTAMP := date_trunc('month', now()) + INTERVAL '1 month';
+    v_index RECORD;
+BEGIN
+    IF to_regclass(p_table) IS NULL
+            OR EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass(p_table)) THEN
+        RETURN;
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_schema = current_schema() AND table_name = p_table AND column_name = 'timestamp') THEN
+        RAISE NOTICE 'Table % has no timestamp column, renamed to %_v1', p_table, p_table;
+        FOR v_index IN SELECT indexname FROM pg_indexes
+                       WHERE schemaname = current_schema() AND tablename = p_table LOOP
+            EXECUTE format('ALTER INDEX %I RENAME TO %I', v_index.indexname, v_index.indexname || '_v1');
+        END LOOP;
+        EXECUTE format('ALTER TABLE %I RENAME TO %I', p_table, p_table || '_v1');
+        RETURN;
+    END IF;
+
+    -- Prove the partition bound with a validated CHECK constraint first. VALIDATE scans the table under
+    -- SHARE UPDATE EXCLUSIVE, which does not block reads; SET NOT NULL and ATTACH PARTITION then use the
+    -- constraint instead of scanning again under ACCESS EXCLUSIVE.
+    EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I CHECK (timestamp IS NOT NULL AND timestamp < %L) NOT VALID',
+                   p_table, v_bound, v_boundary);
+    EXECUTE format('ALTER TABLE %I VALIDATE CONSTRAINT %I', p_table, v_bound);
+    EXECUTE format('ALTER TABLE %I ALTER COLUMN timestamp SET NOT NULL', p_table);
+
+    EXECUTE format('ALTER TABLE %I RENAME TO %I', p_table, v_legacy);
+    -- Free the primary key and index names for the partitioned table
+    FOR v_index IN SELECT indexname FROM pg_indexes
+                   WHERE schemaname = current_schema() AND tablename = v_legacy LOOP
+        EXECUTE format('ALTER INDEX %I RENAME TO %I', v_index.indexname, v_index.indexname || '_legacy');
+    END LOOP;
+
+    EXECUTE format('CREATE TABLE %I (LIKE %I INCLUDING DEFAULTS INCLUDING CONSTRAINTS) PARTITION BY RANGE (timestamp)',
+                   p_table, v_legacy);
+    -- LIKE copies the bound constraint; the partitioned table does not need it
+    EXECUTE format('ALTER TABLE %I DROP CONSTRAINT %I', p_table, v_bound);
+    -- The partition key must be part of every unique constraint
+    EXECUTE format('ALTER TABLE %I ADD PRIMARY KEY (%I, timestamp)', p_table, p_id_column);
+    EXECUTE format('ALTER TABLE %I ATTACH PARTITION %I FOR VALUES FROM (MINVALUE) TO (%L)',
+                   p_table, v_legacy, v_boundary);
+    -- The partition constraint now enforces the bound
+    EXECUTE format('ALTER TABLE %I DROP CONSTRAINT %I', v_legacy, v_bound);
+END;
+$$ LANGUAGE plpgsql;
+
+-- Create the monthly partitions from the end of the existing ones through p_months_ahead months from now
+CREATE OR REPLACE FUNCTION officemate_create_log_partitions(p_table TEXT, p_months_ahead INTEGER)
+RETURNS VOID AS $$
+DECLARE
+    v_month TIMESTAMP := date_trunc('month', now());
+    v_last TIMESTAMP := date_trunc('month', now()) + p_months_ahead * INTERVAL '1 month';
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass(p_table)) THEN
+        RAISE NOTICE 'Table % is not partitioned, no partitions created', p_table;
+        RETURN;
+    END IF;
+    IF to_regclass(p_table || '_legacy') IS NOT NULL THEN
+        v_month := v_month + INTERVAL '1 month';
+    END IF;
+    WHILE v_month <= v_last LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                       p_table || '_p' || to_char(v_month, 'YYYY_MM'), p_table,
+                       v_month, v_month + INTERVAL '1 month');
+        v_month := v_month + INTERVAL '1 month';
+    END LOOP;
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF %I DEFAULT', p_table || '_default', p_table);
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT officemate_partition_log_table('audit_logs', 'audit_id');
+SELECT officemate_partition_log_table('security_event_logs', 'event_id');
+SELECT officemate_partition_log_table('cancellation_logs', 'cancellation_id');
+
+-- ============================================
+-- Tables that did not exist yet
+-- ============================================
+CREATE TABLE IF NOT EXISTS audit_logs (
+    audit_id UUID NOT NULL,
+    user_id UUID NOT NULL,
+    entity_type VARCHAR(50) NOT NULL,
+    entity_id VARCHAR(255) NOT NULL,
+    action VARCHAR(20) NOT NULL,
+    field_name VARCHAR(100),
+    old_value TEXT,
+    new_value TEXT,
+    ip_address VARCHAR(45),
+    user_agent VARCHAR(500),
+    session_id VARCHAR(100),
+    timestamp TIMESTAMP NOT NULL,
+    reason VARCHAR(200),
+    PRIMARY KEY (audit_id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+CREATE TABLE IF NOT EXISTS security_event_logs (
+    event_id UUID NOT NULL,
+    user_id UUID,
+    phone_number VARCHAR(20),
+    corporate_email VARCHAR(255),
+    event_type VARCHAR(50) NOT NULL,
+    event_description VARCHAR(500) NOT NULL,
+    ip_address VARCHAR(45),
+    user_agent VARCHAR(500),
+    session_id VARCHAR(100),
+    timestamp TIMESTAMP NOT NULL,
+    event_count INTEGER DEFAULT 1,
+    first_seen_at TIMESTAMP,
+    last_seen_at TIMESTAMP,
+    severity VARCHAR(20),
+    additional_data TEXT,
+    resolved BOOLEAN NOT NULL DEFAULT FALSE,
+    resolved_at TIMESTAMP,
+    resolved_by VARCHAR(50),
+    PRIMARY KEY (event_id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+CREATE TABLE IF NOT EXISTS cancellation_logs (
+    cancellation_id UUID NOT NULL,
+    user_id UUID NOT NULL,
+    ride_id UUID,
+    cancellation_type VARCHAR(20) NOT NULL,
+    cancellation_reason VARCHAR(200),
+    timestamp TIMESTAMP NOT NULL,
+    cancellation_month INTEGER NOT NULL,
+    cancellation_year INTEGER NOT NULL,
+    minutes_before_ride INTEGER,
+    penalty_applied BOOLEAN NOT NULL DEFAULT FALSE,
+    penalty_type VARCHAR(50),
+    penalty_duration_days INTEGER,
+    penalty_start_date TIMESTAMP,
+    penalty_end_date TIMESTAMP,
+    ip_address VARCHAR(45),
+    user_agent VARCHAR(500),
+    additional_notes TEXT,
+    PRIMARY KEY (cancellation_id, timestamp)
+) PARTITION BY RANGE (timestamp);
+
+-- Indexes on the partitioned tables; existing equivalent partition indexes are attached, not rebuilt
+CREATE INDEX IF NOT EXISTS idx_audit_user_id ON audit_logs(user_id);
+CREATE INDEX IF NOT EXISTS idx_audit_entity_type ON audit_logs(entity_type);
+CREATE INDEX IF NOT EXISTS idx_audit_action ON audit_logs(action);
+CREATE INDEX IF NOT EXISTS idx_audit_timestamp ON audit_logs(timestamp);
+
+CREATE INDEX IF NOT EXISTS idx_security_user_id ON security_event_logs(user_id);
+CREATE INDEX IF NOT EXISTS idx_security_event_type ON security_event_logs(event_type);
+CREATE INDEX IF NOT EXISTS idx_security_timestamp ON security_event_logs(timestamp);
+CREATE INDEX IF NOT EXISTS idx_security_ip_address ON security_event_logs(ip_address);
+CREATE INDEX IF NOT EXISTS idx_security_phone_number ON security_event_logs(phone_number);
+
+CREATE INDEX IF NOT EXISTS idx_cancellation_user_id ON cancellation_logs(user_id);
+CREATE INDEX IF NOT EXISTS idx_cancellation_timestamp ON cancellation_logs(timestamp);
+CREATE INDEX IF NOT EXISTS idx_cancellation_month_year ON cancellation_logs(cancellation_month, cancellation_year);
+CREATE INDEX IF NOT EXISTS idx_cancellation_type ON cancellation_logs(cancellation_type);
+
+SELECT officemate_create_log_partitions('audit_logs', 3);
+SELECT officemate_create_log_partitions('security_event_logs', 3);
+SELECT officemate_create_log_partitions('cancellation_logs', 3);
+
+COMMENT ON TABLE audit_logs IS 'Audit trail, partitioned by month; old partitions are dropped by retention';
+COMMENT ON TABLE security_event_logs IS 'Security events, partitioned by month; old partitions are dropped by retention';
+COMMENT ON TABLE cancellation_logs IS 'Ride cancellations, partitioned by month; old partitions are dropped by retention';
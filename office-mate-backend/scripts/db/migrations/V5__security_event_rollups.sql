@@ -0,0 +1,16 @@
+-- Migration: Security event rollups
+-- Version: V5
+-- Description: Per-minute and per-hour security event counts by event type, maintained incrementally
+-- by SecurityEventRollupService as events are ingested.
+
+CREATE TABLE IF NOT EXISTS security_event_rollups (
+    granularity VARCHAR(10) NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    event_type VARCHAR(50) NOT NULL,
+    event_count BIGINT NOT NULL,
+    PRIMARY KEY (granularity, bucket_start, event_type)
+);
+
+CREATE INDEX IF NOT EXISTS idx_security_rollup_bucket ON security_event_rollups(granularity, bucket_start);
+
+COMMENT ON TABLE security_event_rollups IS 'Security event counts per event type and minute/hour bucket';
@@ -0,0 +1,82 @@
+#!/bin/bash
+# Load test for comparing platform-thread and virtual-thread request handling.
+# Start the application with RATE_LIMIT_ENABLED=false (all load comes from one IP), once with
+# VIRTUAL_THREADS_ENABLED=false and once with VIRTUAL_THREADS_ENABLED=true, and run this script
+# against each. Requires hey (https://github.com/rakyll/hey) and curl; 5,000 clients need
+# `ulimit -n` above 5,000 on the load generator.
+#
+# Usage: scripts/load-test.sh [label]
+#   BASE_URL     application URL (default: http://localhost:8080)
+#   ENDPOINT     path under load (default: /actuator/health, which checks Postgres, Redis and MongoDB)
+#   CONCURRENCY  space-separated client counts (default: "200 5000")
+#   DURATION     duration of each run (default: 60s)
+#   AUTH_TOKEN   bearer token for /actuator/metrics, if it requires authentication
+#   APP_PID      application process ID, to report resident memory
+
+set -euo pipefail
+
+LABEL=${1:-$(date +%Y%m%d-%H%M%S)}
+BASE_URL=${BASE_URL:-http://localhost:8080}
+ENDPOINT=${ENDPOINT:-/actuator/health}
+CONCURRENCY=${CONCURRENCY:-"200 5000"}
+DURATION=${DURATION:-60s}
+RESULTS_DIR=${RESULTS_DIR:-build/load-test}
+
+# Colors for output
+BLUE='\033[0;34m'
+GREEN='\033[0;32m'
+RED='\033[0;31m'
+NC='\033[0m' # No Color
+
+for tool in hey curl; do
+    if ! command -v "$tool" &> /dev/null; then
+        echo -e "${RED}✗ $tool is not installed${NC}"
+        exit 1
+    fi
+done
+
+# Read a single actuator metric value, or "-" if it is not available
+metric() {
+    local auth=()
+    if [ -n "${AUTH_TOKEN:-}" ]; then
+        auth=(-H "Authorization: Bearer $AUTH_TOKEN")
+    fi
+    curl -sf "${auth[@]}" "$BASE_URL/actuator/metrics/$1" \
+        | sed -n 's/.*"statistic":"VALUE","value":\([0-9.E+-]*\).*/\1/p' \
+        | awk '{ printf "%.0f", $1 }' || true
+}
+
+mkdir -p "$RESULTS_DIR"
+SUMMARY="$RESULTS_DIR/$LABEL.txt"
+
+echo -e "${BLUE}Load testing $BASE_URL$ENDPOINT ($LABEL)${NC}"
+printf "%-8s %10s %10s %8s %12s %12s %10s\n" \
+    "clients" "req/s" "p99 (s)" "failed" "heap (MB)" "threads" "rss (MB)" | tee "$SUMMARY"
+
+for clients in $CONCURRENCY; do
+    output="$RESULTS_DIR/$LABEL-c$clients.txt"
+    hey -z "$DURATION" -c "$clients" "$BASE_URL$ENDPOINT" > "$output"
+
+    rps=$(awk '/Requests\/sec/ { print $2 }' "$output")
+    p99=$(awk '/ 99% in/ { print $3 }' "$output")
+    # Non-2xx responses plus requests that failed without a response (timeouts, refused connections)
+    failures=$(awk '
+        /Status code distribution/ { codes = 1; errors = 0; next }
+        /Error distribution/ { errors = 1; codes = 0; next }
+        /\[[0-9]+\]/ { n = $1; gsub(/[\[\]]/, "", n) }
+        codes && /\[[0-9]+\]/ && n !~ /^2/ { sum += $2 }
+        errors && /\[[0-9]+\]/ { sum += n }
+        END { print sum + 0 }' "$output")
+    heap=$(metric "jvm.memory.used?tag=area:heap")
+    threads=$(metric "jvm.threads.live")
+    rss="-"
+    if [ -n "${APP_PID:-}" ]; then
+        rss=$(ps -o rss= -p "$APP_PID" | awk '{ printf "%.0f", $1 / 1024 }')
+    fi
+
+    printf "%-8s %10s %10s %8s %12s %12s %10s\n" "$clients" "$rps" "$p99" "$failures" \
+        "$(awk -v b="${heap:-}" 'BEGIN { print b == "" ? "-" : int(b / 1048576) }')" "${threads:--}" "$rss" \
+        | tee -a "$SUMMARY"
+done
+
+echo -e "${GREEN}✓ Results written to $SUMMARY${NC}"
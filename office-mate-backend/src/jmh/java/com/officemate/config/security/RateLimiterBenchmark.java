@@ -0,0 +1,153 @@
+package com.officemate.config.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and fairness of the sliding-window Lua limiter in RateLimitingService,
+ * compared with the fixed-window INCR + EXPIRE limiter it replaces, and throughput of the
+ * token-leasing limiter used for API requests (once a key is over its limit, denials are local too).
+ * Requires a Redis server, by default localhost:6379; override with
+ * {@code -jvmArgsAppend "-Dredis.host=... -Dredis.port=..."}.
+ * Setup prints the most requests each limiter admits within one window when a client
+ * bursts across a window boundary (fixed window admits close to twice the limit).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+public class RateLimiterBenchmark {
+
+    private static final int LIMIT = 100;
+    private static final Duration WINDOW = Duration.ofSeconds(1);
+
+    @Param({"1000"})
+    private int keyCount;
+
+    private JedisConnectionFactory connectionFactory;
+    private RedisTemplate<String, String> redisTemplate;
+    private RateLimitingService rateLimitingService;
+    private TokenLeasingRateLimiter leasingRateLimiter;
+
+    @Setup
+    public void setUp() throws InterruptedException {
+        connectionFactory = new JedisConnectionFactory(new RedisStandaloneConfiguration(
+                System.getProperty("redis.host", "localhost"),
+                Integer.getInteger("redis.port", 6379)));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+
+        redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setDefaultSerializer(new StringRedisSerializer());
+        redisTemplate.afterPropertiesSet();
+
+        leasingRateLimiter = new TokenLeasingRateLimiter(redisTemplate);
+        setField(leasingRateLimiter, "enabled", true);
+        setField(leasingRateLimiter, "blockSize", 10);
+        rateLimitingService = new RateLimitingService(redisTemplate, null, leasingRateLimiter,
+                new HeavyHitterDetector(redisTemplate));
+
+        System.out.printf("%nBoundary burst, limit %d per %s:%n", LIMIT, WINDOW);
+        System.out.printf("Fixed window admitted:   %d%n", boundaryBurst(this::fixedWindowAllowed, "bench:fairness:fixed"));
+        System.out.printf("Sliding window admitted: %d%n", boundaryBurst(this::slidingWindowAllowed, "bench:fairness:sliding"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        connectionFactory.destroy();
+    }
+
+    @Benchmark
+    public boolean fixedWindow() {
+        return fixedWindowAllowed(randomKey("fixed"));
+    }
+
+    @Benchmark
+    public boolean slidingWindow() {
+        return slidingWindowAllowed(randomKey("sliding"));
+    }
+
+    @Benchmark
+    public boolean leasedWindow() {
+        return leasingRateLimiter.tryAcquire("rate_limit:" + randomKey("leased"), LIMIT, WINDOW);
+    }
+
+    private String randomKey(String limiter) {
+        return "bench:" + limiter + ":" + ThreadLocalRandom.current().nextInt(keyCount);
+    }
+
+    /**
+     * Previous limiter: INCR, then EXPIRE on the first hit in a second round trip.
+     */
+    private boolean fixedWindowAllowed(String key) {
+        String redisKey = "rate_limit:" + key;
+        Long count = redisTemplate.opsForValue().increment(redisKey);
+        if (count != null && count == 1) {
+            redisTemplate.expire(redisKey, WINDOW.getSeconds(), TimeUnit.SECONDS);
+        }
+        return count != null && count <= LIMIT;
+    }
+
+    private boolean slidingWindowAllowed(String key) {
+        return rateLimitingService.isAllowed(key, LIMIT, WINDOW);
+    }
+
+    /**
+     * One request opens the window, a full burst arrives just before the window ends and
+     * another just after. Returns how many requests were admitted in that span of about
+     * 0.25 windows plus the opening request.
+     */
+    private int boundaryBurst(Limiter limiter, String key) throws InterruptedException {
+        redisTemplate.delete("rate_limit:" + key);
+        int admitted = limiter.allowed(key) ? 1 : 0;
+        Thread.sleep(WINDOW.toMillis() * 9 / 10);
+        admitted += burst(limiter, key);
+        Thread.sleep(WINDOW.toMillis() * 15 / 100);
+        admitted += burst(limiter, key);
+        redisTemplate.delete("rate_limit:" + key);
+        return admitted;
+    }
+
+    private int burst(Limiter limiter, String key) {
+        int admitted = 0;
+        for (int i = 0; i < LIMIT; i++) {
+            if (limiter.allowed(key)) {
+                admitted++;
+            }
+        }
+        return admitted;
+    }
+
+    private static void setField(Object target, String name, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Limiter {
+        boolean allowed(String key);
+    }
+}
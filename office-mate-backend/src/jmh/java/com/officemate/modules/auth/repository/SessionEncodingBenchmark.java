@@ -0,0 +1,126 @@
+package com.officemate.modules.auth.repository;
+
+import com.officemate.modules.auth.entity.UserSession;
+import com.officemate.shared.enums.Permission;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.redis.core.convert.Bucket;
+import org.springframework.data.redis.core.convert.MappingRedisConverter;
+import org.springframework.data.redis.core.convert.RedisData;
+import org.springframework.data.redis.core.mapping.RedisMappingContext;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialize/deserialize time of a UserSession with CompactRedisCodec, compared with
+ * the Spring Data Redis hash mapping it replaces.
+ * Setup prints the hash payload size (field names plus values) of both encodings,
+ * which is what dominates Redis memory per session for small listpack-encoded hashes;
+ * use MEMORY USAGE against a live server for the exact figure including key overhead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SessionEncodingBenchmark {
+
+    private MappingRedisConverter converter;
+    private UserSession session;
+    private RedisData springData;
+    private List<byte[]> compactValues;
+
+    @Setup
+    public void setUp() {
+        converter = new MappingRedisConverter(new RedisMappingContext());
+        converter.afterPropertiesSet();
+
+        LocalDateTime now = LocalDateTime.now();
+        String sessionId = UUID.randomUUID().toString();
+        session = UserSession.builder()
+                .sessionId(sessionId)
+                .userId(UUID.randomUUID().toString())
+                .deviceType("ANDROID")
+                .deviceId("a1b2c3d4e5f6")
+                .appVersion("1.4.2")
+                .permissions(Permission.toMask(List.of("MOBILE_VERIFIED", "EMAIL_VERIFIED", "FULLY_VERIFIED",
+                        "ACCESS_RIDE_FEATURES", "ACCOUNT_ACTIVE")))
+                .createdAt(now)
+                .lastAccessAt(now)
+                .expiresAt(now.plusDays(7))
+                .refreshToken(sampleRefreshToken())
+                .refreshTokenId(UUID.randomUUID().toString())
+                .mobileVerified(true)
+                .emailVerified(true)
+                .ttl(604800L)
+                .build();
+
+        springData = springWrite();
+        Map<byte[], byte[]> compactHash = compactWrite();
+        compactValues = new ArrayList<>();
+        for (String field : CompactRedisCodec.SESSION_FIELDS) {
+            compactValues.add(compactHash.entrySet().stream()
+                    .filter(entry -> field.equals(new String(entry.getKey(), StandardCharsets.UTF_8)))
+                    .map(Map.Entry::getValue)
+                    .findFirst()
+                    .orElse(null));
+        }
+
+        System.out.printf("%nSpring Data hash: %d fields, %d payload bytes%n",
+                springData.getBucket().size(), payloadSize(springData.getBucket()));
+        System.out.printf("Compact hash:     %d fields, %d payload bytes%n",
+                compactHash.size(), payloadSize(compactHash));
+    }
+
+    @Benchmark
+    public RedisData springWrite() {
+        RedisData data = new RedisData();
+        converter.write(session, data);
+        return data;
+    }
+
+    @Benchmark
+    public UserSession springRead() {
+        return converter.read(UserSession.class, springData);
+    }
+
+    @Benchmark
+    public Map<byte[], byte[]> compactWrite() {
+        return CompactRedisCodec.encodeSession(session);
+    }
+
+    @Benchmark
+    public UserSession compactRead() {
+        return CompactRedisCodec.decodeSession(session.getSessionId(), compactValues);
+    }
+
+    private static int payloadSize(Bucket bucket) {
+        int size = 0;
+        for (Map.Entry<String, byte[]> entry : bucket.entrySet()) {
+            size += entry.getKey().getBytes(StandardCharsets.UTF_8).length + entry.getValue().length;
+        }
+        return size;
+    }
+
+    private static int payloadSize(Map<byte[], byte[]> hash) {
+        int size = 0;
+        for (Map.Entry<byte[], byte[]> entry : hash.entrySet()) {
+            size += entry.getKey().length + entry.getValue().length;
+        }
+        return size;
+    }
+
+    private static String sampleRefreshToken() {
+        // Typical size of an RS256 refresh token issued by SessionManagementService
+        return "eyJraWQiOiJrZXktMSIsImFsZyI6IlJTMjU2In0." + "x".repeat(260) + "." + "s".repeat(342);
+    }
+}
@@ -0,0 +1,87 @@
+package com.officemate.modules.auth.service;
+
+import com.officemate.config.JwtConfig;
+import com.officemate.config.security.TokenValidationCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of JWT issuance and verification through JwtTokenCodec,
+ * compared with the previous path that re-derived keys and rebuilt the parser per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JwtTokenCodecBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-for-jmh-only-must-be-at-least-256-bits-long";
+
+    @Param({"HS256", "RS256"})
+    private String algorithm;
+
+    private JwtConfig jwtConfig;
+    private JwtTokenCodec codec;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtConfig = new JwtConfig();
+        jwtConfig.setSecret(SECRET);
+        jwtConfig.setAlgorithm(algorithm);
+        jwtConfig.init();
+
+        codec = new JwtTokenCodec(jwtConfig, new TokenValidationCache());
+        codec.init();
+        token = issue();
+    }
+
+    @Benchmark
+    public String issue() {
+        return codec.builder()
+                .claims(Map.of("sessionId", "benchmark-session", "tokenType", "ACCESS"))
+                .subject("benchmark-user")
+                .issuer(jwtConfig.getIssuer())
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 3600000L))
+                .id(UUID.randomUUID().toString())
+                .compact();
+    }
+
+    @Benchmark
+    public Claims verify() {
+        return codec.parse(token);
+    }
+
+    @Benchmark
+    public Claims verifyRebuildingParser() {
+        if (jwtConfig.isRsaEnabled()) {
+            return Jwts.parser()
+                    .verifyWith(jwtConfig.getPublicKey())
+                    .build()
+                    .parseSignedClaims(token)
+                    .getPayload();
+        }
+        SecretKey key = Keys.hmacShaKeyFor(jwtConfig.getSecret().getBytes(StandardCharsets.UTF_8));
+        return Jwts.parser()
+                .verifyWith(key)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+}
@@ -1,51 +1,62 @@
 package com.officemate.config;
 
+import com.officemate.config.properties.AsyncProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Configuration for asynchronous processing, particularly for logging operations
+ * Configuration for asynchronous processing, particularly for logging operations.
+ * Executors propagate the caller's AuditContext and MDC to their threads. Every {@code @Async} method
+ * names its executor, and each executor publishes Micrometer metrics tagged with its name: pool size,
+ * active, queued and completed tasks, and {@code executor.rejected} for tasks that ran on the caller's
+ * thread because the pool was saturated. With {@code app.async.virtual-threads}, each task runs on its
+ * own virtual thread instead, which suits the I/O-bound logging work.
  */
 @Configuration
 @EnableAsync
 @EnableAspectJAutoProxy
 @EnableScheduling
+@RequiredArgsConstructor
+@Slf4j
 public class AsyncConfig {
 
+    private final AsyncProperties asyncProperties;
+    private final MeterRegistry meterRegistry;
+
     /**
      * Task executor for audit logging operations
      */
     @Bean(name = "auditTaskExecutor")
     public Executor auditTaskExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(2);
-        executor.setMaxPoolSize(5);
-        executor.setQueueCapacity(100);
-        executor.setThreadNamePrefix("Audit-");
-        executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy());
-        executor.initialize();
-        return executor;
+        return taskExecutor("auditTaskExecutor", "Audit-", asyncProperties.getAudit());
     }
 
     /**
-     * Task executor for security event logging operations
+     * Task executor for security event logging and pattern monitoring operations
      */
     @Bean(name = "securityTaskExecutor")
     public Executor securityTaskExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(2);
-        executor.setMaxPoolSize(5);
-        executor.setQueueCapacity(100);
-        executor.setThreadNamePrefix("Security-");
-        executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy());
-        executor.initialize();
-        return executor;
+        return taskExecutor("securityTaskExecutor", "Security-", asyncProperties.getSecurity());
     }
 
     /**
@@ -53,13 +64,105 @@ public class AsyncConfig {
      */
     @Bean(name = "cancellationTaskExecutor")
     public Executor cancellationTaskExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(1);
-        executor.setMaxPoolSize(3);
-        executor.setQueueCapacity(50);
-        executor.setThreadNamePrefix("Cancellation-");
-        executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy());
-        executor.initialize();
+        return taskExecutor("cancellationTaskExecutor", "Cancellation-", asyncProperties.getCancellation());
+    }
+
+    private AsyncTaskExecutor taskExecutor(String name, String threadNamePrefix, AsyncProperties.Executor settings) {
+        if (Boolean.TRUE.equals(asyncProperties.getVirtualThreads())) {
+            return virtualThreadExecutor(name, threadNamePrefix, settings, meterRegistry);
+        }
+        return threadPoolExecutor(name, threadNamePrefix, settings, meterRegistry);
+    }
+
+    /**
+     * Create a bounded platform-thread pool. When it is saturated, tasks run on the caller's thread
+     * and are counted as rejected. The pool is created when Spring initializes the bean, and its metrics
+     * are bound to that pool.
+     */
+    static ThreadPoolTaskExecutor threadPoolExecutor(String name, String threadNamePrefix,
+                                                     AsyncProperties.Executor settings, MeterRegistry meterRegistry) {
+        Counter rejected = rejectedCounter(name, meterRegistry);
+
+        ThreadPoolTaskExecutor executor = new MeteredThreadPoolTaskExecutor(name, meterRegistry);
+        executor.setCorePoolSize(settings.getCoreSize());
+        executor.setMaxPoolSize(settings.getMaxSize());
+        executor.setQueueCapacity(settings.getQueueCapacity());
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            rejected.increment();
+            log.debug("Executor {} saturated, running task on caller thread", name);
+            if (!pool.isShutdown()) {
+                task.run();
+            }
+        });
+        executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+        return executor;
+    }
+
+    /**
+     * Create an executor that starts a virtual thread per task, optionally with a concurrency limit.
+     * There is no queue to saturate; active tasks are published as {@code executor.active}.
+     */
+    static SimpleAsyncTaskExecutor virtualThreadExecutor(String name, String threadNamePrefix,
+                                                         AsyncProperties.Executor settings, MeterRegistry meterRegistry) {
+        AtomicInteger active = new AtomicInteger();
+        Gauge.builder("executor.active", active, AtomicInteger::get)
+                .description("The approximate number of threads that are actively executing tasks")
+                .tag("name", name)
+                .register(meterRegistry);
+        Counter completed = Counter.builder("executor.completed")
+                .description("The approximate total number of tasks that have completed execution")
+                .tag("name", name)
+                .register(meterRegistry);
+        rejectedCounter(name, meterRegistry);
+
+        TaskDecorator contextDecorator = new ContextPropagatingTaskDecorator();
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(settings.getConcurrencyLimit());
+        executor.setTaskDecorator(runnable -> {
+            Runnable task = contextDecorator.decorate(runnable);
+            return () -> {
+                active.incrementAndGet();
+                try {
+                    task.run();
+                } finally {
+                    active.decrementAndGet();
+                    completed.increment();
+                }
+            };
+        });
         return executor;
     }
-}
\ No newline at end of file
+
+    /**
+     * Thread pool that binds executor metrics to the pool it creates on initialization
+     */
+    private static class MeteredThreadPoolTaskExecutor extends ThreadPoolTaskExecutor {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String name;
+        private final transient MeterRegistry meterRegistry;
+
+        MeteredThreadPoolTaskExecutor(String name, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.meterRegistry = meterRegistry;
+        }
+
+        @Override
+        protected ExecutorService initializeExecutor(ThreadFactory threadFactory,
+                                                     RejectedExecutionHandler rejectedExecutionHandler) {
+            ExecutorService executorService = super.initializeExecutor(threadFactory, rejectedExecutionHandler);
+            new ExecutorServiceMetrics(executorService, name, Tags.empty()).bindTo(meterRegistry);
+            return executorService;
+        }
+    }
+
+    private static Counter rejectedCounter(String name, MeterRegistry meterRegistry) {
+        return Counter.builder("executor.rejected")
+                .description("Tasks run on the caller's thread because the executor was saturated")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,42 @@
+package com.officemate.config;
+
+import com.officemate.shared.context.AuditContext;
+import org.slf4j.MDC;
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.Map;
+
+/**
+ * Task decorator that carries the submitting thread's {@link AuditContext} and MDC to the
+ * executor thread, and restores the executor thread's own state when the task ends.
+ * Pooled threads therefore never see the context or MDC entries of an earlier task.
+ */
+public class ContextPropagatingTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        AuditContext context = AuditContext.peek();
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+
+        return () -> {
+            AuditContext previousContext = AuditContext.peek();
+            Map<String, String> previousMdc = MDC.getCopyOfContextMap();
+            AuditContext.set(context);
+            setMdc(mdc);
+            try {
+                runnable.run();
+            } finally {
+                AuditContext.set(previousContext);
+                setMdc(previousMdc);
+            }
+        };
+    }
+
+    private static void setMdc(Map<String, String> contextMap) {
+        if (contextMap != null) {
+            MDC.setContextMap(contextMap);
+        } else {
+            MDC.clear();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.officemate.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.jedis.JedisClientConfiguration;
+import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.util.Pool;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+
+/**
+ * Jedis connection factory that publishes its pool state to Micrometer, tagged with the pool name.
+ * {@code redis.pool.wait} times every connection checkout, including connections created on demand,
+ * with outcome {@code acquired} or {@code failed} (pool exhausted or Redis unreachable). Gauges report
+ * active, idle and maximum connections and the number of threads waiting for one.
+ * The pool is filled to its minimum idle size on startup, so a burst of early requests does not
+ * open connections concurrently.
+ */
+@Slf4j
+public class InstrumentedJedisConnectionFactory extends JedisConnectionFactory {
+
+    private final String poolName;
+    private final Timer acquiredTimer;
+    private final Timer failedTimer;
+    // Gauges read the pool through this holder, so the constructor does not hand out this
+    private final PoolHolder poolHolder = new PoolHolder();
+
+    /**
+     * Create a factory.
+     *
+     * @param standaloneConfig Redis server settings
+     * @param clientConfig client settings, including the pool configuration
+     * @param poolName name of the pool in metrics and in Redis CLIENT LIST
+     * @param meterRegistry registry for the pool metrics
+     */
+    public InstrumentedJedisConnectionFactory(RedisStandaloneConfiguration standaloneConfig,
+                                              JedisClientConfiguration clientConfig,
+                                              String poolName, MeterRegistry meterRegistry) {
+        super(standaloneConfig, clientConfig);
+        this.poolName = poolName;
+        this.acquiredTimer = waitTimer(poolName, "acquired", meterRegistry);
+        this.failedTimer = waitTimer(poolName, "failed", meterRegistry);
+        gauge(poolHolder, poolName, "redis.pool.active", "Connections checked out of the pool",
+                GenericObjectPool::getNumActive, meterRegistry);
+        gauge(poolHolder, poolName, "redis.pool.idle", "Idle connections in the pool",
+                GenericObjectPool::getNumIdle, meterRegistry);
+        gauge(poolHolder, poolName, "redis.pool.max", "Maximum connections in the pool",
+                GenericObjectPool::getMaxTotal, meterRegistry);
+        gauge(poolHolder, poolName, "redis.pool.waiters", "Threads waiting for a connection",
+                GenericObjectPool::getNumWaiters, meterRegistry);
+    }
+
+    @Override
+    protected Pool<Jedis> createRedisPool() {
+        Pool<Jedis> created = super.createRedisPool();
+        poolHolder.pool = created;
+        try {
+            created.preparePool();
+        } catch (Exception e) {
+            log.warn("Could not open {} idle connections for Redis pool {}: {}",
+                    created.getMinIdle(), poolName, e.getMessage());
+        }
+        return created;
+    }
+
+    @Override
+    protected Jedis fetchJedisConnector() {
+        long start = System.nanoTime();
+        try {
+            Jedis jedis = super.fetchJedisConnector();
+            acquiredTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return jedis;
+        } catch (RuntimeException e) {
+            failedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    public String getPoolName() {
+        return poolName;
+    }
+
+    private static Timer waitTimer(String poolName, String outcome, MeterRegistry meterRegistry) {
+        return Timer.builder("redis.pool.wait")
+                .description("Time to check a connection out of the Redis pool")
+                .tag("pool", poolName)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static void gauge(PoolHolder poolHolder, String poolName, String name, String description,
+                              ToIntFunction<GenericObjectPool<Jedis>> value, MeterRegistry meterRegistry) {
+        Gauge.builder(name, poolHolder, holder -> {
+                    GenericObjectPool<Jedis> current = holder.pool;
+                    return current == null || current.isClosed() ? 0 : value.applyAsInt(current);
+                })
+                .description(description)
+                .tag("pool", poolName)
+                .register(meterRegistry);
+    }
+
+    /**
+     * The pool created by {@link #createRedisPool()}, replaced when the factory is restarted
+     */
+    private static final class PoolHolder {
+        private volatile GenericObjectPool<Jedis> pool;
+    }
+}
@@ -6,14 +6,22 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import io.jsonwebtoken.security.Keys;
 import jakarta.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
 import java.security.*;
 import java.security.spec.InvalidKeySpecException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Configuration properties for JWT token generation and validation.
  * Reads values from application.yml under app.security.jwt
- * Supports both HMAC (secret) and RSA (key pair) signing methods.
+ * Supports both HMAC (secret) and RSA (key pair) signing methods,
+ * plus an optional keyring of kid-tagged keys for zero-downtime rotation.
  */
 @Configuration
 @ConfigurationProperties(prefix = "app.security.jwt")
@@ -57,6 +65,17 @@ public class JwtConfig {
      */
     private String issuer = "officemate";
     
+    /**
+     * Optional kid for the single configured key (derived from key material if not set)
+     */
+    private String keyId;
+    
+    /**
+     * Keyring of kid-tagged keys. The newest key with signing material signs new tokens;
+     * all keys verify tokens carrying their kid until their not-after time.
+     */
+    private List<KeyEntry> keys = new ArrayList<>();
+    
     // Decoded key objects
     private PrivateKey privateKey;
     private PublicKey publicKey;
@@ -73,7 +92,7 @@ public class JwtConfig {
                 this.privateKey = RsaKeyUtil.decodePrivateKey(rsaPrivateKey);
                 this.publicKey = RsaKeyUtil.decodePublicKey(rsaPublicKey);
                 log.info("Loaded RSA keys from configuration");
-            } else if ("RS256".equals(algorithm)) {
+            } else if ("RS256".equals(algorithm) && keys.isEmpty()) {
                 // Generate new RSA key pair
                 KeyPair keyPair = RsaKeyUtil.generateKeyPair();
                 this.privateKey = keyPair.getPrivate();
@@ -86,6 +105,8 @@ public class JwtConfig {
             } else {
                 log.info("Using HMAC-SHA256 with secret key for JWT signing");
             }
+            
+            initKeyring();
         } catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
             log.error("Failed to initialize RSA keys", e);
             throw new RuntimeException("Failed to initialize JWT configuration", e);
@@ -100,4 +121,101 @@ public class JwtConfig {
     public boolean isRsaEnabled() {
         return "RS256".equals(algorithm) && privateKey != null && publicKey != null;
     }
+    
+    /**
+     * Decode and validate keyring entries.
+     *
+     * @throws NoSuchAlgorithmException if RSA algorithm is not available
+     * @throws InvalidKeySpecException if an RSA key cannot be decoded
+     */
+    private void initKeyring() throws NoSuchAlgorithmException, InvalidKeySpecException {
+        Set<String> keyIds = new HashSet<>();
+        for (KeyEntry entry : keys) {
+            if (entry.getKid() == null || entry.getKid().isBlank()) {
+                throw new IllegalStateException("JWT keyring entry is missing a kid");
+            }
+            if (!keyIds.add(entry.getKid())) {
+                throw new IllegalStateException("Duplicate JWT key id: " + entry.getKid());
+            }
+            
+            if (entry.getRsaPublicKey() != null) {
+                entry.setVerificationKey(RsaKeyUtil.decodePublicKey(entry.getRsaPublicKey()));
+                if (entry.getRsaPrivateKey() != null) {
+                    entry.setSigningKey(RsaKeyUtil.decodePrivateKey(entry.getRsaPrivateKey()));
+                }
+            } else if (entry.getSecret() != null) {
+                Key key = Keys.hmacShaKeyFor(entry.getSecret().getBytes(StandardCharsets.UTF_8));
+                entry.setVerificationKey(key);
+                entry.setSigningKey(key);
+            } else {
+                throw new IllegalStateException("JWT key " + entry.getKid() + " has no key material");
+            }
+        }
+        
+        if (!keys.isEmpty()) {
+            log.info("Loaded JWT keyring with {} keys", keys.size());
+        }
+    }
+    
+    /**
+     * Kid-tagged key in the JWT keyring.
+     * Either an RSA key pair (public key only for verify-only keys) or an HMAC secret.
+     */
+    @Data
+    public static class KeyEntry {
+        
+        /**
+         * Key identifier written to the kid header
+         */
+        private String kid;
+        
+        /**
+         * HMAC secret for this key
+         */
+        private String secret;
+        
+        /**
+         * Base64 encoded RSA private key (omit for verify-only keys)
+         */
+        private String rsaPrivateKey;
+        
+        /**
+         * Base64 encoded RSA public key
+         */
+        private String rsaPublicKey;
+        
+        /**
+         * When the key was created; the newest signing-capable key signs new tokens
+         */
+        private Instant createdAt;
+        
+        /**
+         * After this time the key is no longer accepted for verification.
+         * Should be at least the last signing time plus the refresh token lifetime.
+         */
+        private Instant notAfter;
+        
+        // Decoded key objects
+        private Key signingKey;
+        private Key verificationKey;
+        
+        /**
+         * Check if the key can sign new tokens.
+         *
+         * @return true if signing material is present
+         */
+        public boolean canSign() {
+            return signingKey != null;
+        }
+        
+        /**
+         * Check if the key has aged out.
+         *
+         * @param now current time
+         * @return true if past the not-after time
+         */
+        public boolean isExpired(Instant now) {
+            return notAfter != null && !now.isBefore(notAfter);
+        }
+    }
 }
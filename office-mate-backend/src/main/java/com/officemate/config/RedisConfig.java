@@ -1,24 +1,42 @@
 package com.officemate.config;
 
+import com.officemate.config.properties.RedisPoolProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.jedis.JedisClientConfiguration;
 import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.repository.configuration.EnableRedisRepositories;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import redis.clients.jedis.JedisPoolConfig;
+
+import java.time.Duration;
 
 /**
  * Redis configuration for OTP storage, session management, and caching.
- * Enables Spring Data Redis repositories and configures connection factory.
+ * Enables Spring Data Redis repositories and configures one Jedis pool per workload class:
+ * {@code interactive} (primary) for the request path, and {@code background} for async analysis and
+ * the pub/sub subscription, which holds a connection for as long as it is subscribed. Slow background
+ * work therefore cannot exhaust the connections requests wait on. Pools are sized under
+ * {@code app.redis.pools.*} and publish {@code redis.pool.*} metrics.
  */
 @Configuration
 @EnableRedisRepositories(basePackages = "com.officemate.modules.auth.repository")
+@RequiredArgsConstructor
 public class RedisConfig {
 
+    private final RedisPoolProperties redisPoolProperties;
+    private final MeterRegistry meterRegistry;
+
     @Value("${spring.data.redis.host:localhost}")
     private String redisHost;
 
@@ -31,26 +49,31 @@ public class RedisConfig {
     @Value("${spring.data.redis.database:0}")
     private int redisDatabase;
 
+    @Value("${spring.data.redis.timeout:2000}")
+    private long redisTimeoutMs;
+
+    @Value("${spring.data.redis.ssl.enabled:false}")
+    private boolean redisSsl;
+
     /**
-     * Configure Redis connection factory using Jedis.
+     * Configure the Redis connection factory for the request path.
      *
      * @return RedisConnectionFactory
      */
     @Bean
+    @Primary
     public RedisConnectionFactory redisConnectionFactory() {
-        RedisStandaloneConfiguration config = new RedisStandaloneConfiguration();
-        config.setHostName(redisHost);
-        config.setPort(redisPort);
-        config.setDatabase(redisDatabase);
-        
-        if (redisPassword != null && !redisPassword.isEmpty()) {
-            config.setPassword(redisPassword);
-        }
+        return connectionFactory("interactive", redisPoolProperties.getInteractive());
+    }
 
-        JedisConnectionFactory jedisConnectionFactory = new JedisConnectionFactory(config);
-        jedisConnectionFactory.afterPropertiesSet();
-        
-        return jedisConnectionFactory;
+    /**
+     * Configure the Redis connection factory for background work and pub/sub.
+     *
+     * @return RedisConnectionFactory
+     */
+    @Bean
+    public RedisConnectionFactory backgroundRedisConnectionFactory() {
+        return connectionFactory("background", redisPoolProperties.getBackground());
     }
 
     /**
@@ -61,20 +84,21 @@ public class RedisConfig {
      * @return configured RedisTemplate
      */
     @Bean
+    @Primary
     public RedisTemplate<String, String> redisTemplate(RedisConnectionFactory connectionFactory) {
-        RedisTemplate<String, String> template = new RedisTemplate<>();
-        template.setConnectionFactory(connectionFactory);
-        
-        // Use String serializer for keys
-        template.setKeySerializer(new StringRedisSerializer());
-        template.setHashKeySerializer(new StringRedisSerializer());
-        
-        // Use String serializer for values (for rate limiting counters)
-        template.setValueSerializer(new StringRedisSerializer());
-        template.setHashValueSerializer(new StringRedisSerializer());
-        
-        template.afterPropertiesSet();
-        return template;
+        return stringTemplate(connectionFactory);
+    }
+
+    /**
+     * Configure RedisTemplate for string operations on the background pool.
+     *
+     * @param connectionFactory the background Redis connection factory
+     * @return configured RedisTemplate
+     */
+    @Bean
+    public RedisTemplate<String, String> backgroundRedisTemplate(
+            @Qualifier("backgroundRedisConnectionFactory") RedisConnectionFactory connectionFactory) {
+        return stringTemplate(connectionFactory);
     }
 
     /**
@@ -100,4 +124,69 @@ public class RedisConfig {
         template.afterPropertiesSet();
         return template;
     }
+
+    /**
+     * Configure the listener container for Redis pub/sub and keyspace notifications.
+     * Subscribes lazily, so no connection is held until a listener is registered.
+     * Uses the background pool, since each subscription holds its connection.
+     *
+     * @param connectionFactory the Redis connection factory
+     * @return message listener container
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(
+            @Qualifier("backgroundRedisConnectionFactory") RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
+    private RedisConnectionFactory connectionFactory(String poolName, RedisPoolProperties.Pool settings) {
+        RedisStandaloneConfiguration config = new RedisStandaloneConfiguration();
+        config.setHostName(redisHost);
+        config.setPort(redisPort);
+        config.setDatabase(redisDatabase);
+
+        if (redisPassword != null && !redisPassword.isEmpty()) {
+            config.setPassword(redisPassword);
+        }
+
+        JedisPoolConfig poolConfig = new JedisPoolConfig();
+        poolConfig.setMaxTotal(settings.getMaxTotal());
+        poolConfig.setMaxIdle(settings.getMaxIdle());
+        poolConfig.setMinIdle(settings.getMinIdle());
+        poolConfig.setMaxWait(Duration.ofMillis(settings.getMaxWaitMs()));
+
+        Duration timeout = Duration.ofMillis(redisTimeoutMs);
+        JedisClientConfiguration.JedisClientConfigurationBuilder clientConfig = JedisClientConfiguration.builder()
+                .clientName("officemate-" + poolName)
+                .connectTimeout(timeout)
+                .readTimeout(timeout);
+        if (redisSsl) {
+            clientConfig.useSsl();
+        }
+        clientConfig.usePooling().poolConfig(poolConfig);
+
+        JedisConnectionFactory jedisConnectionFactory =
+                new InstrumentedJedisConnectionFactory(config, clientConfig.build(), poolName, meterRegistry);
+        jedisConnectionFactory.afterPropertiesSet();
+
+        return jedisConnectionFactory;
+    }
+
+    private RedisTemplate<String, String> stringTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, String> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+
+        // Use String serializer for keys
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setHashKeySerializer(new StringRedisSerializer());
+
+        // Use String serializer for values (for rate limiting counters)
+        template.setValueSerializer(new StringRedisSerializer());
+        template.setHashValueSerializer(new StringRedisSerializer());
+
+        template.afterPropertiesSet();
+        return template;
+    }
 }
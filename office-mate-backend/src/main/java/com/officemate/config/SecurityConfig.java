@@ -2,6 +2,7 @@ package com.officemate.config;
 
 import com.officemate.config.security.CustomAccessDeniedHandler;
 import com.officemate.config.security.CustomAuthenticationEntryPoint;
+import com.officemate.config.security.AuditContextFilter;
 import com.officemate.config.security.InputSanitizationFilter;
 import com.officemate.config.security.JwtAuthenticationFilter;
 import com.officemate.config.security.RateLimitingFilter;
@@ -37,6 +38,7 @@ public class SecurityConfig {
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
     private final RateLimitingFilter rateLimitingFilter;
     private final InputSanitizationFilter inputSanitizationFilter;
+    private final AuditContextFilter auditContextFilter;
     private final CorsConfigurationSource corsConfigurationSource;
     private final CustomAuthenticationEntryPoint authenticationEntryPoint;
     private final CustomAccessDeniedHandler accessDeniedHandler;
@@ -103,6 +105,9 @@ public class SecurityConfig {
                 // JWT authentication filter runs after rate limiting
                 .addFilterAfter(jwtAuthenticationFilter, rateLimitingFilter.getClass())
                 
+                // Audit context is captured once the session ID is known
+                .addFilterAfter(auditContextFilter, jwtAuthenticationFilter.getClass())
+                
                 // Configure security headers
                 .headers(headers -> headers
                         .contentTypeOptions(contentType -> {})
@@ -0,0 +1,103 @@
+package com.officemate.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier thread, e.g. while blocking inside a
+ * {@code synchronized} block or {@code Object.wait()}. Pinned virtual threads hold a carrier for the
+ * whole blocking call, so under load they can starve every other virtual thread.
+ * Pinning events from JFR above {@code threshold-ms} are recorded in the {@code jvm.threads.virtual.pinned}
+ * timer, tagged with the first application or library frame of the pinned stack. The full stack is logged
+ * the first time a frame is seen.
+ */
+@Component
+@ConditionalOnProperty(name = "app.virtual-threads.pinning.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String UNKNOWN_FRAME = "unknown";
+
+    private final MeterRegistry meterRegistry;
+    private final Set<String> reportedFrames = ConcurrentHashMap.newKeySet();
+    private RecordingStream stream;
+
+    @Value("${app.virtual-threads.pinning.threshold-ms:20}")
+    private long thresholdMs;
+
+    @PostConstruct
+    public void init() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(thresholdMs)).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("Virtual thread pinning monitor started (threshold: {} ms)", thresholdMs);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        List<String> frames = event.getStackTrace() == null ? List.of()
+                : event.getStackTrace().getFrames().stream().map(VirtualThreadPinningMonitor::describe).toList();
+        record(event.getDuration(), frames);
+    }
+
+    /**
+     * Record one pinning event.
+     *
+     * @param duration how long the virtual thread was pinned
+     * @param frames the pinned stack, innermost frame first, as {@code Class.method:line}
+     */
+    void record(Duration duration, List<String> frames) {
+        String frame = pinningFrame(frames);
+        Timer.builder("jvm.threads.virtual.pinned")
+                .description("Time virtual threads spent blocked while pinned to their carrier thread")
+                .tag("frame", frame)
+                .register(meterRegistry)
+                .record(duration);
+
+        if (reportedFrames.add(frame)) {
+            log.warn("Virtual thread pinned for {} ms at {}:\n\tat {}",
+                    duration.toMillis(), frame, String.join("\n\tat ", frames));
+        }
+    }
+
+    /**
+     * Find the frame responsible for pinning: the innermost frame outside the JDK, without its line number.
+     */
+    static String pinningFrame(List<String> frames) {
+        for (String frame : frames) {
+            if (!frame.startsWith("java.") && !frame.startsWith("jdk.") && !frame.startsWith("sun.")) {
+                int line = frame.lastIndexOf(':');
+                return line < 0 ? frame : frame.substring(0, line);
+            }
+        }
+        return UNKNOWN_FRAME;
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
@@ -0,0 +1,33 @@
+package com.officemate.config.properties;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.async")
+public class AsyncProperties {
+    /**
+     * Run each task on its own virtual thread instead of a bounded platform-thread pool
+     */
+    private Boolean virtualThreads = false;
+    private Executor audit = new Executor(2, 5, 100, -1);
+    private Executor security = new Executor(2, 5, 100, -1);
+    private Executor cancellation = new Executor(1, 3, 50, -1);
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Executor {
+        private Integer coreSize;
+        private Integer maxSize;
+        private Integer queueCapacity;
+        /**
+         * Maximum concurrent tasks in virtual-thread mode, -1 for no limit
+         */
+        private Integer concurrencyLimit;
+    }
+}
@@ -0,0 +1,34 @@
+package com.officemate.config.properties;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.redis.pools")
+public class RedisPoolProperties {
+    /**
+     * Connections for the request path: rate limiting, sessions, tokens, OTPs and CAPTCHA
+     */
+    private Pool interactive = new Pool(32, 32, 8, 500L);
+    /**
+     * Connections for async analysis and pub/sub; a keyspace subscription holds one permanently
+     */
+    private Pool background = new Pool(8, 8, 1, 2000L);
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Pool {
+        private Integer maxTotal;
+        private Integer maxIdle;
+        private Integer minIdle;
+        /**
+         * Longest time to wait for a free connection before failing, -1 to wait indefinitely
+         */
+        private Long maxWaitMs;
+    }
+}
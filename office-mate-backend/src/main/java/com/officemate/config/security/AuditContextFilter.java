@@ -0,0 +1,40 @@
+package com.officemate.config.security;
+
+import com.officemate.shared.context.AuditContext;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Filter that captures the request's {@link AuditContext} once, after JWT authentication,
+ * and binds it to the request thread for the rest of the chain.
+ * The previously bound context is restored afterwards, so pooled request threads never keep
+ * the context of an earlier request.
+ */
+@Component
+public class AuditContextFilter implements Filter {
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+
+        if (!(request instanceof HttpServletRequest httpRequest)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        AuditContext previous = AuditContext.peek();
+        AuditContext.set(AuditContext.from(httpRequest));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            AuditContext.set(previous);
+        }
+    }
+}
@@ -1,8 +1,9 @@
 package com.officemate.config.security;
 
 import com.officemate.shared.service.SecurityEventService;
-import lombok.RequiredArgsConstructor;
+import com.officemate.shared.util.RedisBatch;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.scheduling.annotation.Async;
@@ -17,9 +18,9 @@ import java.util.concurrent.TimeUnit;
 /**
  * Service for monitoring unusual authentication patterns and detecting suspicious behavior.
  * Tracks login patterns, device changes, location changes, and timing anomalies.
+ * Runs on the background Redis pool, so analysis never holds connections the request path needs.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class AuthenticationPatternMonitoringService {
 
@@ -27,6 +28,14 @@ public class AuthenticationPatternMonitoringService {
     private final SecurityEventService securityEventService;
     private final RateLimitingService rateLimitingService;
 
+    public AuthenticationPatternMonitoringService(
+            @Qualifier("backgroundRedisTemplate") RedisTemplate<String, String> redisTemplate,
+            SecurityEventService securityEventService, RateLimitingService rateLimitingService) {
+        this.redisTemplate = redisTemplate;
+        this.securityEventService = securityEventService;
+        this.rateLimitingService = rateLimitingService;
+    }
+
     @Value("${app.security.pattern-monitoring.enabled:true}")
     private boolean patternMonitoringEnabled;
 
@@ -47,6 +56,7 @@ public class AuthenticationPatternMonitoringService {
 
     /**
      * Analyze authentication attempt for unusual patterns.
+     * History is read in one pipelined round trip and updated in a second.
      *
      * @param userId user ID
      * @param phoneNumber phone number
@@ -55,7 +65,7 @@ public class AuthenticationPatternMonitoringService {
      * @param deviceInfo device information
      * @return analysis result with risk score and recommendations
      */
-    @Async
+    @Async("securityTaskExecutor")
     public void analyzeAuthenticationPattern(String userId, String phoneNumber, String ipAddress, 
                                            String userAgent, Map<String, String> deviceInfo) {
         if (!patternMonitoringEnabled) {
@@ -64,23 +74,54 @@ public class AuthenticationPatternMonitoringService {
 
         try {
             LocalDateTime now = LocalDateTime.now();
+            String hour = String.valueOf(now.getHour());
+            String deviceFingerprint = createDeviceFingerprint(userAgent, deviceInfo);
+            String locationIndicator = getLocationIndicator(ipAddress);
+
+            String timePatternKey = TIME_PATTERN_PREFIX + userId;
+            String deviceHistoryKey = DEVICE_HISTORY_PREFIX + userId;
+            String locationHistoryKey = LOCATION_HISTORY_PREFIX + userId;
+            String velocityKey = VELOCITY_CHECK_PREFIX + userId;
+
+            RedisBatch history = new RedisBatch();
+            RedisBatch.Reply<Set<String>> loginHours = history.sMembers(timePatternKey);
+            RedisBatch.Reply<Set<String>> knownDevices = history.sMembers(deviceHistoryKey);
+            RedisBatch.Reply<Set<String>> knownLocations = history.sMembers(locationHistoryKey);
+            RedisBatch.Reply<Long> attemptCount = history.incr(velocityKey);
+            history.execute(redisTemplate);
+
             int riskScore = 0;
             List<String> suspiciousIndicators = new ArrayList<>();
 
             // Analyze time-based patterns
-            riskScore += analyzeTimePattern(userId, now, suspiciousIndicators);
+            riskScore += analyzeTimePattern(now.getHour(), loginHours.get(), suspiciousIndicators);
 
             // Analyze device patterns
-            riskScore += analyzeDevicePattern(userId, userAgent, deviceInfo, suspiciousIndicators);
+            riskScore += analyzeDevicePattern(deviceFingerprint, knownDevices.get(), suspiciousIndicators);
 
             // Analyze location patterns
-            riskScore += analyzeLocationPattern(userId, ipAddress, suspiciousIndicators);
+            riskScore += analyzeLocationPattern(locationIndicator, knownLocations.get(), suspiciousIndicators);
 
             // Analyze velocity (rapid successive attempts)
-            riskScore += analyzeVelocityPattern(userId, ipAddress, suspiciousIndicators);
+            riskScore += analyzeVelocityPattern(attemptCount.get(), suspiciousIndicators);
+
+            // Update history: login hours kept 30 days, devices 90 days, locations 60 days
+            RedisBatch updates = new RedisBatch();
+            updates.sAdd(timePatternKey, hour);
+            updates.expire(timePatternKey, Duration.ofDays(30));
+            updates.sAdd(deviceHistoryKey, deviceFingerprint);
+            updates.expire(deviceHistoryKey, Duration.ofDays(90));
+            updates.sAdd(locationHistoryKey, locationIndicator);
+            updates.expire(locationHistoryKey, Duration.ofDays(60));
+
+            // Set expiry on first attempt (5-minute window)
+            if (attemptCount.get() != null && attemptCount.get() == 1) {
+                updates.expire(velocityKey, Duration.ofMinutes(5));
+            }
 
             // Record the authentication attempt
-            recordAuthenticationAttempt(userId, now, ipAddress, userAgent);
+            recordAuthenticationAttempt(updates, userId, now, ipAddress, userAgent);
+            updates.execute(redisTemplate);
 
             // Take action based on risk score
             if (riskScore >= 8) {
@@ -102,190 +143,113 @@ public class AuthenticationPatternMonitoringService {
     /**
      * Analyze time-based authentication patterns.
      */
-    private int analyzeTimePattern(String userId, LocalDateTime now, List<String> indicators) {
-        try {
-            String timePatternKey = TIME_PATTERN_PREFIX + userId;
-            int hour = now.getHour();
-            int riskScore = 0;
-
-            // Get historical login hours
-            Set<String> loginHours = redisTemplate.opsForSet().members(timePatternKey);
-            
-            if (loginHours != null && !loginHours.isEmpty()) {
-                // Check if current hour is unusual
-                String currentHour = String.valueOf(hour);
-                if (!loginHours.contains(currentHour)) {
-                    // Check if it's significantly different from usual pattern
-                    boolean isUnusualTime = true;
-                    for (String loginHour : loginHours) {
-                        int historicalHour = Integer.parseInt(loginHour);
-                        int timeDiff = Math.abs(hour - historicalHour);
-                        if (timeDiff <= unusualHourThreshold || timeDiff >= (24 - unusualHourThreshold)) {
-                            isUnusualTime = false;
-                            break;
-                        }
-                    }
-                    
-                    if (isUnusualTime) {
-                        riskScore += 2;
-                        indicators.add("UNUSUAL_LOGIN_TIME");
+    private int analyzeTimePattern(int hour, Set<String> loginHours, List<String> indicators) {
+        int riskScore = 0;
+
+        if (loginHours != null && !loginHours.isEmpty()) {
+            // Check if current hour is unusual
+            String currentHour = String.valueOf(hour);
+            if (!loginHours.contains(currentHour)) {
+                // Check if it's significantly different from usual pattern
+                boolean isUnusualTime = true;
+                for (String loginHour : loginHours) {
+                    int historicalHour = Integer.parseInt(loginHour);
+                    int timeDiff = Math.abs(hour - historicalHour);
+                    if (timeDiff <= unusualHourThreshold || timeDiff >= (24 - unusualHourThreshold)) {
+                        isUnusualTime = false;
+                        break;
                     }
                 }
-            }
 
-            // Store current hour (keep last 30 days of data)
-            redisTemplate.opsForSet().add(timePatternKey, String.valueOf(hour));
-            redisTemplate.expire(timePatternKey, Duration.ofDays(30));
-
-            return riskScore;
-
-        } catch (Exception e) {
-            log.error("Error analyzing time pattern for user {}: {}", userId, e.getMessage(), e);
-            return 0;
+                if (isUnusualTime) {
+                    riskScore += 2;
+                    indicators.add("UNUSUAL_LOGIN_TIME");
+                }
+            }
         }
+
+        return riskScore;
     }
 
     /**
      * Analyze device-based authentication patterns.
      */
-    private int analyzeDevicePattern(String userId, String userAgent, Map<String, String> deviceInfo, 
-                                   List<String> indicators) {
-        try {
-            String deviceHistoryKey = DEVICE_HISTORY_PREFIX + userId;
-            int riskScore = 0;
+    private int analyzeDevicePattern(String deviceFingerprint, Set<String> knownDevices, List<String> indicators) {
+        int riskScore = 0;
 
-            // Create device fingerprint
-            String deviceFingerprint = createDeviceFingerprint(userAgent, deviceInfo);
+        if (knownDevices != null && !knownDevices.isEmpty()) {
+            if (!knownDevices.contains(deviceFingerprint)) {
+                riskScore += 3;
+                indicators.add("NEW_DEVICE");
 
-            // Check if device is known
-            Set<String> knownDevices = redisTemplate.opsForSet().members(deviceHistoryKey);
-            
-            if (knownDevices != null && !knownDevices.isEmpty()) {
-                if (!knownDevices.contains(deviceFingerprint)) {
-                    riskScore += 3;
-                    indicators.add("NEW_DEVICE");
-                    
-                    // Check if too many new devices recently
-                    if (knownDevices.size() >= deviceChangeThreshold) {
-                        riskScore += 2;
-                        indicators.add("FREQUENT_DEVICE_CHANGES");
-                    }
+                // Check if too many new devices recently
+                if (knownDevices.size() >= deviceChangeThreshold) {
+                    riskScore += 2;
+                    indicators.add("FREQUENT_DEVICE_CHANGES");
                 }
             }
-
-            // Store device fingerprint (keep last 10 devices)
-            redisTemplate.opsForSet().add(deviceHistoryKey, deviceFingerprint);
-            
-            // Trim to keep only recent devices
-            if (knownDevices != null && knownDevices.size() > 10) {
-                // Remove oldest entries (simplified approach)
-                redisTemplate.expire(deviceHistoryKey, Duration.ofDays(90));
-            } else {
-                redisTemplate.expire(deviceHistoryKey, Duration.ofDays(90));
-            }
-
-            return riskScore;
-
-        } catch (Exception e) {
-            log.error("Error analyzing device pattern for user {}: {}", userId, e.getMessage(), e);
-            return 0;
         }
+
+        return riskScore;
     }
 
     /**
      * Analyze location-based authentication patterns.
      */
-    private int analyzeLocationPattern(String userId, String ipAddress, List<String> indicators) {
-        try {
-            String locationHistoryKey = LOCATION_HISTORY_PREFIX + userId;
-            int riskScore = 0;
+    private int analyzeLocationPattern(String locationIndicator, Set<String> knownLocations, List<String> indicators) {
+        int riskScore = 0;
 
-            // Get IP geolocation (simplified - using IP prefix as location indicator)
-            String locationIndicator = getLocationIndicator(ipAddress);
+        if (knownLocations != null && !knownLocations.isEmpty()) {
+            if (!knownLocations.contains(locationIndicator)) {
+                riskScore += 2;
+                indicators.add("NEW_LOCATION");
 
-            // Check if location is known
-            Set<String> knownLocations = redisTemplate.opsForSet().members(locationHistoryKey);
-            
-            if (knownLocations != null && !knownLocations.isEmpty()) {
-                if (!knownLocations.contains(locationIndicator)) {
-                    riskScore += 2;
-                    indicators.add("NEW_LOCATION");
-                    
-                    // Check if too many location changes
-                    if (knownLocations.size() >= locationChangeThreshold) {
-                        riskScore += 3;
-                        indicators.add("FREQUENT_LOCATION_CHANGES");
-                    }
+                // Check if too many location changes
+                if (knownLocations.size() >= locationChangeThreshold) {
+                    riskScore += 3;
+                    indicators.add("FREQUENT_LOCATION_CHANGES");
                 }
             }
-
-            // Store location indicator
-            redisTemplate.opsForSet().add(locationHistoryKey, locationIndicator);
-            redisTemplate.expire(locationHistoryKey, Duration.ofDays(60));
-
-            return riskScore;
-
-        } catch (Exception e) {
-            log.error("Error analyzing location pattern for user {}: {}", userId, e.getMessage(), e);
-            return 0;
         }
+
+        return riskScore;
     }
 
     /**
      * Analyze velocity patterns (rapid successive attempts).
      */
-    private int analyzeVelocityPattern(String userId, String ipAddress, List<String> indicators) {
-        try {
-            String velocityKey = VELOCITY_CHECK_PREFIX + userId;
-            int riskScore = 0;
-
-            // Check recent authentication attempts
-            Long attemptCount = redisTemplate.opsForValue().increment(velocityKey);
-            
-            if (attemptCount == null) {
-                return 0;
-            }
-
-            // Set expiry on first attempt (5-minute window)
-            if (attemptCount == 1) {
-                redisTemplate.expire(velocityKey, Duration.ofMinutes(5));
-            }
-
-            // Check for rapid attempts
-            if (attemptCount > 3) {
-                riskScore += 4;
-                indicators.add("RAPID_AUTHENTICATION_ATTEMPTS");
-            } else if (attemptCount > 2) {
-                riskScore += 2;
-                indicators.add("MULTIPLE_QUICK_ATTEMPTS");
-            }
+    private int analyzeVelocityPattern(Long attemptCount, List<String> indicators) {
+        if (attemptCount == null) {
+            return 0;
+        }
 
-            return riskScore;
+        int riskScore = 0;
 
-        } catch (Exception e) {
-            log.error("Error analyzing velocity pattern for user {}: {}", userId, e.getMessage(), e);
-            return 0;
+        // Check for rapid attempts
+        if (attemptCount > 3) {
+            riskScore += 4;
+            indicators.add("RAPID_AUTHENTICATION_ATTEMPTS");
+        } else if (attemptCount > 2) {
+            riskScore += 2;
+            indicators.add("MULTIPLE_QUICK_ATTEMPTS");
         }
+
+        return riskScore;
     }
 
     /**
      * Record authentication attempt for pattern analysis.
      */
-    private void recordAuthenticationAttempt(String userId, LocalDateTime timestamp, 
+    private void recordAuthenticationAttempt(RedisBatch updates, String userId, LocalDateTime timestamp,
                                            String ipAddress, String userAgent) {
-        try {
-            String patternKey = LOGIN_PATTERN_PREFIX + userId;
-            String attemptData = timestamp.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) + 
-                               "|" + ipAddress + "|" + userAgent;
-            
-            // Store recent attempts (last 100)
-            redisTemplate.opsForList().leftPush(patternKey, attemptData);
-            redisTemplate.opsForList().trim(patternKey, 0, 99);
-            redisTemplate.expire(patternKey, Duration.ofDays(30));
-
-        } catch (Exception e) {
-            log.error("Error recording authentication attempt for user {}: {}", userId, e.getMessage(), e);
-        }
+        String patternKey = LOGIN_PATTERN_PREFIX + userId;
+        String attemptData = timestamp.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) + 
+                           "|" + ipAddress + "|" + userAgent;
+
+        // Store recent attempts (last 100)
+        updates.lPush(patternKey, attemptData);
+        updates.lTrim(patternKey, 0, 99);
+        updates.expire(patternKey, Duration.ofDays(30));
     }
 
     /**
@@ -407,22 +371,21 @@ public class AuthenticationPatternMonitoringService {
         Map<String, Object> assessment = new HashMap<>();
         
         try {
+            RedisBatch batch = new RedisBatch();
+            RedisBatch.Reply<List<String>> recentAttempts = batch.lRange(LOGIN_PATTERN_PREFIX + userId, 0, 9);
+            RedisBatch.Reply<Long> deviceCount = batch.sCard(DEVICE_HISTORY_PREFIX + userId);
+            RedisBatch.Reply<Long> locationCount = batch.sCard(LOCATION_HISTORY_PREFIX + userId);
+            batch.execute(redisTemplate);
+
             // Get recent authentication patterns
-            String patternKey = LOGIN_PATTERN_PREFIX + userId;
-            List<String> recentAttempts = redisTemplate.opsForList().range(patternKey, 0, 9);
-            
-            assessment.put("recentAttemptCount", recentAttempts != null ? recentAttempts.size() : 0);
+            assessment.put("recentAttemptCount", recentAttempts.get() != null ? recentAttempts.get().size() : 0);
             assessment.put("patternMonitoringEnabled", patternMonitoringEnabled);
             
             // Get device count
-            String deviceHistoryKey = DEVICE_HISTORY_PREFIX + userId;
-            Long deviceCount = redisTemplate.opsForSet().size(deviceHistoryKey);
-            assessment.put("knownDeviceCount", deviceCount != null ? deviceCount : 0);
+            assessment.put("knownDeviceCount", deviceCount.get() != null ? deviceCount.get() : 0);
             
             // Get location count
-            String locationHistoryKey = LOCATION_HISTORY_PREFIX + userId;
-            Long locationCount = redisTemplate.opsForSet().size(locationHistoryKey);
-            assessment.put("knownLocationCount", locationCount != null ? locationCount : 0);
+            assessment.put("knownLocationCount", locationCount.get() != null ? locationCount.get() : 0);
             
         } catch (Exception e) {
             log.error("Error getting risk assessment for user {}: {}", userId, e.getMessage(), e);
@@ -37,7 +37,7 @@ public class CaptchaService {
     private String captchaVerifyUrl;
 
     private static final String CAPTCHA_CHALLENGE_PREFIX = "captcha_challenge:";
-    private static final String CAPTCHA_BYPASS_PREFIX = "captcha_bypass:";
+    static final String CAPTCHA_BYPASS_PREFIX = "captcha_bypass:";
 
     /**
      * Generate a CAPTCHA challenge for a user.
@@ -145,6 +145,15 @@ public class CaptchaService {
         }
     }
 
+    /**
+     * Check if CAPTCHA challenges are enabled.
+     *
+     * @return true if CAPTCHA is enabled in configuration
+     */
+    public boolean isCaptchaEnabled() {
+        return captchaEnabled;
+    }
+
     /**
      * Grant temporary CAPTCHA bypass after successful verification.
      *
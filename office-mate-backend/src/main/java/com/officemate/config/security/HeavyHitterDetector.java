@@ -0,0 +1,254 @@
+package com.officemate.config.security;
+
+import com.officemate.shared.util.CountMinSketch;
+import com.officemate.shared.util.SpaceSavingTopK;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Detects heavy hitters (identifiers with many failed or suspicious attempts) without a Redis key
+ * per identifier. Occurrences are counted locally in count-min sketches, one per {@code bucket-minutes}
+ * of a sliding horizon, and a Space-Saving top-K tracks the most frequent keys between syncs.
+ * The sketches use conservative update and are estimated by summing each row across buckets before
+ * taking the minimum, so a credential-stuffing burst of 100,000 one-off keys promotes almost none of them
+ * at the default width and threshold. Each bucket takes {@code sketch-depth * sketch-width * 4} bytes.
+ * Each sync merges the local top-K into a Redis sorted set shared by all nodes and reads back
+ * the keys that are heavy cluster-wide. Callers only create per-key Redis state for keys whose
+ * estimated count reaches the promotion threshold.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HeavyHitterDetector {
+
+    private static final String GLOBAL_KEY_PREFIX = "heavy_hitters:";
+    private static final long MINUTE_MS = 60000;
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    private final AtomicReference<SpaceSavingTopK> topK = new AtomicReference<>();
+    private volatile Map<String, Long> globalHeavyHitters = Map.of();
+    private AtomicReferenceArray<BucketSketch> sketches;
+
+    @Value("${app.security.heavy-hitters.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.security.heavy-hitters.promotion-threshold:3}")
+    private int promotionThreshold;
+
+    @Value("${app.security.heavy-hitters.horizon-minutes:60}")
+    private int horizonMinutes;
+
+    @Value("${app.security.heavy-hitters.bucket-minutes:15}")
+    private int bucketMinutes;
+
+    @Value("${app.security.heavy-hitters.sketch-depth:4}")
+    private int sketchDepth;
+
+    @Value("${app.security.heavy-hitters.sketch-width:65536}")
+    private int sketchWidth;
+
+    @Value("${app.security.heavy-hitters.top-k:100}")
+    private int topKCapacity;
+
+    @Value("${app.security.heavy-hitters.global-capacity:1000}")
+    private int globalCapacity;
+
+    @PostConstruct
+    public void init() {
+        sketches = new AtomicReferenceArray<>(Math.max(1, (horizonMinutes + bucketMinutes - 1) / bucketMinutes));
+        topK.set(new SpaceSavingTopK(topKCapacity));
+    }
+
+    /**
+     * Count one occurrence of a key.
+     *
+     * @param key the key, e.g. the Redis key the caller would track it under
+     * @return estimated occurrences within the horizon, never lower than the local count
+     */
+    public long record(String key) {
+        if (!enabled) {
+            return 1;
+        }
+
+        long bucket = currentBucket();
+        sketchFor(bucket).addConservative(key, 1);
+        topK.get().offer(key);
+
+        long local = estimate(key, bucket);
+        Long global = globalHeavyHitters.get(key);
+        return global != null ? Math.max(local, global) : local;
+    }
+
+    /**
+     * Check whether an estimated count makes a key a heavy hitter that warrants per-key tracking.
+     * Every key is promoted when detection is disabled.
+     *
+     * @param estimate count returned by {@link #record(String)}
+     * @return true if the key should be tracked individually
+     */
+    public boolean isPromoted(long estimate) {
+        return !enabled || estimate >= promotionThreshold;
+    }
+
+    /**
+     * Get a lower bound of a key's occurrences, for seeding its per-key counter on promotion.
+     * Sketch estimates can overcount, so only the local top-K's guaranteed count since the last sync
+     * and the cluster-wide count from published guaranteed counts are used.
+     *
+     * @param key the key, after {@link #record(String)} counted the current occurrence
+     * @return occurrences counted for certain, at least 1
+     */
+    public long guaranteedCount(String key) {
+        if (!enabled) {
+            return 1;
+        }
+        long local = topK.get().guaranteedCount(key);
+        long global = globalHeavyHitters.getOrDefault(key, 0L);
+        return Math.max(1, Math.max(local, global));
+    }
+
+    /**
+     * Forget the occurrences of a key, e.g. after a successful login clears its failed attempts.
+     * The key's estimate is subtracted from the current minute, which can make colliding keys
+     * undercount by at most their own overestimate.
+     *
+     * @param key the key
+     */
+    public void discount(String key) {
+        if (!enabled) {
+            return;
+        }
+
+        long bucket = currentBucket();
+        long estimate = estimate(key, bucket);
+        if (estimate > 0) {
+            sketchFor(bucket).add(key, (int) -estimate);
+        }
+        if (globalHeavyHitters.containsKey(key)) {
+            redisTemplate.opsForZSet().remove(globalKey(System.currentTimeMillis() / MINUTE_MS), key);
+        }
+    }
+
+    /**
+     * Merge the local top-K into the cluster-wide sorted set and refresh the global heavy hitters.
+     */
+    @Scheduled(fixedDelayString = "${app.security.heavy-hitters.sync-interval-ms:10000}")
+    public void sync() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            long minute = System.currentTimeMillis() / MINUTE_MS;
+            byte[] globalKey = globalKey(minute).getBytes(StandardCharsets.UTF_8);
+            List<SpaceSavingTopK.Entry> entries = topK.getAndSet(new SpaceSavingTopK(topKCapacity)).drain();
+
+            if (!entries.isEmpty()) {
+                redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    publish(connection, globalKey, entries);
+                    return null;
+                });
+            }
+
+            Set<ZSetOperations.TypedTuple<String>> heavy = redisTemplate.opsForZSet()
+                    .rangeByScoreWithScores(globalKey(minute), promotionThreshold, Double.POSITIVE_INFINITY);
+            Map<String, Long> refreshed = new HashMap<>();
+            if (heavy != null) {
+                for (ZSetOperations.TypedTuple<String> tuple : heavy) {
+                    if (tuple.getValue() != null && tuple.getScore() != null) {
+                        refreshed.put(tuple.getValue(), tuple.getScore().longValue());
+                    }
+                }
+            }
+            globalHeavyHitters = refreshed;
+            log.debug("Heavy hitter sync published {} candidates, {} heavy hitters cluster-wide",
+                    entries.size(), refreshed.size());
+        } catch (Exception e) {
+            log.error("Error synchronizing heavy hitters", e);
+        }
+    }
+
+    /**
+     * Get the keys currently known to be heavy hitters across the cluster.
+     *
+     * @return key to estimated count within the current global window
+     */
+    public Map<String, Long> getGlobalHeavyHitters() {
+        return globalHeavyHitters;
+    }
+
+    private void publish(RedisConnection connection, byte[] globalKey, List<SpaceSavingTopK.Entry> entries) {
+        // Publish guaranteed counts only: inherited Space-Saving error must not make keys look heavy
+        for (SpaceSavingTopK.Entry entry : entries) {
+            if (entry.getGuaranteedCount() > 0) {
+                connection.zSetCommands().zIncrBy(globalKey, entry.getGuaranteedCount(),
+                        entry.getKey().getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        // Keep only the heaviest keys so the shared set stays bounded
+        connection.zSetCommands().zRemRange(globalKey, 0, -globalCapacity - 1L);
+        connection.keyCommands().expire(globalKey, TimeUnit.MINUTES.toSeconds(horizonMinutes * 2L));
+    }
+
+    private long currentBucket() {
+        return System.currentTimeMillis() / MINUTE_MS / bucketMinutes;
+    }
+
+    private CountMinSketch sketchFor(long bucket) {
+        int slot = (int) (bucket % sketches.length());
+        while (true) {
+            BucketSketch current = sketches.get(slot);
+            if (current != null && current.bucket() >= bucket) {
+                return current.sketch();
+            }
+            BucketSketch next = new BucketSketch(bucket, new CountMinSketch(sketchDepth, sketchWidth));
+            if (sketches.compareAndSet(slot, current, next)) {
+                return next.sketch();
+            }
+        }
+    }
+
+    /**
+     * Estimate a key's occurrences within the horizon: the minimum over rows of the row's counters
+     * summed across buckets, which is never lower than the true count.
+     */
+    private long estimate(String key, long bucket) {
+        long[] rowTotals = new long[sketchDepth];
+        for (int slot = 0; slot < sketches.length(); slot++) {
+            BucketSketch sketch = sketches.get(slot);
+            if (sketch != null && sketch.bucket() > bucket - sketches.length()) {
+                sketch.sketch().addRowCounts(key, rowTotals);
+            }
+        }
+        long total = Long.MAX_VALUE;
+        for (long rowTotal : rowTotals) {
+            total = Math.min(total, rowTotal);
+        }
+        return Math.max(0, total);
+    }
+
+    private String globalKey(long minute) {
+        return GLOBAL_KEY_PREFIX + (minute / horizonMinutes);
+    }
+
+    private record BucketSketch(long bucket, CountMinSketch sketch) {
+    }
+}
@@ -1,44 +1,151 @@
 package com.officemate.config.security;
 
+import com.officemate.modules.auth.service.SessionManagementService;
+import com.officemate.shared.dto.TokenValidation;
+import com.officemate.shared.enums.Permission;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * JWT Authentication Filter for processing JWT tokens in requests.
- * This is a placeholder implementation for the JWT authentication system.
+ * Validates bearer access tokens, populates the SecurityContext and exposes
+ * the permission bitmask as a request attribute for {@link VerificationAspect}.
+ * Verified claims are cached per token so repeat requests skip signature verification.
  */
 @Component
+@RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
-    
+
     private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
-    
+
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String ACCESS_TOKEN_TYPE = "ACCESS";
+
+    /**
+     * Request attribute holding the permission bitmask of the authenticated token
+     */
+    public static final String PERMISSIONS_ATTRIBUTE = "permissions";
+
+    /**
+     * Granted authorities for every permission mask, indexed by mask
+     */
+    private static final List<List<SimpleGrantedAuthority>> AUTHORITIES = buildAuthorities();
+
+    private final SessionManagementService sessionManagementService;
+    private final TokenValidationCache tokenValidationCache;
+
     @Override
-    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
                                    FilterChain filterChain) throws ServletException, IOException {
-        
+
         // Extract JWT token from Authorization header
         String authHeader = request.getHeader("Authorization");
-        
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String token = authHeader.substring(7);
+
+        if (authHeader != null && authHeader.startsWith(BEARER_PREFIX)
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String token = authHeader.substring(BEARER_PREFIX.length());
             log.debug("JWT token found in request: {}", token.substring(0, Math.min(token.length(), 20)) + "...");
-            
-            // TODO: Implement JWT token validation and authentication
-            // This would typically involve:
-            // 1. Validating the token signature
-            // 2. Checking token expiration
-            // 3. Extracting user information
-            // 4. Setting authentication in SecurityContext
+
+            TokenValidation validation = resolveValidation(token);
+            if (validation != null) {
+                authenticate(request, validation);
+            }
         }
-        
+
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    /**
+     * Resolve a verified access token, using the claims cache when possible.
+     * Cached tokens still go through the revocation check.
+     *
+     * @param token the raw JWT token
+     * @return validation result, or null if the token cannot authenticate the request
+     */
+    private TokenValidation resolveValidation(String token) {
+        try {
+            TokenValidation cached = tokenValidationCache.get(token);
+            if (cached != null) {
+                if (sessionManagementService.isTokenRevoked(cached.getTokenId())) {
+                    log.warn("Cached token {} has been revoked", cached.getTokenId());
+                    tokenValidationCache.invalidate(token);
+                    return null;
+                }
+                return cached;
+            }
+
+            TokenValidation validation = sessionManagementService.validateToken(token);
+            if (!validation.isValid()) {
+                log.debug("JWT token rejected: {}", validation.getErrorMessage());
+                return null;
+            }
+
+            if (!ACCESS_TOKEN_TYPE.equals(validation.getTokenType())) {
+                log.debug("Non-access token presented as bearer credential");
+                return null;
+            }
+
+            tokenValidationCache.put(token, validation);
+            return validation;
+        } catch (Exception e) {
+            log.error("JWT authentication failed", e);
+            return null;
+        }
+    }
+
+    /**
+     * Populate the SecurityContext and verification request attributes.
+     *
+     * @param request the current request
+     * @param validation the verified token
+     */
+    private void authenticate(HttpServletRequest request, TokenValidation validation) {
+        int permissions = validation.getPermissions();
+        List<SimpleGrantedAuthority> authorities = permissions >= 0 && permissions < AUTHORITIES.size()
+                ? AUTHORITIES.get(permissions)
+                : toAuthorities(permissions);
+
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken(validation.getUserId(), null, authorities);
+
+        Map<String, Object> details = new HashMap<>();
+        details.put("sessionId", validation.getSessionId());
+        details.put("tokenId", validation.getTokenId());
+        authentication.setDetails(details);
+
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+
+        request.setAttribute("userId", validation.getUserId());
+        request.setAttribute("sessionId", validation.getSessionId());
+        request.setAttribute(PERMISSIONS_ATTRIBUTE, permissions);
+    }
+
+    private static List<List<SimpleGrantedAuthority>> buildAuthorities() {
+        int combinations = 1 << Permission.values().length;
+        List<List<SimpleGrantedAuthority>> authorities = new ArrayList<>(combinations);
+        for (int permissions = 0; permissions < combinations; permissions++) {
+            authorities.add(toAuthorities(permissions));
+        }
+        return List.copyOf(authorities);
+    }
+
+    private static List<SimpleGrantedAuthority> toAuthorities(int permissions) {
+        return Permission.toNames(permissions).stream().map(SimpleGrantedAuthority::new).toList();
+    }
+}
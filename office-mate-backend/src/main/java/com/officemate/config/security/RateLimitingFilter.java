@@ -1,5 +1,6 @@
 package com.officemate.config.security;
 
+import com.officemate.shared.util.CountMinSketch;
 import jakarta.servlet.Filter;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.FilterConfig;
@@ -8,43 +9,66 @@ import jakarta.servlet.ServletRequest;
 import jakarta.servlet.ServletResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Rate limiting filter to prevent abuse and DoS attacks.
- * Implements basic in-memory rate limiting by IP address.
+ * Limits requests per client IP with a sliding window estimated from two per-minute
+ * count-min sketches (current and previous minute), so memory stays fixed no matter how
+ * many distinct IPs are seen and old windows are dropped by swapping sketches.
+ * Optionally also enforces the limit across all nodes through Redis token leasing.
  */
 @Component
+@RequiredArgsConstructor
 public class RateLimitingFilter implements Filter {
     
     private static final Logger log = LoggerFactory.getLogger(RateLimitingFilter.class);
-    private static final int MAX_REQUESTS_PER_MINUTE = 60;
     private static final long WINDOW_SIZE_MS = 60000; // 1 minute
+    private static final String IP_LIMIT_KEY_PREFIX = "rate_limit:ip:";
     
-    private final ConcurrentHashMap<String, RequestWindow> requestCounts = new ConcurrentHashMap<>();
+    private final TokenLeasingRateLimiter tokenLeasingRateLimiter;
+    private final AtomicReference<Windows> windows = new AtomicReference<>();
+    
+    @Value("${app.rate-limit.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${app.rate-limit.max-requests-per-minute:60}")
+    private int maxRequestsPerMinute;
+    
+    @Value("${app.rate-limit.filter.redis-enabled:false}")
+    private boolean redisEnabled;
+    
+    @Value("${app.rate-limit.filter.sketch-depth:4}")
+    private int sketchDepth;
+    
+    @Value("${app.rate-limit.filter.sketch-width:16384}")
+    private int sketchWidth;
     
     @Override
     public void init(FilterConfig filterConfig) throws ServletException {
-        log.info("Rate limiting filter initialized with {} requests per minute", MAX_REQUESTS_PER_MINUTE);
+        log.info("Rate limiting filter initialized with {} requests per minute (enabled: {}, redis: {})",
+                maxRequestsPerMinute, enabled, redisEnabled);
     }
     
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
             throws IOException, ServletException {
         
-        if (request instanceof HttpServletRequest && response instanceof HttpServletResponse) {
+        if (enabled && request instanceof HttpServletRequest && response instanceof HttpServletResponse) {
             HttpServletRequest httpRequest = (HttpServletRequest) request;
             HttpServletResponse httpResponse = (HttpServletResponse) response;
             
             String clientIp = getClientIpAddress(httpRequest);
             
-            if (isRateLimited(clientIp)) {
+            if (isRateLimited(clientIp, System.currentTimeMillis())) {
                 log.warn("Rate limit exceeded for IP: {}", clientIp);
                 httpResponse.setStatus(429); // Too Many Requests
                 httpResponse.getWriter().write("{\"error\":\"Rate limit exceeded\",\"message\":\"Too many requests\"}");
@@ -60,19 +84,54 @@ public class RateLimitingFilter implements Filter {
         log.info("Rate limiting filter destroyed");
     }
     
-    private boolean isRateLimited(String clientIp) {
-        long currentTime = System.currentTimeMillis();
-        
-        RequestWindow window = requestCounts.computeIfAbsent(clientIp, k -> new RequestWindow(currentTime));
+    /**
+     * Count a request and check it against the per-minute limit.
+     * The local estimate weights the previous minute by how much of it still overlaps
+     * the sliding window. Count-min sketches may overcount but never undercount.
+     *
+     * @param clientIp the client IP
+     * @param now current time in millis
+     * @return true if the request should be rejected
+     */
+    boolean isRateLimited(String clientIp, long now) {
+        Windows current = windowsAt(now / WINDOW_SIZE_MS);
         
-        // Reset window if expired
-        if (currentTime - window.windowStart > WINDOW_SIZE_MS) {
-            window.windowStart = currentTime;
-            window.requestCount.set(0);
+        double count = current.current().add(clientIp, 1);
+        if (current.previous() != null) {
+            double previousWeight = 1.0 - (double) (now % WINDOW_SIZE_MS) / WINDOW_SIZE_MS;
+            count += current.previous().estimate(clientIp) * previousWeight;
+        }
+        if (count > maxRequestsPerMinute) {
+            return true;
         }
         
-        int currentCount = window.requestCount.incrementAndGet();
-        return currentCount > MAX_REQUESTS_PER_MINUTE;
+        if (redisEnabled) {
+            try {
+                return !tokenLeasingRateLimiter.tryAcquire(IP_LIMIT_KEY_PREFIX + clientIp,
+                        maxRequestsPerMinute, Duration.ofMillis(WINDOW_SIZE_MS));
+            } catch (Exception e) {
+                log.error("Error checking global rate limit for IP: {}", clientIp, e);
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Get the sketches for a window, starting a new window if the minute has changed.
+     * A new window keeps the last one as its previous window only if they are adjacent.
+     */
+    private Windows windowsAt(long index) {
+        while (true) {
+            Windows current = windows.get();
+            if (current != null && current.index() >= index) {
+                return current;
+            }
+            CountMinSketch previous = current != null && current.index() == index - 1 ? current.current() : null;
+            Windows next = new Windows(index, new CountMinSketch(sketchDepth, sketchWidth), previous);
+            if (windows.compareAndSet(current, next)) {
+                return next;
+            }
+        }
     }
     
     private String getClientIpAddress(HttpServletRequest request) {
@@ -89,13 +148,6 @@ public class RateLimitingFilter implements Filter {
         return request.getRemoteAddr();
     }
     
-    private static class RequestWindow {
-        volatile long windowStart;
-        final AtomicInteger requestCount;
-        
-        RequestWindow(long windowStart) {
-            this.windowStart = windowStart;
-            this.requestCount = new AtomicInteger(0);
-        }
+    private record Windows(long index, CountMinSketch current, CountMinSketch previous) {
     }
-}
\ No newline at end of file
+}
@@ -1,19 +1,25 @@
 package com.officemate.config.security;
 
+import com.officemate.shared.dto.LoginRiskAssessment;
 import com.officemate.shared.service.SecurityEventService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Enhanced service for implementing rate limiting and abuse prevention using Redis.
  * Tracks request counts per user/IP and enforces rate limits with account lockout capabilities.
+ * Rate limits use a sliding-window log evaluated by a single Lua script, so each check is
+ * one atomic round trip and no more than the limit is admitted in any window of the given length.
  */
 @Service
 @RequiredArgsConstructor
@@ -22,13 +28,51 @@ public class RateLimitingService {
 
     private final RedisTemplate<String, String> redisTemplate;
     private final SecurityEventService securityEventService;
+    private final TokenLeasingRateLimiter tokenLeasingRateLimiter;
+    private final HeavyHitterDetector heavyHitterDetector;
 
     private static final String RATE_LIMIT_PREFIX = "rate_limit:";
     private static final String OTP_LIMIT_PREFIX = "otp_limit:";
     private static final String LOGIN_LIMIT_PREFIX = "login_limit:";
+    private static final String API_LIMIT_PREFIX = "api:";
     private static final String ACCOUNT_LOCKOUT_PREFIX = "account_lockout:";
     private static final String SUSPICIOUS_ACTIVITY_PREFIX = "suspicious:";
     private static final String FAILED_ATTEMPTS_PREFIX = "failed_attempts:";
+
+    public static final Duration OTP_WINDOW = Duration.ofHours(1);
+    public static final Duration LOGIN_WINDOW = Duration.ofHours(1);
+    public static final Duration API_WINDOW = Duration.ofMinutes(1);
+
+    /**
+     * Start a counter at the given seed with a TTL, or increment it if it already exists.
+     * KEYS[1] = counter key, ARGV[1] = seed, ARGV[2] = TTL in seconds. Returns the count.
+     */
+    static final RedisScript<Long> TRACK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('SET', KEYS[1], ARGV[1], 'NX', 'EX', ARGV[2]) then return tonumber(ARGV[1]) end " +
+            "return redis.call('INCR', KEYS[1])",
+            Long.class);
+
+    /**
+     * Sliding-window log: a sorted set of admitted request timestamps (server time, micros).
+     * Prunes entries older than the window, admits the request if fewer than the limit remain,
+     * and refreshes the TTL in the same call. Counter keys from the former fixed-window
+     * limiter are replaced on first use.
+     * KEYS[1] = limit key, ARGV[1] = max requests, ARGV[2] = window in micros.
+     * Returns {1 if admitted else 0, requests in the window including this one if admitted}.
+     */
+    @SuppressWarnings("rawtypes")
+    static final RedisScript<List> SLIDING_WINDOW_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('TYPE', KEYS[1]).ok == 'string' then redis.call('DEL', KEYS[1]) end " +
+            "local time = redis.call('TIME') " +
+            "local now = tonumber(time[1]) * 1000000 + tonumber(time[2]) " +
+            "local window = tonumber(ARGV[2]) " +
+            "redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', now - window) " +
+            "local count = redis.call('ZCARD', KEYS[1]) " +
+            "if count >= tonumber(ARGV[1]) then return {0, count} end " +
+            "redis.call('ZADD', KEYS[1], now, time[1] .. time[2] .. ':' .. count) " +
+            "redis.call('PEXPIRE', KEYS[1], math.ceil(window / 1000)) " +
+            "return {1, count + 1}",
+            List.class);
     
     @Value("${app.security.lockout.max-failed-attempts:5}")
     private int maxFailedAttempts;
@@ -51,24 +95,19 @@ public class RateLimitingService {
         String redisKey = RATE_LIMIT_PREFIX + key;
         
         try {
-            // Increment counter
-            Long currentCount = redisTemplate.opsForValue().increment(redisKey);
+            List<?> result = redisTemplate.execute(SLIDING_WINDOW_SCRIPT, List.of(redisKey),
+                    String.valueOf(maxRequests), String.valueOf(TimeUnit.NANOSECONDS.toMicros(duration.toNanos())));
             
-            if (currentCount == null) {
+            if (result == null || result.size() < 2) {
                 return false;
             }
             
-            // Set expiry on first request
-            if (currentCount == 1) {
-                redisTemplate.expire(redisKey, duration.getSeconds(), TimeUnit.SECONDS);
-            }
-            
             // Check if limit exceeded
-            boolean allowed = currentCount <= maxRequests;
+            boolean allowed = ((Number) result.get(0)).longValue() == 1L;
             
             if (!allowed) {
                 log.warn("Rate limit exceeded for key: {} (count: {}, max: {})", 
-                        key, currentCount, maxRequests);
+                        key, result.get(1), maxRequests);
             }
             
             return allowed;
@@ -88,7 +127,7 @@ public class RateLimitingService {
      */
     public boolean isOtpRequestAllowed(String phoneNumber, int maxRequests) {
         String key = OTP_LIMIT_PREFIX + phoneNumber;
-        return isAllowed(key, maxRequests, Duration.ofHours(1));
+        return isAllowed(key, maxRequests, OTP_WINDOW);
     }
 
     /**
@@ -100,19 +139,47 @@ public class RateLimitingService {
      */
     public boolean isLoginAttemptAllowed(String identifier, int maxAttempts) {
         String key = LOGIN_LIMIT_PREFIX + identifier;
-        return isAllowed(key, maxAttempts, Duration.ofHours(1));
+        return isAllowed(key, maxAttempts, LOGIN_WINDOW);
     }
 
     /**
      * Check if general API request is allowed for a user.
+     * Uses tokens leased from Redis in blocks, so most requests are decided locally.
      *
      * @param userId the user ID
      * @param maxRequests maximum requests allowed per minute
      * @return true if request is allowed
      */
     public boolean isApiRequestAllowed(String userId, int maxRequests) {
-        String key = "api:" + userId;
-        return isAllowed(key, maxRequests, Duration.ofMinutes(1));
+        try {
+            boolean allowed = tokenLeasingRateLimiter.tryAcquire(
+                    RATE_LIMIT_PREFIX + API_LIMIT_PREFIX + userId, maxRequests, API_WINDOW);
+            if (!allowed) {
+                log.warn("API rate limit exceeded for user: {} (max: {})", userId, maxRequests);
+            }
+            return allowed;
+        } catch (Exception e) {
+            log.error("Error checking API rate limit for user: {}", userId, e);
+            // Fail open - allow request if Redis is unavailable
+            return true;
+        }
+    }
+
+    /**
+     * Get remaining API requests for a user in the current window, across all nodes.
+     *
+     * @param userId the user ID
+     * @param maxRequests maximum requests allowed per minute
+     * @return number of remaining requests
+     */
+    public int getRemainingApiRequests(String userId, int maxRequests) {
+        try {
+            return Math.max(0, maxRequests - tokenLeasingRateLimiter.getUsed(
+                    RATE_LIMIT_PREFIX + API_LIMIT_PREFIX + userId));
+        } catch (Exception e) {
+            log.error("Error getting remaining API requests for user: {}", userId, e);
+            return maxRequests;
+        }
     }
 
     /**
@@ -124,6 +191,7 @@ public class RateLimitingService {
         try {
             String redisKey = RATE_LIMIT_PREFIX + key;
             redisTemplate.delete(redisKey);
+            tokenLeasingRateLimiter.invalidate(redisKey);
             log.info("Rate limit reset for key: {}", key);
         } catch (Exception e) {
             log.error("Error resetting rate limit for key: {}", key, e);
@@ -135,19 +203,21 @@ public class RateLimitingService {
      *
      * @param key the unique identifier
      * @param maxRequests maximum number of requests allowed
+     * @param duration time window for rate limiting
      * @return number of remaining requests
      */
-    public int getRemainingRequests(String key, int maxRequests) {
+    public int getRemainingRequests(String key, int maxRequests, Duration duration) {
         try {
             String redisKey = RATE_LIMIT_PREFIX + key;
-            String countStr = redisTemplate.opsForValue().get(redisKey);
+            long windowStart = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis())
+                    - TimeUnit.NANOSECONDS.toMicros(duration.toNanos());
+            Long currentCount = redisTemplate.opsForZSet().count(redisKey, windowStart, Double.POSITIVE_INFINITY);
             
-            if (countStr == null) {
+            if (currentCount == null) {
                 return maxRequests;
             }
             
-            int currentCount = Integer.parseInt(countStr);
-            return Math.max(0, maxRequests - currentCount);
+            return (int) Math.max(0, maxRequests - currentCount);
         } catch (Exception e) {
             log.error("Error getting remaining requests for key: {}", key, e);
             return maxRequests;
@@ -156,6 +226,7 @@ public class RateLimitingService {
 
     /**
      * Get time until rate limit resets.
+     * With the sliding window this is when the most recent request leaves the window.
      *
      * @param key the unique identifier
      * @return seconds until reset, or -1 if no limit set
@@ -249,16 +320,7 @@ public class RateLimitingService {
     public boolean recordFailedAttempt(String identifier, String attemptType, String userId) {
         try {
             String failedKey = FAILED_ATTEMPTS_PREFIX + identifier;
-            Long failedCount = redisTemplate.opsForValue().increment(failedKey);
-            
-            if (failedCount == null) {
-                return false;
-            }
-            
-            // Set expiry on first failed attempt (1 hour window)
-            if (failedCount == 1) {
-                redisTemplate.expire(failedKey, Duration.ofHours(1));
-            }
+            long failedCount = countOccurrence(failedKey, Duration.ofHours(1));
             
             // Log security event for failed attempt
             securityEventService.logFailedLogin(identifier, 
@@ -291,6 +353,7 @@ public class RateLimitingService {
         try {
             String failedKey = FAILED_ATTEMPTS_PREFIX + identifier;
             redisTemplate.delete(failedKey);
+            heavyHitterDetector.discount(failedKey);
             
             log.debug("Cleared failed attempts for identifier: {}", identifier);
             
@@ -310,16 +373,7 @@ public class RateLimitingService {
     public boolean trackSuspiciousActivity(String identifier, String activityType, String userId) {
         try {
             String suspiciousKey = SUSPICIOUS_ACTIVITY_PREFIX + identifier + ":" + activityType;
-            Long activityCount = redisTemplate.opsForValue().increment(suspiciousKey);
-            
-            if (activityCount == null) {
-                return false;
-            }
-            
-            // Set expiry on first suspicious activity (24 hours window)
-            if (activityCount == 1) {
-                redisTemplate.expire(suspiciousKey, Duration.ofHours(24));
-            }
+            long activityCount = countOccurrence(suspiciousKey, Duration.ofHours(24));
             
             // Log suspicious activity
             try {
@@ -369,22 +423,14 @@ public class RateLimitingService {
      */
     public boolean shouldRequireCaptcha(String identifier, String ipAddress) {
         try {
-            // Check failed attempts for user
-            String failedKey = FAILED_ATTEMPTS_PREFIX + identifier;
-            String failedCountStr = redisTemplate.opsForValue().get(failedKey);
-            int failedCount = failedCountStr != null ? Integer.parseInt(failedCountStr) : 0;
+            // Fetch failed attempts for user and IP in one round trip
+            List<String> values = redisTemplate.opsForValue().multiGet(List.of(
+                    FAILED_ATTEMPTS_PREFIX + identifier,
+                    FAILED_ATTEMPTS_PREFIX + "ip:" + ipAddress));
+            int failedCount = parseCount(valueAt(values, 0));
+            int ipFailedCount = parseCount(valueAt(values, 1));
             
-            // Check failed attempts for IP
-            String ipFailedKey = FAILED_ATTEMPTS_PREFIX + "ip:" + ipAddress;
-            String ipFailedCountStr = redisTemplate.opsForValue().get(ipFailedKey);
-            int ipFailedCount = ipFailedCountStr != null ? Integer.parseInt(ipFailedCountStr) : 0;
-            
-            // Require CAPTCHA if:
-            // - User has 2+ failed attempts, OR
-            // - IP has 3+ failed attempts, OR
-            // - Account is approaching lockout threshold
-            boolean requireCaptcha = failedCount >= 2 || ipFailedCount >= 3 || 
-                                   failedCount >= (maxFailedAttempts - 2);
+            boolean requireCaptcha = isCaptchaRequired(failedCount, ipFailedCount);
             
             if (requireCaptcha) {
                 log.info("CAPTCHA required for identifier: {} (failed: {}, IP failed: {})", 
@@ -400,6 +446,61 @@ public class RateLimitingService {
         }
     }
 
+    /**
+     * Assess the pre-login risk of an identifier and client IP.
+     * Reads the lockout, failed-attempt and CAPTCHA bypass keys with a single MGET, replacing
+     * separate isAccountLocked, shouldRequireCaptcha and CAPTCHA bypass lookups.
+     *
+     * @param identifier user identifier
+     * @param ipAddress client IP address
+     * @return lockout status, failed attempt counts and CAPTCHA decision
+     */
+    public LoginRiskAssessment assessLoginRisk(String identifier, String ipAddress) {
+        try {
+            List<String> values = redisTemplate.opsForValue().multiGet(List.of(
+                    ACCOUNT_LOCKOUT_PREFIX + identifier,
+                    FAILED_ATTEMPTS_PREFIX + identifier,
+                    FAILED_ATTEMPTS_PREFIX + "ip:" + ipAddress,
+                    CaptchaService.CAPTCHA_BYPASS_PREFIX + identifier));
+            String lockoutValue = valueAt(values, 0);
+            int failedCount = parseCount(valueAt(values, 1));
+            int ipFailedCount = parseCount(valueAt(values, 2));
+            
+            return LoginRiskAssessment.builder()
+                    .locked(lockoutValue != null)
+                    .lockedUntil(lockoutValue != null ? LocalDateTime.parse(lockoutValue) : null)
+                    .failedAttempts(failedCount)
+                    .ipFailedAttempts(ipFailedCount)
+                    .captchaRequired(isCaptchaRequired(failedCount, ipFailedCount))
+                    .captchaBypass(valueAt(values, 3) != null)
+                    .build();
+            
+        } catch (Exception e) {
+            log.error("Error assessing login risk for identifier: {}", identifier, e);
+            // Same fallbacks as the individual checks: not locked, CAPTCHA required
+            return LoginRiskAssessment.builder()
+                    .captchaRequired(true)
+                    .build();
+        }
+    }
+
+    /**
+     * Require CAPTCHA if the user has 2+ failed attempts, the IP has 3+ failed attempts,
+     * or the account is approaching the lockout threshold.
+     */
+    private boolean isCaptchaRequired(int failedCount, int ipFailedCount) {
+        return failedCount >= 2 || ipFailedCount >= 3 || 
+               failedCount >= (maxFailedAttempts - 2);
+    }
+
+    private static String valueAt(List<String> values, int index) {
+        return values != null ? values.get(index) : null;
+    }
+
+    private static int parseCount(String value) {
+        return value != null ? Integer.parseInt(value) : 0;
+    }
+
     /**
      * Record failed attempt for IP address.
      *
@@ -409,16 +510,7 @@ public class RateLimitingService {
     public void recordIpFailedAttempt(String ipAddress, String attemptType) {
         try {
             String ipFailedKey = FAILED_ATTEMPTS_PREFIX + "ip:" + ipAddress;
-            Long failedCount = redisTemplate.opsForValue().increment(ipFailedKey);
-            
-            if (failedCount == null) {
-                return;
-            }
-            
-            // Set expiry on first failed attempt (1 hour window)
-            if (failedCount == 1) {
-                redisTemplate.expire(ipFailedKey, Duration.ofHours(1));
-            }
+            long failedCount = countOccurrence(ipFailedKey, Duration.ofHours(1));
             
             // Log rate limit violation for high IP failure count
             if (failedCount >= 5) {
@@ -434,6 +526,29 @@ public class RateLimitingService {
         }
     }
 
+    /**
+     * Count an occurrence of a tracked key.
+     * Keys below the heavy-hitter promotion threshold are only counted locally, so one-off
+     * identifiers (typical of credential stuffing) never create Redis keys. Promoted keys get a
+     * Redis counter created with its TTL atomically and seeded with the occurrences counted for certain,
+     * never with the sketch estimate, which can overcount.
+     *
+     * @param key the Redis counter key
+     * @param window counter lifetime from its first occurrence
+     * @return occurrences within the window
+     */
+    private long countOccurrence(String key, Duration window) {
+        long observed = heavyHitterDetector.record(key);
+        if (!heavyHitterDetector.isPromoted(observed)) {
+            return observed;
+        }
+        
+        long seed = heavyHitterDetector.guaranteedCount(key);
+        Long count = redisTemplate.execute(TRACK_SCRIPT, List.of(key),
+                String.valueOf(seed), String.valueOf(window.getSeconds()));
+        return count != null ? count : observed;
+    }
+
     /**
      * Get lockout information for an identifier.
      *
@@ -1,5 +1,7 @@
 package com.officemate.config.security;
 
+import com.officemate.shared.dto.LoginRiskAssessment;
+import com.officemate.shared.service.SecurityEventRollupService;
 import com.officemate.shared.validation.RequireFullVerification;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -24,9 +26,10 @@ public class SecurityManagementController {
     private final RateLimitingService rateLimitingService;
     private final CaptchaService captchaService;
     private final AuthenticationPatternMonitoringService patternMonitoringService;
+    private final SecurityEventRollupService securityEventRollupService;
 
     /**
-     * Check if CAPTCHA is required for a user.
+     * Check if CAPTCHA is required for a user, along with the account lockout status.
      */
     @PostMapping("/captcha/check")
     public ResponseEntity<Map<String, Object>> checkCaptchaRequirement(
@@ -38,10 +41,15 @@ public class SecurityManagementController {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            boolean requireCaptcha = rateLimitingService.shouldRequireCaptcha(identifier, ipAddress);
-            response.put("required", requireCaptcha);
+            // Lockout, failed attempts and bypass in one Redis round trip
+            LoginRiskAssessment risk = rateLimitingService.assessLoginRisk(identifier, ipAddress);
+            response.put("required", risk.isCaptchaRequired());
+            response.put("locked", risk.isLocked());
+            if (risk.getLockedUntil() != null) {
+                response.put("lockedUntil", risk.getLockedUntil().toString());
+            }
             
-            if (requireCaptcha && !captchaService.hasCaptchaBypass(identifier)) {
+            if (risk.isCaptchaChallengeRequired() && captchaService.isCaptchaEnabled()) {
                 Map<String, Object> challenge = captchaService.generateCaptchaChallenge(identifier);
                 response.putAll(challenge);
             } else {
@@ -196,6 +204,27 @@ public class SecurityManagementController {
         }
     }
 
+    /**
+     * Admin endpoint to get security event counts by type over the last minutes, read from the rollups.
+     */
+    @GetMapping("/admin/event-counts")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getEventCounts(@RequestParam(defaultValue = "60") int minutes) {
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            LocalDateTime since = LocalDateTime.now().minusMinutes(Math.max(1, minutes));
+            response.put("since", since);
+            response.put("counts", securityEventRollupService.countsSince(since));
+            return ResponseEntity.ok(response);
+            
+        } catch (Exception e) {
+            log.error("Error getting security event counts: {}", e.getMessage(), e);
+            response.put("error", "Unable to retrieve security event counts");
+            return ResponseEntity.internalServerError().body(response);
+        }
+    }
+
     /**
      * Get rate limit status for an identifier.
      */
@@ -214,9 +243,11 @@ public class SecurityManagementController {
             response.put("apiRequestsAllowed", apiAllowed);
             
             // Get remaining requests
-            response.put("remainingOtpRequests", rateLimitingService.getRemainingRequests("otp_limit:" + identifier, 5));
-            response.put("remainingLoginAttempts", rateLimitingService.getRemainingRequests("login_limit:" + identifier, 10));
-            response.put("remainingApiRequests", rateLimitingService.getRemainingRequests("api:" + identifier, 60));
+            response.put("remainingOtpRequests", rateLimitingService.getRemainingRequests("otp_limit:" + identifier, 5,
+                    RateLimitingService.OTP_WINDOW));
+            response.put("remainingLoginAttempts", rateLimitingService.getRemainingRequests("login_limit:" + identifier, 10,
+                    RateLimitingService.LOGIN_WINDOW));
+            response.put("remainingApiRequests", rateLimitingService.getRemainingApiRequests(identifier, 60));
             
             // Get time until reset
             response.put("otpResetTime", rateLimitingService.getTimeUntilReset("otp_limit:" + identifier));
@@ -0,0 +1,173 @@
+package com.officemate.config.security;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Two-tier rate limiter: each node leases blocks of tokens for a key from a Redis window counter
+ * and spends them locally with atomic counters, so Redis is only contacted when a lease runs out.
+ * Redis never grants more than the limit per window across all nodes. Tokens leased by a node
+ * but not spent are lost when the window ends, so the effective global limit can be lower than
+ * configured by up to one block per node.
+ * Denials are cached locally until the window ends.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TokenLeasingRateLimiter {
+
+    /**
+     * Lease tokens from a fixed-window counter, setting the window TTL atomically with the first grant.
+     * KEYS[1] = counter key, ARGV[1] = max requests, ARGV[2] = tokens wanted, ARGV[3] = window in millis.
+     * Returns {tokens granted, millis until the window ends}.
+     */
+    @SuppressWarnings("rawtypes")
+    static final RedisScript<List> LEASE_SCRIPT = new DefaultRedisScript<>(
+            "local used = tonumber(redis.call('GET', KEYS[1]) or '0') " +
+            "local grant = math.min(tonumber(ARGV[2]), tonumber(ARGV[1]) - used) " +
+            "if grant > 0 then redis.call('INCRBY', KEYS[1], grant) else grant = 0 end " +
+            "local ttl = redis.call('PTTL', KEYS[1]) " +
+            "if ttl == -1 then redis.call('PEXPIRE', KEYS[1], ARGV[3]) ttl = tonumber(ARGV[3]) end " +
+            "return {grant, ttl}",
+            List.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final ConcurrentHashMap<String, Lease> leases = new ConcurrentHashMap<>();
+
+    @Value("${app.rate-limit.lease.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.rate-limit.lease.block-size:10}")
+    private int blockSize;
+
+    /**
+     * Take one token for a key, leasing a new block from Redis if the local lease is spent.
+     *
+     * @param redisKey the Redis counter key
+     * @param maxRequests maximum requests per window across all nodes
+     * @param window the window length
+     * @return true if the request is allowed
+     */
+    public boolean tryAcquire(String redisKey, int maxRequests, Duration window) {
+        long now = System.nanoTime();
+        Lease lease = leases.get(redisKey);
+        if (lease != null && lease.isLive(now)) {
+            if (lease.tryTake()) {
+                return true;
+            }
+            if (lease.denied) {
+                return false;
+            }
+        }
+
+        return lease(redisKey, maxRequests, window, now);
+    }
+
+    /**
+     * Lease a block of tokens from Redis, keep one for the current request and publish the rest.
+     */
+    private boolean lease(String redisKey, int maxRequests, Duration window, long now) {
+        int wanted = enabled ? Math.max(1, Math.min(blockSize, maxRequests / 4)) : 1;
+        List<?> result = redisTemplate.execute(LEASE_SCRIPT, List.of(redisKey),
+                String.valueOf(maxRequests), String.valueOf(wanted), String.valueOf(window.toMillis()));
+        if (result == null || result.size() < 2) {
+            return false;
+        }
+
+        int granted = ((Number) result.get(0)).intValue();
+        long ttlMillis = Math.max(0, ((Number) result.get(1)).longValue());
+        long expiresAt = now + Duration.ofMillis(ttlMillis).toNanos();
+
+        if (granted == 0) {
+            if (enabled && ttlMillis > 0) {
+                leases.put(redisKey, new Lease(0, expiresAt, true));
+            }
+            return false;
+        }
+
+        if (enabled && granted > 1) {
+            int spare = granted - 1;
+            leases.compute(redisKey, (key, current) -> {
+                if (current != null && current.isLive(now) && !current.denied) {
+                    current.tokens.addAndGet(spare);
+                    return current;
+                }
+                return new Lease(spare, expiresAt, false);
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Get the number of tokens leased from Redis in the current window.
+     *
+     * @param redisKey the Redis counter key
+     * @return leased tokens, 0 if no window is open
+     */
+    public int getUsed(String redisKey) {
+        String used = redisTemplate.opsForValue().get(redisKey);
+        return used != null ? Integer.parseInt(used) : 0;
+    }
+
+    /**
+     * Drop local leases, e.g. after a limit has been reset in Redis.
+     *
+     * @param redisKey the Redis counter key
+     */
+    public void invalidate(String redisKey) {
+        leases.remove(redisKey);
+    }
+
+    /**
+     * Remove leases whose window has ended.
+     */
+    @Scheduled(fixedDelayString = "${app.rate-limit.lease.sweep-interval-ms:60000}")
+    public void evictExpired() {
+        long now = System.nanoTime();
+        int before = leases.size();
+        leases.values().removeIf(lease -> !lease.isLive(now));
+        log.debug("Evicted {} expired rate limit leases, {} remaining", before - leases.size(), leases.size());
+    }
+
+    int size() {
+        return leases.size();
+    }
+
+    private static final class Lease {
+        private final AtomicInteger tokens;
+        private final long expiresAt;
+        private final boolean denied;
+
+        private Lease(int tokens, long expiresAt, boolean denied) {
+            this.tokens = new AtomicInteger(tokens);
+            this.expiresAt = expiresAt;
+            this.denied = denied;
+        }
+
+        private boolean isLive(long now) {
+            return now - expiresAt < 0;
+        }
+
+        private boolean tryTake() {
+            int current;
+            do {
+                current = tokens.get();
+                if (current <= 0) {
+                    return false;
+                }
+            } while (!tokens.compareAndSet(current, current - 1));
+            return true;
+        }
+    }
+}
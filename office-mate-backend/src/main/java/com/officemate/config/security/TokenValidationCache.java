@@ -0,0 +1,138 @@
+package com.officemate.config.security;
+
+import com.officemate.shared.dto.TokenValidation;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.ZoneId;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded in-memory cache of verified JWT claims keyed by token hash.
+ * Lets repeat requests carrying the same bearer token skip signature verification
+ * until the token's expiration. Raw tokens are never stored, only their SHA-256 digest.
+ */
+@Component
+@Slf4j
+public class TokenValidationCache {
+
+    @Value("${app.security.jwt.validation-cache.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${app.security.jwt.validation-cache.max-size:10000}")
+    private int maxSize = 10000;
+
+    private final ConcurrentHashMap<String, CachedValidation> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Get a previously verified token validation.
+     *
+     * @param token the raw JWT token
+     * @return cached validation, or null if absent or expired
+     */
+    public TokenValidation get(String token) {
+        if (!enabled) {
+            return null;
+        }
+
+        String key = hash(token);
+        CachedValidation cached = entries.get(key);
+        if (cached == null) {
+            return null;
+        }
+
+        if (cached.expiresAtMillis <= System.currentTimeMillis()) {
+            entries.remove(key, cached);
+            return null;
+        }
+
+        return cached.validation;
+    }
+
+    /**
+     * Cache a successful token validation until the token expires.
+     * Invalid validations and tokens without expiration are ignored.
+     *
+     * @param token the raw JWT token
+     * @param validation the verified validation result
+     */
+    public void put(String token, TokenValidation validation) {
+        if (!enabled || validation == null || !validation.isValid() || validation.getExpiresAt() == null) {
+            return;
+        }
+
+        long expiresAtMillis = validation.getExpiresAt()
+                .atZone(ZoneId.systemDefault())
+                .toInstant()
+                .toEpochMilli();
+        if (expiresAtMillis <= System.currentTimeMillis()) {
+            return;
+        }
+
+        if (entries.size() >= maxSize) {
+            evict();
+        }
+
+        entries.put(hash(token), new CachedValidation(validation, expiresAtMillis));
+    }
+
+    /**
+     * Remove a token from the cache (e.g. after revocation).
+     *
+     * @param token the raw JWT token
+     */
+    public void invalidate(String token) {
+        entries.remove(hash(token));
+    }
+
+    /**
+     * Remove all cached validations.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Get the number of cached validations.
+     *
+     * @return cache size
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Drop expired entries first, then arbitrary entries until below capacity.
+     */
+    private void evict() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(cached -> cached.expiresAtMillis <= now);
+
+        Iterator<Map.Entry<String, CachedValidation>> iterator = entries.entrySet().iterator();
+        while (entries.size() >= maxSize && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+
+        log.debug("Token validation cache evicted down to {} entries", entries.size());
+    }
+
+    private String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record CachedValidation(TokenValidation validation, long expiresAtMillis) {
+    }
+}
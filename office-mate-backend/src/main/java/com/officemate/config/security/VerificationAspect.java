@@ -1,5 +1,6 @@
 package com.officemate.config.security;
 
+import com.officemate.shared.enums.Permission;
 import com.officemate.shared.exception.ProfileAccessException;
 import com.officemate.shared.validation.RequireEmailVerification;
 import com.officemate.shared.validation.RequireFullVerification;
@@ -19,7 +20,8 @@ import java.lang.reflect.Method;
 
 /**
  * Aspect for enforcing verification requirements on methods.
- * Checks mobile and email verification status before allowing method execution.
+ * Checks mobile and email verification status before allowing method execution,
+ * as bit tests against the permission mask of the authenticated token.
  */
 @Aspect
 @Component
@@ -27,23 +29,21 @@ import java.lang.reflect.Method;
 @Slf4j
 public class VerificationAspect {
 
+    private static final int MOBILE_VERIFIED = Permission.MOBILE_VERIFIED.mask();
+    private static final int EMAIL_VERIFIED = Permission.EMAIL_VERIFIED.mask();
+    private static final int FULLY_VERIFIED = MOBILE_VERIFIED | EMAIL_VERIFIED;
+
     /**
      * Enforce mobile verification requirement.
      */
     @Before("@annotation(com.officemate.shared.validation.RequireMobileVerification)")
     public void checkMobileVerification(JoinPoint joinPoint) {
-        HttpServletRequest request = getCurrentRequest();
-        Boolean mobileVerified = (Boolean) request.getAttribute("mobileVerified");
-        Boolean emailVerified = (Boolean) request.getAttribute("emailVerified");
+        int permissions = getPermissions();
         
-        if (mobileVerified == null || !mobileVerified) {
+        if ((permissions & MOBILE_VERIFIED) == 0) {
             String message = getAnnotationMessage(joinPoint, RequireMobileVerification.class);
             log.warn("Mobile verification required for method: {}", joinPoint.getSignature().getName());
-            throw new ProfileAccessException(
-                    message, 
-                    mobileVerified != null && mobileVerified, 
-                    emailVerified != null && emailVerified
-            );
+            throw accessException(message, permissions);
         }
     }
 
@@ -52,18 +52,12 @@ public class VerificationAspect {
      */
     @Before("@annotation(com.officemate.shared.validation.RequireEmailVerification)")
     public void checkEmailVerification(JoinPoint joinPoint) {
-        HttpServletRequest request = getCurrentRequest();
-        Boolean mobileVerified = (Boolean) request.getAttribute("mobileVerified");
-        Boolean emailVerified = (Boolean) request.getAttribute("emailVerified");
+        int permissions = getPermissions();
         
-        if (emailVerified == null || !emailVerified) {
+        if ((permissions & EMAIL_VERIFIED) == 0) {
             String message = getAnnotationMessage(joinPoint, RequireEmailVerification.class);
             log.warn("Email verification required for method: {}", joinPoint.getSignature().getName());
-            throw new ProfileAccessException(
-                    message, 
-                    mobileVerified != null && mobileVerified, 
-                    emailVerified != null && emailVerified
-            );
+            throw accessException(message, permissions);
         }
     }
 
@@ -72,21 +66,32 @@ public class VerificationAspect {
      */
     @Before("@annotation(com.officemate.shared.validation.RequireFullVerification)")
     public void checkFullVerification(JoinPoint joinPoint) {
-        HttpServletRequest request = getCurrentRequest();
-        Boolean mobileVerified = (Boolean) request.getAttribute("mobileVerified");
-        Boolean emailVerified = (Boolean) request.getAttribute("emailVerified");
+        int permissions = getPermissions();
         
-        if (mobileVerified == null || !mobileVerified || emailVerified == null || !emailVerified) {
+        if ((permissions & FULLY_VERIFIED) != FULLY_VERIFIED) {
             String message = getAnnotationMessage(joinPoint, RequireFullVerification.class);
             log.warn("Full verification required for method: {}", joinPoint.getSignature().getName());
-            throw new ProfileAccessException(
-                    message, 
-                    mobileVerified != null && mobileVerified, 
-                    emailVerified != null && emailVerified
-            );
+            throw accessException(message, permissions);
         }
     }
 
+    /**
+     * Get the permission bitmask set by {@link JwtAuthenticationFilter} for the current request.
+     * Unauthenticated requests have no permissions.
+     */
+    private int getPermissions() {
+        Object permissions = getCurrentRequest().getAttribute(JwtAuthenticationFilter.PERMISSIONS_ATTRIBUTE);
+        return permissions instanceof Integer mask ? mask : 0;
+    }
+
+    private ProfileAccessException accessException(String message, int permissions) {
+        return new ProfileAccessException(
+                message,
+                (permissions & MOBILE_VERIFIED) != 0,
+                (permissions & EMAIL_VERIFIED) != 0
+        );
+    }
+
     /**
      * Get current HTTP request from context.
      */
@@ -11,7 +11,6 @@ import org.springframework.data.redis.core.index.Indexed;
 
 import java.io.Serializable;
 import java.time.LocalDateTime;
-import java.util.List;
 
 /**
  * Redis entity representing an active user session.
@@ -54,9 +53,9 @@ public class UserSession implements Serializable {
     private String appVersion;
     
     /**
-     * List of permissions granted in this session
+     * Bitmask of permissions granted in this session (see {@link com.officemate.shared.enums.Permission})
      */
-    private List<String> permissions;
+    private int permissions;
     
     /**
      * Timestamp when session was created
@@ -74,10 +73,17 @@ public class UserSession implements Serializable {
     private LocalDateTime expiresAt;
     
     /**
-     * Refresh token associated with this session
+     * Refresh token associated with this session.
+     * Only present on sessions stored before the refresh token ID was recorded;
+     * the compact session encoding does not store it.
      */
     private String refreshToken;
     
+    /**
+     * Token identifier (jti claim) of the refresh token, used for revocation without re-parsing
+     */
+    private String refreshTokenId;
+    
     /**
      * Flag indicating if mobile is verified
      */
@@ -0,0 +1,257 @@
+package com.officemate.modules.auth.repository;
+
+import com.officemate.modules.auth.entity.OTPRecord;
+import com.officemate.modules.auth.entity.RevokedToken;
+import com.officemate.modules.auth.entity.UserSession;
+import com.officemate.shared.enums.Permission;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Compact Redis encoding for sessions, revoked tokens and OTP records.
+ * Uses one- and two-letter hash fields, epoch-millis timestamps, a permission bitmask
+ * and no type hint, so small hashes stay in Redis' listpack encoding with minimal overhead.
+ * Field order in the *_FIELDS arrays matches the positional values returned by HMGET.
+ */
+public final class CompactRedisCodec {
+
+    /**
+     * Session hash fields: userId, deviceType, deviceId, appVersion, permission mask,
+     * createdAt, lastAccessAt, expiresAt, refresh token ID, verification flags, TTL.
+     */
+    static final String[] SESSION_FIELDS = {"u", "dt", "di", "av", "p", "c", "a", "e", "r", "f", "t"};
+
+    /**
+     * OTP hash fields: otpHash, attempts, createdAt, expiresAt, verified, type, TTL.
+     */
+    static final String[] OTP_FIELDS = {"h", "n", "c", "e", "v", "y", "t"};
+
+    /**
+     * Permission list fields of the Spring Data session layout, which stored permission names
+     * as permissions.[0], permissions.[1], ... instead of a mask; one field per possible permission.
+     */
+    static final String[] LEGACY_PERMISSION_FIELDS = IntStream.range(0, Permission.values().length)
+            .mapToObj(index -> "permissions.[" + index + "]")
+            .toArray(String[]::new);
+
+    static final String SESSION_LAST_ACCESS_FIELD = "a";
+    static final String SESSION_EXPIRES_AT_FIELD = "e";
+
+    private static final int MOBILE_VERIFIED_FLAG = 1;
+    private static final int EMAIL_VERIFIED_FLAG = 2;
+    private static final char SEPARATOR = '|';
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private CompactRedisCodec() {
+    }
+
+    /**
+     * Encode a session as a compact hash. The session ID is the key and is not stored.
+     *
+     * @param session the session
+     * @return hash fields and values
+     */
+    public static Map<byte[], byte[]> encodeSession(UserSession session) {
+        Map<byte[], byte[]> hash = new LinkedHashMap<>(16);
+        put(hash, "u", session.getUserId());
+        put(hash, "dt", session.getDeviceType());
+        put(hash, "di", session.getDeviceId());
+        put(hash, "av", session.getAppVersion());
+        put(hash, "p", session.getPermissions());
+        put(hash, "c", toMillis(session.getCreatedAt()));
+        put(hash, "a", toMillis(session.getLastAccessAt()));
+        put(hash, "e", toMillis(session.getExpiresAt()));
+        put(hash, "r", session.getRefreshTokenId());
+        put(hash, "f", (session.isMobileVerified() ? MOBILE_VERIFIED_FLAG : 0)
+                | (session.isEmailVerified() ? EMAIL_VERIFIED_FLAG : 0));
+        put(hash, "t", session.getTtl());
+        return hash;
+    }
+
+    /**
+     * Decode a session from HMGET values in SESSION_FIELDS order.
+     *
+     * @param sessionId the session ID (from the key)
+     * @param values field values as String or byte[]
+     * @return the session, or null if the hash does not exist
+     */
+    public static UserSession decodeSession(String sessionId, List<?> values) {
+        String userId = string(values.get(0));
+        if (userId == null) {
+            return null;
+        }
+
+        int flags = parseInt(values.get(9));
+        return UserSession.builder()
+                .sessionId(sessionId)
+                .userId(userId)
+                .deviceType(string(values.get(1)))
+                .deviceId(string(values.get(2)))
+                .appVersion(string(values.get(3)))
+                .permissions(parseInt(values.get(4)))
+                .createdAt(dateTime(values.get(5)))
+                .lastAccessAt(dateTime(values.get(6)))
+                .expiresAt(dateTime(values.get(7)))
+                .refreshTokenId(string(values.get(8)))
+                .mobileVerified((flags & MOBILE_VERIFIED_FLAG) != 0)
+                .emailVerified((flags & EMAIL_VERIFIED_FLAG) != 0)
+                .ttl(parseLong(values.get(10)))
+                .build();
+    }
+
+    /**
+     * Map the permission names of a Spring Data layout session onto a permission mask.
+     *
+     * @param values HMGET values of LEGACY_PERMISSION_FIELDS, as String or byte[]
+     * @return permission mask
+     */
+    public static int decodeLegacyPermissions(List<?> values) {
+        List<String> names = new ArrayList<>(values.size());
+        for (Object value : values) {
+            String name = string(value);
+            if (name != null) {
+                names.add(name);
+            }
+        }
+        return Permission.toMask(names);
+    }
+
+    /**
+     * Encode a revoked token as a single string value: userId|revokedAt millis|reason.
+     * The token ID is the key and is not stored.
+     *
+     * @param revokedToken the revoked token
+     * @return encoded value
+     */
+    public static String encodeRevokedToken(RevokedToken revokedToken) {
+        StringBuilder value = new StringBuilder(64);
+        if (revokedToken.getUserId() != null) {
+            value.append(revokedToken.getUserId());
+        }
+        value.append(SEPARATOR);
+        Long revokedAt = toMillis(revokedToken.getRevokedAt());
+        if (revokedAt != null) {
+            value.append(revokedAt);
+        }
+        value.append(SEPARATOR);
+        if (revokedToken.getReason() != null) {
+            value.append(revokedToken.getReason());
+        }
+        return value.toString();
+    }
+
+    /**
+     * Decode a revoked token value written by encodeRevokedToken.
+     *
+     * @param tokenId the token ID (from the key)
+     * @param value the encoded value
+     * @return the revoked token, without TTL
+     */
+    public static RevokedToken decodeRevokedToken(String tokenId, String value) {
+        String[] parts = value.split("\\|", 3);
+        return RevokedToken.builder()
+                .tokenId(tokenId)
+                .userId(parts.length > 0 && !parts[0].isEmpty() ? parts[0] : null)
+                .revokedAt(parts.length > 1 && !parts[1].isEmpty() ? dateTime(parts[1]) : null)
+                .reason(parts.length > 2 && !parts[2].isEmpty() ? parts[2] : null)
+                .build();
+    }
+
+    /**
+     * Encode an OTP record as a compact hash. The record key is the Redis key and is not stored.
+     *
+     * @param otpRecord the OTP record
+     * @return hash fields and values
+     */
+    public static Map<byte[], byte[]> encodeOtp(OTPRecord otpRecord) {
+        Map<byte[], byte[]> hash = new LinkedHashMap<>(8);
+        put(hash, "h", otpRecord.getOtpHash());
+        put(hash, "n", otpRecord.getAttempts());
+        put(hash, "c", toMillis(otpRecord.getCreatedAt()));
+        put(hash, "e", toMillis(otpRecord.getExpiresAt()));
+        put(hash, "v", Boolean.TRUE.equals(otpRecord.getVerified()) ? 1 : 0);
+        put(hash, "y", otpRecord.getType() != null ? otpRecord.getType().name() : null);
+        put(hash, "t", otpRecord.getTimeToLive());
+        return hash;
+    }
+
+    /**
+     * Decode an OTP record from HMGET values in OTP_FIELDS order.
+     *
+     * @param key the record key
+     * @param values field values as String or byte[]
+     * @return the OTP record, or null if the hash does not exist
+     */
+    public static OTPRecord decodeOtp(String key, List<?> values) {
+        String otpHash = string(values.get(0));
+        if (otpHash == null) {
+            return null;
+        }
+
+        String type = string(values.get(5));
+        return OTPRecord.builder()
+                .key(key)
+                .otpHash(otpHash)
+                .attempts(parseInt(values.get(1)))
+                .createdAt(dateTime(values.get(2)))
+                .expiresAt(dateTime(values.get(3)))
+                .verified(parseInt(values.get(4)) == 1)
+                .type(type != null ? OTPRecord.OTPType.valueOf(type) : null)
+                .timeToLive(parseLong(values.get(6)))
+                .build();
+    }
+
+    /**
+     * Convert a timestamp to epoch millis in the system time zone.
+     *
+     * @param dateTime the timestamp
+     * @return epoch millis, or null
+     */
+    public static Long toMillis(LocalDateTime dateTime) {
+        return dateTime != null ? dateTime.atZone(ZONE).toInstant().toEpochMilli() : null;
+    }
+
+    static byte[][] fieldBytes(String... fields) {
+        byte[][] bytes = new byte[fields.length][];
+        for (int i = 0; i < fields.length; i++) {
+            bytes[i] = fields[i].getBytes(StandardCharsets.UTF_8);
+        }
+        return bytes;
+    }
+
+    static LocalDateTime dateTime(Object value) {
+        String millis = string(value);
+        return millis != null ? LocalDateTime.ofInstant(Instant.ofEpochMilli(Long.parseLong(millis)), ZONE) : null;
+    }
+
+    private static void put(Map<byte[], byte[]> hash, String field, Object value) {
+        if (value != null) {
+            hash.put(field.getBytes(StandardCharsets.UTF_8), value.toString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static String string(Object value) {
+        if (value == null) {
+            return null;
+        }
+        return value instanceof byte[] bytes ? new String(bytes, StandardCharsets.UTF_8) : value.toString();
+    }
+
+    private static int parseInt(Object value) {
+        String string = string(value);
+        return string != null ? Integer.parseInt(string) : 0;
+    }
+
+    private static Long parseLong(Object value) {
+        String string = string(value);
+        return string != null ? Long.valueOf(string) : null;
+    }
+}
@@ -0,0 +1,86 @@
+package com.officemate.modules.auth.repository;
+
+import com.officemate.modules.auth.entity.OTPRecord;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Redis store for OTP records using the compact hash encoding of CompactRedisCodec.
+ * Records live under otp:{key} with a TTL, like the Spring Data mapping they replace,
+ * but without the type hint and secondary index entries.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OTPStore {
+
+    private static final String KEYSPACE = "otp";
+    private static final byte[][] FIELDS = CompactRedisCodec.fieldBytes(CompactRedisCodec.OTP_FIELDS);
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    /**
+     * Save an OTP record, replacing any existing record for the same key.
+     *
+     * @param otpRecord the OTP record
+     * @return the saved record
+     */
+    public OTPRecord save(OTPRecord otpRecord) {
+        byte[] key = bytes(key(otpRecord.getKey()));
+        Long ttl = otpRecord.getTimeToLive();
+
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.keyCommands().del(key);
+            connection.hashCommands().hMSet(key, CompactRedisCodec.encodeOtp(otpRecord));
+            if (ttl != null && ttl > 0) {
+                connection.keyCommands().expire(key, ttl);
+            }
+            return null;
+        });
+
+        return otpRecord;
+    }
+
+    /**
+     * Find OTP record by key (phone number or email)
+     *
+     * @param key the key in format "phone:+1234567890" or "email:user@company.com"
+     * @return Optional containing OTPRecord if found
+     */
+    public Optional<OTPRecord> findByKey(String key) {
+        List<byte[]> values = redisTemplate.execute((RedisCallback<List<byte[]>>) connection ->
+                connection.hashCommands().hMGet(bytes(key(key)), FIELDS));
+        return values != null ? Optional.ofNullable(CompactRedisCodec.decodeOtp(key, values)) : Optional.empty();
+    }
+
+    /**
+     * Delete an OTP record.
+     *
+     * @param otpRecord the record to delete
+     */
+    public void delete(OTPRecord otpRecord) {
+        deleteByKey(otpRecord.getKey());
+    }
+
+    /**
+     * Delete OTP record by key
+     *
+     * @param key the key to delete
+     */
+    public void deleteByKey(String key) {
+        redisTemplate.delete(key(key));
+    }
+
+    private static String key(String key) {
+        return KEYSPACE + ":" + key;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,64 @@
+package com.officemate.modules.auth.repository;
+
+import com.officemate.modules.auth.entity.RevokedToken;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Redis store for revoked tokens (token blacklist).
+ * Each revoked token is a single string key with a TTL matching the token's remaining
+ * validity, holding the compact value of CompactRedisCodec. Keys share the revoked_tokens
+ * keyspace of the Spring Data mapping, so the existence check also covers tokens revoked
+ * before the switch until they expire.
+ */
+@Repository
+@RequiredArgsConstructor
+public class RevokedTokenStore {
+
+    private static final String KEYSPACE = "revoked_tokens";
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    /**
+     * Add a token to the revoked list.
+     *
+     * @param revokedToken the revoked token (TTL in seconds must be positive)
+     * @return the saved revoked token
+     */
+    public RevokedToken save(RevokedToken revokedToken) {
+        redisTemplate.opsForValue().set(key(revokedToken.getTokenId()),
+                CompactRedisCodec.encodeRevokedToken(revokedToken), Duration.ofSeconds(revokedToken.getTtl()));
+        return revokedToken;
+    }
+
+    /**
+     * Check if a token is revoked.
+     *
+     * @param tokenId the token ID (jti claim)
+     * @return true if the token is in the revoked list
+     */
+    public boolean existsById(String tokenId) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(key(tokenId)));
+    }
+
+    /**
+     * Queue the command revoking a token on an open pipeline.
+     */
+    void write(RedisConnection connection, RevokedToken revokedToken) {
+        connection.stringCommands().setEx(bytes(key(revokedToken.getTokenId())), revokedToken.getTtl(),
+                bytes(CompactRedisCodec.encodeRevokedToken(revokedToken)));
+    }
+
+    private static String key(String tokenId) {
+        return KEYSPACE + ":" + tokenId;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -1,12 +1,16 @@
 package com.officemate.modules.auth.repository;
 
 import com.officemate.modules.auth.entity.SessionMetadata;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -80,6 +84,36 @@ public interface SessionMetadataRepository extends JpaRepository<SessionMetadata
         @Param("endTime") LocalDateTime endTime
     );
     
+    /**
+     * Find IDs of active sessions after the given session ID, in session ID order.
+     * Used for keyset pagination over active sessions without OFFSET scans.
+     *
+     * @param afterSessionId exclusive lower bound (empty string for the first page)
+     * @param limit maximum number of IDs to return
+     * @return active session IDs
+     */
+    @Query("SELECT sm.sessionId FROM SessionMetadata sm " +
+           "WHERE sm.active = true AND sm.sessionId > :afterSessionId ORDER BY sm.sessionId")
+    List<String> findActiveSessionIdsAfter(@Param("afterSessionId") String afterSessionId, Limit limit);
+    
+    /**
+     * End all active sessions with the given IDs in a single bulk update.
+     *
+     * @param sessionIds the session IDs to end
+     * @param reason termination reason
+     * @param endedAt timestamp when the sessions ended
+     * @return number of updated records
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE SessionMetadata sm SET sm.active = false, sm.endedAt = :endedAt, sm.terminationReason = :reason " +
+           "WHERE sm.sessionId IN :sessionIds AND sm.active = true")
+    int endSessions(
+        @Param("sessionIds") Collection<String> sessionIds,
+        @Param("reason") String reason,
+        @Param("endedAt") LocalDateTime endedAt
+    );
+    
     /**
      * Delete old session metadata records.
      *
@@ -0,0 +1,51 @@
+package com.officemate.modules.auth.repository;
+
+import com.officemate.modules.auth.entity.RevokedToken;
+import com.officemate.modules.auth.entity.UserSession;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+/**
+ * Repository for bulk session revocation in Redis.
+ * Writes revoked tokens and deletes sessions in a single pipelined round trip,
+ * using the key layouts of RevokedTokenStore and UserSessionStore.
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class SessionRevocationRepository {
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final UserSessionStore userSessionStore;
+    private final RevokedTokenStore revokedTokenStore;
+
+    /**
+     * Blacklist tokens and delete sessions in one pipeline.
+     *
+     * @param revokedTokens tokens to add to the revoked list (TTL in seconds must be positive)
+     * @param sessions sessions to delete
+     */
+    public void revokeAndDelete(Collection<RevokedToken> revokedTokens, Collection<UserSession> sessions) {
+        if (revokedTokens.isEmpty() && sessions.isEmpty()) {
+            return;
+        }
+
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (RevokedToken revokedToken : revokedTokens) {
+                revokedTokenStore.write(connection, revokedToken);
+            }
+            for (UserSession session : sessions) {
+                userSessionStore.delete(connection, session.getSessionId(), session.getUserId());
+            }
+            return null;
+        });
+
+        log.debug("Pipelined {} token revocations and {} session deletions",
+                revokedTokens.size(), sessions.size());
+    }
+}
@@ -0,0 +1,419 @@
+package com.officemate.modules.auth.repository;
+
+import com.officemate.modules.auth.entity.UserSession;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisZSetCommands;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Redis store for user sessions with a per-user session index.
+ * Each user has a sorted set of session IDs scored by last access time, so listing
+ * a user's sessions is one ZRANGE plus one pipelined batch of HMGETs, and evicting the
+ * least recently used sessions beyond the concurrent session limit is a single script call.
+ * Session hashes use the compact encoding of CompactRedisCodec. Sessions written by the
+ * Spring Data mapping before the switch are still read through UserSessionRepository
+ * until they expire or are saved again, and are moved from the Spring Data user index
+ * into the sorted set the first time their user's sessions are listed or evicted.
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class UserSessionStore {
+
+    public static final String KEYSPACE = "user_sessions";
+    private static final String USER_INDEX_PREFIX = KEYSPACE + ":by_user:";
+    private static final String LEGACY_USER_INDEX_PREFIX = KEYSPACE + ":userId:";
+    private static final String LEGACY_ID_FIELD = "sessionId";
+    private static final String LEGACY_USER_ID_FIELD = "userId";
+    private static final String LEGACY_EXPIRES_AT_FIELD = "expiresAt";
+
+    /**
+     * Compact session fields, the legacy session ID field, which marks hashes still in the
+     * Spring Data layout, and the legacy permission list fields, which the Spring Data mapping
+     * of the int permission mask does not read.
+     */
+    private static final byte[][] READ_FIELDS = CompactRedisCodec.fieldBytes(
+            Stream.of(Arrays.stream(CompactRedisCodec.SESSION_FIELDS), Stream.of(LEGACY_ID_FIELD),
+                            Arrays.stream(CompactRedisCodec.LEGACY_PERMISSION_FIELDS))
+                    .flatMap(fields -> fields)
+                    .toArray(String[]::new));
+    private static final int LEGACY_ID_INDEX = CompactRedisCodec.SESSION_FIELDS.length;
+    private static final byte[][] EXPIRES_AT_FIELDS = CompactRedisCodec.fieldBytes(
+            CompactRedisCodec.SESSION_EXPIRES_AT_FIELD, LEGACY_EXPIRES_AT_FIELD);
+
+    /**
+     * Pops the least recently accessed sessions beyond the limit from the user index.
+     * KEYS[1] = user index, ARGV[1] = max sessions. Returns the evicted session IDs.
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> EVICT_OLDEST_SCRIPT = new DefaultRedisScript<>(
+            "local excess = redis.call('ZCARD', KEYS[1]) - tonumber(ARGV[1]) " +
+            "if excess <= 0 then return {} end " +
+            "local evicted = redis.call('ZRANGE', KEYS[1], 0, excess - 1) " +
+            "redis.call('ZREMRANGEBYRANK', KEYS[1], 0, excess - 1) " +
+            "return evicted",
+            List.class);
+
+    /**
+     * Updates last access on an existing session without recreating a missing one.
+     * KEYS[1] = session hash, KEYS[2] = user index,
+     * ARGV[1] = last access epoch millis, ARGV[2] = TTL seconds, ARGV[3] = session ID.
+     */
+    private static final RedisScript<Long> TOUCH_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end " +
+            "redis.call('HSET', KEYS[1], '" + CompactRedisCodec.SESSION_LAST_ACCESS_FIELD + "', ARGV[1]) " +
+            "redis.call('EXPIRE', KEYS[1], ARGV[2]) " +
+            "redis.call('ZADD', KEYS[2], ARGV[1], ARGV[3]) " +
+            "if redis.call('TTL', KEYS[2]) < tonumber(ARGV[2]) then redis.call('EXPIRE', KEYS[2], ARGV[2]) end " +
+            "return 1",
+            Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final UserSessionRepository legacySessionRepository;
+
+    /**
+     * Save a session and index it under its user.
+     *
+     * @param session the session to save
+     * @return the saved session
+     */
+    public UserSession save(UserSession session) {
+        byte[] key = sessionKey(session.getSessionId());
+        byte[] indexKey = bytes(indexKey(session.getUserId()));
+        long ttl = session.getTtl() != null ? session.getTtl() : -1;
+
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.keyCommands().del(key);
+            connection.hashCommands().hMSet(key, CompactRedisCodec.encodeSession(session));
+            connection.setCommands().sAdd(bytes(KEYSPACE), bytes(session.getSessionId()));
+            connection.zSetCommands().zAdd(indexKey, score(session.getLastAccessAt()), bytes(session.getSessionId()));
+            if (ttl > 0) {
+                connection.keyCommands().expire(key, ttl);
+                connection.keyCommands().expire(indexKey, ttl);
+            }
+            return null;
+        });
+
+        return session;
+    }
+
+    /**
+     * Find a session by ID.
+     *
+     * @param sessionId the session ID
+     * @return the session, if present
+     */
+    public Optional<UserSession> findById(String sessionId) {
+        List<UserSession> sessions = findAllById(List.of(sessionId));
+        return sessions.isEmpty() ? Optional.empty() : Optional.of(sessions.get(0));
+    }
+
+    /**
+     * Find sessions by ID with one pipelined HMGET per session.
+     * Sessions that no longer exist are skipped.
+     *
+     * @param sessionIds the session IDs
+     * @return sessions that exist, in the order requested (legacy-format sessions last)
+     */
+    public List<UserSession> findAllById(Collection<String> sessionIds) {
+        if (sessionIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<String> ids = List.copyOf(sessionIds);
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String sessionId : ids) {
+                connection.hashCommands().hMGet(sessionKey(sessionId), READ_FIELDS);
+            }
+            return null;
+        });
+
+        List<UserSession> sessions = new ArrayList<>(ids.size());
+        Map<String, Integer> legacyPermissions = new LinkedHashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            List<?> values = (List<?>) results.get(i);
+            UserSession session = CompactRedisCodec.decodeSession(ids.get(i), values);
+            if (session != null) {
+                sessions.add(session);
+            } else if (values.get(LEGACY_ID_INDEX) != null) {
+                legacyPermissions.put(ids.get(i), CompactRedisCodec.decodeLegacyPermissions(
+                        values.subList(LEGACY_ID_INDEX + 1, values.size())));
+            }
+        }
+
+        if (!legacyPermissions.isEmpty()) {
+            for (UserSession session : legacySessionRepository.findAllById(List.copyOf(legacyPermissions.keySet()))) {
+                session.setPermissions(legacyPermissions.get(session.getSessionId()));
+                sessions.add(session);
+            }
+        }
+        return sessions;
+    }
+
+    /**
+     * Find all sessions of a user, least recently accessed first.
+     * Index entries whose session hash has expired are removed.
+     *
+     * @param userId the user ID
+     * @return the user's active sessions
+     */
+    public List<UserSession> findByUserId(String userId) {
+        migrateLegacyIndex(userId);
+        String indexKey = indexKey(userId);
+        List<String> sessionIds = new ArrayList<>(
+                Optional.ofNullable(redisTemplate.opsForZSet().range(indexKey, 0, -1)).orElse(Collections.emptySet()));
+
+        List<UserSession> sessions = findAllById(sessionIds);
+        if (sessions.size() < sessionIds.size()) {
+            sessions.forEach(session -> sessionIds.remove(session.getSessionId()));
+            redisTemplate.opsForZSet().remove(indexKey, sessionIds.toArray());
+            log.debug("Pruned {} expired sessions from index of user {}", sessionIds.size(), userId);
+        }
+        return sessions;
+    }
+
+    /**
+     * Record an access on an existing session: updates last access, the index score
+     * and the TTL in one atomic call. Missing sessions are not recreated.
+     *
+     * @param sessionId the session ID
+     * @param userId the user ID owning the session
+     * @param ttlSeconds TTL to apply to the session
+     * @return true if the session exists
+     */
+    public boolean touch(String sessionId, String userId, long ttlSeconds) {
+        Long touched = redisTemplate.execute(TOUCH_SCRIPT,
+                List.of(KEYSPACE + ":" + sessionId, indexKey(userId)),
+                String.valueOf(System.currentTimeMillis()), String.valueOf(ttlSeconds), sessionId);
+        return touched != null && touched == 1L;
+    }
+
+    /**
+     * Remove the least recently accessed sessions of a user beyond the given limit
+     * from the user index. The caller is responsible for revoking and deleting them.
+     *
+     * @param userId the user ID
+     * @param maxSessions maximum number of sessions to keep
+     * @return IDs of the evicted sessions, oldest first
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> evictOldest(String userId, int maxSessions) {
+        migrateLegacyIndex(userId);
+        List<String> evicted = redisTemplate.execute(EVICT_OLDEST_SCRIPT,
+                List.of(indexKey(userId)), String.valueOf(maxSessions));
+        return evicted != null ? evicted : Collections.emptyList();
+    }
+
+    /**
+     * Check whether a session exists.
+     *
+     * @param sessionId the session ID
+     * @return true if the session hash exists
+     */
+    public boolean existsById(String sessionId) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(KEYSPACE + ":" + sessionId));
+    }
+
+    /**
+     * Find which of the given sessions have expired: either the hash is gone
+     * or its expiry time has passed. Uses one pipelined HMGET per session.
+     *
+     * @param sessionIds the session IDs to check
+     * @param now the reference time
+     * @return IDs of expired sessions
+     */
+    public List<String> findExpired(List<String> sessionIds, LocalDateTime now) {
+        if (sessionIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String sessionId : sessionIds) {
+                connection.hashCommands().hMGet(sessionKey(sessionId), EXPIRES_AT_FIELDS);
+            }
+            return null;
+        });
+
+        List<String> expired = new ArrayList<>();
+        for (int i = 0; i < sessionIds.size(); i++) {
+            List<?> values = (List<?>) results.get(i);
+            LocalDateTime expiresAt = values.get(0) != null
+                    ? CompactRedisCodec.dateTime(values.get(0))
+                    : values.get(1) != null ? LocalDateTime.parse(values.get(1).toString()) : null;
+            if (expiresAt == null || expiresAt.isBefore(now)) {
+                expired.add(sessionIds.get(i));
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Find which of the given sessions no longer exist, with one pipelined EXISTS per session.
+     *
+     * @param sessionIds the session IDs to check
+     * @return IDs of sessions missing from Redis
+     */
+    public List<String> findMissing(List<String> sessionIds) {
+        if (sessionIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String sessionId : sessionIds) {
+                connection.keyCommands().exists(sessionKey(sessionId));
+            }
+            return null;
+        });
+
+        List<String> missing = new ArrayList<>();
+        for (int i = 0; i < sessionIds.size(); i++) {
+            if (!Boolean.TRUE.equals(results.get(i))) {
+                missing.add(sessionIds.get(i));
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Iterate over all known session IDs with SSCAN, without loading them at once.
+     * The returned cursor must be closed.
+     *
+     * @param batchSize SSCAN count hint
+     * @return cursor over session IDs
+     */
+    public Cursor<String> scanSessionIds(int batchSize) {
+        return redisTemplate.opsForSet().scan(KEYSPACE, ScanOptions.scanOptions().count(batchSize).build());
+    }
+
+    /**
+     * Remove expired sessions and their bookkeeping entries in one pipeline.
+     * Entries in user indexes are pruned on the next read of that index.
+     *
+     * @param sessionIds the expired session IDs
+     */
+    public void deleteExpired(Collection<String> sessionIds) {
+        if (sessionIds.isEmpty()) {
+            return;
+        }
+
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String sessionId : sessionIds) {
+                delete(connection, sessionId, null);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Delete a session and remove it from its user's index.
+     *
+     * @param session the session to delete
+     */
+    public void delete(UserSession session) {
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            delete(connection, session.getSessionId(), session.getUserId());
+            return null;
+        });
+    }
+
+    /**
+     * Delete a session by ID, looking up its user for the index.
+     *
+     * @param sessionId the session ID
+     */
+    public void deleteById(String sessionId) {
+        List<Object> userIds = redisTemplate.opsForHash().multiGet(KEYSPACE + ":" + sessionId,
+                List.<Object>of(CompactRedisCodec.SESSION_FIELDS[0], LEGACY_USER_ID_FIELD));
+        Object userId = userIds.get(0) != null ? userIds.get(0) : userIds.get(1);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            delete(connection, sessionId, userId != null ? userId.toString() : null);
+            return null;
+        });
+    }
+
+    /**
+     * Move the sessions listed in the Spring Data user index into the sorted set index, scored by
+     * their last access, so lookups and eviction see sessions created before the sorted set existed.
+     * Sessions that no longer exist are dropped from the Spring Data index. Costs one SMEMBERS once
+     * the Spring Data index is empty.
+     */
+    private void migrateLegacyIndex(String userId) {
+        String legacyIndexKey = LEGACY_USER_INDEX_PREFIX + userId;
+        Set<String> legacyIds = redisTemplate.opsForSet().members(legacyIndexKey);
+        if (legacyIds == null || legacyIds.isEmpty()) {
+            return;
+        }
+
+        List<UserSession> sessions = findAllById(legacyIds);
+        byte[] indexKey = bytes(indexKey(userId));
+        long ttl = sessions.stream().map(UserSession::getTtl).filter(Objects::nonNull).mapToLong(Long::longValue)
+                .max().orElse(-1);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (UserSession session : sessions) {
+                // Keep the score of sessions already indexed by a newer save or touch
+                connection.zSetCommands().zAdd(indexKey, score(session.getLastAccessAt()),
+                        bytes(session.getSessionId()), RedisZSetCommands.ZAddArgs.ifNotExists());
+            }
+            if (!sessions.isEmpty() && ttl > 0) {
+                connection.keyCommands().expire(indexKey, ttl);
+            }
+            connection.setCommands().sRem(bytes(legacyIndexKey),
+                    legacyIds.stream().map(UserSessionStore::bytes).toArray(byte[][]::new));
+            return null;
+        });
+        log.debug("Moved {} sessions of user {} from the legacy user index", sessions.size(), userId);
+    }
+
+    /**
+     * Queue the commands deleting a session on an open pipeline.
+     */
+    void delete(RedisConnection connection, String sessionId, String userId) {
+        byte[] id = bytes(sessionId);
+        String key = KEYSPACE + ":" + sessionId;
+
+        connection.keyCommands().del(bytes(key), bytes(key + ":idx"));
+        connection.setCommands().sRem(bytes(KEYSPACE), id);
+        if (userId != null) {
+            connection.zSetCommands().zRem(bytes(indexKey(userId)), id);
+            connection.setCommands().sRem(bytes(LEGACY_USER_INDEX_PREFIX + userId), id);
+        }
+    }
+
+    private static double score(LocalDateTime lastAccessAt) {
+        return lastAccessAt != null ? CompactRedisCodec.toMillis(lastAccessAt) : System.currentTimeMillis();
+    }
+
+    private static String indexKey(String userId) {
+        return USER_INDEX_PREFIX + userId;
+    }
+
+    private static byte[] sessionKey(String sessionId) {
+        return bytes(KEYSPACE + ":" + sessionId);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -1,16 +1,19 @@
 package com.officemate.modules.auth.scheduled;
 
 import com.officemate.modules.auth.entity.SessionMetadata;
-import com.officemate.modules.auth.entity.UserSession;
 import com.officemate.modules.auth.repository.SessionMetadataRepository;
-import com.officemate.modules.auth.repository.UserSessionRepository;
+import com.officemate.modules.auth.repository.UserSessionStore;
+import com.officemate.modules.auth.service.SessionManagementService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.redis.core.Cursor;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -22,51 +25,56 @@ import java.util.List;
 @Slf4j
 public class SessionCleanupJob {
     
-    private final UserSessionRepository userSessionRepository;
+    private static final int SCAN_BATCH_SIZE = 500;
+    private static final int SYNC_CHUNK_SIZE = 1000;
+    
+    private final UserSessionStore userSessionStore;
     private final SessionMetadataRepository sessionMetadataRepository;
+    private final SessionManagementService sessionManagementService;
     
     /**
-     * Clean up expired sessions from Redis.
-     * Redis TTL handles automatic expiration, but this provides additional cleanup.
+     * Sweep for expired sessions whose expiry events were missed.
+     * Walks the session ID set with SSCAN in fixed-size batches, checks each batch with
+     * one pipelined round trip and ends the expired ones in bulk, so memory and Redis
+     * load per batch stay constant however many sessions are live.
      * Runs every hour.
      */
     @Scheduled(cron = "0 0 * * * *") // Every hour at minute 0
-    @Transactional
     public void cleanupExpiredSessions() {
-        log.info("Starting expired session cleanup job");
+        log.info("Starting expired session sweep");
         
-        try {
-            // Get all sessions from Redis
-            Iterable<UserSession> allSessions = userSessionRepository.findAll();
+        try (Cursor<String> cursor = userSessionStore.scanSessionIds(SCAN_BATCH_SIZE)) {
+            List<String> batch = new ArrayList<>(SCAN_BATCH_SIZE);
+            int scannedCount = 0;
             int expiredCount = 0;
             
-            for (UserSession session : allSessions) {
-                // Check if session has expired
-                if (session.getExpiresAt() != null && 
-                    session.getExpiresAt().isBefore(LocalDateTime.now())) {
-                    
-                    // Update metadata in PostgreSQL
-                    sessionMetadataRepository.findBySessionId(session.getSessionId())
-                        .ifPresent(metadata -> {
-                            metadata.endSession("EXPIRED");
-                            sessionMetadataRepository.save(metadata);
-                        });
-                    
-                    // Delete from Redis
-                    userSessionRepository.deleteById(session.getSessionId());
-                    expiredCount++;
-                    
-                    log.debug("Cleaned up expired session: {}", session.getSessionId());
+            while (cursor.hasNext()) {
+                batch.add(cursor.next());
+                if (batch.size() == SCAN_BATCH_SIZE) {
+                    scannedCount += batch.size();
+                    expiredCount += endExpired(batch);
+                    batch.clear();
                 }
             }
+            scannedCount += batch.size();
+            expiredCount += endExpired(batch);
             
-            log.info("Expired session cleanup completed. Removed {} sessions", expiredCount);
+            log.info("Expired session sweep completed. Scanned {} sessions, removed {}", scannedCount, expiredCount);
             
         } catch (Exception e) {
-            log.error("Error during expired session cleanup", e);
+            log.error("Error during expired session sweep", e);
         }
     }
     
+    private int endExpired(List<String> sessionIds) {
+        List<String> expired = userSessionStore.findExpired(sessionIds, LocalDateTime.now());
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        sessionManagementService.endExpiredSessions(expired);
+        return expired.size();
+    }
+    
     /**
      * Clean up inactive sessions that haven't been accessed recently.
      * Marks sessions as inactive if no activity for 30 days.
@@ -90,7 +98,7 @@ public class SessionCleanupJob {
                 sessionMetadataRepository.save(metadata);
                 
                 // Remove from Redis if still exists
-                userSessionRepository.deleteById(metadata.getSessionId());
+                userSessionStore.deleteById(metadata.getSessionId());
                 cleanedCount++;
                 
                 log.debug("Cleaned up inactive session: {}", metadata.getSessionId());
@@ -127,42 +135,41 @@ public class SessionCleanupJob {
     
     /**
      * Synchronize Redis sessions with PostgreSQL metadata.
-     * Ensures consistency between Redis and PostgreSQL.
+     * Streams active session IDs from PostgreSQL in keyset-paginated chunks, checks each
+     * chunk against Redis with one pipelined EXISTS round trip and ends the sessions
+     * missing from Redis with one bulk update per chunk. Each chunk commits on its own,
+     * so no long-running transaction is held.
      * Runs every 6 hours.
      */
     @Scheduled(cron = "0 0 */6 * * *") // Every 6 hours
-    @Transactional
     public void synchronizeSessionState() {
         log.info("Starting session state synchronization job");
         
         try {
-            // Get all active metadata records
-            List<SessionMetadata> activeMetadata = sessionMetadataRepository
-                .findSessionsInTimeRange(
-                    LocalDateTime.now().minusDays(7),
-                    LocalDateTime.now()
-                );
-            
+            LocalDateTime endedAt = LocalDateTime.now();
+            String lastSessionId = "";
+            int checkedCount = 0;
             int syncedCount = 0;
-            for (SessionMetadata metadata : activeMetadata) {
-                if (metadata.isActive()) {
-                    // Check if session still exists in Redis
-                    boolean existsInRedis = userSessionRepository
-                        .existsById(metadata.getSessionId());
-                    
-                    if (!existsInRedis) {
-                        // Session expired in Redis but metadata still active
-                        metadata.endSession("EXPIRED_IN_REDIS");
-                        sessionMetadataRepository.save(metadata);
-                        syncedCount++;
-                        
-                        log.debug("Synchronized metadata for expired session: {}", 
-                            metadata.getSessionId());
-                    }
+            
+            List<String> chunk;
+            do {
+                chunk = sessionMetadataRepository.findActiveSessionIdsAfter(lastSessionId, Limit.of(SYNC_CHUNK_SIZE));
+                if (chunk.isEmpty()) {
+                    break;
                 }
-            }
+                
+                List<String> missing = userSessionStore.findMissing(chunk);
+                if (!missing.isEmpty()) {
+                    // Sessions expired in Redis but metadata still active
+                    syncedCount += sessionMetadataRepository.endSessions(missing, "EXPIRED_IN_REDIS", endedAt);
+                }
+                
+                checkedCount += chunk.size();
+                lastSessionId = chunk.get(chunk.size() - 1);
+            } while (chunk.size() == SYNC_CHUNK_SIZE);
             
-            log.info("Session state synchronization completed. Synced {} records", syncedCount);
+            log.info("Session state synchronization completed. Checked {} sessions, synced {} records",
+                checkedCount, syncedCount);
             
         } catch (Exception e) {
             log.error("Error during session state synchronization", e);
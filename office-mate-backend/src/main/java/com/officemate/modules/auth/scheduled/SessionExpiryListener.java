@@ -0,0 +1,133 @@
+package com.officemate.modules.auth.scheduled;
+
+import com.officemate.modules.auth.repository.UserSessionStore;
+import com.officemate.modules.auth.service.SessionManagementService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Listens for Redis key expiry notifications on user sessions and ends the
+ * corresponding session metadata in batches.
+ * Expired session IDs are buffered in a bounded queue and flushed every few seconds,
+ * so each flush is one bulk update regardless of how many sessions are live.
+ * Events dropped while the queue is full or the application is down are picked up
+ * by the SCAN sweep in SessionCleanupJob.
+ * Requires notify-keyspace-events to include "Ex" on the Redis server.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SessionExpiryListener implements MessageListener {
+
+    private static final String SESSION_KEY_PREFIX = UserSessionStore.KEYSPACE + ":";
+
+    private final RedisMessageListenerContainer listenerContainer;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final SessionManagementService sessionManagementService;
+
+    @Value("${app.session.expiry-events.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.session.expiry-events.configure-redis:false}")
+    private boolean configureRedis;
+
+    @Value("${app.session.expiry-events.queue-capacity:100000}")
+    private int queueCapacity;
+
+    @Value("${app.session.expiry-events.batch-size:500}")
+    private int batchSize;
+
+    @Value("${spring.data.redis.database:0}")
+    private int database;
+
+    private BlockingQueue<String> expiredSessionIds;
+
+    /**
+     * Subscribe to key expiry events of the configured Redis database.
+     */
+    @PostConstruct
+    public void init() {
+        expiredSessionIds = new ArrayBlockingQueue<>(queueCapacity);
+        if (!enabled) {
+            log.info("Session expiry events disabled; relying on scheduled sweep");
+            return;
+        }
+
+        if (configureRedis) {
+            redisTemplate.execute((RedisCallback<Object>) connection -> {
+                connection.serverCommands().setConfig("notify-keyspace-events", "Ex");
+                return null;
+            });
+        }
+
+        listenerContainer.addMessageListener(this, new ChannelTopic("__keyevent@" + database + "__:expired"));
+        log.info("Subscribed to session expiry events on database {}", database);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String sessionId = sessionIdFromKey(new String(message.getBody(), StandardCharsets.UTF_8));
+        if (sessionId != null && !expiredSessionIds.offer(sessionId)) {
+            log.debug("Expiry queue full, leaving session {} to the scheduled sweep", sessionId);
+        }
+    }
+
+    /**
+     * End metadata for sessions whose expiry events have been received.
+     * Runs every 5 seconds by default.
+     */
+    @Scheduled(fixedDelayString = "${app.session.expiry-events.flush-interval-ms:5000}")
+    public void flush() {
+        int ended = 0;
+        List<String> batch = new ArrayList<>(batchSize);
+        while (expiredSessionIds.drainTo(batch, batchSize) > 0) {
+            try {
+                ended += sessionManagementService.endExpiredSessions(batch);
+            } catch (Exception e) {
+                log.error("Failed to end {} expired sessions", batch.size(), e);
+            }
+            batch = new ArrayList<>(batchSize);
+        }
+
+        if (ended > 0) {
+            log.debug("Ended {} sessions from expiry events", ended);
+        }
+    }
+
+    /**
+     * Get the number of expired sessions waiting to be flushed.
+     *
+     * @return pending count
+     */
+    public int getPendingCount() {
+        return expiredSessionIds.size();
+    }
+
+    /**
+     * Extract the session ID from an expired key. Only session hashes
+     * (user_sessions:{id}) qualify; index and helper keys are ignored.
+     */
+    static String sessionIdFromKey(String key) {
+        if (!key.startsWith(SESSION_KEY_PREFIX)) {
+            return null;
+        }
+        String sessionId = key.substring(SESSION_KEY_PREFIX.length());
+        return sessionId.isEmpty() || sessionId.indexOf(':') >= 0 ? null : sessionId;
+    }
+}
@@ -7,6 +7,7 @@ import com.officemate.modules.auth.repository.EmailChangeAuditLogRepository;
 import com.officemate.modules.auth.repository.EmailVerificationRepository;
 import com.officemate.modules.auth.repository.UserAccountRepository;
 import com.officemate.modules.wallet.service.WalletService;
+import com.officemate.shared.aspect.Audited;
 import com.officemate.shared.dto.VerificationResponse;
 import com.officemate.shared.exception.CorporateEmailException;
 import com.officemate.shared.exception.WalletException;
@@ -132,6 +133,7 @@ public class EmailVerificationService {
      * @return VerificationResponse with verification result
      * @throws CorporateEmailException if verification fails
      */
+    @Audited(entityType = "UserAccount", action = Audited.Action.UPDATE, entityId = Audited.EntityIdSource.USER_ID)
     @Transactional
     public VerificationResponse verifyEmailOTP(UUID userId, String otp) {
         log.info("Verifying email OTP for user: {}", userId);
@@ -0,0 +1,284 @@
+package com.officemate.modules.auth.service;
+
+import com.officemate.config.JwtConfig;
+import com.officemate.config.security.TokenValidationCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Codec for signing and parsing JWT tokens.
+ * Builds the signing key and parser once and swaps them atomically on key rotation,
+ * so token issuance and validation never re-derive keys or rebuild parsers.
+ * Verification keys are looked up by the kid header in an immutable map, allowing
+ * several keyring keys to be active at once for zero-downtime rotation.
+ * Retiring a key clears the token validation cache, so cached tokens signed with it stop validating at once.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JwtTokenCodec {
+
+    private static final int KEY_ID_LENGTH = 16;
+
+    private final JwtConfig jwtConfig;
+    private final TokenValidationCache tokenValidationCache;
+    private final AtomicReference<KeySet> keySet = new AtomicReference<>();
+    private final Map<String, Instant> keyExpiries = new HashMap<>();
+
+    /**
+     * Build the initial key set from JWT configuration.
+     * The single configured key (RSA key pair, or the HMAC secret when no keyring is configured)
+     * verifies tokens without a kid; the newest signing-capable keyring entry, if any, signs new tokens.
+     */
+    @PostConstruct
+    public synchronized void init() {
+        Instant now = Instant.now();
+        Map<String, Key> verificationKeys = new HashMap<>();
+        String signingKeyId = null;
+        Key signingKey = null;
+        Instant signingKeyCreatedAt = Instant.MIN;
+
+        Key fallbackKey = configuredVerificationKey();
+        if (fallbackKey != null) {
+            signingKeyId = jwtConfig.getKeyId() != null ? jwtConfig.getKeyId() : keyIdFor(fallbackKey);
+            signingKey = configuredSigningKey(fallbackKey);
+            verificationKeys.put(signingKeyId, fallbackKey);
+        }
+
+        keyExpiries.clear();
+        for (JwtConfig.KeyEntry entry : jwtConfig.getKeys()) {
+            if (entry.isExpired(now)) {
+                log.info("Skipping expired JWT key {}", entry.getKid());
+                continue;
+            }
+
+            verificationKeys.put(entry.getKid(), entry.getVerificationKey());
+            if (entry.getNotAfter() != null) {
+                keyExpiries.put(entry.getKid(), entry.getNotAfter());
+            }
+
+            Instant createdAt = entry.getCreatedAt() != null ? entry.getCreatedAt() : Instant.EPOCH;
+            if (entry.canSign() && createdAt.isAfter(signingKeyCreatedAt)) {
+                signingKeyId = entry.getKid();
+                signingKey = entry.getSigningKey();
+                signingKeyCreatedAt = createdAt;
+            }
+        }
+
+        if (signingKey == null) {
+            throw new IllegalStateException("No JWT signing key configured");
+        }
+
+        keySet.set(KeySet.of(signingKeyId, signingKey, verificationKeys, fallbackKey));
+
+        log.info("JWT codec initialized with signing key {} ({} verification keys active)",
+                signingKeyId, verificationKeys.size());
+    }
+
+    /**
+     * Retire keyring keys whose not-after time has passed, so they age out
+     * without a coordinated re-authentication of all users.
+     * Runs every 15 minutes.
+     */
+    @Scheduled(cron = "0 */15 * * * *")
+    public synchronized void retireExpiredKeys() {
+        Instant now = Instant.now();
+        for (Map.Entry<String, Instant> expiry : Map.copyOf(keyExpiries).entrySet()) {
+            if (now.isBefore(expiry.getValue())) {
+                continue;
+            }
+
+            if (expiry.getKey().equals(getSigningKeyId())) {
+                log.warn("JWT signing key {} is past its not-after time; configure a newer key", expiry.getKey());
+                continue;
+            }
+
+            retire(expiry.getKey());
+        }
+    }
+
+    /**
+     * Create a token builder pre-configured with the current signing key and kid header.
+     *
+     * @return JwtBuilder ready for claims
+     */
+    public JwtBuilder builder() {
+        KeySet current = keySet.get();
+        return Jwts.builder()
+                .header().keyId(current.signingKeyId()).and()
+                .signWith(current.signingKey());
+    }
+
+    /**
+     * Verify a signed token and extract its claims.
+     *
+     * @param token the JWT token
+     * @return Claims object
+     * @throws JwtException if token is invalid
+     */
+    public Claims parse(String token) throws JwtException {
+        return keySet.get().parser().parseSignedClaims(token).getPayload();
+    }
+
+    /**
+     * Rotate to a new signing key.
+     * Previously active verification keys remain valid until retired,
+     * so outstanding tokens keep working.
+     *
+     * @param keyId the key ID written to the kid header
+     * @param signingKey key used to sign new tokens
+     * @param verificationKey key used to verify tokens carrying this kid
+     */
+    public synchronized void rotate(String keyId, Key signingKey, Key verificationKey) {
+        KeySet current = keySet.get();
+        Map<String, Key> verificationKeys = new HashMap<>(current.verificationKeys());
+        verificationKeys.put(keyId, verificationKey);
+        keySet.set(KeySet.of(keyId, signingKey, verificationKeys, current.fallbackKey()));
+
+        log.info("Rotated JWT signing key to {} ({} verification keys active)", keyId, verificationKeys.size());
+    }
+
+    /**
+     * Retire a verification key. Tokens signed with it will no longer validate.
+     *
+     * @param keyId the key ID to retire
+     * @throws IllegalArgumentException if the key is the current signing key
+     */
+    public synchronized void retire(String keyId) {
+        KeySet current = keySet.get();
+        if (keyId.equals(current.signingKeyId())) {
+            throw new IllegalArgumentException("Cannot retire the active signing key: " + keyId);
+        }
+
+        Map<String, Key> verificationKeys = new HashMap<>(current.verificationKeys());
+        Key retired = verificationKeys.remove(keyId);
+        if (retired == null) {
+            return;
+        }
+
+        keyExpiries.remove(keyId);
+        Key fallbackKey = retired.equals(current.fallbackKey()) ? null : current.fallbackKey();
+        keySet.set(KeySet.of(current.signingKeyId(), current.signingKey(), verificationKeys, fallbackKey));
+        // Cached validations do not record their key; drop them all so the retired key's tokens are re-verified
+        tokenValidationCache.clear();
+
+        log.info("Retired JWT verification key {}", keyId);
+    }
+
+    /**
+     * Get the key ID used to sign new tokens.
+     *
+     * @return signing key ID
+     */
+    public String getSigningKeyId() {
+        return keySet.get().signingKeyId();
+    }
+
+    /**
+     * Get the key IDs currently accepted for verification.
+     *
+     * @return set of active verification key IDs
+     */
+    public Set<String> getVerificationKeyIds() {
+        return keySet.get().verificationKeys().keySet();
+    }
+
+    /**
+     * Get the single configured key. The HMAC secret is only used when HMAC is the configured
+     * algorithm and there is no keyring: the secret always has a (public) default value, so
+     * accepting it alongside a keyring would let anyone sign tokens.
+     */
+    private Key configuredVerificationKey() {
+        if (jwtConfig.isRsaEnabled()) {
+            return jwtConfig.getPublicKey();
+        }
+        if ("HS256".equals(jwtConfig.getAlgorithm()) && jwtConfig.getKeys().isEmpty()
+                && jwtConfig.getSecret() != null) {
+            return Keys.hmacShaKeyFor(jwtConfig.getSecret().getBytes(StandardCharsets.UTF_8));
+        }
+        return null;
+    }
+
+    private Key configuredSigningKey(Key verificationKey) {
+        return jwtConfig.isRsaEnabled() ? jwtConfig.getPrivateKey() : verificationKey;
+    }
+
+    /**
+     * Derive a stable key ID from key material (truncated SHA-256 thumbprint).
+     *
+     * @param verificationKey the verification key
+     * @return URL-safe key ID
+     */
+    public static String keyIdFor(Key verificationKey) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(verificationKey.getEncoded());
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, KEY_ID_LENGTH);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Immutable snapshot of signing and verification keys with a prebuilt parser.
+     * Tokens without a kid header (issued before key IDs were introduced)
+     * are verified with the fallback key.
+     */
+    private record KeySet(String signingKeyId, Key signingKey, Map<String, Key> verificationKeys,
+                          Key fallbackKey, JwtParser parser) {
+
+        static KeySet of(String signingKeyId, Key signingKey, Map<String, Key> verificationKeys, Key fallbackKey) {
+            Map<String, Key> keys = Map.copyOf(verificationKeys);
+            JwtParser parser = Jwts.parser()
+                    .keyLocator(new KeyIdLocator(keys, fallbackKey))
+                    .build();
+            return new KeySet(signingKeyId, signingKey, keys, fallbackKey, parser);
+        }
+    }
+
+    /**
+     * Resolves the verification key from the kid header.
+     */
+    private static class KeyIdLocator extends LocatorAdapter<Key> {
+
+        private final Map<String, Key> keys;
+        private final Key fallbackKey;
+
+        KeyIdLocator(Map<String, Key> keys, Key fallbackKey) {
+            this.keys = keys;
+            this.fallbackKey = fallbackKey;
+        }
+
+        @Override
+        protected Key locate(JwsHeader header) {
+            String keyId = header.getKeyId();
+            Key key = keyId != null ? keys.get(keyId) : fallbackKey;
+            if (key == null) {
+                throw new SignatureException("Unknown signing key: " + keyId);
+            }
+            return key;
+        }
+    }
+}
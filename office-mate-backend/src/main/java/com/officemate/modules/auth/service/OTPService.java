@@ -1,7 +1,7 @@
 package com.officemate.modules.auth.service;
 
 import com.officemate.modules.auth.entity.OTPRecord;
-import com.officemate.modules.auth.repository.OTPRepository;
+import com.officemate.modules.auth.repository.OTPStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -25,7 +25,7 @@ import java.util.concurrent.TimeUnit;
 @Slf4j
 public class OTPService {
 
-    private final OTPRepository otpRepository;
+    private final OTPStore otpStore;
     private final RedisTemplate<String, String> redisTemplate;
     private final SecureRandom secureRandom = new SecureRandom();
 
@@ -78,7 +78,7 @@ public class OTPService {
                 .build();
 
         // Save to Redis (will auto-expire after TTL)
-        otpRepository.save(otpRecord);
+        otpStore.save(otpRecord);
 
         // Increment rate limit counter
         incrementRateLimit(phoneNumber);
@@ -121,7 +121,7 @@ public class OTPService {
                 .build();
 
         // Save to Redis (will auto-expire after TTL)
-        otpRepository.save(otpRecord);
+        otpStore.save(otpRecord);
 
         // Increment rate limit counter
         incrementRateLimit(email);
@@ -170,7 +170,7 @@ public class OTPService {
      */
     private boolean verifyOTP(String key, String otp) {
         // Find OTP record
-        OTPRecord otpRecord = otpRepository.findByKey(key)
+        OTPRecord otpRecord = otpStore.findByKey(key)
                 .orElseThrow(() -> new IllegalArgumentException("OTP not found or expired"));
 
         // Check if already verified
@@ -182,14 +182,14 @@ public class OTPService {
         // Check if expired
         if (otpRecord.isExpired()) {
             log.warn("OTP expired for key: {}", maskIdentifier(key));
-            otpRepository.delete(otpRecord);
+            otpStore.delete(otpRecord);
             throw new IllegalArgumentException("OTP expired");
         }
 
         // Check max attempts
         if (otpRecord.isMaxAttemptsReached(maxAttempts)) {
             log.warn("Max OTP attempts reached for key: {}", maskIdentifier(key));
-            otpRepository.delete(otpRecord);
+            otpStore.delete(otpRecord);
             throw new IllegalArgumentException("Maximum verification attempts exceeded");
         }
 
@@ -200,12 +200,12 @@ public class OTPService {
         if (isValid) {
             // Mark as verified
             otpRecord.setVerified(true);
-            otpRepository.save(otpRecord);
+            otpStore.save(otpRecord);
             log.info("OTP verified successfully for key: {}", maskIdentifier(key));
         } else {
             // Increment attempts
             otpRecord.incrementAttempts();
-            otpRepository.save(otpRecord);
+            otpStore.save(otpRecord);
             log.warn("Invalid OTP attempt {} of {} for key: {}", 
                     otpRecord.getAttempts(), maxAttempts, maskIdentifier(key));
         }
@@ -220,7 +220,7 @@ public class OTPService {
      */
     public void deleteMobileOTP(String phoneNumber) {
         String key = OTP_PHONE_PREFIX + phoneNumber;
-        otpRepository.deleteByKey(key);
+        otpStore.deleteByKey(key);
         log.info("Mobile OTP deleted for: {}", maskIdentifier(phoneNumber));
     }
 
@@ -231,7 +231,7 @@ public class OTPService {
      */
     public void deleteEmailOTP(String email) {
         String key = OTP_EMAIL_PREFIX + email;
-        otpRepository.deleteByKey(key);
+        otpStore.deleteByKey(key);
         log.info("Email OTP deleted for: {}", maskIdentifier(email));
     }
 
@@ -320,7 +320,7 @@ public class OTPService {
      */
     public int getRemainingAttempts(String phoneNumber) {
         String key = OTP_PHONE_PREFIX + phoneNumber;
-        return otpRepository.findByKey(key)
+        return otpStore.findByKey(key)
                 .map(record -> maxAttempts - (record.getAttempts() != null ? record.getAttempts() : 0))
                 .orElse(maxAttempts);
     }
@@ -333,7 +333,7 @@ public class OTPService {
      */
     public boolean hasValidOTP(String phoneNumber) {
         String key = OTP_PHONE_PREFIX + phoneNumber;
-        return otpRepository.findByKey(key)
+        return otpStore.findByKey(key)
                 .map(record -> !record.isExpired() && !record.getVerified())
                 .orElse(false);
     }
@@ -1,27 +1,27 @@
 package com.officemate.modules.auth.service;
 
 import com.officemate.config.JwtConfig;
+import com.officemate.config.properties.SessionProperties;
 import com.officemate.modules.auth.entity.RevokedToken;
 import com.officemate.modules.auth.entity.SessionMetadata;
 import com.officemate.modules.auth.entity.UserAccount;
 import com.officemate.modules.auth.entity.UserSession;
-import com.officemate.modules.auth.repository.RevokedTokenRepository;
+import com.officemate.modules.auth.repository.RevokedTokenStore;
 import com.officemate.modules.auth.repository.SessionMetadataRepository;
-import com.officemate.modules.auth.repository.UserSessionRepository;
+import com.officemate.modules.auth.repository.SessionRevocationRepository;
+import com.officemate.modules.auth.repository.UserSessionStore;
 import com.officemate.shared.dto.DeviceInfo;
 import com.officemate.shared.dto.SessionTokens;
 import com.officemate.shared.dto.TokenValidation;
+import com.officemate.shared.enums.Permission;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import javax.crypto.SecretKey;
-import java.nio.charset.StandardCharsets;
-import java.security.Key;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.*;
@@ -36,14 +36,24 @@ import java.util.*;
 @Slf4j
 public class SessionManagementService {
 
+    /**
+     * Access token claim holding the permission bitmask
+     */
+    static final String PERMISSIONS_CLAIM = "perm";
+
     private final JwtConfig jwtConfig;
-    private final UserSessionRepository sessionRepository;
+    private final JwtTokenCodec jwtTokenCodec;
+    private final SessionProperties sessionProperties;
+    private final UserSessionStore sessionStore;
     private final SessionMetadataRepository sessionMetadataRepository;
-    private final RevokedTokenRepository revokedTokenRepository;
+    private final RevokedTokenStore revokedTokenStore;
+    private final SessionRevocationRepository sessionRevocationRepository;
 
     /**
      * Create a new session with JWT tokens for a user.
      * Stores session information in Redis and generates access and refresh tokens.
+     * If the user now exceeds the concurrent session limit, the least recently
+     * accessed sessions are revoked.
      *
      * @param userAccount the user account
      * @param deviceInfo device information for session tracking
@@ -60,12 +70,13 @@ public class SessionManagementService {
         LocalDateTime refreshExpiration = LocalDateTime.now()
                 .plusSeconds(jwtConfig.getRefreshExpiration() / 1000);
         
-        // Build permissions list based on verification status
-        List<String> permissions = buildPermissions(userAccount);
+        // Build permission mask based on verification status
+        int permissions = buildPermissions(userAccount);
         
         // Generate tokens
+        String refreshTokenId = UUID.randomUUID().toString();
         String accessToken = generateAccessToken(userAccount, sessionId);
-        String refreshToken = generateRefreshToken(userAccount, sessionId);
+        String refreshToken = generateRefreshToken(userAccount, sessionId, refreshTokenId);
         
         // Create and save session
         UserSession session = UserSession.builder()
@@ -78,13 +89,13 @@ public class SessionManagementService {
                 .createdAt(LocalDateTime.now())
                 .lastAccessAt(LocalDateTime.now())
                 .expiresAt(refreshExpiration)
-                .refreshToken(refreshToken)
+                .refreshTokenId(refreshTokenId)
                 .mobileVerified(userAccount.getPhoneVerified())
                 .emailVerified(userAccount.getEmailVerified())
                 .ttl(jwtConfig.getRefreshExpiration() / 1000)
                 .build();
         
-        sessionRepository.save(session);
+        sessionStore.save(session);
         
         // Create session metadata in PostgreSQL for audit trail
         SessionMetadata metadata = SessionMetadata.builder()
@@ -101,6 +112,8 @@ public class SessionManagementService {
         
         sessionMetadataRepository.save(metadata);
         
+        enforceMaxConcurrentSessions(userId);
+        
         log.info("Created new session {} for user {} on device {}", 
                 sessionId, userId, deviceInfo != null ? deviceInfo.getDeviceType() : "UNKNOWN");
         
@@ -115,7 +128,7 @@ public class SessionManagementService {
 
     /**
      * Generate JWT access token with verification status and permissions.
-     * Uses RSA signing if configured, otherwise falls back to HMAC.
+     * Signed with the codec's current key (RSA if configured, otherwise HMAC).
      *
      * @param userAccount the user account
      * @param sessionId the session ID
@@ -135,22 +148,19 @@ public class SessionManagementService {
         Map<String, Object> claims = new HashMap<>();
         claims.put("userId", userId);
         claims.put("sessionId", sessionId);
-        claims.put("mobileVerified", userAccount.getPhoneVerified());
-        claims.put("emailVerified", userAccount.getEmailVerified());
         claims.put("accountStatus", userAccount.getAccountStatus().name());
-        claims.put("permissions", buildPermissions(userAccount));
+        claims.put(PERMISSIONS_CLAIM, buildPermissions(userAccount));
         claims.put("tokenType", "ACCESS");
         
         log.debug("Generating access token for user: {} session: {}", userId, sessionId);
         
-        return Jwts.builder()
+        return jwtTokenCodec.builder()
                 .claims(claims)
                 .subject(userId)
                 .issuer(jwtConfig.getIssuer())
                 .issuedAt(now)
                 .expiration(expirationDate)
                 .id(UUID.randomUUID().toString()) // jti claim for revocation
-                .signWith(getSigningKey())
                 .compact();
     }
 
@@ -163,6 +173,18 @@ public class SessionManagementService {
      * @return JWT refresh token string
      */
     public String generateRefreshToken(UserAccount userAccount, String sessionId) {
+        return generateRefreshToken(userAccount, sessionId, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Generate JWT refresh token with a caller-supplied token ID.
+     *
+     * @param userAccount the user account
+     * @param sessionId the session ID
+     * @param tokenId the jti claim, stored with the session for revocation
+     * @return JWT refresh token string
+     */
+    private String generateRefreshToken(UserAccount userAccount, String sessionId, String tokenId) {
         String userId = userAccount.getUserId().toString();
         Date now = new Date();
         Date expirationDate = Date.from(
@@ -179,14 +201,13 @@ public class SessionManagementService {
         
         log.debug("Generating refresh token for user: {} session: {}", userId, sessionId);
         
-        return Jwts.builder()
+        return jwtTokenCodec.builder()
                 .claims(claims)
                 .subject(userId)
                 .issuer(jwtConfig.getIssuer())
                 .issuedAt(now)
                 .expiration(expirationDate)
-                .id(UUID.randomUUID().toString()) // jti claim for revocation
-                .signWith(getSigningKey())
+                .id(tokenId) // jti claim for revocation
                 .compact();
     }
 
@@ -203,7 +224,7 @@ public class SessionManagementService {
             
             // Check if token is revoked
             String tokenId = claims.getId();
-            if (tokenId != null && revokedTokenRepository.existsById(tokenId)) {
+            if (isTokenRevoked(tokenId)) {
                 log.warn("Token {} has been revoked", tokenId);
                 return TokenValidation.builder()
                         .valid(false)
@@ -214,24 +235,25 @@ public class SessionManagementService {
             // Extract information from claims
             String userId = claims.getSubject();
             String sessionId = claims.get("sessionId", String.class);
-            Boolean mobileVerified = claims.get("mobileVerified", Boolean.class);
-            Boolean emailVerified = claims.get("emailVerified", Boolean.class);
-            
-            @SuppressWarnings("unchecked")
-            List<String> permissions = claims.get("permissions", List.class);
+            int permissions = extractPermissions(claims);
             
             // Update session last access time
             if (sessionId != null) {
-                updateSessionAccess(sessionId);
+                updateSessionAccess(sessionId, userId);
             }
             
             return TokenValidation.builder()
                     .valid(true)
                     .userId(userId)
                     .sessionId(sessionId)
-                    .mobileVerified(mobileVerified != null && mobileVerified)
-                    .emailVerified(emailVerified != null && emailVerified)
-                    .permissions(permissions != null ? permissions : Collections.emptyList())
+                    .mobileVerified(Permission.MOBILE_VERIFIED.isGrantedIn(permissions))
+                    .emailVerified(Permission.EMAIL_VERIFIED.isGrantedIn(permissions))
+                    .permissions(permissions)
+                    .tokenId(tokenId)
+                    .tokenType(claims.get("tokenType", String.class))
+                    .expiresAt(claims.getExpiration() != null
+                            ? LocalDateTime.ofInstant(claims.getExpiration().toInstant(), ZoneId.systemDefault())
+                            : null)
                     .build();
             
         } catch (ExpiredJwtException e) {
@@ -261,6 +283,16 @@ public class SessionManagementService {
         }
     }
 
+    /**
+     * Check whether a token has been added to the revocation blacklist.
+     *
+     * @param tokenId the token ID (jti claim)
+     * @return true if the token has been revoked
+     */
+    public boolean isTokenRevoked(String tokenId) {
+        return tokenId != null && revokedTokenStore.existsById(tokenId);
+    }
+
     /**
      * Refresh session and generate new access token.
      * Validates refresh token and creates new access token with updated permissions.
@@ -282,14 +314,14 @@ public class SessionManagementService {
             
             // Check if token is revoked
             String tokenId = claims.getId();
-            if (tokenId != null && revokedTokenRepository.existsById(tokenId)) {
+            if (tokenId != null && revokedTokenStore.existsById(tokenId)) {
                 throw new IllegalArgumentException("Refresh token has been revoked");
             }
             
             String sessionId = claims.get("sessionId", String.class);
             
             // Verify session exists
-            Optional<UserSession> sessionOpt = sessionRepository.findById(sessionId);
+            Optional<UserSession> sessionOpt = sessionStore.findById(sessionId);
             if (sessionOpt.isEmpty()) {
                 throw new IllegalArgumentException("Session not found");
             }
@@ -301,7 +333,7 @@ public class SessionManagementService {
             session.setEmailVerified(userAccount.getEmailVerified());
             session.setPermissions(buildPermissions(userAccount));
             session.updateLastAccess();
-            sessionRepository.save(session);
+            sessionStore.save(session);
             
             // Generate new access token
             String newAccessToken = generateAccessToken(userAccount, sessionId);
@@ -332,12 +364,12 @@ public class SessionManagementService {
      */
     @Transactional
     public void revokeSession(String sessionId) {
-        Optional<UserSession> sessionOpt = sessionRepository.findById(sessionId);
+        Optional<UserSession> sessionOpt = sessionStore.findById(sessionId);
         if (sessionOpt.isPresent()) {
             UserSession session = sessionOpt.get();
             
             // Add refresh token to revoked list
-            revokeTokenById(session.getRefreshToken(), session.getUserId(), "Session revoked");
+            revokeRefreshToken(session, "Session revoked");
             
             // Update metadata in PostgreSQL
             sessionMetadataRepository.findBySessionId(sessionId)
@@ -347,7 +379,7 @@ public class SessionManagementService {
                 });
             
             // Delete session from Redis
-            sessionRepository.deleteById(sessionId);
+            sessionStore.delete(session);
             
             log.info("Revoked session {} for user {}", sessionId, session.getUserId());
         }
@@ -361,24 +393,131 @@ public class SessionManagementService {
      */
     @Transactional
     public void revokeAllSessions(String userId) {
-        List<UserSession> sessions = sessionRepository.findByUserId(userId);
-        
+        int revokedCount = revokeAllSessions(List.of(userId), "All sessions revoked");
+        log.info("Revoked all {} sessions for user {}", revokedCount, userId);
+    }
+
+    /**
+     * Revoke all sessions for a set of users in bulk.
+     * Token blacklisting and session deletion are pipelined to Redis in one round trip,
+     * and session metadata is ended with a single bulk update.
+     * Used for incident response across many accounts.
+     *
+     * @param userIds the user IDs
+     * @param reason reason for revocation
+     * @return number of revoked sessions
+     */
+    @Transactional
+    public int revokeAllSessions(Collection<String> userIds, String reason) {
+        List<UserSession> sessions = new ArrayList<>();
+        for (String userId : userIds) {
+            sessionStore.findByUserId(userId).stream()
+                    .filter(Objects::nonNull)
+                    .forEach(sessions::add);
+        }
+
+        revokeSessionsInBatch(sessions, reason, "SECURITY_EVENT");
+
+        log.info("Bulk revoked {} sessions for {} users: {}", sessions.size(), userIds.size(), reason);
+        return sessions.size();
+    }
+
+    /**
+     * Record sessions that expired in Redis: ends their metadata with a single
+     * bulk update and removes the leftover Redis bookkeeping entries.
+     *
+     * @param sessionIds the expired session IDs
+     * @return number of metadata records ended
+     */
+    @Transactional
+    public int endExpiredSessions(Collection<String> sessionIds) {
+        if (sessionIds.isEmpty()) {
+            return 0;
+        }
+
+        int ended = sessionMetadataRepository.endSessions(sessionIds, "EXPIRED", LocalDateTime.now());
+        sessionStore.deleteExpired(sessionIds);
+        return ended;
+    }
+
+    /**
+     * Blacklist refresh tokens, delete sessions and end their metadata in batch.
+     *
+     * @param sessions the sessions to revoke
+     * @param revocationReason reason stored with the revoked tokens
+     * @param terminationReason termination reason stored in session metadata
+     */
+    private void revokeSessionsInBatch(List<UserSession> sessions, String revocationReason,
+                                       String terminationReason) {
+        if (sessions.isEmpty()) {
+            return;
+        }
+
+        List<RevokedToken> revokedTokens = new ArrayList<>();
+        List<String> sessionIds = new ArrayList<>();
         for (UserSession session : sessions) {
-            // Add refresh token to revoked list
-            revokeTokenById(session.getRefreshToken(), userId, "All sessions revoked");
-            
-            // Update metadata in PostgreSQL
-            sessionMetadataRepository.findBySessionId(session.getSessionId())
-                .ifPresent(metadata -> {
-                    metadata.endSession("SECURITY_EVENT");
-                    sessionMetadataRepository.save(metadata);
-                });
+            RevokedToken revokedToken = buildRevokedRefreshToken(session, revocationReason);
+            if (revokedToken != null) {
+                revokedTokens.add(revokedToken);
+            }
+            sessionIds.add(session.getSessionId());
         }
-        
-        // Delete all sessions from Redis
-        sessionRepository.deleteByUserId(userId);
-        
-        log.info("Revoked all {} sessions for user {}", sessions.size(), userId);
+
+        sessionRevocationRepository.revokeAndDelete(revokedTokens, sessions);
+        sessionMetadataRepository.endSessions(sessionIds, terminationReason, LocalDateTime.now());
+    }
+
+    /**
+     * Add a session's refresh token to the revoked list.
+     *
+     * @param session the session
+     * @param reason reason for revocation
+     */
+    private void revokeRefreshToken(UserSession session, String reason) {
+        RevokedToken revokedToken = buildRevokedRefreshToken(session, reason);
+        if (revokedToken != null) {
+            revokedTokenStore.save(revokedToken);
+            log.info("Revoked token {} for user {}: {}", revokedToken.getTokenId(), session.getUserId(), reason);
+        }
+    }
+
+    /**
+     * Build a revoked token entry for a session's refresh token.
+     * Uses the stored refresh token ID and session expiry; sessions created before
+     * the token ID was stored fall back to parsing the refresh token.
+     *
+     * @param session the session
+     * @param reason reason for revocation
+     * @return revoked token, or null if the token is already expired or unreadable
+     */
+    private RevokedToken buildRevokedRefreshToken(UserSession session, String reason) {
+        String tokenId = session.getRefreshTokenId();
+        long ttl;
+
+        if (tokenId != null && session.getExpiresAt() != null) {
+            ttl = Duration.between(LocalDateTime.now(), session.getExpiresAt()).getSeconds();
+        } else {
+            try {
+                Claims claims = parseToken(session.getRefreshToken());
+                tokenId = claims.getId();
+                ttl = (claims.getExpiration().getTime() - System.currentTimeMillis()) / 1000;
+            } catch (Exception e) {
+                log.debug("Skipping revocation of unreadable refresh token for session {}", session.getSessionId());
+                return null;
+            }
+        }
+
+        if (tokenId == null || ttl <= 0) {
+            return null;
+        }
+
+        return RevokedToken.builder()
+                .tokenId(tokenId)
+                .userId(session.getUserId())
+                .revokedAt(LocalDateTime.now())
+                .reason(reason)
+                .ttl(ttl)
+                .build();
     }
 
     /**
@@ -407,7 +546,7 @@ public class SessionManagementService {
                             .ttl(ttl)
                             .build();
                     
-                    revokedTokenRepository.save(revokedToken);
+                    revokedTokenStore.save(revokedToken);
                     log.info("Revoked token {} for user {}: {}", tokenId, userId, reason);
                 }
             }
@@ -423,7 +562,7 @@ public class SessionManagementService {
      * @return list of active sessions
      */
     public List<UserSession> getUserSessions(String userId) {
-        return sessionRepository.findByUserId(userId);
+        return sessionStore.findByUserId(userId);
     }
 
     /**
@@ -434,37 +573,19 @@ public class SessionManagementService {
      * @throws JwtException if token is invalid
      */
     private Claims parseToken(String token) throws JwtException {
-        if (jwtConfig.isRsaEnabled()) {
-            return Jwts.parser()
-                    .verifyWith(jwtConfig.getPublicKey())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-        } else {
-            byte[] keyBytes = jwtConfig.getSecret().getBytes(StandardCharsets.UTF_8);
-            SecretKey key = Keys.hmacShaKeyFor(keyBytes);
-            return Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
-        }
+        return jwtTokenCodec.parse(token);
     }
 
     /**
      * Update session last access timestamp.
      *
      * @param sessionId the session ID
+     * @param userId the user ID owning the session
      */
-    private void updateSessionAccess(String sessionId) {
+    private void updateSessionAccess(String sessionId, String userId) {
         try {
-            // Update Redis session
-            Optional<UserSession> sessionOpt = sessionRepository.findById(sessionId);
-            if (sessionOpt.isPresent()) {
-                UserSession session = sessionOpt.get();
-                session.updateLastAccess();
-                sessionRepository.save(session);
-                
+            // Update Redis session and its position in the user's session index
+            if (sessionStore.touch(sessionId, userId, jwtConfig.getRefreshExpiration() / 1000)) {
                 // Update PostgreSQL metadata (async to avoid blocking)
                 sessionMetadataRepository.findBySessionId(sessionId)
                     .ifPresent(metadata -> {
@@ -478,62 +599,79 @@ public class SessionManagementService {
     }
 
     /**
-     * Build permissions list based on user verification status.
+     * Revoke the least recently accessed sessions of a user beyond the
+     * configured maximum number of concurrent sessions.
+     *
+     * @param userId the user ID
+     */
+    private void enforceMaxConcurrentSessions(String userId) {
+        Integer maxSessions = sessionProperties.getMaxConcurrentSessions();
+        if (maxSessions == null || maxSessions <= 0) {
+            return;
+        }
+
+        List<String> evictedIds = sessionStore.evictOldest(userId, maxSessions);
+        if (evictedIds.isEmpty()) {
+            return;
+        }
+
+        revokeSessionsInBatch(sessionStore.findAllById(evictedIds), "Concurrent session limit exceeded",
+                "MAX_SESSIONS_EXCEEDED");
+        log.info("Evicted {} oldest sessions of user {} (limit {})", evictedIds.size(), userId, maxSessions);
+    }
+
+    /**
+     * Build permission mask based on user verification status.
      *
      * @param userAccount the user account
-     * @return list of permission strings
+     * @return permission mask (see {@link Permission})
      */
-    private List<String> buildPermissions(UserAccount userAccount) {
-        List<String> permissions = new ArrayList<>();
+    private int buildPermissions(UserAccount userAccount) {
+        int permissions = 0;
         
         if (userAccount.getPhoneVerified()) {
-            permissions.add("MOBILE_VERIFIED");
+            permissions |= Permission.MOBILE_VERIFIED.mask();
         }
         
         if (userAccount.getEmailVerified()) {
-            permissions.add("EMAIL_VERIFIED");
+            permissions |= Permission.EMAIL_VERIFIED.mask();
         }
         
         if (userAccount.isFullyVerified()) {
-            permissions.add("FULLY_VERIFIED");
-            permissions.add("ACCESS_RIDE_FEATURES");
+            permissions |= Permission.FULLY_VERIFIED.mask() | Permission.ACCESS_RIDE_FEATURES.mask();
         }
         
         if (userAccount.isActive()) {
-            permissions.add("ACCOUNT_ACTIVE");
+            permissions |= Permission.ACCOUNT_ACTIVE.mask();
         }
         
         return permissions;
     }
 
     /**
-     * Get signing key for JWT token generation.
-     * Uses RSA private key if configured, otherwise HMAC secret.
+     * Read the permission mask from token claims.
+     * Access tokens issued before the mask claim carry a permission name list
+     * and separate verification flags instead.
      *
-     * @return Key for signing
+     * @param claims the verified claims
+     * @return permission mask
      */
-    private Key getSigningKey() {
-        if (jwtConfig.isRsaEnabled()) {
-            return jwtConfig.getPrivateKey();
-        } else {
-            byte[] keyBytes = jwtConfig.getSecret().getBytes(StandardCharsets.UTF_8);
-            return Keys.hmacShaKeyFor(keyBytes);
+    private int extractPermissions(Claims claims) {
+        Integer permissions = claims.get(PERMISSIONS_CLAIM, Integer.class);
+        if (permissions != null) {
+            return permissions;
         }
-    }
 
-    /**
-     * Get verification key for JWT token validation.
-     * Uses RSA public key if configured, otherwise HMAC secret.
-     *
-     * @return Key for verification
-     */
-    private Key getVerificationKey() {
-        if (jwtConfig.isRsaEnabled()) {
-            return jwtConfig.getPublicKey();
-        } else {
-            byte[] keyBytes = jwtConfig.getSecret().getBytes(StandardCharsets.UTF_8);
-            return Keys.hmacShaKeyFor(keyBytes);
+        @SuppressWarnings("unchecked")
+        List<String> names = claims.get("permissions", List.class);
+        int legacy = Permission.toMask(names);
+        if (Boolean.TRUE.equals(claims.get("mobileVerified", Boolean.class))) {
+            legacy |= Permission.MOBILE_VERIFIED.mask();
+        }
+        if (Boolean.TRUE.equals(claims.get("emailVerified", Boolean.class))) {
+            legacy |= Permission.EMAIL_VERIFIED.mask();
         }
+        return legacy;
     }
 
     /**
@@ -596,13 +734,13 @@ public class SessionManagementService {
      */
     @Transactional
     public void revokeDeviceSessions(String userId, String deviceId) {
-        List<UserSession> sessions = sessionRepository.findByUserId(userId);
+        List<UserSession> sessions = sessionStore.findByUserId(userId);
         int revokedCount = 0;
         
         for (UserSession session : sessions) {
             if (deviceId.equals(session.getDeviceId())) {
                 // Add refresh token to revoked list
-                revokeTokenById(session.getRefreshToken(), userId, "Device revoked");
+                revokeRefreshToken(session, "Device revoked");
                 
                 // Update metadata
                 sessionMetadataRepository.findBySessionId(session.getSessionId())
@@ -612,7 +750,7 @@ public class SessionManagementService {
                     });
                 
                 // Delete from Redis
-                sessionRepository.deleteById(session.getSessionId());
+                sessionStore.delete(session);
                 revokedCount++;
             }
         }
@@ -644,6 +782,6 @@ public class SessionManagementService {
      * @return true if session is active, false otherwise
      */
     public boolean isSessionActive(String sessionId) {
-        return sessionRepository.existsById(sessionId);
+        return sessionStore.existsById(sessionId);
     }
 }
@@ -6,6 +6,7 @@ import com.officemate.modules.profile.entity.DriverProfile;
 import com.officemate.modules.profile.entity.UserProfile;
 import com.officemate.modules.profile.repository.DriverProfileRepository;
 import com.officemate.modules.profile.repository.UserProfileRepository;
+import com.officemate.shared.aspect.Audited;
 import com.officemate.shared.dto.DriverProfileRequest;
 import com.officemate.shared.dto.VehicleInfoDTO;
 import com.officemate.shared.exception.ProfileAccessException;
@@ -46,6 +47,7 @@ public class DriverProfileService {
      * @throws EntityNotFoundException if user profile not found
      * @throws IllegalStateException if driver profile already exists
      */
+    @Audited(entityType = "DriverProfile", action = Audited.Action.CREATE)
     @Transactional
     public DriverProfile createDriverProfile(UUID userId, DriverProfileRequest request) {
         log.info("Creating driver profile for user: {}", userId);
@@ -130,6 +132,7 @@ public class DriverProfileService {
      * @return Updated DriverProfile entity
      * @throws EntityNotFoundException if driver profile not found
      */
+    @Audited(entityType = "DriverProfile", action = Audited.Action.UPDATE)
     @Transactional
     public DriverProfile updateDriverProfile(UUID userId, DriverProfileRequest request) {
         log.info("Updating driver profile for user: {}", userId);
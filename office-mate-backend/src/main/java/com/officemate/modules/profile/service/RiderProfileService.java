@@ -7,6 +7,7 @@ import com.officemate.modules.profile.entity.UserProfile;
 import com.officemate.modules.profile.model.RoutePreference;
 import com.officemate.modules.profile.repository.RiderProfileRepository;
 import com.officemate.modules.profile.repository.UserProfileRepository;
+import com.officemate.shared.aspect.Audited;
 import com.officemate.shared.dto.RiderProfileRequest;
 import com.officemate.shared.dto.RiderProfileResponse;
 import com.officemate.shared.dto.RoutePreferencesDTO;
@@ -51,6 +52,7 @@ public class RiderProfileService {
      * @throws EntityNotFoundException if user profile not found
      * @throws IllegalStateException if rider profile already exists
      */
+    @Audited(entityType = "RiderProfile", action = Audited.Action.CREATE)
     @Transactional
     public RiderProfileResponse createRiderProfile(UUID userId, RiderProfileRequest request) {
         log.info("Creating rider profile for user: {}", userId);
@@ -109,6 +111,7 @@ public class RiderProfileService {
      * @return Updated RiderProfileResponse
      * @throws EntityNotFoundException if rider profile not found
      */
+    @Audited(entityType = "RiderProfile", action = Audited.Action.UPDATE)
     @Transactional
     public RiderProfileResponse updateRiderProfile(UUID userId, RiderProfileRequest request) {
         log.info("Updating rider profile for user: {}", userId);
@@ -186,6 +189,7 @@ public class RiderProfileService {
      * @return Updated RiderProfileResponse
      * @throws EntityNotFoundException if rider profile not found
      */
+    @Audited(entityType = "RiderProfile", action = Audited.Action.UPDATE)
     @Transactional
     public RiderProfileResponse updateGenderPreference(UUID userId, GenderPreference genderPreference) {
         log.info("Updating gender preference for rider: {} to {}", userId, genderPreference);
@@ -296,6 +300,7 @@ public class RiderProfileService {
      * @return Updated RiderProfileResponse
      * @throws EntityNotFoundException if rider profile not found
      */
+    @Audited(entityType = "RiderProfile", action = Audited.Action.UPDATE)
     @Transactional
     public RiderProfileResponse updateRoutePreferences(UUID userId, RoutePreferencesDTO routePreferences) {
         log.info("Updating route preferences for rider: {}", userId);
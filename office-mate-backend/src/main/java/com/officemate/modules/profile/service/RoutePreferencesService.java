@@ -1,6 +1,7 @@
 package com.officemate.modules.profile.service;
 
 import com.officemate.modules.profile.model.RoutePreference;
+import com.officemate.shared.aspect.Audited;
 import com.officemate.shared.dto.RoutePreferencesDTO;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -70,6 +71,7 @@ public class RoutePreferencesService {
      * @param userId The driver's unique identifier
      * @param routeDTO Updated route preferences DTO
      */
+    @Audited(entityType = "RoutePreferences", action = Audited.Action.UPDATE)
     public void updateDriverRoutePreferences(UUID userId, RoutePreferencesDTO routeDTO) {
         log.info("Updating route preferences for driver: {}", userId);
         
@@ -189,6 +191,7 @@ public class RoutePreferencesService {
      * @param userId The rider's unique identifier
      * @param routeDTO Updated route preferences DTO
      */
+    @Audited(entityType = "RoutePreferences", action = Audited.Action.UPDATE)
     public void updateRiderRoutePreferences(UUID userId, RoutePreferencesDTO routeDTO) {
         log.info("Updating route preferences for rider: {}", userId);
         
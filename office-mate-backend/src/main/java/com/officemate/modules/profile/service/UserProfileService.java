@@ -8,6 +8,7 @@ import com.officemate.modules.profile.repository.RiderProfileRepository;
 import com.officemate.modules.profile.repository.UserProfileRepository;
 import com.officemate.modules.wallet.entity.Wallet;
 import com.officemate.modules.wallet.repository.WalletRepository;
+import com.officemate.shared.aspect.Audited;
 import com.officemate.shared.dto.ProfileResponse;
 import com.officemate.shared.exception.ProfileAccessException;
 import jakarta.persistence.EntityNotFoundException;
@@ -50,6 +51,7 @@ public class UserProfileService {
      * @throws ProfileAccessException if user is not fully verified
      * @throws EntityNotFoundException if user account not found
      */
+    @Audited(entityType = "UserProfile", action = Audited.Action.CREATE)
     @Transactional
     public ProfileResponse createBasicProfile(UUID userId, String firstName, String lastName, 
                                              LocalDate dateOfBirth, String gender) {
@@ -122,6 +124,7 @@ public class UserProfileService {
      * @return ProfileResponse containing the updated profile information
      * @throws EntityNotFoundException if profile not found
      */
+    @Audited(entityType = "UserProfile", action = Audited.Action.UPDATE)
     @Transactional
     public ProfileResponse updateProfile(UUID userId, String firstName, String lastName,
                                         LocalDate dateOfBirth, String gender, String profileImageUrl) {
@@ -5,6 +5,7 @@ import com.officemate.modules.wallet.entity.Wallet;
 import com.officemate.modules.wallet.entity.WalletTransaction;
 import com.officemate.modules.wallet.repository.WalletRepository;
 import com.officemate.modules.wallet.repository.WalletTransactionRepository;
+import com.officemate.shared.aspect.Audited;
 import com.officemate.shared.dto.TransactionResponse;
 import com.officemate.shared.dto.WalletOperationRequest;
 import com.officemate.shared.exception.WalletException;
@@ -43,6 +44,7 @@ public class WalletOperationsService {
      * @throws EntityNotFoundException if wallet not found
      * @throws WalletException if operation fails
      */
+    @Audited(entityType = "Wallet", action = Audited.Action.UPDATE, entityId = Audited.EntityIdSource.USER_ID)
     @Transactional
     public TransactionResponse addFunds(UUID userId, WalletOperationRequest request) {
         log.info("Adding funds to wallet for user: {}, amount: {}", userId, request.getAmount());
@@ -6,6 +6,7 @@ import com.officemate.modules.wallet.entity.PaymentMethod;
 import com.officemate.modules.wallet.entity.Wallet;
 import com.officemate.modules.wallet.repository.PaymentMethodRepository;
 import com.officemate.modules.wallet.repository.WalletRepository;
+import com.officemate.shared.aspect.Audited;
 import com.officemate.shared.dto.WalletRequest;
 import com.officemate.shared.dto.WalletResponse;
 import com.officemate.shared.exception.ProfileAccessException;
@@ -94,6 +95,7 @@ public class WalletService {
      * @throws EntityNotFoundException if wallet not found
      * @throws WalletException if payment method validation fails
      */
+    @Audited(entityType = "Wallet", action = Audited.Action.UPDATE, entityId = Audited.EntityIdSource.USER_ID)
     @Transactional
     public WalletResponse addPaymentMethod(UUID userId, WalletRequest request) {
         log.info("Adding payment method for user: {}, type: {}", userId, request.getMethodType());
@@ -147,6 +149,7 @@ public class WalletService {
      * @throws EntityNotFoundException if wallet not found
      * @throws WalletException if wallet has no verified payment method
      */
+    @Audited(entityType = "Wallet", action = Audited.Action.UPDATE, entityId = Audited.EntityIdSource.USER_ID)
     @Transactional
     public WalletResponse enableAutoReload(UUID userId, BigDecimal threshold, BigDecimal amount) {
         log.info("Enabling auto-reload for user: {}, threshold: {}, amount: {}", userId, threshold, amount);
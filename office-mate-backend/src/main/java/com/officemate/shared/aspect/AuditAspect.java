@@ -1,18 +1,19 @@
 package com.officemate.shared.aspect;
 
 import com.officemate.shared.service.AuditService;
+import com.officemate.shared.util.FieldReader;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.AfterReturning;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.stereotype.Component;
 
-import java.lang.reflect.Field;
 import java.util.UUID;
 
 /**
- * Aspect for automatically logging profile changes and entity operations
+ * Aspect for automatically logging profile changes and entity operations of {@link Audited} methods
  */
 @Aspect
 @Component
@@ -20,97 +21,43 @@ import java.util.UUID;
 @Slf4j
 public class AuditAspect {
 
+    // Field getters are resolved once per class, including classes without the field
+    private static final FieldReader USER_ID_FIELD = new FieldReader("userId");
+    private static final FieldReader ID_FIELD = new FieldReader("id");
+
     private final AuditService auditService;
+    private final AuditedMethodRegistry auditedMethodRegistry;
 
     /**
-     * Log profile service method calls that modify data
+     * Log successful calls of methods annotated with {@link Audited}.
+     * Only annotated mutators are advised; the entity type, messages and the position of the
+     * user ID argument come from the descriptor precomputed for the method.
      */
-    @AfterReturning(pointcut = "execution(* com.officemate.modules.profile.service.*Service.create*(..))", returning = "result")
-    public void logProfileCreation(JoinPoint joinPoint, Object result) {
+    @AfterReturning(pointcut = "@annotation(com.officemate.shared.aspect.Audited)", returning = "result")
+    public void logAuditedOperation(JoinPoint joinPoint, Object result) {
         try {
-            String methodName = joinPoint.getSignature().getName();
-            String serviceName = joinPoint.getTarget().getClass().getSimpleName();
-            Object[] args = joinPoint.getArgs();
-            
-            // Extract user ID from the first argument (typically UUID userId)
-            UUID userId = extractUserIdFromArgs(args);
-            if (userId != null) {
-                String entityType = determineEntityType(serviceName, methodName);
-                String entityId = extractEntityId(result);
-                
-                auditService.logEntityCreation(userId, entityType, entityId, 
-                        "Profile creation via " + serviceName + "." + methodName);
+            AuditDescriptor descriptor = auditedMethodRegistry.get(((MethodSignature) joinPoint.getSignature()).getMethod());
+            if (descriptor == null) {
+                return;
             }
-        } catch (Exception e) {
-            log.error("Failed to log profile creation: {}", e.getMessage(), e);
-        }
-    }
 
-    /**
-     * Log profile service method calls that update data
-     */
-    @AfterReturning(pointcut = "execution(* com.officemate.modules.profile.service.*Service.update*(..))", returning = "result")
-    public void logProfileUpdate(JoinPoint joinPoint, Object result) {
-        try {
-            String methodName = joinPoint.getSignature().getName();
-            String serviceName = joinPoint.getTarget().getClass().getSimpleName();
             Object[] args = joinPoint.getArgs();
-            
-            // Extract user ID from the first argument
-            UUID userId = extractUserIdFromArgs(args);
-            if (userId != null) {
-                String entityType = determineEntityType(serviceName, methodName);
-                String entityId = extractEntityId(result);
-                
-                auditService.logBulkProfileChange(userId, entityType, entityId, 
-                        "Profile update via " + serviceName + "." + methodName,
-                        "Profile modification through service layer");
+            UUID userId = descriptor.userIdArgument() >= 0
+                    ? (UUID) args[descriptor.userIdArgument()]
+                    : extractUserIdFromArgs(args);
+            if (userId == null) {
+                return;
             }
-        } catch (Exception e) {
-            log.error("Failed to log profile update: {}", e.getMessage(), e);
-        }
-    }
 
-    /**
-     * Log authentication service method calls
-     */
-    @AfterReturning(pointcut = "execution(* com.officemate.modules.auth.service.*Service.verify*(..))", returning = "result")
-    public void logAuthenticationAction(JoinPoint joinPoint, Object result) {
-        try {
-            String methodName = joinPoint.getSignature().getName();
-            String serviceName = joinPoint.getTarget().getClass().getSimpleName();
-            Object[] args = joinPoint.getArgs();
-            
-            UUID userId = extractUserIdFromArgs(args);
-            if (userId != null) {
-                auditService.logBulkProfileChange(userId, "UserAccount", userId.toString(), 
-                        "Authentication action: " + methodName,
-                        "Verification status change via " + serviceName);
+            String entityId = descriptor.entityIdFromResult() ? extractEntityId(result) : userId.toString();
+            if (descriptor.action() == Audited.Action.CREATE) {
+                auditService.logEntityCreation(userId, descriptor.entityType(), entityId, descriptor.description());
+            } else {
+                auditService.logBulkProfileChange(userId, descriptor.entityType(), entityId,
+                        descriptor.description(), descriptor.reason());
             }
         } catch (Exception e) {
-            log.error("Failed to log authentication action: {}", e.getMessage(), e);
-        }
-    }
-
-    /**
-     * Log wallet service operations
-     */
-    @AfterReturning(pointcut = "execution(* com.officemate.modules.wallet.service.*Service.*(..))", returning = "result")
-    public void logWalletOperation(JoinPoint joinPoint, Object result) {
-        try {
-            String methodName = joinPoint.getSignature().getName();
-            String serviceName = joinPoint.getTarget().getClass().getSimpleName();
-            Object[] args = joinPoint.getArgs();
-            
-            UUID userId = extractUserIdFromArgs(args);
-            if (userId != null && (methodName.startsWith("create") || methodName.startsWith("update") || 
-                                  methodName.startsWith("add") || methodName.startsWith("enable"))) {
-                auditService.logBulkProfileChange(userId, "Wallet", userId.toString(), 
-                        "Wallet operation: " + methodName,
-                        "Wallet modification via " + serviceName);
-            }
-        } catch (Exception e) {
-            log.error("Failed to log wallet operation: {}", e.getMessage(), e);
+            log.error("Failed to log audited operation: {}", e.getMessage(), e);
         }
     }
 
@@ -124,17 +71,8 @@ public class AuditAspect {
                     return (UUID) arg;
                 }
                 // Check if it's a DTO with userId field
-                if (arg != null) {
-                    try {
-                        Field userIdField = arg.getClass().getDeclaredField("userId");
-                        userIdField.setAccessible(true);
-                        Object userIdValue = userIdField.get(arg);
-                        if (userIdValue instanceof UUID) {
-                            return (UUID) userIdValue;
-                        }
-                    } catch (Exception e) {
-                        // Field doesn't exist or not accessible, continue
-                    }
+                if (USER_ID_FIELD.read(arg) instanceof UUID userId) {
+                    return userId;
                 }
             }
         }
@@ -149,49 +87,16 @@ public class AuditAspect {
             return "UNKNOWN";
         }
         
-        try {
-            // Try to get userId field from response
-            Field userIdField = result.getClass().getDeclaredField("userId");
-            userIdField.setAccessible(true);
-            Object userIdValue = userIdField.get(result);
-            if (userIdValue instanceof UUID) {
-                return userIdValue.toString();
-            }
-        } catch (Exception e) {
-            // Field doesn't exist, try other common ID fields
+        // Try the userId field of the response first, then the common id field
+        if (USER_ID_FIELD.read(result) instanceof UUID userId) {
+            return userId.toString();
         }
         
-        try {
-            // Try to get id field from response
-            Field idField = result.getClass().getDeclaredField("id");
-            idField.setAccessible(true);
-            Object idValue = idField.get(result);
-            if (idValue != null) {
-                return idValue.toString();
-            }
-        } catch (Exception e) {
-            // Field doesn't exist
+        Object idValue = ID_FIELD.read(result);
+        if (idValue != null) {
+            return idValue.toString();
         }
         
         return "UNKNOWN";
     }
-
-    /**
-     * Determine entity type based on service name and method
-     */
-    private String determineEntityType(String serviceName, String methodName) {
-        if (serviceName.contains("UserProfile")) {
-            return "UserProfile";
-        } else if (serviceName.contains("DriverProfile")) {
-            return "DriverProfile";
-        } else if (serviceName.contains("RiderProfile")) {
-            return "RiderProfile";
-        } else if (serviceName.contains("Wallet")) {
-            return "Wallet";
-        } else if (serviceName.contains("Auth")) {
-            return "UserAccount";
-        } else {
-            return serviceName.replace("Service", "");
-        }
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,20 @@
+package com.officemate.shared.aspect;
+
+/**
+ * Audit metadata of an {@link Audited} method, resolved once from its annotation and signature.
+ *
+ * @param entityType audited entity type
+ * @param action kind of change
+ * @param entityIdFromResult whether the entity ID is read from the returned object
+ * @param userIdArgument index of the first {@code UUID} parameter, or -1 to search the arguments
+ * @param description change description recorded with the audit entry
+ * @param reason reason recorded with the audit entry
+ */
+public record AuditDescriptor(
+        String entityType,
+        Audited.Action action,
+        boolean entityIdFromResult,
+        int userIdArgument,
+        String description,
+        String reason) {
+}
@@ -0,0 +1,47 @@
+package com.officemate.shared.aspect;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation to mark service methods whose successful completion is recorded in the audit trail.
+ * Only annotated methods are advised by {@link AuditAspect}; the audited user is the first
+ * {@code UUID} argument, or the {@code userId} field of the first argument that has one.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Audited {
+
+    /**
+     * Type of the entity the method changes, e.g. "DriverProfile"
+     */
+    String entityType();
+
+    /**
+     * Kind of change the method makes
+     */
+    Action action();
+
+    /**
+     * Where the audited entity ID comes from
+     */
+    EntityIdSource entityId() default EntityIdSource.RESULT;
+
+    enum Action {
+        /** Logged as an entity creation */
+        CREATE,
+        /** Logged as a bulk profile change */
+        UPDATE
+    }
+
+    enum EntityIdSource {
+        /** The {@code userId} or {@code id} field of the returned object */
+        RESULT,
+        /** The audited user's ID */
+        USER_ID
+    }
+}
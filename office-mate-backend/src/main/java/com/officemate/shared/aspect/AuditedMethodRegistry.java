@@ -0,0 +1,72 @@
+package com.officemate.shared.aspect;
+
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Precomputes an {@link AuditDescriptor} for every {@link Audited} method of each bean as the
+ * bean is initialized, so the audit advice only does a map lookup per call.
+ * Methods first seen at call time (e.g. on beans created later) are resolved once on demand.
+ */
+@Component
+public class AuditedMethodRegistry implements BeanPostProcessor {
+
+    private final Map<Method, AuditDescriptor> descriptors = new ConcurrentHashMap<>();
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        Class<?> targetClass = AopUtils.getTargetClass(bean);
+        ReflectionUtils.doWithMethods(targetClass,
+                method -> descriptors.computeIfAbsent(method, AuditedMethodRegistry::describe),
+                method -> method.isAnnotationPresent(Audited.class));
+        return bean;
+    }
+
+    /**
+     * Get the descriptor of an audited method.
+     *
+     * @param method the advised method
+     * @return the descriptor, or null if the method is not annotated with {@link Audited}
+     */
+    public AuditDescriptor get(Method method) {
+        AuditDescriptor descriptor = descriptors.get(method);
+        if (descriptor == null && AnnotationUtils.findAnnotation(method, Audited.class) != null) {
+            descriptor = descriptors.computeIfAbsent(method, AuditedMethodRegistry::describe);
+        }
+        return descriptor;
+    }
+
+    int size() {
+        return descriptors.size();
+    }
+
+    static AuditDescriptor describe(Method method) {
+        Audited audited = AnnotationUtils.findAnnotation(method, Audited.class);
+        String source = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+
+        int userIdArgument = -1;
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        for (int i = 0; i < parameterTypes.length; i++) {
+            if (parameterTypes[i] == UUID.class) {
+                userIdArgument = i;
+                break;
+            }
+        }
+
+        return new AuditDescriptor(
+                audited.entityType(),
+                audited.action(),
+                audited.entityId() == Audited.EntityIdSource.RESULT,
+                userIdArgument,
+                audited.entityType() + (audited.action() == Audited.Action.CREATE ? " creation via " : " update via ") + source,
+                "Modification through " + method.getDeclaringClass().getSimpleName());
+    }
+}
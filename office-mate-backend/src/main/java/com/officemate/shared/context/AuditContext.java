@@ -0,0 +1,88 @@
+package com.officemate.shared.context;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.Value;
+
+/**
+ * Immutable snapshot of the request details recorded with audit, security and cancellation logs.
+ * Captured once per request by {@link com.officemate.config.security.AuditContextFilter} and carried
+ * to async executors by {@link com.officemate.config.ContextPropagatingTaskDecorator}, so log writers
+ * never touch servlet objects on another thread.
+ */
+@Value
+public class AuditContext {
+
+    public static final String UNKNOWN_VALUE = "UNKNOWN";
+
+    /**
+     * Context used outside of a request, e.g. in scheduled jobs
+     */
+    public static final AuditContext UNKNOWN = new AuditContext(UNKNOWN_VALUE, UNKNOWN_VALUE, UNKNOWN_VALUE);
+
+    private static final ThreadLocal<AuditContext> CURRENT = new ThreadLocal<>();
+
+    String ipAddress;
+    String userAgent;
+    String sessionId;
+
+    /**
+     * Capture the audit details of a request. The session ID is read from the request attribute
+     * set by the JWT authentication filter.
+     *
+     * @param request the current request
+     * @return the snapshot
+     */
+    public static AuditContext from(HttpServletRequest request) {
+        Object sessionId = request.getAttribute("sessionId");
+        return new AuditContext(
+                clientIpAddress(request),
+                request.getHeader("User-Agent"),
+                sessionId != null ? sessionId.toString() : UNKNOWN_VALUE);
+    }
+
+    /**
+     * Get the context bound to the current thread.
+     *
+     * @return the bound context, or {@link #UNKNOWN} if none is bound
+     */
+    public static AuditContext current() {
+        AuditContext context = CURRENT.get();
+        return context != null ? context : UNKNOWN;
+    }
+
+    /**
+     * Get the context bound to the current thread without falling back to {@link #UNKNOWN}.
+     *
+     * @return the bound context, or null
+     */
+    public static AuditContext peek() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Bind a context to the current thread, or unbind it if null.
+     *
+     * @param context the context
+     */
+    public static void set(AuditContext context) {
+        if (context != null) {
+            CURRENT.set(context);
+        } else {
+            CURRENT.remove();
+        }
+    }
+
+    private static String clientIpAddress(HttpServletRequest request) {
+        String xForwardedFor = request.getHeader("X-Forwarded-For");
+        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
+            return xForwardedFor.split(",")[0].trim();
+        }
+
+        String xRealIp = request.getHeader("X-Real-IP");
+        if (xRealIp != null && !xRealIp.isEmpty()) {
+            return xRealIp;
+        }
+
+        return request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,58 @@
+package com.officemate.shared.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO containing the pre-login risk state of an identifier and client IP.
+ * Built from a single Redis lookup of the lockout, failed-attempt and CAPTCHA bypass keys.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoginRiskAssessment {
+
+    /**
+     * Flag indicating if the account is locked out
+     */
+    private boolean locked;
+
+    /**
+     * Time when the lockout ends, null if not locked
+     */
+    private LocalDateTime lockedUntil;
+
+    /**
+     * Failed attempts recorded for the identifier
+     */
+    private int failedAttempts;
+
+    /**
+     * Failed attempts recorded for the client IP
+     */
+    private int ipFailedAttempts;
+
+    /**
+     * Flag indicating if the risk factors call for a CAPTCHA
+     */
+    private boolean captchaRequired;
+
+    /**
+     * Flag indicating if the identifier recently solved a CAPTCHA
+     */
+    private boolean captchaBypass;
+
+    /**
+     * Check whether a CAPTCHA challenge has to be solved before logging in.
+     *
+     * @return true if a CAPTCHA is required and no bypass is active
+     */
+    public boolean isCaptchaChallengeRequired() {
+        return captchaRequired && !captchaBypass;
+    }
+}
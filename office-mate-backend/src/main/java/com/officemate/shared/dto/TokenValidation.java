@@ -1,11 +1,12 @@
 package com.officemate.shared.dto;
 
+import com.officemate.shared.enums.Permission;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.util.List;
+import java.time.LocalDateTime;
 
 /**
  * DTO containing token validation results and user permissions.
@@ -28,9 +29,9 @@ public class TokenValidation {
     private String userId;
     
     /**
-     * List of permissions granted to the user
+     * Bitmask of permissions granted to the user (see {@link Permission})
      */
-    private List<String> permissions;
+    private int permissions;
     
     /**
      * Flag indicating if mobile is verified
@@ -47,8 +48,33 @@ public class TokenValidation {
      */
     private String sessionId;
     
+    /**
+     * Token identifier (jti claim) used for revocation checks
+     */
+    private String tokenId;
+    
+    /**
+     * Token type (ACCESS or REFRESH)
+     */
+    private String tokenType;
+    
+    /**
+     * Timestamp when the token expires
+     */
+    private LocalDateTime expiresAt;
+    
     /**
      * Error message if validation failed
      */
     private String errorMessage;
+
+    /**
+     * Check whether a permission is granted by this token.
+     *
+     * @param permission the permission
+     * @return true if the permission's bit is set
+     */
+    public boolean hasPermission(Permission permission) {
+        return permission.isGrantedIn(permissions);
+    }
 }
@@ -59,6 +59,19 @@ public class SecurityEventLog {
     @Column(name = "timestamp", nullable = false)
     private LocalDateTime timestamp;
 
+    /**
+     * Number of identical events (same type, identifier and IP address) collapsed into this row
+     */
+    @Column(name = "event_count")
+    @Builder.Default
+    private Integer eventCount = 1;
+
+    @Column(name = "first_seen_at")
+    private LocalDateTime firstSeenAt;
+
+    @Column(name = "last_seen_at")
+    private LocalDateTime lastSeenAt;
+
     @Column(name = "severity", length = 20)
     private String severity; // LOW, MEDIUM, HIGH, CRITICAL
 
@@ -83,5 +96,8 @@ public class SecurityEventLog {
         if (resolved == null) {
             resolved = false;
         }
+        if (eventCount == null) {
+            eventCount = 1;
+        }
     }
 }
\ No newline at end of file
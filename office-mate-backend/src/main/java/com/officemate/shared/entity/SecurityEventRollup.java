@@ -0,0 +1,56 @@
+package com.officemate.shared.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Entity for per-minute and per-hour security event counts by event type.
+ * Rows are maintained incrementally as events are ingested, so monitors and reports
+ * sum a few buckets instead of scanning security_event_logs.
+ */
+@Entity
+@Table(name = "security_event_rollups", indexes = {
+    @Index(name = "idx_security_rollup_bucket", columnList = "granularity, bucket_start")
+})
+@IdClass(SecurityEventRollup.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SecurityEventRollup {
+
+    @Id
+    @Column(name = "granularity", length = 10)
+    private String granularity; // MINUTE, HOUR
+
+    @Id
+    @Column(name = "bucket_start")
+    private LocalDateTime bucketStart;
+
+    @Id
+    @Column(name = "event_type", length = 50)
+    private String eventType;
+
+    @Column(name = "event_count", nullable = false)
+    private Long eventCount;
+
+    /**
+     * Composite key of a rollup bucket
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private String granularity;
+        private LocalDateTime bucketStart;
+        private String eventType;
+    }
+}
@@ -0,0 +1,102 @@
+package com.officemate.shared.enums;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Enum representing permissions granted to a session based on verification and account status.
+ * Each permission has a fixed bit so a set of permissions can be stored and transmitted as an int.
+ * Bits must never be reassigned, since masks are persisted in Redis and embedded in tokens.
+ */
+public enum Permission {
+    /**
+     * Mobile number has been verified
+     */
+    MOBILE_VERIFIED(0),
+
+    /**
+     * Corporate email has been verified
+     */
+    EMAIL_VERIFIED(1),
+
+    /**
+     * Both mobile and email are verified
+     */
+    FULLY_VERIFIED(2),
+
+    /**
+     * Ride features are accessible
+     */
+    ACCESS_RIDE_FEATURES(3),
+
+    /**
+     * Account is active
+     */
+    ACCOUNT_ACTIVE(4);
+
+    private static final Permission[] VALUES = values();
+
+    private final int mask;
+
+    Permission(int bit) {
+        this.mask = 1 << bit;
+    }
+
+    /**
+     * Get the bit mask of this permission.
+     *
+     * @return mask with this permission's bit set
+     */
+    public int mask() {
+        return mask;
+    }
+
+    /**
+     * Check whether this permission is set in a mask.
+     *
+     * @param permissions permission mask
+     * @return true if the permission's bit is set
+     */
+    public boolean isGrantedIn(int permissions) {
+        return (permissions & mask) != 0;
+    }
+
+    /**
+     * Build a mask from permission names. Unknown names are ignored.
+     *
+     * @param names permission names
+     * @return permission mask
+     */
+    public static int toMask(Collection<String> names) {
+        int permissions = 0;
+        if (names == null) {
+            return permissions;
+        }
+        for (String name : names) {
+            for (Permission permission : VALUES) {
+                if (permission.name().equals(name)) {
+                    permissions |= permission.mask;
+                    break;
+                }
+            }
+        }
+        return permissions;
+    }
+
+    /**
+     * List the names of the permissions set in a mask, in declaration order.
+     *
+     * @param permissions permission mask
+     * @return permission names
+     */
+    public static List<String> toNames(int permissions) {
+        List<String> names = new ArrayList<>(Integer.bitCount(permissions));
+        for (Permission permission : VALUES) {
+            if (permission.isGrantedIn(permissions)) {
+                names.add(permission.name());
+            }
+        }
+        return names;
+    }
+}
@@ -58,4 +58,12 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, UUID> {
     @Query("SELECT a FROM AuditLog a WHERE a.entityType IN ('UserProfile', 'DriverProfile', 'RiderProfile') " +
            "AND a.timestamp >= :since ORDER BY a.timestamp DESC")
     List<AuditLog> findRecentProfileChanges(@Param("since") LocalDateTime since);
+
+    /**
+     * Count audit logs per entity type within a time period, as (entityType, count) pairs
+     */
+    @Query("SELECT a.entityType, COUNT(a) FROM AuditLog a " +
+           "WHERE a.timestamp >= :startDate AND a.timestamp < :endDate GROUP BY a.entityType")
+    List<Object[]> countByEntityTypeBetween(@Param("startDate") LocalDateTime startDate,
+                                            @Param("endDate") LocalDateTime endDate);
 }
\ No newline at end of file
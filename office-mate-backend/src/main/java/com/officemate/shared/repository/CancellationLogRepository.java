@@ -86,6 +86,38 @@ public interface CancellationLogRepository extends JpaRepository<CancellationLog
                                                         @Param("year") Integer year, 
                                                         @Param("threshold") Long threshold);
 
+    /**
+     * Count the users who are approaching the cancellation limit, matching {@link #findUsersApproachingCancellationLimit}
+     */
+    @Query(value = "SELECT COUNT(*) FROM (SELECT user_id FROM cancellation_logs " +
+                   "WHERE cancellation_type = 'DRIVER' AND cancellation_month = :month AND cancellation_year = :year " +
+                   "GROUP BY user_id HAVING COUNT(*) >= :threshold) at_risk", nativeQuery = true)
+    long countUsersApproachingCancellationLimit(@Param("month") Integer month,
+                                                @Param("year") Integer year,
+                                                @Param("threshold") Long threshold);
+
+    /**
+     * Count cancellations within a time period
+     */
+    @Query("SELECT COUNT(c) FROM CancellationLog c WHERE c.timestamp >= :startDate AND c.timestamp < :endDate")
+    long countByTimestampBetween(@Param("startDate") LocalDateTime startDate,
+                                 @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Count cancellations per type within a time period, as (cancellationType, count) pairs
+     */
+    @Query("SELECT c.cancellationType, COUNT(c) FROM CancellationLog c " +
+           "WHERE c.timestamp >= :startDate AND c.timestamp < :endDate GROUP BY c.cancellationType")
+    List<Object[]> countByCancellationTypeBetween(@Param("startDate") LocalDateTime startDate,
+                                                  @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Count active suspensions, matching {@link #findActiveSuspensions}
+     */
+    @Query("SELECT COUNT(c) FROM CancellationLog c WHERE c.penaltyApplied = true " +
+           "AND c.penaltyType = 'SUSPENSION' AND c.penaltyEndDate > :currentTime")
+    long countActiveSuspensions(@Param("currentTime") LocalDateTime currentTime);
+
     /**
      * Count total cancellations for a user
      */
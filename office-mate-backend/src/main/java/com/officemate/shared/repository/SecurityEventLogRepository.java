@@ -49,16 +49,18 @@ public interface SecurityEventLogRepository extends JpaRepository<SecurityEventL
     Page<SecurityEventLog> findBySeverityOrderByTimestampDesc(String severity, Pageable pageable);
 
     /**
-     * Count failed login attempts for a phone number within a time period
+     * Count failed login attempts for a phone number within a time period.
+     * Aggregated rows count as many events as they collapse.
      */
-    @Query("SELECT COUNT(s) FROM SecurityEventLog s WHERE s.phoneNumber = :phoneNumber " +
+    @Query("SELECT COALESCE(SUM(COALESCE(s.eventCount, 1)), 0) FROM SecurityEventLog s WHERE s.phoneNumber = :phoneNumber " +
            "AND s.eventType = 'LOGIN_FAILURE' AND s.timestamp >= :since")
     long countFailedLoginAttempts(@Param("phoneNumber") String phoneNumber, @Param("since") LocalDateTime since);
 
     /**
-     * Count failed OTP attempts for a user within a time period
+     * Count failed OTP attempts for a user within a time period.
+     * Aggregated rows count as many events as they collapse.
      */
-    @Query("SELECT COUNT(s) FROM SecurityEventLog s WHERE s.userId = :userId " +
+    @Query("SELECT COALESCE(SUM(COALESCE(s.eventCount, 1)), 0) FROM SecurityEventLog s WHERE s.userId = :userId " +
            "AND s.eventType = 'OTP_FAILURE' AND s.timestamp >= :since")
     long countFailedOtpAttempts(@Param("userId") UUID userId, @Param("since") LocalDateTime since);
 
@@ -78,8 +80,16 @@ public interface SecurityEventLogRepository extends JpaRepository<SecurityEventL
                                                  Pageable pageable);
 
     /**
-     * Count security events by type within a time period
+     * Count security events by type within a time period.
+     * Aggregated rows count as many events as they collapse.
      */
-    @Query("SELECT COUNT(s) FROM SecurityEventLog s WHERE s.eventType = :eventType AND s.timestamp >= :since")
+    @Query("SELECT COALESCE(SUM(COALESCE(s.eventCount, 1)), 0) FROM SecurityEventLog s WHERE s.eventType = :eventType AND s.timestamp >= :since")
     long countByEventTypeAndTimestampAfter(@Param("eventType") String eventType, @Param("since") LocalDateTime since);
+
+    /**
+     * Count unresolved high-severity events, matching {@link #findRecentSuspiciousActivities}
+     */
+    @Query("SELECT COUNT(s) FROM SecurityEventLog s WHERE s.severity IN ('HIGH', 'CRITICAL') " +
+           "AND s.resolved = false AND s.timestamp >= :since")
+    long countRecentSuspiciousActivities(@Param("since") LocalDateTime since);
 }
\ No newline at end of file
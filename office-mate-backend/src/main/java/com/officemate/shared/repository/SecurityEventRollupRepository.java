@@ -0,0 +1,34 @@
+package com.officemate.shared.repository;
+
+import com.officemate.shared.entity.SecurityEventRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for security event rollup buckets
+ */
+@Repository
+public interface SecurityEventRollupRepository extends JpaRepository<SecurityEventRollup, SecurityEventRollup.Key> {
+
+    /**
+     * Sum the buckets of a granularity starting at or after a time, as (eventType, count) pairs
+     */
+    @Query("SELECT r.eventType, SUM(r.eventCount) FROM SecurityEventRollup r " +
+           "WHERE r.granularity = :granularity AND r.bucketStart >= :since GROUP BY r.eventType")
+    List<Object[]> sumByEventTypeSince(@Param("granularity") String granularity, @Param("since") LocalDateTime since);
+
+    /**
+     * Delete the buckets of a granularity that start before a time
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM SecurityEventRollup r WHERE r.granularity = :granularity AND r.bucketStart < :before")
+    int deleteByGranularityBefore(@Param("granularity") String granularity, @Param("before") LocalDateTime before);
+}
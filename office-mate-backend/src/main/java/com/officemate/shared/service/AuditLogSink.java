@@ -0,0 +1,323 @@
+package com.officemate.shared.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.officemate.shared.entity.AuditLog;
+import com.officemate.shared.util.MpscRingBuffer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Asynchronous sink for audit log records.
+ * Callers hand records to a bounded lock-free ring buffer and return immediately. A single writer
+ * thread drains the buffer into multi-row INSERT statements of up to {@code batch-size} rows.
+ * When an insert fails, the database is considered down: later batches are spilled as JSON lines to a
+ * local directory without trying the database, so a connection timeout per batch cannot stall the writer
+ * until the buffer fills. Replaying the spilled files every {@code replay-interval-ms} probes the database,
+ * and inserts resume once every file is replayed. Records offered while the buffer is full are dropped
+ * and counted rather than making the caller wait.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AuditLogSink {
+
+    private static final String INSERT_PREFIX = "INSERT INTO audit_logs (audit_id, user_id, entity_type, entity_id, "
+            + "action, field_name, old_value, new_value, ip_address, user_agent, session_id, timestamp, reason) VALUES ";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    // Rows already inserted by a partially replayed spill file are skipped by their audit ID
+    private static final String INSERT_SUFFIX = " ON CONFLICT DO NOTHING";
+    private static final String SPILL_FILE_PREFIX = "audit-";
+    private static final String SPILL_FILE_SUFFIX = ".jsonl";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong spillSequence = new AtomicLong();
+    private MpscRingBuffer<AuditLog> buffer;
+    private String fullBatchSql;
+    private Path spillDirectory;
+    private Thread writer;
+    private volatile boolean running;
+    private boolean databaseDown;
+    private long nextReplayAt;
+
+    @Value("${app.audit.sink.capacity:65536}")
+    private int capacity;
+
+    @Value("${app.audit.sink.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.audit.sink.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${app.audit.sink.spill-directory:${java.io.tmpdir}/officemate-audit-spill}")
+    private String spillDirectoryPath;
+
+    @Value("${app.audit.sink.replay-interval-ms:30000}")
+    private long replayIntervalMs;
+
+    @PostConstruct
+    public void init() {
+        buffer = new MpscRingBuffer<>(capacity);
+        fullBatchSql = insertSql(batchSize);
+        spillDirectory = Paths.get(spillDirectoryPath);
+        try {
+            Files.createDirectories(spillDirectory);
+        } catch (IOException e) {
+            log.error("Cannot create audit spill directory {}", spillDirectory, e);
+        }
+
+        running = true;
+        writer = new Thread(this::run, "Audit-Sink");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Audit sink started (capacity: {}, batch size: {}, spill directory: {})",
+                buffer.getCapacity(), batchSize, spillDirectory);
+    }
+
+    /**
+     * Hand a record to the writer thread. Never blocks and never throws for a full buffer.
+     *
+     * @param auditLog the record
+     * @return true if the record was buffered, false if it was dropped because the buffer is full
+     */
+    public boolean submit(AuditLog auditLog) {
+        if (auditLog.getAuditId() == null) {
+            auditLog.setAuditId(UUID.randomUUID());
+        }
+        if (auditLog.getTimestamp() == null) {
+            auditLog.setTimestamp(LocalDateTime.now());
+        }
+        if (buffer.offer(auditLog)) {
+            return true;
+        }
+        droppedCount.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Get the number of records waiting to be written.
+     */
+    public int getPendingCount() {
+        return buffer.size();
+    }
+
+    /**
+     * Get the number of records dropped because the buffer was full and not yet reported.
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (writer == null) {
+            return;
+        }
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        List<AuditLog> batch = new ArrayList<>(batchSize);
+        while (running || buffer.size() > 0) {
+            try {
+                int drained = buffer.drainTo(batch, batchSize);
+                if (drained > 0) {
+                    write(batch);
+                    batch.clear();
+                    if (drained == batchSize) {
+                        continue;
+                    }
+                }
+
+                reportDropped();
+                replaySpilledIfDue();
+                if (running) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushIntervalMs));
+                }
+            } catch (Exception e) {
+                log.error("Unexpected error in audit sink writer", e);
+                batch.clear();
+            }
+        }
+        log.info("Audit sink stopped");
+    }
+
+    /**
+     * Insert a batch, spilling it to disk if the database rejects it or is known to be down.
+     */
+    private void write(List<AuditLog> batch) {
+        if (databaseDown) {
+            spill(batch);
+            return;
+        }
+        try {
+            insertSkippingInvalid(batch);
+        } catch (Exception e) {
+            log.warn("Audit batch of {} records could not be written, spilling to disk until replay succeeds: {}",
+                    batch.size(), e.getMessage());
+            spill(batch);
+            databaseDown = true;
+            nextReplayAt = System.currentTimeMillis() + replayIntervalMs;
+        }
+    }
+
+    /**
+     * Insert a batch. If a row violates a constraint, fall back to inserting rows one by one
+     * and skip the invalid ones, so a single bad record cannot keep a batch spilled forever.
+     */
+    private void insertSkippingInvalid(List<AuditLog> batch) {
+        try {
+            insert(batch);
+        } catch (DataIntegrityViolationException e) {
+            for (AuditLog auditLog : batch) {
+                try {
+                    insert(List.of(auditLog));
+                } catch (DataIntegrityViolationException rowError) {
+                    log.error("Discarding invalid audit record {} for user {}: {}",
+                            auditLog.getAuditId(), auditLog.getUserId(), rowError.getMessage());
+                }
+            }
+        }
+    }
+
+    private void insert(List<AuditLog> batch) {
+        String sql = batch.size() == batchSize ? fullBatchSql : insertSql(batch.size());
+        Object[] args = new Object[batch.size() * 13];
+        int i = 0;
+        for (AuditLog auditLog : batch) {
+            args[i++] = auditLog.getAuditId();
+            args[i++] = auditLog.getUserId();
+            args[i++] = auditLog.getEntityType();
+            args[i++] = auditLog.getEntityId();
+            args[i++] = auditLog.getAction();
+            args[i++] = auditLog.getFieldName();
+            args[i++] = auditLog.getOldValue();
+            args[i++] = auditLog.getNewValue();
+            args[i++] = auditLog.getIpAddress();
+            args[i++] = auditLog.getUserAgent();
+            args[i++] = auditLog.getSessionId();
+            args[i++] = auditLog.getTimestamp();
+            args[i++] = auditLog.getReason();
+        }
+        jdbcTemplate.update(sql, args);
+    }
+
+    private void spill(List<AuditLog> batch) {
+        Path file = spillDirectory.resolve(SPILL_FILE_PREFIX + System.currentTimeMillis() + "-"
+                + spillSequence.incrementAndGet() + SPILL_FILE_SUFFIX);
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            for (AuditLog auditLog : batch) {
+                out.write(objectMapper.writeValueAsString(auditLog));
+                out.newLine();
+            }
+        } catch (IOException e) {
+            log.error("Failed to spill {} audit records to {}, records lost", batch.size(), file, e);
+        }
+    }
+
+    /**
+     * Replay spilled files, oldest first, stopping at the first one the database still rejects.
+     * A file is only deleted once all of its rows are inserted; audit IDs are kept, so rows of a
+     * partially replayed file are not inserted twice. Once every file is replayed, batches are
+     * inserted again instead of spilled.
+     */
+    private void replaySpilledIfDue() {
+        if (System.currentTimeMillis() < nextReplayAt) {
+            return;
+        }
+        for (Path file : spilledFiles()) {
+            try {
+                List<AuditLog> records = new ArrayList<>();
+                for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                    if (!line.isBlank()) {
+                        records.add(objectMapper.readValue(line, AuditLog.class));
+                    }
+                }
+                for (int from = 0; from < records.size(); from += batchSize) {
+                    insertSkippingInvalid(records.subList(from, Math.min(records.size(), from + batchSize)));
+                }
+                Files.delete(file);
+                log.info("Replayed {} spilled audit records from {}", records.size(), file.getFileName());
+            } catch (IOException e) {
+                log.error("Cannot read spilled audit file {}", file, e);
+                return;
+            } catch (Exception e) {
+                log.debug("Database still unavailable for spilled audit records: {}", e.getMessage());
+                nextReplayAt = System.currentTimeMillis() + replayIntervalMs;
+                return;
+            }
+        }
+        if (databaseDown) {
+            databaseDown = false;
+            log.info("Audit inserts resumed after replaying spilled records");
+        }
+    }
+
+    private List<Path> spilledFiles() {
+        if (!Files.isDirectory(spillDirectory)) {
+            return Collections.emptyList();
+        }
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            return files.filter(file -> {
+                        String name = file.getFileName().toString();
+                        return name.startsWith(SPILL_FILE_PREFIX) && name.endsWith(SPILL_FILE_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            log.error("Cannot list audit spill directory {}", spillDirectory, e);
+            return Collections.emptyList();
+        }
+    }
+
+    private void reportDropped() {
+        long dropped = droppedCount.getAndSet(0);
+        if (dropped > 0) {
+            log.warn("Audit buffer full, dropped {} audit records", dropped);
+        }
+    }
+
+    private static String insertSql(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + rows * (ROW_PLACEHOLDERS.length() + 2));
+        sql.append(INSERT_PREFIX);
+        for (int row = 0; row < rows; row++) {
+            if (row > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDERS);
+        }
+        return sql.append(INSERT_SUFFIX).toString();
+    }
+}
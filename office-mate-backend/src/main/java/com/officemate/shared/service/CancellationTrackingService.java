@@ -1,18 +1,17 @@
 package com.officemate.shared.service;
 
+import com.officemate.shared.context.AuditContext;
 import com.officemate.shared.entity.CancellationLog;
 import com.officemate.shared.repository.CancellationLogRepository;
-import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.springframework.web.context.request.RequestContextHolder;
-import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -31,11 +30,11 @@ public class CancellationTrackingService {
     /**
      * Log a ride cancellation and check for suspension policy enforcement
      */
-    @Async
+    @Async("cancellationTaskExecutor")
     public void logCancellation(UUID userId, UUID rideId, String cancellationType, 
                               String reason, Integer minutesBeforeRide, String additionalNotes) {
         try {
-            HttpServletRequest request = getCurrentRequest();
+            AuditContext context = AuditContext.current();
             LocalDateTime now = LocalDateTime.now();
             
             CancellationLog cancellationLog = CancellationLog.builder()
@@ -47,30 +46,33 @@ public class CancellationTrackingService {
                 .cancellationMonth(now.getMonthValue())
                 .cancellationYear(now.getYear())
                 .minutesBeforeRide(minutesBeforeRide)
-                .ipAddress(getClientIpAddress(request))
-                .userAgent(getUserAgent(request))
+                .ipAddress(context.getIpAddress())
+                .userAgent(context.getUserAgent())
                 .additionalNotes(additionalNotes)
                 .build();
 
             cancellationLogRepository.save(cancellationLog);
             
             // Log the cancellation event
-            MDC.put("userId", userId.toString());
-            MDC.put("rideId", rideId != null ? rideId.toString() : "UNKNOWN");
-            MDC.put("cancellationType", cancellationType);
-            MDC.put("reason", reason);
-            MDC.put("minutesBeforeRide", minutesBeforeRide != null ? minutesBeforeRide.toString() : "UNKNOWN");
-            
-            log.info("Ride cancellation logged: {} cancellation by user {} for ride {} - Reason: {}", 
-                    cancellationType, userId, rideId, reason);
-            
-            // Check for suspension policy enforcement if it's a driver cancellation
-            if ("DRIVER".equals(cancellationType)) {
-                checkAndEnforceSuspensionPolicy(userId, now.getMonthValue(), now.getYear());
+            Map<String, String> previous = MDC.getCopyOfContextMap();
+            try {
+                MDC.put("userId", userId.toString());
+                MDC.put("rideId", rideId != null ? rideId.toString() : "UNKNOWN");
+                MDC.put("cancellationType", cancellationType);
+                MDC.put("reason", reason);
+                MDC.put("minutesBeforeRide", minutesBeforeRide != null ? minutesBeforeRide.toString() : "UNKNOWN");
+
+                log.info("Ride cancellation logged: {} cancellation by user {} for ride {} - Reason: {}", 
+                        cancellationType, userId, rideId, reason);
+
+                // Check for suspension policy enforcement if it's a driver cancellation
+                if ("DRIVER".equals(cancellationType)) {
+                    checkAndEnforceSuspensionPolicy(userId, now.getMonthValue(), now.getYear());
+                }
+            } finally {
+                restoreMdc(previous);
             }
             
-            MDC.clear();
-            
         } catch (Exception e) {
             log.error("Failed to log cancellation for user {}: {}", userId, e.getMessage(), e);
         }
@@ -116,29 +118,32 @@ public class CancellationTrackingService {
         try {
             long cancellationCount = cancellationLogRepository.countDriverCancellationsInMonth(userId, month, year);
             
-            MDC.put("userId", userId.toString());
-            MDC.put("cancellationCount", String.valueOf(cancellationCount));
-            MDC.put("month", String.valueOf(month));
-            MDC.put("year", String.valueOf(year));
-            
-            if (cancellationCount >= MAX_DRIVER_CANCELLATIONS_PER_MONTH) {
-                // Check if suspension has already been applied for this month
-                List<CancellationLog> monthCancellations = cancellationLogRepository
-                        .findDriverCancellationsInMonth(userId, month, year);
-                
-                boolean suspensionAlreadyApplied = monthCancellations.stream()
-                        .anyMatch(c -> c.getPenaltyApplied() && "SUSPENSION".equals(c.getPenaltyType()));
-                
-                if (!suspensionAlreadyApplied) {
-                    applySuspension(userId, cancellationCount, month, year);
+            Map<String, String> previous = MDC.getCopyOfContextMap();
+            try {
+                MDC.put("userId", userId.toString());
+                MDC.put("cancellationCount", String.valueOf(cancellationCount));
+                MDC.put("month", String.valueOf(month));
+                MDC.put("year", String.valueOf(year));
+
+                if (cancellationCount >= MAX_DRIVER_CANCELLATIONS_PER_MONTH) {
+                    // Check if suspension has already been applied for this month
+                    List<CancellationLog> monthCancellations = cancellationLogRepository
+                            .findDriverCancellationsInMonth(userId, month, year);
+
+                    boolean suspensionAlreadyApplied = monthCancellations.stream()
+                            .anyMatch(c -> c.getPenaltyApplied() && "SUSPENSION".equals(c.getPenaltyType()));
+
+                    if (!suspensionAlreadyApplied) {
+                        applySuspension(userId, cancellationCount, month, year);
+                    }
+                } else if (cancellationCount >= 3) {
+                    // Issue warning for users approaching the limit
+                    issueWarning(userId, cancellationCount, month, year);
                 }
-            } else if (cancellationCount >= 3) {
-                // Issue warning for users approaching the limit
-                issueWarning(userId, cancellationCount, month, year);
+            } finally {
+                restoreMdc(previous);
             }
             
-            MDC.clear();
-            
         } catch (Exception e) {
             log.error("Failed to check suspension policy for user {}: {}", userId, e.getMessage(), e);
         }
@@ -171,14 +176,17 @@ public class CancellationTrackingService {
             
             cancellationLogRepository.save(suspensionLog);
             
-            MDC.put("userId", userId.toString());
-            MDC.put("suspensionEndDate", suspensionEnd.toString());
-            MDC.put("cancellationCount", String.valueOf(cancellationCount));
-            
-            log.error("SUSPENSION APPLIED: User {} suspended for {} days due to {} driver cancellations in {}/{}", 
-                     userId, SUSPENSION_DURATION_DAYS, cancellationCount, month, year);
-            
-            MDC.clear();
+            Map<String, String> previous = MDC.getCopyOfContextMap();
+            try {
+                MDC.put("userId", userId.toString());
+                MDC.put("suspensionEndDate", suspensionEnd.toString());
+                MDC.put("cancellationCount", String.valueOf(cancellationCount));
+
+                log.error("SUSPENSION APPLIED: User {} suspended for {} days due to {} driver cancellations in {}/{}", 
+                         userId, SUSPENSION_DURATION_DAYS, cancellationCount, month, year);
+            } finally {
+                restoreMdc(previous);
+            }
             
         } catch (Exception e) {
             log.error("Failed to apply suspension for user {}: {}", userId, e.getMessage(), e);
@@ -207,47 +215,32 @@ public class CancellationTrackingService {
             
             cancellationLogRepository.save(warningLog);
             
-            MDC.put("userId", userId.toString());
-            MDC.put("cancellationCount", String.valueOf(cancellationCount));
-            MDC.put("remainingCancellations", String.valueOf(MAX_DRIVER_CANCELLATIONS_PER_MONTH - cancellationCount));
-            
-            log.warn("WARNING ISSUED: User {} has {} driver cancellations in {}/{}. {} more will result in suspension", 
-                    userId, cancellationCount, month, year, MAX_DRIVER_CANCELLATIONS_PER_MONTH - cancellationCount);
-            
-            MDC.clear();
+            Map<String, String> previous = MDC.getCopyOfContextMap();
+            try {
+                MDC.put("userId", userId.toString());
+                MDC.put("cancellationCount", String.valueOf(cancellationCount));
+                MDC.put("remainingCancellations", String.valueOf(MAX_DRIVER_CANCELLATIONS_PER_MONTH - cancellationCount));
+
+                log.warn("WARNING ISSUED: User {} has {} driver cancellations in {}/{}. {} more will result in suspension", 
+                        userId, cancellationCount, month, year, MAX_DRIVER_CANCELLATIONS_PER_MONTH - cancellationCount);
+            } finally {
+                restoreMdc(previous);
+            }
             
         } catch (Exception e) {
             log.error("Failed to issue warning for user {}: {}", userId, e.getMessage(), e);
         }
     }
 
-    private HttpServletRequest getCurrentRequest() {
-        try {
-            ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.currentRequestAttributes();
-            return attributes.getRequest();
-        } catch (Exception e) {
-            return null;
-        }
-    }
-
-    private String getClientIpAddress(HttpServletRequest request) {
-        if (request == null) return "UNKNOWN";
-        
-        String xForwardedFor = request.getHeader("X-Forwarded-For");
-        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
-            return xForwardedFor.split(",")[0].trim();
-        }
-        
-        String xRealIp = request.getHeader("X-Real-IP");
-        if (xRealIp != null && !xRealIp.isEmpty()) {
-            return xRealIp;
+    /**
+     * Restore the caller's MDC entries after logging with extra ones. This runs on the caller's
+     * thread, so its own entries are restored instead of removed.
+     */
+    private static void restoreMdc(Map<String, String> previous) {
+        if (previous != null) {
+            MDC.setContextMap(previous);
+        } else {
+            MDC.clear();
         }
-        
-        return request.getRemoteAddr();
-    }
-
-    private String getUserAgent(HttpServletRequest request) {
-        if (request == null) return "UNKNOWN";
-        return request.getHeader("User-Agent");
     }
-}
\ No newline at end of file
+}
@@ -1,7 +1,5 @@
 package com.officemate.shared.service;
 
-import com.officemate.shared.entity.CancellationLog;
-import com.officemate.shared.entity.SecurityEventLog;
 import com.officemate.shared.repository.AuditLogRepository;
 import com.officemate.shared.repository.CancellationLogRepository;
 import com.officemate.shared.repository.SecurityEventLogRepository;
@@ -9,42 +7,42 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 /**
- * Service for managing log cleanup and generating monitoring reports
+ * Service for managing log cleanup and generating monitoring reports.
+ * Reports only run COUNT and GROUP BY queries, so they use constant memory regardless of table size.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class LogManagementService {
 
+    private static final List<String> PROFILE_ENTITY_TYPES = List.of("UserProfile", "DriverProfile", "RiderProfile");
+
     private final AuditLogRepository auditLogRepository;
     private final SecurityEventLogRepository securityEventLogRepository;
     private final CancellationLogRepository cancellationLogRepository;
+    private final LogPartitionManager logPartitionManager;
+    private final SecurityEventRollupService securityEventRollupService;
 
     /**
-     * Clean up old audit logs (keep for 1 year)
+     * Drop audit log partitions past retention (1 year by default)
      * Runs daily at 2 AM
      */
     @Scheduled(cron = "0 0 2 * * ?")
-    @Transactional
     public void cleanupOldAuditLogs() {
         try {
-            LocalDateTime cutoffDate = LocalDateTime.now().minusYears(1);
-            
-            // Note: In a production environment, you might want to archive these logs
-            // instead of deleting them for compliance purposes
-            long deletedCount = auditLogRepository.findByTimestampBetween(
-                LocalDateTime.of(2000, 1, 1, 0, 0), 
-                cutoffDate, 
-                org.springframework.data.domain.Pageable.unpaged()
-            ).getTotalElements();
+            // Note: In a production environment, you might want to archive these partitions
+            // before dropping them for compliance purposes
+            int dropped = logPartitionManager.applyRetention(LogPartitionManager.LogTable.AUDIT_LOGS);
             
-            log.info("Audit log cleanup completed. {} old records identified for cleanup", deletedCount);
+            log.info("Audit log cleanup completed. {} monthly partitions dropped", dropped);
             
         } catch (Exception e) {
             log.error("Failed to cleanup old audit logs: {}", e.getMessage(), e);
@@ -52,28 +50,37 @@ public class LogManagementService {
     }
 
     /**
-     * Clean up resolved security events older than 6 months
+     * Drop security event partitions past retention (6 months by default) whose events are all resolved
      * Runs daily at 2:30 AM
      */
     @Scheduled(cron = "0 30 2 * * ?")
-    @Transactional
     public void cleanupResolvedSecurityEvents() {
         try {
-            LocalDateTime cutoffDate = LocalDateTime.now().minusMonths(6);
-            
-            long deletedCount = securityEventLogRepository.findByTimestampBetween(
-                LocalDateTime.of(2000, 1, 1, 0, 0), 
-                cutoffDate, 
-                org.springframework.data.domain.Pageable.unpaged()
-            ).getTotalElements();
+            int dropped = logPartitionManager.applyRetention(LogPartitionManager.LogTable.SECURITY_EVENT_LOGS);
             
-            log.info("Security event cleanup completed. {} resolved events identified for cleanup", deletedCount);
+            log.info("Security event cleanup completed. {} monthly partitions dropped", dropped);
             
         } catch (Exception e) {
             log.error("Failed to cleanup resolved security events: {}", e.getMessage(), e);
         }
     }
 
+    /**
+     * Drop cancellation log partitions past retention (2 years by default) with no suspension in force
+     * Runs daily at 2:45 AM
+     */
+    @Scheduled(cron = "0 45 2 * * ?")
+    public void cleanupOldCancellationLogs() {
+        try {
+            int dropped = logPartitionManager.applyRetention(LogPartitionManager.LogTable.CANCELLATION_LOGS);
+            
+            log.info("Cancellation log cleanup completed. {} monthly partitions dropped", dropped);
+            
+        } catch (Exception e) {
+            log.error("Failed to cleanup old cancellation logs: {}", e.getMessage(), e);
+        }
+    }
+
     /**
      * Generate daily security report
      * Runs daily at 8 AM
@@ -82,16 +89,16 @@ public class LogManagementService {
     public void generateDailySecurityReport() {
         try {
             LocalDateTime yesterday = LocalDateTime.now().minusDays(1);
-            LocalDateTime today = LocalDateTime.now();
             
-            // Count various security events from yesterday
-            long failedLogins = securityEventLogRepository.countByEventTypeAndTimestampAfter("LOGIN_FAILURE", yesterday);
-            long otpFailures = securityEventLogRepository.countByEventTypeAndTimestampAfter("OTP_FAILURE", yesterday);
-            long suspiciousActivities = securityEventLogRepository.countByEventTypeAndTimestampAfter("SUSPICIOUS_ACTIVITY", yesterday);
-            long accountLockouts = securityEventLogRepository.countByEventTypeAndTimestampAfter("ACCOUNT_LOCKED", yesterday);
+            // Count all security event types from yesterday from the rollup buckets
+            Map<String, Long> eventCounts = securityEventRollupService.countsSince(yesterday);
+            long failedLogins = eventCounts.getOrDefault("LOGIN_FAILURE", 0L);
+            long otpFailures = eventCounts.getOrDefault("OTP_FAILURE", 0L);
+            long suspiciousActivities = eventCounts.getOrDefault("SUSPICIOUS_ACTIVITY", 0L);
+            long accountLockouts = eventCounts.getOrDefault("ACCOUNT_LOCKED", 0L);
             
-            // Get unresolved high-severity events
-            List<SecurityEventLog> unresolvedEvents = securityEventLogRepository.findRecentSuspiciousActivities(yesterday.minusDays(7));
+            // Count unresolved high-severity events
+            long unresolvedEvents = securityEventLogRepository.countRecentSuspiciousActivities(yesterday.minusDays(7));
             
             log.info("=== DAILY SECURITY REPORT ===");
             log.info("Date: {}", yesterday.toLocalDate());
@@ -99,7 +106,7 @@ public class LogManagementService {
             log.info("OTP Failures: {}", otpFailures);
             log.info("Suspicious Activities: {}", suspiciousActivities);
             log.info("Account Lockouts: {}", accountLockouts);
-            log.info("Unresolved High-Severity Events (last 7 days): {}", unresolvedEvents.size());
+            log.info("Unresolved High-Severity Events (last 7 days): {}", unresolvedEvents);
             log.info("=============================");
             
         } catch (Exception e) {
@@ -117,22 +124,18 @@ public class LogManagementService {
             LocalDateTime weekAgo = LocalDateTime.now().minusDays(7);
             LocalDateTime now = LocalDateTime.now();
             
-            // Get cancellation statistics
-            long totalCancellations = cancellationLogRepository.findByTimestampBetween(weekAgo, now, 
-                org.springframework.data.domain.Pageable.unpaged()).getTotalElements();
-            
-            long driverCancellations = cancellationLogRepository.findByCancellationTypeOrderByTimestampDesc("DRIVER", 
-                org.springframework.data.domain.Pageable.unpaged()).getTotalElements();
+            // Count the week's cancellations per type in one grouped query
+            Map<String, Long> cancellationCounts = toCounts(
+                cancellationLogRepository.countByCancellationTypeBetween(weekAgo, now));
+            long totalCancellations = cancellationCounts.values().stream().mapToLong(Long::longValue).sum();
+            long driverCancellations = cancellationCounts.getOrDefault("DRIVER", 0L);
+            long riderCancellations = cancellationCounts.getOrDefault("RIDER", 0L);
             
-            long riderCancellations = cancellationLogRepository.findByCancellationTypeOrderByTimestampDesc("RIDER", 
-                org.springframework.data.domain.Pageable.unpaged()).getTotalElements();
+            // Count active suspensions
+            long activeSuspensions = cancellationLogRepository.countActiveSuspensions(now);
             
-            // Get active suspensions
-            List<CancellationLog> activeSuspensions = cancellationLogRepository.findActiveSuspensions(now);
-            
-            // Get users approaching cancellation limit this month
-            LocalDateTime thisMonth = now.withDayOfMonth(1);
-            List<Object[]> usersAtRisk = cancellationLogRepository.findUsersApproachingCancellationLimit(
+            // Count users approaching cancellation limit this month
+            long usersAtRisk = cancellationLogRepository.countUsersApproachingCancellationLimit(
                 now.getMonthValue(), now.getYear(), 3L);
             
             log.info("=== WEEKLY CANCELLATION REPORT ===");
@@ -140,8 +143,8 @@ public class LogManagementService {
             log.info("Total Cancellations: {}", totalCancellations);
             log.info("Driver Cancellations: {}", driverCancellations);
             log.info("Rider Cancellations: {}", riderCancellations);
-            log.info("Active Suspensions: {}", activeSuspensions.size());
-            log.info("Users at Risk (3+ cancellations this month): {}", usersAtRisk.size());
+            log.info("Active Suspensions: {}", activeSuspensions);
+            log.info("Users at Risk (3+ cancellations this month): {}", usersAtRisk);
             log.info("==================================");
             
         } catch (Exception e) {
@@ -161,21 +164,22 @@ public class LogManagementService {
             // Check for high number of failed logins from same IP
             // This would require additional IP-based queries in the repository
             
+            Map<String, Long> recentEventCounts = securityEventRollupService.countsSince(lastHour);
+            
             // Check for rapid OTP failures
-            long recentOtpFailures = securityEventLogRepository.countByEventTypeAndTimestampAfter("OTP_FAILURE", lastHour);
+            long recentOtpFailures = recentEventCounts.getOrDefault("OTP_FAILURE", 0L);
             if (recentOtpFailures > 50) {
                 log.warn("ALERT: High number of OTP failures in the last hour: {}", recentOtpFailures);
             }
             
             // Check for multiple account lockouts
-            long recentLockouts = securityEventLogRepository.countByEventTypeAndTimestampAfter("ACCOUNT_LOCKED", lastHour);
+            long recentLockouts = recentEventCounts.getOrDefault("ACCOUNT_LOCKED", 0L);
             if (recentLockouts > 10) {
                 log.warn("ALERT: High number of account lockouts in the last hour: {}", recentLockouts);
             }
             
             // Check for unusual cancellation patterns
-            long recentCancellations = cancellationLogRepository.findByTimestampBetween(lastHour, LocalDateTime.now(), 
-                org.springframework.data.domain.Pageable.unpaged()).getTotalElements();
+            long recentCancellations = cancellationLogRepository.countByTimestampBetween(lastHour, LocalDateTime.now());
             if (recentCancellations > 100) {
                 log.warn("ALERT: High number of ride cancellations in the last hour: {}", recentCancellations);
             }
@@ -192,21 +196,36 @@ public class LogManagementService {
     @Scheduled(cron = "0 0 10 1 * ?")
     public void generateMonthlyAuditSummary() {
         try {
-            LocalDateTime lastMonth = LocalDateTime.now().minusMonths(1);
-            LocalDateTime thisMonth = LocalDateTime.now().withDayOfMonth(1);
+            YearMonth lastMonth = YearMonth.now().minusMonths(1);
             
-            // Count audit events by type
-            long profileChanges = auditLogRepository.countByUserIdAndTimestampAfter(null, lastMonth);
-            long recentProfileChanges = auditLogRepository.findRecentProfileChanges(lastMonth).size();
+            // Count last month's audit events per entity type in one grouped query
+            Map<String, Long> entityCounts = toCounts(auditLogRepository.countByEntityTypeBetween(
+                lastMonth.atDay(1).atStartOfDay(), lastMonth.plusMonths(1).atDay(1).atStartOfDay()));
+            long totalEvents = entityCounts.values().stream().mapToLong(Long::longValue).sum();
+            long profileChanges = PROFILE_ENTITY_TYPES.stream()
+                .mapToLong(entityType -> entityCounts.getOrDefault(entityType, 0L))
+                .sum();
             
             log.info("=== MONTHLY AUDIT SUMMARY ===");
             log.info("Month: {}", lastMonth.getMonth() + " " + lastMonth.getYear());
-            log.info("Total Audit Events: {}", profileChanges);
-            log.info("Profile Changes: {}", recentProfileChanges);
+            log.info("Total Audit Events: {}", totalEvents);
+            log.info("Profile Changes: {}", profileChanges);
+            entityCounts.forEach((entityType, count) -> log.info("  {}: {}", entityType, count));
             log.info("=============================");
             
         } catch (Exception e) {
             log.error("Failed to generate monthly audit summary: {}", e.getMessage(), e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Collect (key, count) rows of a grouped count query; one entry per group, regardless of table size
+     */
+    static Map<String, Long> toCounts(List<Object[]> rows) {
+        Map<String, Long> counts = new TreeMap<>();
+        for (Object[] row : rows) {
+            counts.put(String.valueOf(row[0]), ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,257 @@
+package com.officemate.shared.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains the monthly range partitions of the log tables (see migration V4).
+ * Partitions are created a few months ahead, and retention detaches and drops whole partitions
+ * whose upper bound is older than the retention period, so cleanup is a metadata operation
+ * instead of a DELETE over millions of rows. Rows that landed in {@code <table>_default} before their
+ * monthly partition existed are moved into it when it is created, since PostgreSQL refuses to create a
+ * partition whose range the default partition already holds rows for. Tables that are not partitioned
+ * (e.g. before the migration, or on H2) are left alone.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LogPartitionManager {
+
+    private static final String PARTITIONED_SQL =
+            "SELECT COUNT(*) FROM pg_partitioned_table WHERE partrelid = to_regclass(?)";
+    private static final String PARTITIONS_SQL = "SELECT c.relname, pg_get_expr(c.relpartbound, c.oid) "
+            + "FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = to_regclass(?)";
+    private static final Pattern UPPER_BOUND = Pattern.compile("TO \\('([^']+)'\\)");
+    private static final DateTimeFormatter BOUND_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final DateTimeFormatter SUFFIX_FORMAT = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    /**
+     * Partitioned log tables
+     */
+    @Getter
+    public enum LogTable {
+        AUDIT_LOGS("audit_logs", null),
+        // Unresolved HIGH and CRITICAL events are kept until they are resolved
+        SECURITY_EVENT_LOGS("security_event_logs", "resolved = false AND severity IN ('HIGH', 'CRITICAL')"),
+        // Rows of suspensions still in force are kept
+        CANCELLATION_LOGS("cancellation_logs", "penalty_end_date > now()");
+
+        private final String tableName;
+        private final String keepCondition;
+
+        LogTable(String tableName, String keepCondition) {
+            this.tableName = tableName;
+            this.keepCondition = keepCondition;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<LogTable, Integer> retentionMonths = new EnumMap<>(LogTable.class);
+
+    @Value("${app.logs.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${app.logs.retention.audit-logs-months:12}")
+    private int auditLogsRetentionMonths;
+
+    @Value("${app.logs.retention.security-event-logs-months:6}")
+    private int securityEventLogsRetentionMonths;
+
+    @Value("${app.logs.retention.cancellation-logs-months:24}")
+    private int cancellationLogsRetentionMonths;
+
+    @PostConstruct
+    public void init() {
+        retentionMonths.put(LogTable.AUDIT_LOGS, auditLogsRetentionMonths);
+        retentionMonths.put(LogTable.SECURITY_EVENT_LOGS, securityEventLogsRetentionMonths);
+        retentionMonths.put(LogTable.CANCELLATION_LOGS, cancellationLogsRetentionMonths);
+        createUpcomingPartitions();
+    }
+
+    /**
+     * Create the monthly partitions of every log table through {@code months-ahead} months from now.
+     * Runs daily at 1 AM.
+     */
+    @Scheduled(cron = "0 0 1 * * ?")
+    public void createUpcomingPartitions() {
+        for (LogTable table : LogTable.values()) {
+            try {
+                createPartitions(table, YearMonth.now().plusMonths(monthsAhead));
+            } catch (Exception e) {
+                log.error("Failed to create partitions for {}: {}", table.getTableName(), e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Create the monthly partitions of a table after its last partition, through the given month.
+     *
+     * @param table the table
+     * @param lastMonth last month to have a partition
+     * @return number of partitions created
+     */
+    public int createPartitions(LogTable table, YearMonth lastMonth) {
+        if (!isPartitioned(table)) {
+            return 0;
+        }
+
+        // Start after the newest existing partition; it may be the converted table covering all older rows
+        YearMonth month = YearMonth.now();
+        String defaultPartition = null;
+        for (Partition partition : partitions(table)) {
+            if (partition.upperBound() == null) {
+                defaultPartition = partition.name();
+            } else {
+                YearMonth next = YearMonth.from(partition.upperBound());
+                if (next.isAfter(month)) {
+                    month = next;
+                }
+            }
+        }
+
+        int created = 0;
+        for (; !month.isAfter(lastMonth); month = month.plusMonths(1)) {
+            String partitionName = table.getTableName() + "_p" + month.format(SUFFIX_FORMAT);
+            String from = month.atDay(1).atStartOfDay().format(BOUND_FORMAT);
+            String to = month.plusMonths(1).atDay(1).atStartOfDay().format(BOUND_FORMAT);
+            long stranded = defaultPartition == null ? 0 : countRows(defaultPartition, from, to);
+            if (stranded > 0) {
+                log.warn("Default partition {} holds {} rows for {}, moving them into {}",
+                        defaultPartition, stranded, month, partitionName);
+                movePartitionRows(table, defaultPartition, partitionName, from, to);
+            } else {
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + quote(partitionName) + " PARTITION OF "
+                        + quote(table.getTableName()) + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+            }
+            created++;
+        }
+        if (created > 0) {
+            log.info("Created {} monthly partitions of {} through {}", created, table.getTableName(), lastMonth);
+        }
+        return created;
+    }
+
+    /**
+     * Detach and drop the partitions of a table that only hold rows older than its retention period.
+     *
+     * @param table the table
+     * @return number of partitions dropped
+     */
+    public int applyRetention(LogTable table) {
+        return dropPartitionsBefore(table, LocalDateTime.now().minusMonths(retentionMonths.get(table)));
+    }
+
+    /**
+     * Detach and drop the partitions of a table whose upper bound is at or before a cutoff.
+     * Partitions still holding rows matching the table's keep condition are skipped.
+     *
+     * @param table the table
+     * @param cutoff newest time a dropped partition may cover
+     * @return number of partitions dropped
+     */
+    public int dropPartitionsBefore(LogTable table, LocalDateTime cutoff) {
+        if (!isPartitioned(table)) {
+            log.info("{} is not partitioned, retention skipped", table.getTableName());
+            return 0;
+        }
+
+        int dropped = 0;
+        for (Partition partition : partitions(table)) {
+            if (partition.upperBound() == null || partition.upperBound().isAfter(cutoff)) {
+                continue;
+            }
+            if (table.getKeepCondition() != null && Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM " + quote(partition.name()) + " WHERE " + table.getKeepCondition() + ")",
+                    Boolean.class))) {
+                log.warn("Partition {} is past retention but still has rows where {}, kept",
+                        partition.name(), table.getKeepCondition());
+                continue;
+            }
+
+            jdbcTemplate.execute("ALTER TABLE " + quote(table.getTableName()) + " DETACH PARTITION " + quote(partition.name()));
+            jdbcTemplate.execute("DROP TABLE " + quote(partition.name()));
+            log.info("Dropped partition {} of {} (rows before {})", partition.name(), table.getTableName(), partition.upperBound());
+            dropped++;
+        }
+        return dropped;
+    }
+
+    private long countRows(String partitionName, String from, String to) {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + quote(partitionName)
+                + " WHERE timestamp >= '" + from + "' AND timestamp < '" + to + "'", Long.class);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * Create a monthly partition from the rows of the default partition in its range: the rows are moved
+     * into a new table, which is then attached. One DO block, so the move and attach commit together and
+     * the rows never disappear from the parent table.
+     */
+    private void movePartitionRows(LogTable table, String defaultPartition, String partitionName, String from, String to) {
+        jdbcTemplate.execute("DO $$ BEGIN "
+                + "CREATE TABLE " + quote(partitionName) + " (LIKE " + quote(table.getTableName())
+                + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS); "
+                + "WITH moved AS (DELETE FROM " + quote(defaultPartition) + " WHERE timestamp >= '" + from
+                + "' AND timestamp < '" + to + "' RETURNING *) INSERT INTO " + quote(partitionName) + " SELECT * FROM moved; "
+                + "ALTER TABLE " + quote(table.getTableName()) + " ATTACH PARTITION " + quote(partitionName)
+                + " FOR VALUES FROM ('" + from + "') TO ('" + to + "'); "
+                + "END $$");
+    }
+
+    boolean isPartitioned(LogTable table) {
+        try {
+            Integer count = jdbcTemplate.queryForObject(PARTITIONED_SQL, Integer.class, table.getTableName());
+            return count != null && count > 0;
+        } catch (Exception e) {
+            // Not PostgreSQL, e.g. H2 in tests
+            log.debug("Cannot check partitioning of {}: {}", table.getTableName(), e.getMessage());
+            return false;
+        }
+    }
+
+    List<Partition> partitions(LogTable table) {
+        return jdbcTemplate.query(PARTITIONS_SQL,
+                (rs, rowNum) -> new Partition(rs.getString(1), upperBound(rs.getString(2))),
+                table.getTableName());
+    }
+
+    /**
+     * Parse the upper bound of a range partition bound expression,
+     * e.g. {@code FOR VALUES FROM ('2025-01-01 00:00:00') TO ('2025-02-01 00:00:00')}.
+     *
+     * @return the upper bound, or null for the default partition
+     */
+    static LocalDateTime upperBound(String boundExpression) {
+        Matcher matcher = UPPER_BOUND.matcher(boundExpression);
+        if (!matcher.find()) {
+            return null;
+        }
+        String value = matcher.group(1);
+        // Timestamps may carry fractional seconds
+        int fraction = value.indexOf('.');
+        return LocalDateTime.parse(fraction > 0 ? value.substring(0, fraction) : value, BOUND_FORMAT);
+    }
+
+    private static String quote(String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+
+    record Partition(String name, LocalDateTime upperBound) {
+    }
+}
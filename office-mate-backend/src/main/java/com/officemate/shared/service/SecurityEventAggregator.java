@@ -0,0 +1,229 @@
+package com.officemate.shared.service;
+
+import com.officemate.shared.entity.SecurityEventLog;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Ingestion stage for security events.
+ * Events with the same type, severity, activity type (the description up to its first {@code ": "},
+ * e.g. the activity of a suspicious activity event), identifier (user ID, else phone number, else
+ * corporate email) and IP address within a flush window are collapsed into one row with an event count
+ * and first/last-seen timestamps; the other fields are taken from the first event. Each window is written with JDBC
+ * batch inserts, so a brute-force attack costs a few rows per window instead of one per attempt.
+ * Event counts are also passed to {@link SecurityEventRollupService} for metrics and rollups.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SecurityEventAggregator {
+
+    private static final String INSERT_SQL = "INSERT INTO security_event_logs (event_id, user_id, phone_number, "
+            + "corporate_email, event_type, event_description, ip_address, user_agent, session_id, timestamp, "
+            + "severity, additional_data, resolved, event_count, first_seen_at, last_seen_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SecurityEventRollupService rollupService;
+    private final TaskScheduler taskScheduler;
+
+    // Recorders share the read lock; a flush takes the write lock only to swap windows
+    private final ReadWriteLock windowLock = new ReentrantReadWriteLock();
+    private ConcurrentHashMap<Key, Aggregate> window = new ConcurrentHashMap<>();
+    // Set while an early flush is scheduled, so a full window schedules only one
+    private final AtomicBoolean earlyFlushScheduled = new AtomicBoolean();
+
+    @Value("${app.security.events.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.security.events.max-pending-keys:10000}")
+    private int maxPendingKeys;
+
+    /**
+     * Add an event to the current window.
+     * If the window holds {@code max-pending-keys} distinct events, a flush is scheduled right away
+     * on the task scheduler; the caller never writes to the database.
+     *
+     * @param event the event; its timestamp is used as the seen time
+     */
+    public void record(SecurityEventLog event) {
+        LocalDateTime seenAt = event.getTimestamp() != null ? event.getTimestamp() : LocalDateTime.now();
+        rollupService.countEvent(event.getEventType(), event.getSeverity());
+        boolean full;
+        windowLock.readLock().lock();
+        try {
+            window.compute(Key.of(event), (key, aggregate) -> {
+                if (aggregate == null) {
+                    return new Aggregate(event, seenAt);
+                }
+                aggregate.add(seenAt);
+                return aggregate;
+            });
+            full = window.size() >= maxPendingKeys;
+        } finally {
+            windowLock.readLock().unlock();
+        }
+
+        if (full && earlyFlushScheduled.compareAndSet(false, true)) {
+            taskScheduler.schedule(this::earlyFlush, Instant.now());
+        }
+    }
+
+    /**
+     * Close the current window, write its aggregated rows and add them to the rollups.
+     * Runs every 2 seconds by default.
+     */
+    @Scheduled(fixedDelayString = "${app.security.events.flush-interval-ms:2000}")
+    public void flush() {
+        Map<Key, Aggregate> closed;
+        windowLock.writeLock().lock();
+        try {
+            if (window.isEmpty()) {
+                return;
+            }
+            closed = window;
+            window = new ConcurrentHashMap<>();
+        } finally {
+            windowLock.writeLock().unlock();
+        }
+
+        List<Object[]> batch = new ArrayList<>(Math.min(batchSize, closed.size()));
+        for (Aggregate aggregate : closed.values()) {
+            batch.add(aggregate.toRow());
+            if (batch.size() == batchSize) {
+                write(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+
+        List<SecurityEventRollupService.Increment> increments = new ArrayList<>(closed.size());
+        for (Aggregate aggregate : closed.values()) {
+            increments.add(new SecurityEventRollupService.Increment(
+                    aggregate.first.getEventType(), aggregate.firstSeenAt, aggregate.count));
+        }
+        rollupService.apply(increments);
+    }
+
+    private void earlyFlush() {
+        earlyFlushScheduled.set(false);
+        flush();
+    }
+
+    /**
+     * Get the number of distinct events in the current window.
+     */
+    public int getPendingCount() {
+        return window.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void write(List<Object[]> rows) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        } catch (Exception e) {
+            long events = rows.stream().mapToLong(row -> (Integer) row[13]).sum();
+            log.error("Failed to write {} aggregated security event rows ({} events): {}",
+                    rows.size(), events, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Identity of collapsible events. Severity and activity type are part of it, so a CRITICAL event
+     * is never stored under the severity or description of an earlier, milder one.
+     */
+    record Key(String eventType, String severity, String activityType, String identifier, String ipAddress) {
+
+        static Key of(SecurityEventLog event) {
+            String identifier;
+            if (event.getUserId() != null) {
+                identifier = event.getUserId().toString();
+            } else if (event.getPhoneNumber() != null) {
+                identifier = event.getPhoneNumber();
+            } else {
+                identifier = event.getCorporateEmail();
+            }
+            return new Key(event.getEventType(), event.getSeverity(), activityType(event.getEventDescription()),
+                    identifier, event.getIpAddress());
+        }
+
+        /**
+         * The stable part of a description; the rest, e.g. a reason or count, varies between repeats.
+         */
+        private static String activityType(String description) {
+            if (description == null) {
+                return null;
+            }
+            int separator = description.indexOf(": ");
+            return separator >= 0 ? description.substring(0, separator) : description;
+        }
+    }
+
+    /**
+     * First event of a key and the count and last-seen time of its repeats.
+     * Only mutated inside {@link ConcurrentHashMap#compute}.
+     */
+    private static final class Aggregate {
+        private final SecurityEventLog first;
+        private final LocalDateTime firstSeenAt;
+        private LocalDateTime lastSeenAt;
+        private int count = 1;
+
+        Aggregate(SecurityEventLog first, LocalDateTime seenAt) {
+            this.first = first;
+            this.firstSeenAt = seenAt;
+            this.lastSeenAt = seenAt;
+        }
+
+        void add(LocalDateTime seenAt) {
+            count++;
+            if (seenAt.isAfter(lastSeenAt)) {
+                lastSeenAt = seenAt;
+            }
+        }
+
+        Object[] toRow() {
+            return new Object[] {
+                    UUID.randomUUID(),
+                    first.getUserId(),
+                    first.getPhoneNumber(),
+                    first.getCorporateEmail(),
+                    first.getEventType(),
+                    first.getEventDescription(),
+                    first.getIpAddress(),
+                    first.getUserAgent(),
+                    first.getSessionId(),
+                    firstSeenAt,
+                    first.getSeverity(),
+                    first.getAdditionalData(),
+                    false,
+                    count,
+                    firstSeenAt,
+                    lastSeenAt
+            };
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.officemate.shared.service;
+
+import com.officemate.shared.repository.SecurityEventRollupRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Security event metrics by event type.
+ * Every ingested event increments a Micrometer counter ({@code security.events}, tagged with event type
+ * and severity). Each window flushed by {@link SecurityEventAggregator} is also added to per-minute and
+ * per-hour rollup buckets with one batched upsert, so counts over a period read O(buckets) rows instead
+ * of scanning security_event_logs. Minute buckets are kept for {@code minute-retention-hours}; older
+ * periods are answered from hour buckets.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SecurityEventRollupService {
+
+    public static final String MINUTE = "MINUTE";
+    public static final String HOUR = "HOUR";
+
+    private static final String UPSERT_SQL = "INSERT INTO security_event_rollups "
+            + "(granularity, bucket_start, event_type, event_count) VALUES (?, ?, ?, ?) "
+            + "ON CONFLICT (granularity, bucket_start, event_type) "
+            + "DO UPDATE SET event_count = security_event_rollups.event_count + EXCLUDED.event_count";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SecurityEventRollupRepository rollupRepository;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    @Value("${app.security.rollups.minute-retention-hours:48}")
+    private int minuteRetentionHours;
+
+    @Value("${app.security.rollups.hour-retention-days:400}")
+    private int hourRetentionDays;
+
+    /**
+     * Count of events of one type first seen at a time
+     */
+    public record Increment(String eventType, LocalDateTime seenAt, long count) {
+    }
+
+    /**
+     * Count an ingested event in the Micrometer counters.
+     *
+     * @param eventType event type
+     * @param severity event severity, may be null
+     */
+    public void countEvent(String eventType, String severity) {
+        String tagSeverity = severity != null ? severity : "UNKNOWN";
+        counters.computeIfAbsent(eventType + '|' + tagSeverity, key -> Counter.builder("security.events")
+                        .description("Security events ingested")
+                        .tag("event_type", eventType)
+                        .tag("severity", tagSeverity)
+                        .register(meterRegistry))
+                .increment();
+    }
+
+    /**
+     * Add event counts to their minute and hour buckets with one batched upsert.
+     *
+     * @param increments event counts, typically one per aggregated row
+     */
+    public void apply(Collection<Increment> increments) {
+        Map<Bucket, Long> buckets = new HashMap<>();
+        for (Increment increment : increments) {
+            LocalDateTime minute = increment.seenAt().truncatedTo(ChronoUnit.MINUTES);
+            buckets.merge(new Bucket(MINUTE, minute, increment.eventType()), increment.count(), Long::sum);
+            buckets.merge(new Bucket(HOUR, minute.truncatedTo(ChronoUnit.HOURS), increment.eventType()),
+                    increment.count(), Long::sum);
+        }
+        if (buckets.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> rows = new ArrayList<>(buckets.size());
+        buckets.forEach((bucket, count) -> rows.add(
+                new Object[] {bucket.granularity(), bucket.start(), bucket.eventType(), count}));
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+        } catch (Exception e) {
+            log.error("Failed to update {} security event rollup buckets: {}", rows.size(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Count events per type since a time.
+     * The bucket containing {@code since} is counted whole, so the count may include events up to one
+     * bucket earlier.
+     *
+     * @param since start of the period
+     * @return event counts by event type
+     */
+    public Map<String, Long> countsSince(LocalDateTime since) {
+        boolean minutesRetained = !since.isBefore(LocalDateTime.now().minusHours(minuteRetentionHours));
+        String granularity = minutesRetained ? MINUTE : HOUR;
+        LocalDateTime from = since.truncatedTo(minutesRetained ? ChronoUnit.MINUTES : ChronoUnit.HOURS);
+
+        Map<String, Long> counts = new TreeMap<>();
+        for (Object[] row : rollupRepository.sumByEventTypeSince(granularity, from)) {
+            counts.put((String) row[0], ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
+    /**
+     * Count events of one type since a time, see {@link #countsSince(LocalDateTime)}.
+     */
+    public long countSince(String eventType, LocalDateTime since) {
+        return countsSince(since).getOrDefault(eventType, 0L);
+    }
+
+    /**
+     * Delete minute and hour buckets past their retention.
+     * Runs hourly at minute 15.
+     */
+    @Scheduled(cron = "0 15 * * * ?")
+    public void purgeExpiredBuckets() {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            int minutes = rollupRepository.deleteByGranularityBefore(MINUTE, now.minusHours(minuteRetentionHours));
+            int hours = rollupRepository.deleteByGranularityBefore(HOUR, now.minusDays(hourRetentionDays));
+            log.debug("Purged {} minute and {} hour security event rollup buckets", minutes, hours);
+        } catch (Exception e) {
+            log.error("Failed to purge security event rollups: {}", e.getMessage(), e);
+        }
+    }
+
+    private record Bucket(String granularity, LocalDateTime start, String eventType) {
+    }
+}
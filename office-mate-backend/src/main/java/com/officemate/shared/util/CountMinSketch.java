@@ -0,0 +1,153 @@
+package com.officemate.shared.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Thread-safe count-min sketch for approximate per-key counts in fixed memory.
+ * Estimates never undercount; they overcount only when a key collides with heavier keys in every row.
+ * Updates are lock-free atomic increments, so concurrent adds and a concurrent clear()
+ * may interleave; callers use it where approximate counts are acceptable.
+ */
+public class CountMinSketch {
+
+    private final int depth;
+    private final int width;
+    private final int mask;
+    private final AtomicIntegerArray counters;
+
+    /**
+     * Create a sketch.
+     *
+     * @param depth number of hash rows (more rows reduce the chance of overcounting)
+     * @param width counters per row, rounded up to a power of two (more counters reduce the overcount)
+     */
+    public CountMinSketch(int depth, int width) {
+        if (depth < 1 || width < 1) {
+            throw new IllegalArgumentException("Depth and width must be positive");
+        }
+        this.depth = depth;
+        this.width = width == 1 ? 1 : Integer.highestOneBit(width - 1) << 1;
+        this.mask = this.width - 1;
+        this.counters = new AtomicIntegerArray(depth * this.width);
+    }
+
+    /**
+     * Add to the count of a key.
+     *
+     * @param key the key
+     * @param count amount to add
+     * @return estimated count of the key after the update
+     */
+    public int add(String key, int count) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int value = counters.addAndGet(index(row, h1, h2), count);
+            estimate = Math.min(estimate, value);
+        }
+        return estimate;
+    }
+
+    /**
+     * Add to the count of a key with conservative update: each of the key's counters is only raised
+     * to the key's new estimate, never past it. Estimates still never undercount, but keys that share
+     * some of their counters with others overcount far less than with {@link #add(String, int)}.
+     *
+     * @param key the key
+     * @param count amount to add, positive
+     * @return estimated count of the key after the update
+     */
+    public int addConservative(String key, int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("Conservative update requires a positive count");
+        }
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        int target = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            target = Math.min(target, counters.get(index(row, h1, h2)));
+        }
+        target += count;
+        for (int row = 0; row < depth; row++) {
+            counters.accumulateAndGet(index(row, h1, h2), target, Math::max);
+        }
+        return target;
+    }
+
+    /**
+     * Add the key's counter in each row to {@code totals}. Summing the rows of several sketches with
+     * the same depth and width and taking the minimum afterwards estimates the key's count across all of
+     * them more tightly than adding their separate estimates.
+     *
+     * @param key the key
+     * @param totals per-row totals, at least {@code depth} long
+     */
+    public void addRowCounts(String key, long[] totals) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int row = 0; row < depth; row++) {
+            totals[row] += counters.get(index(row, h1, h2));
+        }
+    }
+
+    /**
+     * Estimate the count of a key.
+     *
+     * @param key the key
+     * @return estimated count, never lower than the true count since the last clear
+     */
+    public int estimate(String key) {
+        long hash = hash(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(index(row, h1, h2)));
+        }
+        return estimate;
+    }
+
+    /**
+     * Reset all counters to zero.
+     */
+    public void clear() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, 0);
+        }
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    private int index(int row, int h1, int h2) {
+        return row * width + ((h1 + row * h2) & mask);
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes of the key, finished with the MurmurHash3 mixer
+     * so both halves are usable as independent hashes.
+     */
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
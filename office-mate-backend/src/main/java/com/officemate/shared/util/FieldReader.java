@@ -0,0 +1,79 @@
+package com.officemate.shared.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * Reads an instance field of a given name from objects of any class.
+ * The getter for each class is resolved once, as a method handle, and cached per class; classes
+ * that do not declare the field cache a handle that returns null, so absent fields cost no
+ * exception or lookup after the first call. Like {@link Class#getDeclaredField(String)}, only
+ * fields declared by the object's own class are considered.
+ */
+public final class FieldReader {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodHandle ABSENT = MethodHandles.dropArguments(
+            MethodHandles.constant(Object.class, null), 0, Object.class);
+
+    private final String fieldName;
+    private final ClassValue<MethodHandle> getters = new ClassValue<>() {
+        @Override
+        protected MethodHandle computeValue(Class<?> type) {
+            return resolve(type);
+        }
+    };
+
+    /**
+     * Create a reader.
+     *
+     * @param fieldName name of the field to read
+     */
+    public FieldReader(String fieldName) {
+        this.fieldName = fieldName;
+    }
+
+    /**
+     * Read the field from an object.
+     *
+     * @param target the object, may be null
+     * @return the field value, or null if the target is null or its class does not declare the field
+     */
+    public Object read(Object target) {
+        if (target == null) {
+            return null;
+        }
+        try {
+            return (Object) getters.get(target.getClass()).invokeExact(target);
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot read field " + fieldName + " of " + target.getClass().getName(), e);
+        }
+    }
+
+    /**
+     * Check whether a class declares a readable instance field of this name.
+     *
+     * @param type the class
+     * @return true if {@link #read(Object)} can return a value for instances of the class
+     */
+    public boolean isDeclaredBy(Class<?> type) {
+        return getters.get(type) != ABSENT;
+    }
+
+    private MethodHandle resolve(Class<?> type) {
+        try {
+            Field field = type.getDeclaredField(fieldName);
+            if (Modifier.isStatic(field.getModifiers())) {
+                return ABSENT;
+            }
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+            return lookup.unreflectGetter(field).asType(GETTER_TYPE);
+        } catch (NoSuchFieldException | IllegalAccessException | RuntimeException e) {
+            // No such field, or a class we may not access (e.g. in a closed JDK module)
+            return ABSENT;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.officemate.shared.util;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free ring buffer for many producers and a single consumer.
+ * Producers claim a slot with a CAS on the tail and publish the element into it; the consumer
+ * takes published elements in order and clears their slots before advancing the head.
+ * Offers never block: they fail immediately when the buffer is full.
+ *
+ * @param <E> element type
+ */
+public class MpscRingBuffer<E> {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<E> slots;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Create a buffer.
+     *
+     * @param capacity maximum number of buffered elements, rounded up to a power of two
+     */
+    public MpscRingBuffer(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = this.capacity - 1;
+        this.slots = new AtomicReferenceArray<>(this.capacity);
+    }
+
+    /**
+     * Add an element if there is room. Safe to call from any thread.
+     *
+     * @param element the element, not null
+     * @return true if the element was added, false if the buffer is full
+     */
+    public boolean offer(E element) {
+        if (element == null) {
+            throw new IllegalArgumentException("Element must not be null");
+        }
+        while (true) {
+            long current = tail.get();
+            if (current - head.get() >= capacity) {
+                return false;
+            }
+            if (tail.compareAndSet(current, current + 1)) {
+                slots.lazySet((int) (current & mask), element);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Move published elements to a list, in order. Must only be called from the consumer thread.
+     *
+     * @param target list to add the elements to
+     * @param maxElements maximum number of elements to move
+     * @return number of elements moved
+     */
+    public int drainTo(List<? super E> target, int maxElements) {
+        long current = head.get();
+        int drained = 0;
+        while (drained < maxElements) {
+            int index = (int) (current & mask);
+            E element = slots.get(index);
+            if (element == null) {
+                // Empty, or the next slot is claimed but not yet published
+                break;
+            }
+            slots.lazySet(index, null);
+            target.add(element);
+            current++;
+            drained++;
+        }
+        head.lazySet(current);
+        return drained;
+    }
+
+    /**
+     * Get the number of claimed slots, including elements not yet published.
+     */
+    public int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+}
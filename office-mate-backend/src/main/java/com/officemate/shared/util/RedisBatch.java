@@ -0,0 +1,182 @@
+package com.officemate.shared.util;
+
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Queues string commands and sends them to Redis in one pipelined round trip.
+ * Each command returns a {@link Reply} that holds its result once the batch is executed, so callers
+ * can gather the reads and writes of several steps and still use the results by name:
+ * <pre>
+ * RedisBatch batch = new RedisBatch();
+ * RedisBatch.Reply&lt;Set&lt;String&gt;&gt; devices = batch.sMembers(deviceKey);
+ * RedisBatch.Reply&lt;Long&gt; attempts = batch.incr(velocityKey);
+ * batch.execute(redisTemplate);
+ * </pre>
+ * Commands are not atomic; use a Lua script where other clients must not see intermediate state.
+ * A batch can be executed once.
+ */
+public class RedisBatch {
+
+    private static final RedisSerializer<String> STRING = RedisSerializer.string();
+
+    private final List<Command> commands = new ArrayList<>();
+    private boolean executed;
+
+    public Reply<String> get(String key) {
+        return add(connection -> connection.stringCommands().get(bytes(key)));
+    }
+
+    public Reply<Long> incr(String key) {
+        return add(connection -> connection.stringCommands().incr(bytes(key)));
+    }
+
+    /**
+     * Set a value with a time to live.
+     */
+    public Reply<Boolean> set(String key, String value, Duration ttl) {
+        return add(connection -> connection.stringCommands().setEx(bytes(key), ttl.toSeconds(), bytes(value)));
+    }
+
+    public Reply<Long> del(String key) {
+        return add(connection -> connection.keyCommands().del(bytes(key)));
+    }
+
+    public Reply<Boolean> expire(String key, Duration ttl) {
+        return add(connection -> connection.keyCommands().expire(bytes(key), ttl.toSeconds()));
+    }
+
+    public Reply<Long> sAdd(String key, String... members) {
+        return add(connection -> connection.setCommands().sAdd(bytes(key), bytes(members)));
+    }
+
+    public Reply<Set<String>> sMembers(String key) {
+        return add(connection -> connection.setCommands().sMembers(bytes(key)));
+    }
+
+    public Reply<Long> sCard(String key) {
+        return add(connection -> connection.setCommands().sCard(bytes(key)));
+    }
+
+    public Reply<Long> lPush(String key, String... values) {
+        return add(connection -> connection.listCommands().lPush(bytes(key), bytes(values)));
+    }
+
+    public Reply<List<String>> lRange(String key, long start, long end) {
+        return add(connection -> connection.listCommands().lRange(bytes(key), start, end));
+    }
+
+    /**
+     * Trim a list to a range. LTRIM only returns a status, so there is no reply.
+     */
+    public void lTrim(String key, long start, long end) {
+        addCommand(connection -> connection.listCommands().lTrim(bytes(key), start, end), null);
+    }
+
+    /**
+     * Get the number of queued commands.
+     */
+    public int size() {
+        return commands.size();
+    }
+
+    /**
+     * Send the queued commands in one pipeline and fill in their replies.
+     * Does nothing if no commands are queued.
+     *
+     * @param redis template to run the pipeline on; its connection factory decides the pool used
+     */
+    public void execute(RedisOperations<String, String> redis) {
+        if (executed) {
+            throw new IllegalStateException("Batch has already been executed");
+        }
+        executed = true;
+        if (commands.isEmpty()) {
+            return;
+        }
+
+        List<Object> results = redis.executePipelined((RedisCallback<Object>) connection -> {
+            for (Command command : commands) {
+                command.action().accept(connection);
+            }
+            return null;
+        }, STRING);
+
+        // Status replies (e.g. LTRIM) are left out of pipeline results
+        Iterator<Object> values = results.iterator();
+        for (Command command : commands) {
+            if (command.reply() != null) {
+                command.reply().complete(values.hasNext() ? values.next() : null);
+            }
+        }
+    }
+
+    private <T> Reply<T> add(Consumer<RedisConnection> action) {
+        Reply<T> reply = new Reply<>();
+        addCommand(action, reply);
+        return reply;
+    }
+
+    private void addCommand(Consumer<RedisConnection> action, Reply<?> reply) {
+        if (executed) {
+            throw new IllegalStateException("Batch has already been executed");
+        }
+        commands.add(new Command(action, reply));
+    }
+
+    private static byte[] bytes(String value) {
+        return STRING.serialize(value);
+    }
+
+    private static byte[][] bytes(String[] values) {
+        byte[][] serialized = new byte[values.length][];
+        for (int i = 0; i < values.length; i++) {
+            serialized[i] = bytes(values[i]);
+        }
+        return serialized;
+    }
+
+    private record Command(Consumer<RedisConnection> action, Reply<?> reply) {
+    }
+
+    /**
+     * Result of a queued command, available after the batch is executed.
+     *
+     * @param <T> result type
+     */
+    public static final class Reply<T> {
+        private T value;
+        private boolean done;
+
+        private Reply() {
+        }
+
+        /**
+         * Get the result.
+         *
+         * @return the result, null if Redis returned none
+         * @throws IllegalStateException if the batch has not been executed
+         */
+        public T get() {
+            if (!done) {
+                throw new IllegalStateException("Batch has not been executed");
+            }
+            return value;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void complete(Object result) {
+            value = (T) result;
+            done = true;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.officemate.shared.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Space-Saving top-K counter: tracks the most frequent keys of a stream in at most
+ * {@code capacity} entries. When full, a new key replaces the entry with the lowest count
+ * and inherits that count as its error, so counts may overestimate by at most the error.
+ * Any key occurring more than N / capacity times in a stream of N is guaranteed to be tracked.
+ * Guarded by a lock rather than {@code synchronized}, so contended offers from virtual threads
+ * do not pin their carrier thread.
+ */
+public class SpaceSavingTopK {
+
+    private final int capacity;
+    private final Map<String, Entry> entries;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Create a counter.
+     *
+     * @param capacity maximum number of tracked keys
+     */
+    public SpaceSavingTopK(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.entries = new HashMap<>(capacity * 2);
+    }
+
+    /**
+     * Count one occurrence of a key.
+     *
+     * @param key the key
+     */
+    public void offer(String key) {
+        lock.lock();
+        try {
+            offerLocked(key);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the tracked keys and reset the counter.
+     *
+     * @return tracked entries, in no particular order
+     */
+    public List<Entry> drain() {
+        lock.lock();
+        try {
+            List<Entry> drained = new ArrayList<>(entries.values());
+            entries.clear();
+            return drained;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Get the occurrences of a key counted for certain since the last drain.
+     *
+     * @param key the key
+     * @return the key's guaranteed count, or 0 if it is not tracked
+     */
+    public long guaranteedCount(String key) {
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+            return entry != null ? entry.getGuaranteedCount() : 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void offerLocked(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            entry.count++;
+            return;
+        }
+
+        if (entries.size() < capacity) {
+            entries.put(key, new Entry(key, 1, 0));
+            return;
+        }
+
+        Entry min = null;
+        for (Entry candidate : entries.values()) {
+            if (min == null || candidate.count < min.count) {
+                min = candidate;
+            }
+        }
+        entries.remove(min.key);
+        entries.put(key, new Entry(key, min.count + 1, min.count));
+    }
+
+    /**
+     * A tracked key with its (over)estimated count and maximum overestimation.
+     */
+    public static final class Entry {
+        private final String key;
+        private long count;
+        private final long error;
+
+        private Entry(String key, long count, long error) {
+            this.key = key;
+            this.count = count;
+            this.error = error;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getError() {
+            return error;
+        }
+
+        /**
+         * Occurrences counted for certain, i.e. the count minus the inherited error.
+         */
+        public long getGuaranteedCount() {
+            return count - error;
+        }
+    }
+}
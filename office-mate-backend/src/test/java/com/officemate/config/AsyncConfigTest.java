@@ -0,0 +1,140 @@
+package com.officemate.config;
+
+import com.officemate.config.properties.AsyncProperties;
+import com.officemate.shared.context.AuditContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the executors built by AsyncConfig.
+ * Tests executor metrics, including those of executors initialized by an application context,
+ * rejection counting and the virtual-thread mode.
+ */
+class AsyncConfigTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void tearDown() {
+        AuditContext.set(null);
+    }
+
+    @Test
+    void testThreadPoolExecutor_PublishesMetricsAndCountsRejections() throws Exception {
+        // Arrange
+        ThreadPoolTaskExecutor executor = AsyncConfig.threadPoolExecutor("testExecutor", "Test-",
+                new AsyncProperties.Executor(1, 1, 1, -1), meterRegistry);
+        executor.initialize();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicReference<Thread> rejectedRanOn = new AtomicReference<>();
+
+        try {
+            // Act
+            executor.execute(() -> {
+                started.countDown();
+                await(release);
+            });
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            executor.execute(() -> { });
+            executor.execute(() -> rejectedRanOn.set(Thread.currentThread()));
+
+            // Assert
+            assertSame(Thread.currentThread(), rejectedRanOn.get());
+            assertEquals(1.0, meterRegistry.get("executor.rejected").tag("name", "testExecutor").counter().count());
+            assertEquals(1.0, meterRegistry.get("executor.active").tag("name", "testExecutor").gauge().value());
+            assertEquals(1.0, meterRegistry.get("executor.queued").tag("name", "testExecutor").gauge().value());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testThreadPoolExecutor_InApplicationContext_PublishesMetricsOfLivePool() throws Exception {
+        // Arrange - the audit pool defaults to 2 core threads
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.registerBean(AsyncProperties.class);
+        context.registerBean(MeterRegistry.class, () -> meterRegistry);
+        context.register(AsyncConfig.class);
+        context.refresh();
+        Executor executor = context.getBean("auditTaskExecutor", Executor.class);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(2);
+
+        try {
+            // Act
+            for (int i = 0; i < 3; i++) {
+                executor.execute(() -> {
+                    started.countDown();
+                    await(release);
+                });
+            }
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            // Assert
+            assertEquals(2.0, meterRegistry.get("executor.active").tag("name", "auditTaskExecutor").gauge().value());
+            assertEquals(1.0, meterRegistry.get("executor.queued").tag("name", "auditTaskExecutor").gauge().value());
+            assertEquals(2.0, meterRegistry.get("executor.pool.size").tag("name", "auditTaskExecutor").gauge().value());
+        } finally {
+            release.countDown();
+            context.close();
+        }
+    }
+
+    @Test
+    void testVirtualThreadExecutor_RunsTasksOnVirtualThreadsWithContext() throws Exception {
+        // Arrange
+        SimpleAsyncTaskExecutor executor = AsyncConfig.virtualThreadExecutor("virtualExecutor", "Virtual-",
+                new AsyncProperties.Executor(1, 1, 1, -1), meterRegistry);
+        AuditContext context = new AuditContext("10.0.0.1", "JUnit", "session-1");
+        AuditContext.set(context);
+        AtomicReference<Thread> ranOn = new AtomicReference<>();
+        AtomicReference<AuditContext> seenContext = new AtomicReference<>();
+        AtomicReference<Double> activeWhileRunning = new AtomicReference<>();
+
+        // Act
+        Future<?> result = executor.submit(() -> {
+            ranOn.set(Thread.currentThread());
+            seenContext.set(AuditContext.current());
+            activeWhileRunning.set(meterRegistry.get("executor.active").tag("name", "virtualExecutor").gauge().value());
+        });
+        result.get(5, TimeUnit.SECONDS);
+        // The future completes inside the decorated task, just before it is counted as completed
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("executor.completed").tag("name", "virtualExecutor").counter().count() < 1
+                && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+
+        // Assert
+        assertTrue(ranOn.get().isVirtual());
+        assertTrue(ranOn.get().getName().startsWith("Virtual-"));
+        assertSame(context, seenContext.get());
+        assertEquals(1.0, activeWhileRunning.get());
+        assertEquals(0.0, meterRegistry.get("executor.active").tag("name", "virtualExecutor").gauge().value());
+        assertEquals(1.0, meterRegistry.get("executor.completed").tag("name", "virtualExecutor").counter().count());
+        assertEquals(0.0, meterRegistry.get("executor.rejected").tag("name", "virtualExecutor").counter().count());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
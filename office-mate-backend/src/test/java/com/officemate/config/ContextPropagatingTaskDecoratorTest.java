@@ -0,0 +1,80 @@
+package com.officemate.config;
+
+import com.officemate.shared.context.AuditContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for ContextPropagatingTaskDecorator.
+ * Tests that the submitter's audit context and MDC reach the task and do not outlive it.
+ */
+class ContextPropagatingTaskDecoratorTest {
+
+    private final ContextPropagatingTaskDecorator decorator = new ContextPropagatingTaskDecorator();
+
+    @AfterEach
+    void tearDown() {
+        AuditContext.set(null);
+        MDC.clear();
+    }
+
+    @Test
+    void testDecorate_PropagatesContextAndMdc() throws Exception {
+        // Arrange
+        AuditContext context = new AuditContext("10.0.0.1", "JUnit", "session-1");
+        AuditContext.set(context);
+        MDC.put("requestId", "req-1");
+        AtomicReference<AuditContext> seenContext = new AtomicReference<>();
+        AtomicReference<String> seenRequestId = new AtomicReference<>();
+        Runnable task = decorator.decorate(() -> {
+            seenContext.set(AuditContext.current());
+            seenRequestId.set(MDC.get("requestId"));
+        });
+
+        // Act
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(task).get();
+        } finally {
+            executor.shutdown();
+        }
+
+        // Assert
+        assertSame(context, seenContext.get());
+        assertEquals("req-1", seenRequestId.get());
+    }
+
+    @Test
+    void testDecorate_PooledThreadDoesNotKeepContext() throws Exception {
+        // Arrange
+        AuditContext.set(new AuditContext("10.0.0.1", "JUnit", "session-1"));
+        MDC.put("requestId", "req-1");
+        Runnable task = decorator.decorate(() -> MDC.put("eventType", "LOGIN_FAILURE"));
+        AuditContext.set(null);
+        MDC.clear();
+
+        // Act
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(task).get();
+            Future<Object[]> after = executor.submit(() -> new Object[] {
+                    AuditContext.peek(), MDC.get("requestId"), MDC.get("eventType")});
+
+            // Assert
+            Object[] state = after.get();
+            assertNull(state[0]);
+            assertNull(state[1]);
+            assertNull(state[2]);
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.officemate.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.jedis.JedisClientConfiguration;
+import redis.clients.jedis.JedisPoolConfig;
+
+import java.net.ServerSocket;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for InstrumentedJedisConnectionFactory.
+ * Tests pool metrics without a Redis server, using a port nothing listens on.
+ */
+class InstrumentedJedisConnectionFactoryTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private InstrumentedJedisConnectionFactory factory;
+
+    @AfterEach
+    void tearDown() {
+        if (factory != null) {
+            factory.destroy();
+        }
+    }
+
+    @Test
+    void testGetConnection_RedisUnreachable_RecordsFailedWait() throws Exception {
+        // Arrange
+        factory = createFactory();
+
+        // Act
+        assertThrows(RedisConnectionFailureException.class, () -> factory.getConnection());
+
+        // Assert
+        assertEquals(1, meterRegistry.get("redis.pool.wait").tag("pool", "test").tag("outcome", "failed").timer().count());
+        assertEquals(0, meterRegistry.get("redis.pool.wait").tag("pool", "test").tag("outcome", "acquired").timer().count());
+    }
+
+    @Test
+    void testGauges_ReportPoolState() throws Exception {
+        factory = createFactory();
+
+        assertEquals(4.0, meterRegistry.get("redis.pool.max").tag("pool", "test").gauge().value());
+        assertEquals(0.0, meterRegistry.get("redis.pool.active").tag("pool", "test").gauge().value());
+        assertEquals(0.0, meterRegistry.get("redis.pool.idle").tag("pool", "test").gauge().value());
+        assertEquals(0.0, meterRegistry.get("redis.pool.waiters").tag("pool", "test").gauge().value());
+    }
+
+    private InstrumentedJedisConnectionFactory createFactory() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+
+        JedisPoolConfig poolConfig = new JedisPoolConfig();
+        poolConfig.setMaxTotal(4);
+        poolConfig.setMinIdle(1);
+        poolConfig.setMaxWait(Duration.ofMillis(100));
+        JedisClientConfiguration clientConfig = JedisClientConfiguration.builder()
+                .connectTimeout(Duration.ofMillis(500))
+                .usePooling()
+                .poolConfig(poolConfig)
+                .build();
+
+        InstrumentedJedisConnectionFactory created = new InstrumentedJedisConnectionFactory(
+                new RedisStandaloneConfiguration("localhost", port), clientConfig, "test", meterRegistry);
+        created.afterPropertiesSet();
+        return created;
+    }
+}
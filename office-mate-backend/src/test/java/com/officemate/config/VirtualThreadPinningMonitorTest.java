@@ -0,0 +1,83 @@
+package com.officemate.config;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for VirtualThreadPinningMonitor.
+ * Tests frame attribution, metric recording and detection of a real pinning event through JFR.
+ */
+class VirtualThreadPinningMonitorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(meterRegistry);
+
+    @Test
+    void testPinningFrame_SkipsJdkFrames() {
+        List<String> frames = List.of(
+                "java.lang.Object.wait0:-1",
+                "java.lang.Object.wait:366",
+                "org.apache.commons.pool2.impl.GenericObjectPool.create:567",
+                "com.officemate.SomeService.call:10");
+
+        assertEquals("org.apache.commons.pool2.impl.GenericObjectPool.create",
+                VirtualThreadPinningMonitor.pinningFrame(frames));
+        assertEquals("unknown", VirtualThreadPinningMonitor.pinningFrame(List.of("java.lang.Thread.sleep:1")));
+        assertEquals("unknown", VirtualThreadPinningMonitor.pinningFrame(List.of()));
+    }
+
+    @Test
+    void testRecord_TimesPinningPerFrame() {
+        List<String> frames = List.of("java.lang.Thread.sleep:1", "com.officemate.SomeService.call:10");
+
+        monitor.record(Duration.ofMillis(30), frames);
+        monitor.record(Duration.ofMillis(50), frames);
+
+        Timer timer = meterRegistry.get("jvm.threads.virtual.pinned")
+                .tag("frame", "com.officemate.SomeService.call").timer();
+        assertEquals(2, timer.count());
+        assertEquals(80, timer.totalTime(TimeUnit.MILLISECONDS), 0.001);
+    }
+
+    @Test
+    void testInit_DetectsVirtualThreadBlockingInSynchronized() throws Exception {
+        ReflectionTestUtils.setField(monitor, "thresholdMs", 10L);
+        monitor.init();
+        try {
+            Object monitorLock = new Object();
+            Thread.ofVirtual().start(() -> {
+                synchronized (monitorLock) {
+                    sleep(100);
+                }
+            }).join();
+
+            // JFR delivers streamed events in periodic chunks
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(15);
+            while (meterRegistry.find("jvm.threads.virtual.pinned").timer() == null && System.nanoTime() < deadline) {
+                Thread.sleep(100);
+            }
+
+            Timer timer = meterRegistry.find("jvm.threads.virtual.pinned").timer();
+            assertNotNull(timer);
+            assertTrue(timer.getId().getTag("frame").startsWith(VirtualThreadPinningMonitorTest.class.getName()));
+        } finally {
+            monitor.shutdown();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
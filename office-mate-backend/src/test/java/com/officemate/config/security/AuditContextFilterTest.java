@@ -0,0 +1,53 @@
+package com.officemate.config.security;
+
+import com.officemate.shared.context.AuditContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for AuditContextFilter.
+ * Tests capturing the request details and unbinding them after the request.
+ */
+class AuditContextFilterTest {
+
+    private final AuditContextFilter filter = new AuditContextFilter();
+
+    @Test
+    void testDoFilter_BindsContextForTheRequest() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("X-Forwarded-For", "203.0.113.7, 10.0.0.1");
+        request.addHeader("User-Agent", "OfficeMate/1.0");
+        request.setAttribute("sessionId", "session-42");
+        AtomicReference<AuditContext> seen = new AtomicReference<>();
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> seen.set(AuditContext.current()));
+
+        // Assert
+        assertEquals("203.0.113.7", seen.get().getIpAddress());
+        assertEquals("OfficeMate/1.0", seen.get().getUserAgent());
+        assertEquals("session-42", seen.get().getSessionId());
+        assertNull(AuditContext.peek());
+    }
+
+    @Test
+    void testDoFilter_Unauthenticated_UsesUnknownSession() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("192.168.1.1");
+        AtomicReference<AuditContext> seen = new AtomicReference<>();
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> seen.set(AuditContext.current()));
+
+        // Assert
+        assertEquals("192.168.1.1", seen.get().getIpAddress());
+        assertEquals(AuditContext.UNKNOWN_VALUE, seen.get().getSessionId());
+    }
+}
@@ -0,0 +1,128 @@
+package com.officemate.config.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for HeavyHitterDetector.
+ * Tests local counting, promotion, discounting and merging with the cluster-wide heavy hitters.
+ */
+@ExtendWith(MockitoExtension.class)
+class HeavyHitterDetectorTest {
+
+    private static final String KEY = "failed_attempts:ip:192.168.1.1";
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Mock
+    private ZSetOperations<String, String> zSetOperations;
+
+    private HeavyHitterDetector detector;
+
+    @BeforeEach
+    void setUp() {
+        detector = new HeavyHitterDetector(redisTemplate);
+        ReflectionTestUtils.setField(detector, "enabled", true);
+        ReflectionTestUtils.setField(detector, "promotionThreshold", 2);
+        ReflectionTestUtils.setField(detector, "horizonMinutes", 60);
+        ReflectionTestUtils.setField(detector, "bucketMinutes", 15);
+        ReflectionTestUtils.setField(detector, "sketchDepth", 4);
+        ReflectionTestUtils.setField(detector, "sketchWidth", 1024);
+        ReflectionTestUtils.setField(detector, "topKCapacity", 10);
+        ReflectionTestUtils.setField(detector, "globalCapacity", 100);
+        detector.init();
+    }
+
+    @Test
+    void testRecord_PromotesAtThreshold() {
+        long first = detector.record(KEY);
+        long second = detector.record(KEY);
+
+        assertEquals(1, first);
+        assertEquals(2, second);
+        assertFalse(detector.isPromoted(first));
+        assertTrue(detector.isPromoted(second));
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void testRecord_ManyOneOffKeysAtDefaults_AlmostNonePromoted() {
+        // Arrange - production defaults
+        ReflectionTestUtils.setField(detector, "promotionThreshold", 3);
+        ReflectionTestUtils.setField(detector, "sketchWidth", 65536);
+        ReflectionTestUtils.setField(detector, "topKCapacity", 100);
+        detector.init();
+
+        // Act - a credential-stuffing burst of distinct identifiers, each failing once
+        int promoted = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (detector.isPromoted(detector.record("failed_attempts:user:stuffed-" + i + "@example.com"))) {
+                promoted++;
+            }
+        }
+
+        // Assert
+        assertTrue(promoted < 100, "promoted " + promoted + " of 100000 one-off keys");
+    }
+
+    @Test
+    void testGuaranteedCount_CountsOnlyCertainOccurrences() {
+        detector.record(KEY);
+        detector.record(KEY);
+
+        assertEquals(2, detector.guaranteedCount(KEY));
+        assertEquals(1, detector.guaranteedCount("failed_attempts:ip:10.0.0.1"));
+    }
+
+    @Test
+    void testDiscount_ForgetsLocalOccurrences() {
+        detector.record(KEY);
+        detector.record(KEY);
+
+        detector.discount(KEY);
+
+        assertEquals(1, detector.record(KEY));
+    }
+
+    @Test
+    void testSync_PublishesTopKAndAdoptsGlobalHeavyHitters() {
+        // Arrange
+        detector.record(KEY);
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(zSetOperations.rangeByScoreWithScores(startsWith("heavy_hitters:"), eq(2.0), eq(Double.POSITIVE_INFINITY)))
+                .thenReturn(Set.of(new DefaultTypedTuple<>(KEY, 7.0)));
+
+        // Act
+        detector.sync();
+
+        // Assert
+        verify(redisTemplate).executePipelined(any(RedisCallback.class));
+        assertEquals(7L, detector.getGlobalHeavyHitters().get(KEY));
+        assertEquals(7, detector.record(KEY));
+    }
+
+    @Test
+    void testDisabled_PromotesEveryKey() {
+        ReflectionTestUtils.setField(detector, "enabled", false);
+
+        long estimate = detector.record(KEY);
+
+        assertTrue(detector.isPromoted(estimate));
+        assertEquals(1, detector.guaranteedCount(KEY));
+    }
+}
@@ -0,0 +1,174 @@
+package com.officemate.config.security;
+
+import com.officemate.modules.auth.service.SessionManagementService;
+import com.officemate.shared.dto.TokenValidation;
+import com.officemate.shared.enums.Permission;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for JwtAuthenticationFilter.
+ * Tests authentication, verification attributes, and claims caching.
+ */
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    private static final String TOKEN = "header.payload.signature";
+    private static final int PERMISSIONS = Permission.MOBILE_VERIFIED.mask() | Permission.ACCOUNT_ACTIVE.mask();
+
+    @Mock
+    private SessionManagementService sessionManagementService;
+
+    @Mock
+    private FilterChain filterChain;
+
+    private TokenValidationCache tokenValidationCache;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        tokenValidationCache = new TokenValidationCache();
+        filter = new JwtAuthenticationFilter(sessionManagementService, tokenValidationCache);
+        SecurityContextHolder.clearContext();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testValidAccessToken_AuthenticatesAndSetsAttributes() throws Exception {
+        // Arrange
+        when(sessionManagementService.validateToken(TOKEN)).thenReturn(accessValidation());
+        MockHttpServletRequest request = bearerRequest();
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        // Assert
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        assertEquals("user-1", authentication.getName());
+        assertTrue(authentication.getAuthorities().stream()
+                .anyMatch(a -> "MOBILE_VERIFIED".equals(a.getAuthority())));
+        assertEquals("session-1", ((Map<?, ?>) authentication.getDetails()).get("sessionId"));
+        assertEquals(PERMISSIONS, request.getAttribute(JwtAuthenticationFilter.PERMISSIONS_ATTRIBUTE));
+        verify(filterChain).doFilter(any(), any());
+    }
+
+    @Test
+    void testRepeatRequest_UsesCacheAndSkipsVerification() throws Exception {
+        // Arrange
+        when(sessionManagementService.validateToken(TOKEN)).thenReturn(accessValidation());
+        when(sessionManagementService.isTokenRevoked("jti-1")).thenReturn(false);
+
+        // Act
+        filter.doFilter(bearerRequest(), new MockHttpServletResponse(), filterChain);
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest second = bearerRequest();
+        filter.doFilter(second, new MockHttpServletResponse(), filterChain);
+
+        // Assert
+        verify(sessionManagementService, times(1)).validateToken(TOKEN);
+        verify(sessionManagementService).isTokenRevoked("jti-1");
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+        assertEquals(PERMISSIONS, second.getAttribute(JwtAuthenticationFilter.PERMISSIONS_ATTRIBUTE));
+    }
+
+    @Test
+    void testCachedTokenRevoked_NotAuthenticated() throws Exception {
+        // Arrange
+        when(sessionManagementService.validateToken(TOKEN)).thenReturn(accessValidation());
+        when(sessionManagementService.isTokenRevoked("jti-1")).thenReturn(true);
+        filter.doFilter(bearerRequest(), new MockHttpServletResponse(), filterChain);
+        SecurityContextHolder.clearContext();
+
+        // Act
+        filter.doFilter(bearerRequest(), new MockHttpServletResponse(), filterChain);
+
+        // Assert
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertEquals(0, tokenValidationCache.size());
+    }
+
+    @Test
+    void testInvalidToken_NotAuthenticatedOrCached() throws Exception {
+        // Arrange
+        when(sessionManagementService.validateToken(TOKEN)).thenReturn(TokenValidation.builder()
+                .valid(false)
+                .errorMessage("Invalid token signature")
+                .build());
+
+        // Act
+        filter.doFilter(bearerRequest(), new MockHttpServletResponse(), filterChain);
+
+        // Assert
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertEquals(0, tokenValidationCache.size());
+        verify(filterChain).doFilter(any(), any());
+    }
+
+    @Test
+    void testRefreshToken_NotAcceptedAsBearer() throws Exception {
+        // Arrange
+        TokenValidation refresh = accessValidation();
+        refresh.setTokenType("REFRESH");
+        when(sessionManagementService.validateToken(TOKEN)).thenReturn(refresh);
+
+        // Act
+        filter.doFilter(bearerRequest(), new MockHttpServletResponse(), filterChain);
+
+        // Assert
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertEquals(0, tokenValidationCache.size());
+    }
+
+    @Test
+    void testNoAuthorizationHeader_PassesThrough() throws Exception {
+        // Act
+        filter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), filterChain);
+
+        // Assert
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(sessionManagementService, never()).validateToken(anyString());
+        verify(filterChain).doFilter(any(), any());
+    }
+
+    private MockHttpServletRequest bearerRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + TOKEN);
+        return request;
+    }
+
+    private TokenValidation accessValidation() {
+        return TokenValidation.builder()
+                .valid(true)
+                .userId("user-1")
+                .sessionId("session-1")
+                .tokenId("jti-1")
+                .tokenType("ACCESS")
+                .mobileVerified(true)
+                .emailVerified(false)
+                .permissions(PERMISSIONS)
+                .expiresAt(LocalDateTime.now().plusHours(1))
+                .build();
+    }
+}
@@ -0,0 +1,118 @@
+package com.officemate.config.security;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for RateLimitingFilter.
+ * Tests the sliding per-IP limit, window rollover and optional Redis enforcement.
+ */
+@ExtendWith(MockitoExtension.class)
+class RateLimitingFilterTest {
+
+    private static final String IP = "203.0.113.7";
+    private static final long MINUTE_START = 1_700_000_040_000L; // aligned to a minute
+
+    @Mock
+    private TokenLeasingRateLimiter tokenLeasingRateLimiter;
+
+    @Mock
+    private FilterChain filterChain;
+
+    private RateLimitingFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new RateLimitingFilter(tokenLeasingRateLimiter);
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "maxRequestsPerMinute", 5);
+        ReflectionTestUtils.setField(filter, "sketchDepth", 4);
+        ReflectionTestUtils.setField(filter, "sketchWidth", 1024);
+    }
+
+    @Test
+    void testDoFilter_OverLimit_Returns429() throws Exception {
+        // Arrange
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        for (int i = 0; i < 5; i++) {
+            filter.doFilter(request(), new MockHttpServletResponse(), filterChain);
+        }
+
+        // Act
+        filter.doFilter(request(), response, filterChain);
+
+        // Assert
+        assertEquals(429, response.getStatus());
+        verify(filterChain, times(5)).doFilter(any(), any());
+    }
+
+    @Test
+    void testDoFilter_Disabled_PassesThrough() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(filter, "enabled", false);
+
+        // Act
+        for (int i = 0; i < 10; i++) {
+            filter.doFilter(request(), new MockHttpServletResponse(), filterChain);
+        }
+
+        // Assert
+        verify(filterChain, times(10)).doFilter(any(), any());
+    }
+
+    @Test
+    void testIsRateLimited_PreviousMinuteWeightedBySlidingOverlap() {
+        // Arrange - limit used up at the end of one minute
+        for (int i = 0; i < 5; i++) {
+            assertFalse(filter.isRateLimited(IP, MINUTE_START + 59_000));
+        }
+
+        // Act & Assert - early in the next minute most of the previous count still applies
+        assertTrue(filter.isRateLimited(IP, MINUTE_START + 60_000 + 6_000));
+        // Another minute later the old window has dropped out
+        assertFalse(filter.isRateLimited(IP, MINUTE_START + 180_000));
+    }
+
+    @Test
+    void testIsRateLimited_OtherIpsUnaffected() {
+        for (int i = 0; i < 6; i++) {
+            filter.isRateLimited(IP, MINUTE_START);
+        }
+
+        assertTrue(filter.isRateLimited(IP, MINUTE_START));
+        assertFalse(filter.isRateLimited("198.51.100.1", MINUTE_START));
+    }
+
+    @Test
+    void testIsRateLimited_RedisEnabled_UsesGlobalLimit() {
+        // Arrange
+        ReflectionTestUtils.setField(filter, "redisEnabled", true);
+        when(tokenLeasingRateLimiter.tryAcquire("rate_limit:ip:" + IP, 5, Duration.ofMinutes(1)))
+                .thenReturn(false);
+
+        // Act
+        boolean limited = filter.isRateLimited(IP, MINUTE_START);
+
+        // Assert
+        assertTrue(limited);
+    }
+
+    private MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(IP);
+        return request;
+    }
+}
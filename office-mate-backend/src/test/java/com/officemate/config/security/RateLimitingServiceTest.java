@@ -1,17 +1,23 @@
 package com.officemate.config.security;
 
+import com.officemate.shared.dto.LoginRiskAssessment;
 import com.officemate.shared.service.SecurityEventService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -30,11 +36,18 @@ class RateLimitingServiceTest {
     @Mock
     private ValueOperations<String, String> valueOperations;
 
+    @Mock
+    private TokenLeasingRateLimiter tokenLeasingRateLimiter;
+
+    @Mock
+    private HeavyHitterDetector heavyHitterDetector;
+
     private RateLimitingService rateLimitingService;
 
     @BeforeEach
     void setUp() {
-        rateLimitingService = new RateLimitingService(redisTemplate, securityEventService);
+        rateLimitingService = new RateLimitingService(redisTemplate, securityEventService,
+                tokenLeasingRateLimiter, heavyHitterDetector);
         
         // Set test configuration values
         ReflectionTestUtils.setField(rateLimitingService, "maxFailedAttempts", 5);
@@ -46,23 +59,23 @@ class RateLimitingServiceTest {
     void testIsAllowed_WithinLimit_ShouldReturnTrue() {
         // Arrange
         String key = "test_user";
-        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
-        when(valueOperations.increment("rate_limit:" + key)).thenReturn(1L);
+        when(redisTemplate.execute(eq(RateLimitingService.SLIDING_WINDOW_SCRIPT), eq(List.of("rate_limit:" + key)),
+                eq("5"), eq("60000000"))).thenReturn(List.of(1L, 1L));
 
         // Act
         boolean result = rateLimitingService.isAllowed(key, 5, Duration.ofMinutes(1));
 
         // Assert
         assertTrue(result);
-        verify(redisTemplate).expire("rate_limit:" + key, Duration.ofMinutes(1).getSeconds(), TimeUnit.SECONDS);
+        verify(redisTemplate, never()).expire(anyString(), anyLong(), any(TimeUnit.class));
     }
 
     @Test
     void testIsAllowed_ExceedsLimit_ShouldReturnFalse() {
         // Arrange
         String key = "test_user";
-        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
-        when(valueOperations.increment("rate_limit:" + key)).thenReturn(6L);
+        when(redisTemplate.execute(eq(RateLimitingService.SLIDING_WINDOW_SCRIPT), eq(List.of("rate_limit:" + key)),
+                eq("5"), eq("60000000"))).thenReturn(List.of(0L, 5L));
 
         // Act
         boolean result = rateLimitingService.isAllowed(key, 5, Duration.ofMinutes(1));
@@ -71,6 +84,47 @@ class RateLimitingServiceTest {
         assertFalse(result);
     }
 
+    @Test
+    void testIsAllowed_RedisUnavailable_FailsOpen() {
+        // Arrange
+        when(redisTemplate.execute(eq(RateLimitingService.SLIDING_WINDOW_SCRIPT), anyList(), any(), any()))
+                .thenThrow(new RedisConnectionFailureException("Connection refused"));
+
+        // Act
+        boolean result = rateLimitingService.isAllowed("test_user", 5, Duration.ofMinutes(1));
+
+        // Assert
+        assertTrue(result);
+    }
+
+    @Test
+    void testIsOtpRequestAllowed_UsesHourWindow() {
+        // Arrange
+        when(redisTemplate.execute(eq(RateLimitingService.SLIDING_WINDOW_SCRIPT),
+                eq(List.of("rate_limit:otp_limit:+919876543210")), eq("5"), eq("3600000000")))
+                .thenReturn(List.of(1L, 3L));
+
+        // Act
+        boolean result = rateLimitingService.isOtpRequestAllowed("+919876543210", 5);
+
+        // Assert
+        assertTrue(result);
+    }
+
+    @Test
+    void testIsApiRequestAllowed_UsesLeasedTokens() {
+        // Arrange
+        when(tokenLeasingRateLimiter.tryAcquire("rate_limit:api:user123", 60, Duration.ofMinutes(1)))
+                .thenReturn(true);
+
+        // Act
+        boolean result = rateLimitingService.isApiRequestAllowed("user123", 60);
+
+        // Assert
+        assertTrue(result);
+        verify(redisTemplate, never()).execute(ArgumentMatchers.<RedisScript<List<Long>>>any(), anyList(), any(), any());
+    }
+
     @Test
     void testIsAccountLocked_WhenLocked_ShouldReturnTrue() {
         // Arrange
@@ -104,8 +158,7 @@ class RateLimitingServiceTest {
         // Arrange
         String identifier = "test_user";
         String userId = "user123";
-        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
-        when(valueOperations.increment("failed_attempts:" + identifier)).thenReturn(3L);
+        stubPromoted("failed_attempts:" + identifier, "3600", 3L);
 
         // Act
         boolean shouldLock = rateLimitingService.recordFailedAttempt(identifier, "LOGIN", userId);
@@ -121,7 +174,7 @@ class RateLimitingServiceTest {
         String identifier = "test_user";
         String userId = "user123";
         when(redisTemplate.opsForValue()).thenReturn(valueOperations);
-        when(valueOperations.increment("failed_attempts:" + identifier)).thenReturn(5L);
+        stubPromoted("failed_attempts:" + identifier, "3600", 5L);
 
         // Act
         boolean shouldLock = rateLimitingService.recordFailedAttempt(identifier, "LOGIN", userId);
@@ -142,6 +195,23 @@ class RateLimitingServiceTest {
 
         // Assert
         verify(redisTemplate).delete("failed_attempts:" + identifier);
+        verify(heavyHitterDetector).discount("failed_attempts:" + identifier);
+    }
+
+    @Test
+    void testRecordFailedAttempt_NotHeavyHitter_ShouldNotTouchRedis() {
+        // Arrange
+        String identifier = "test_user";
+        when(heavyHitterDetector.record("failed_attempts:" + identifier)).thenReturn(1L);
+        when(heavyHitterDetector.isPromoted(1L)).thenReturn(false);
+
+        // Act
+        boolean shouldLock = rateLimitingService.recordFailedAttempt(identifier, "LOGIN", "user123");
+
+        // Assert
+        assertFalse(shouldLock);
+        verifyNoInteractions(redisTemplate);
+        verify(securityEventService).logFailedLogin(eq(identifier), contains("LOGIN failed attempt #1"), any());
     }
 
     @Test
@@ -149,8 +219,7 @@ class RateLimitingServiceTest {
         // Arrange
         String identifier = "test_user";
         String userId = "user123";
-        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
-        when(valueOperations.increment("suspicious:" + identifier + ":BRUTE_FORCE")).thenReturn(5L);
+        stubPromoted("suspicious:" + identifier + ":BRUTE_FORCE", "86400", 5L);
 
         // Act
         boolean shouldLock = rateLimitingService.trackSuspiciousActivity(identifier, "BRUTE_FORCE", userId);
@@ -167,7 +236,7 @@ class RateLimitingServiceTest {
         String identifier = "test_user";
         String userId = "user123";
         when(redisTemplate.opsForValue()).thenReturn(valueOperations);
-        when(valueOperations.increment("suspicious:" + identifier + ":BRUTE_FORCE")).thenReturn(10L);
+        stubPromoted("suspicious:" + identifier + ":BRUTE_FORCE", "86400", 10L);
 
         // Act
         boolean shouldLock = rateLimitingService.trackSuspiciousActivity(identifier, "BRUTE_FORCE", userId);
@@ -185,8 +254,8 @@ class RateLimitingServiceTest {
         String identifier = "test_user";
         String ipAddress = "192.168.1.1";
         when(redisTemplate.opsForValue()).thenReturn(valueOperations);
-        when(valueOperations.get("failed_attempts:" + identifier)).thenReturn("3");
-        when(valueOperations.get("failed_attempts:ip:" + ipAddress)).thenReturn("1");
+        when(valueOperations.multiGet(List.of("failed_attempts:" + identifier, "failed_attempts:ip:" + ipAddress)))
+                .thenReturn(Arrays.asList("3", "1"));
 
         // Act
         boolean result = rateLimitingService.shouldRequireCaptcha(identifier, ipAddress);
@@ -201,8 +270,8 @@ class RateLimitingServiceTest {
         String identifier = "test_user";
         String ipAddress = "192.168.1.1";
         when(redisTemplate.opsForValue()).thenReturn(valueOperations);
-        when(valueOperations.get("failed_attempts:" + identifier)).thenReturn("1");
-        when(valueOperations.get("failed_attempts:ip:" + ipAddress)).thenReturn("1");
+        when(valueOperations.multiGet(List.of("failed_attempts:" + identifier, "failed_attempts:ip:" + ipAddress)))
+                .thenReturn(Arrays.asList("1", "1"));
 
         // Act
         boolean result = rateLimitingService.shouldRequireCaptcha(identifier, ipAddress);
@@ -211,6 +280,43 @@ class RateLimitingServiceTest {
         assertFalse(result);
     }
 
+    @Test
+    void testAssessLoginRisk_ReadsAllKeysInOneLookup() {
+        // Arrange
+        String identifier = "test_user";
+        String ipAddress = "192.168.1.1";
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.multiGet(List.of("account_lockout:" + identifier, "failed_attempts:" + identifier,
+                "failed_attempts:ip:" + ipAddress, "captcha_bypass:" + identifier)))
+                .thenReturn(Arrays.asList("2024-01-01T12:30:00", "4", null, "granted"));
+
+        // Act
+        LoginRiskAssessment risk = rateLimitingService.assessLoginRisk(identifier, ipAddress);
+
+        // Assert
+        assertTrue(risk.isLocked());
+        assertEquals(LocalDateTime.parse("2024-01-01T12:30:00"), risk.getLockedUntil());
+        assertEquals(4, risk.getFailedAttempts());
+        assertEquals(0, risk.getIpFailedAttempts());
+        assertTrue(risk.isCaptchaRequired());
+        assertFalse(risk.isCaptchaChallengeRequired());
+        verify(valueOperations, never()).get(anyString());
+    }
+
+    @Test
+    void testAssessLoginRisk_RedisUnavailable_RequiresCaptchaWithoutLocking() {
+        // Arrange
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.multiGet(anyList())).thenThrow(new RedisConnectionFailureException("Connection refused"));
+
+        // Act
+        LoginRiskAssessment risk = rateLimitingService.assessLoginRisk("test_user", "192.168.1.1");
+
+        // Assert
+        assertFalse(risk.isLocked());
+        assertTrue(risk.isCaptchaChallengeRequired());
+    }
+
     @Test
     void testUnlockAccount_ShouldDeleteLockoutKey() {
         // Arrange
@@ -254,26 +360,29 @@ class RateLimitingServiceTest {
     }
 
     @Test
-    void testRecordIpFailedAttempt_ShouldIncrementAndSetExpiryOnFirstAttempt() {
+    void testRecordIpFailedAttempt_OnPromotion_ShouldSeedCounterWithExpiry() {
         // Arrange
         String ipAddress = "192.168.1.1";
-        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
-        when(valueOperations.increment("failed_attempts:ip:" + ipAddress)).thenReturn(1L);
+        String key = "failed_attempts:ip:" + ipAddress;
+        when(heavyHitterDetector.record(key)).thenReturn(2L);
+        when(heavyHitterDetector.isPromoted(2L)).thenReturn(true);
+        when(heavyHitterDetector.guaranteedCount(key)).thenReturn(1L);
+        when(redisTemplate.execute(eq(RateLimitingService.TRACK_SCRIPT), eq(List.of(key)), eq("1"), eq("3600")))
+                .thenReturn(1L);
 
         // Act
         rateLimitingService.recordIpFailedAttempt(ipAddress, "LOGIN");
 
-        // Assert
-        verify(valueOperations).increment("failed_attempts:ip:" + ipAddress);
-        verify(redisTemplate).expire("failed_attempts:ip:" + ipAddress, Duration.ofHours(1));
+        // Assert - seeded with the guaranteed count, not the estimate
+        verify(redisTemplate).execute(eq(RateLimitingService.TRACK_SCRIPT), eq(List.of(key)), eq("1"), eq("3600"));
+        verify(securityEventService, never()).logRateLimitViolation(any(), any(), any());
     }
 
     @Test
     void testRecordIpFailedAttempt_HighCount_ShouldLogViolation() {
         // Arrange
         String ipAddress = "192.168.1.1";
-        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
-        when(valueOperations.increment("failed_attempts:ip:" + ipAddress)).thenReturn(5L);
+        stubPromoted("failed_attempts:ip:" + ipAddress, "3600", 5L);
 
         // Act
         rateLimitingService.recordIpFailedAttempt(ipAddress, "LOGIN");
@@ -282,4 +391,12 @@ class RateLimitingServiceTest {
         verify(securityEventService).logRateLimitViolation(eq(ipAddress), eq("LOGIN"), 
                 contains("High failure count from IP: 5"));
     }
-}
\ No newline at end of file
+
+    private void stubPromoted(String key, String ttlSeconds, long count) {
+        when(heavyHitterDetector.record(key)).thenReturn(count);
+        when(heavyHitterDetector.isPromoted(count)).thenReturn(true);
+        when(heavyHitterDetector.guaranteedCount(key)).thenReturn(1L);
+        when(redisTemplate.execute(eq(RateLimitingService.TRACK_SCRIPT), eq(List.of(key)), eq("1"), eq(ttlSeconds)))
+                .thenReturn(count);
+    }
+}
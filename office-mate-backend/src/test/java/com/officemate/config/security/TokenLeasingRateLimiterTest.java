@@ -0,0 +1,123 @@
+package com.officemate.config.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TokenLeasingRateLimiter.
+ * Tests local spending of leased tokens, lease renewal and cached denials.
+ */
+@ExtendWith(MockitoExtension.class)
+class TokenLeasingRateLimiterTest {
+
+    private static final String KEY = "rate_limit:api:user-1";
+    private static final Duration WINDOW = Duration.ofMinutes(1);
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+
+    private TokenLeasingRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new TokenLeasingRateLimiter(redisTemplate);
+        ReflectionTestUtils.setField(limiter, "enabled", true);
+        ReflectionTestUtils.setField(limiter, "blockSize", 10);
+    }
+
+    @Test
+    void testTryAcquire_SpendsLeaseLocally() {
+        // Arrange
+        when(redisTemplate.execute(eq(TokenLeasingRateLimiter.LEASE_SCRIPT), eq(List.of(KEY)),
+                eq("60"), eq("10"), eq("60000"))).thenReturn(List.of(10L, 60000L));
+
+        // Act
+        int allowed = 0;
+        for (int i = 0; i < 10; i++) {
+            if (limiter.tryAcquire(KEY, 60, WINDOW)) {
+                allowed++;
+            }
+        }
+
+        // Assert
+        assertEquals(10, allowed);
+        verify(redisTemplate, times(1)).execute(eq(TokenLeasingRateLimiter.LEASE_SCRIPT), eq(List.of(KEY)),
+                eq("60"), eq("10"), eq("60000"));
+    }
+
+    @Test
+    void testTryAcquire_LeaseSpent_LeasesAgain() {
+        // Arrange
+        when(redisTemplate.execute(eq(TokenLeasingRateLimiter.LEASE_SCRIPT), eq(List.of(KEY)),
+                eq("60"), eq("10"), eq("60000"))).thenReturn(List.of(10L, 60000L), List.of(4L, 50000L));
+
+        // Act
+        for (int i = 0; i < 14; i++) {
+            assertTrue(limiter.tryAcquire(KEY, 60, WINDOW));
+        }
+
+        // Assert
+        verify(redisTemplate, times(2)).execute(eq(TokenLeasingRateLimiter.LEASE_SCRIPT), eq(List.of(KEY)),
+                eq("60"), eq("10"), eq("60000"));
+    }
+
+    @Test
+    void testTryAcquire_LimitReached_DenialCachedUntilWindowEnds() {
+        // Arrange
+        when(redisTemplate.execute(eq(TokenLeasingRateLimiter.LEASE_SCRIPT), eq(List.of(KEY)),
+                eq("60"), eq("10"), eq("60000"))).thenReturn(List.of(0L, 30000L));
+
+        // Act
+        boolean first = limiter.tryAcquire(KEY, 60, WINDOW);
+        boolean second = limiter.tryAcquire(KEY, 60, WINDOW);
+
+        // Assert
+        assertFalse(first);
+        assertFalse(second);
+        verify(redisTemplate, times(1)).execute(eq(TokenLeasingRateLimiter.LEASE_SCRIPT), eq(List.of(KEY)),
+                eq("60"), eq("10"), eq("60000"));
+    }
+
+    @Test
+    void testTryAcquire_Disabled_ChecksRedisPerRequest() {
+        // Arrange
+        ReflectionTestUtils.setField(limiter, "enabled", false);
+        when(redisTemplate.execute(eq(TokenLeasingRateLimiter.LEASE_SCRIPT), eq(List.of(KEY)),
+                eq("60"), eq("1"), eq("60000"))).thenReturn(List.of(1L, 60000L));
+
+        // Act
+        limiter.tryAcquire(KEY, 60, WINDOW);
+        limiter.tryAcquire(KEY, 60, WINDOW);
+
+        // Assert
+        verify(redisTemplate, times(2)).execute(eq(TokenLeasingRateLimiter.LEASE_SCRIPT), eq(List.of(KEY)),
+                eq("60"), eq("1"), eq("60000"));
+        assertEquals(0, limiter.size());
+    }
+
+    @Test
+    void testEvictExpired_RemovesEndedWindows() {
+        // Arrange
+        when(redisTemplate.execute(eq(TokenLeasingRateLimiter.LEASE_SCRIPT), eq(List.of(KEY)),
+                eq("60"), eq("10"), eq("60000"))).thenReturn(List.of(10L, 0L));
+        limiter.tryAcquire(KEY, 60, WINDOW);
+
+        // Act
+        limiter.evictExpired();
+
+        // Assert
+        assertEquals(0, limiter.size());
+    }
+}
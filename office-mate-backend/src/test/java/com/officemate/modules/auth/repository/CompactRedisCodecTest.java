@@ -0,0 +1,153 @@
+package com.officemate.modules.auth.repository;
+
+import com.officemate.modules.auth.entity.OTPRecord;
+import com.officemate.modules.auth.entity.RevokedToken;
+import com.officemate.modules.auth.entity.UserSession;
+import com.officemate.shared.enums.Permission;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CompactRedisCodec.
+ * Tests round trips of sessions, revoked tokens and OTP records.
+ */
+class CompactRedisCodecTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+
+    @Test
+    void testSession_RoundTrip() {
+        // Arrange
+        UserSession session = UserSession.builder()
+                .sessionId("session-1")
+                .userId("user-1")
+                .deviceType("ANDROID")
+                .deviceId("device-1")
+                .appVersion("1.0.0")
+                .permissions(Permission.MOBILE_VERIFIED.mask() | Permission.ACCOUNT_ACTIVE.mask())
+                .createdAt(NOW)
+                .lastAccessAt(NOW.plusMinutes(5))
+                .expiresAt(NOW.plusDays(7))
+                .refreshTokenId("refresh-jti")
+                .mobileVerified(true)
+                .emailVerified(false)
+                .ttl(604800L)
+                .build();
+
+        // Act
+        UserSession decoded = CompactRedisCodec.decodeSession("session-1",
+                values(CompactRedisCodec.encodeSession(session), CompactRedisCodec.SESSION_FIELDS));
+
+        // Assert
+        assertEquals(session, decoded);
+    }
+
+    @Test
+    void testSession_MissingHash_ReturnsNull() {
+        List<Object> values = new ArrayList<>();
+        for (int i = 0; i < CompactRedisCodec.SESSION_FIELDS.length; i++) {
+            values.add(null);
+        }
+
+        assertNull(CompactRedisCodec.decodeSession("session-1", values));
+    }
+
+    @Test
+    void testLegacyPermissions_NamesMappedToMask() {
+        // Arrange - HMGET of permissions.[0..n] on a Spring Data layout hash with two permissions
+        List<Object> values = new ArrayList<>();
+        values.add("MOBILE_VERIFIED".getBytes(StandardCharsets.UTF_8));
+        values.add("ACCESS_RIDE_FEATURES");
+        while (values.size() < CompactRedisCodec.LEGACY_PERMISSION_FIELDS.length) {
+            values.add(null);
+        }
+
+        // Act
+        int permissions = CompactRedisCodec.decodeLegacyPermissions(values);
+
+        // Assert
+        assertEquals(Permission.MOBILE_VERIFIED.mask() | Permission.ACCESS_RIDE_FEATURES.mask(), permissions);
+        assertEquals("permissions.[0]", CompactRedisCodec.LEGACY_PERMISSION_FIELDS[0]);
+        assertEquals(Permission.values().length, CompactRedisCodec.LEGACY_PERMISSION_FIELDS.length);
+    }
+
+    @Test
+    void testSession_NoTypeHintOrRefreshToken() {
+        // Arrange
+        UserSession session = UserSession.builder()
+                .sessionId("session-1")
+                .userId("user-1")
+                .refreshToken("header.payload.signature")
+                .build();
+
+        // Act
+        Map<byte[], byte[]> hash = CompactRedisCodec.encodeSession(session);
+
+        // Assert
+        assertTrue(hash.keySet().stream()
+                .map(field -> new String(field, StandardCharsets.UTF_8))
+                .allMatch(field -> field.length() <= 2));
+        assertFalse(hash.values().stream()
+                .anyMatch(value -> new String(value, StandardCharsets.UTF_8).contains("header.payload")));
+    }
+
+    @Test
+    void testRevokedToken_RoundTrip() {
+        // Arrange
+        RevokedToken token = RevokedToken.builder()
+                .tokenId("jti-1")
+                .userId("user-1")
+                .revokedAt(NOW)
+                .reason("Session revoked | manual")
+                .build();
+
+        // Act
+        RevokedToken decoded = CompactRedisCodec.decodeRevokedToken("jti-1",
+                CompactRedisCodec.encodeRevokedToken(token));
+
+        // Assert
+        assertEquals(token, decoded);
+    }
+
+    @Test
+    void testOtp_RoundTrip() {
+        // Arrange
+        OTPRecord otpRecord = OTPRecord.builder()
+                .key("phone:+919876543210")
+                .otpHash("hashed-otp")
+                .attempts(2)
+                .createdAt(NOW)
+                .expiresAt(NOW.plusMinutes(5))
+                .verified(false)
+                .type(OTPRecord.OTPType.MOBILE)
+                .timeToLive(300L)
+                .build();
+
+        // Act
+        OTPRecord decoded = CompactRedisCodec.decodeOtp("phone:+919876543210",
+                values(CompactRedisCodec.encodeOtp(otpRecord), CompactRedisCodec.OTP_FIELDS));
+
+        // Assert
+        assertEquals(otpRecord, decoded);
+    }
+
+    private List<Object> values(Map<byte[], byte[]> hash, String[] fields) {
+        List<Object> values = new ArrayList<>();
+        for (String field : fields) {
+            values.add(hash.entrySet().stream()
+                    .filter(entry -> field.equals(new String(entry.getKey(), StandardCharsets.UTF_8)))
+                    .map(Map.Entry::getValue)
+                    .findFirst()
+                    .orElse(null));
+        }
+        return values;
+    }
+}
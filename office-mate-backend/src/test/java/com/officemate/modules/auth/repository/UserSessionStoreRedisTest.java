@@ -0,0 +1,143 @@
+package com.officemate.modules.auth.repository;
+
+import com.officemate.modules.auth.entity.UserSession;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests UserSessionStore scripts and lookups against a real Redis container.
+ * Skipped when Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class UserSessionStoreRedisTest {
+
+    private static final String USER_ID = "user-1";
+    private static final LocalDateTime NOW = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    private static JedisConnectionFactory connectionFactory;
+    private static StringRedisTemplate redisTemplate;
+
+    private UserSessionStore store;
+
+    @BeforeAll
+    static void connect() {
+        connectionFactory = new JedisConnectionFactory(
+                new RedisStandaloneConfiguration(redis.getHost(), redis.getMappedPort(6379)));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterAll
+    static void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @BeforeEach
+    void setUp() {
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.serverCommands().flushDb();
+            return null;
+        });
+        store = new UserSessionStore(redisTemplate, mock(UserSessionRepository.class));
+    }
+
+    @Test
+    void testEvictOldest_RemovesLeastRecentlyAccessedBeyondLimit() {
+        // Arrange
+        store.save(session("s-1", NOW.minusHours(3)));
+        store.save(session("s-2", NOW.minusHours(1)));
+        store.save(session("s-3", NOW.minusHours(2)));
+        store.save(session("s-4", NOW));
+
+        // Act
+        List<String> evicted = store.evictOldest(USER_ID, 2);
+
+        // Assert
+        assertEquals(List.of("s-1", "s-3"), evicted);
+        assertEquals(List.of("s-2", "s-4"), sessionIds(store.findByUserId(USER_ID)));
+        assertTrue(store.evictOldest(USER_ID, 2).isEmpty());
+    }
+
+    @Test
+    void testTouch_MovesSessionToMostRecentlyAccessed() {
+        // Arrange
+        store.save(session("s-1", NOW.minusHours(2)));
+        store.save(session("s-2", NOW.minusHours(1)));
+
+        // Act
+        boolean touched = store.touch("s-1", USER_ID, 3600);
+
+        // Assert
+        assertTrue(touched);
+        assertEquals(List.of("s-2", "s-1"), sessionIds(store.findByUserId(USER_ID)));
+        assertTrue(redisTemplate.getExpire("user_sessions:s-1") <= 3600);
+        assertEquals(List.of("s-2"), store.evictOldest(USER_ID, 1));
+    }
+
+    @Test
+    void testTouch_MissingSession_NotRecreated() {
+        // Act
+        boolean touched = store.touch("missing", USER_ID, 3600);
+
+        // Assert
+        assertFalse(touched);
+        assertFalse(store.existsById("missing"));
+        assertEquals(0L, redisTemplate.opsForZSet().zCard("user_sessions:by_user:" + USER_ID));
+    }
+
+    @Test
+    void testFindByUserId_IncludesSessionsOnlyInLegacyIndex() {
+        // Arrange - s-1 saved before the sorted set index existed
+        store.save(session("s-1", NOW.minusHours(1)));
+        store.save(session("s-2", NOW));
+        redisTemplate.opsForZSet().remove("user_sessions:by_user:" + USER_ID, "s-1");
+        redisTemplate.opsForSet().add("user_sessions:userId:" + USER_ID, "s-1");
+
+        // Act
+        List<UserSession> sessions = store.findByUserId(USER_ID);
+
+        // Assert
+        assertEquals(List.of("s-1", "s-2"), sessionIds(sessions));
+        assertFalse(Boolean.TRUE.equals(redisTemplate.hasKey("user_sessions:userId:" + USER_ID)));
+        assertEquals(List.of("s-1"), store.evictOldest(USER_ID, 1));
+    }
+
+    private static UserSession session(String sessionId, LocalDateTime lastAccessAt) {
+        return UserSession.builder()
+                .sessionId(sessionId)
+                .userId(USER_ID)
+                .deviceType("ANDROID")
+                .deviceId("device-" + sessionId)
+                .createdAt(lastAccessAt.minusHours(1))
+                .lastAccessAt(lastAccessAt)
+                .expiresAt(lastAccessAt.plusDays(7))
+                .ttl(604800L)
+                .build();
+    }
+
+    private static List<String> sessionIds(List<UserSession> sessions) {
+        return sessions.stream().map(UserSession::getSessionId).toList();
+    }
+}
@@ -0,0 +1,271 @@
+package com.officemate.modules.auth.repository;
+
+import com.officemate.modules.auth.entity.UserSession;
+import com.officemate.shared.enums.Permission;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for UserSessionStore.
+ * Tests session lookups by user including sessions only in the Spring Data user index,
+ * and the arguments and results of the eviction and touch scripts.
+ */
+@ExtendWith(MockitoExtension.class)
+class UserSessionStoreTest {
+
+    private static final String USER_ID = "user-1";
+    private static final String INDEX_KEY = "user_sessions:by_user:" + USER_ID;
+    private static final String LEGACY_INDEX_KEY = "user_sessions:userId:" + USER_ID;
+    // Legacy session ID field and legacy permission list fields
+    private static final int LEGACY_FIELD_COUNT = 1 + CompactRedisCodec.LEGACY_PERMISSION_FIELDS.length;
+    private static final LocalDateTime NOW = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Mock
+    private UserSessionRepository legacySessionRepository;
+
+    @Mock
+    private SetOperations<String, String> setOperations;
+
+    @Mock
+    private ZSetOperations<String, String> zSetOperations;
+
+    private final RedisConnection connection = mock(RedisConnection.class, RETURNS_DEEP_STUBS);
+    private final Deque<List<Object>> pipelineResults = new ArrayDeque<>();
+
+    private UserSessionStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new UserSessionStore(redisTemplate, legacySessionRepository);
+    }
+
+    @Test
+    void testFindByUserId_MovesLegacyIndexedSessionsIntoSortedSet() {
+        // Arrange
+        UserSession legacy = session("legacy-1", NOW.minusHours(2));
+        UserSession compact = session("compact-1", NOW);
+        stubSets(Set.of("legacy-1"));
+        when(legacySessionRepository.findAllById(List.of("legacy-1"))).thenReturn(List.of(legacy));
+        // HMGET of the legacy session during migration, the migration pipeline, then HMGET of the index
+        stubPipelines(List.of(
+                List.of(legacyValues("legacy-1")),
+                List.of(),
+                List.of(legacyValues("legacy-1"), compactValues(compact))));
+        when(zSetOperations.range(INDEX_KEY, 0, -1)).thenReturn(new LinkedHashSet<>(List.of("legacy-1", "compact-1")));
+
+        // Act
+        List<UserSession> sessions = store.findByUserId(USER_ID);
+
+        // Assert
+        assertEquals(List.of("compact-1", "legacy-1"), sessions.stream().map(UserSession::getSessionId).toList());
+        verify(connection.zSetCommands()).zAdd(aryEq(bytes(INDEX_KEY)),
+                eq((double) CompactRedisCodec.toMillis(legacy.getLastAccessAt())), aryEq(bytes("legacy-1")), any());
+        verify(connection.keyCommands()).expire(bytes(INDEX_KEY), 604800L);
+        verify(connection.setCommands()).sRem(bytes(LEGACY_INDEX_KEY), bytes("legacy-1"));
+        verify(zSetOperations, never()).remove(any(), any());
+    }
+
+    @Test
+    void testFindByUserId_DropsMissingSessionsFromLegacyIndex() {
+        // Arrange
+        stubSets(Set.of("gone-1"));
+        stubPipelines(List.of(List.of(missingValues()), List.of()));
+        when(zSetOperations.range(INDEX_KEY, 0, -1)).thenReturn(Collections.emptySet());
+
+        // Act
+        List<UserSession> sessions = store.findByUserId(USER_ID);
+
+        // Assert
+        assertTrue(sessions.isEmpty());
+        verify(connection.zSetCommands(), never()).zAdd(any(byte[].class), anyDouble(), any(byte[].class), any());
+        verify(connection.setCommands()).sRem(bytes(LEGACY_INDEX_KEY), bytes("gone-1"));
+        verifyNoInteractions(legacySessionRepository);
+    }
+
+    @Test
+    void testFindByUserId_WithoutLegacyIndex_PrunesExpiredIndexEntries() {
+        // Arrange
+        UserSession compact = session("compact-1", NOW);
+        stubSets(Collections.emptySet());
+        stubPipelines(List.of(List.of(compactValues(compact), missingValues())));
+        when(zSetOperations.range(INDEX_KEY, 0, -1)).thenReturn(new LinkedHashSet<>(List.of("compact-1", "expired-1")));
+
+        // Act
+        List<UserSession> sessions = store.findByUserId(USER_ID);
+
+        // Assert
+        assertEquals(List.of(compact), sessions);
+        verify(redisTemplate, times(1)).executePipelined(any(RedisCallback.class));
+        verify(zSetOperations).remove(INDEX_KEY, "expired-1");
+    }
+
+    @Test
+    void testFindAllById_LegacyLayoutPermissionList_MappedToMask() {
+        // Arrange - Spring Data reads the legacy permissions.[n] list fields as a mask of 0
+        UserSession legacy = session("legacy-1", NOW);
+        when(legacySessionRepository.findAllById(List.of("legacy-1"))).thenReturn(List.of(legacy));
+        stubPipelines(List.of(List.of(legacyValues("legacy-1", Permission.MOBILE_VERIFIED, Permission.ACCOUNT_ACTIVE))));
+
+        // Act
+        List<UserSession> sessions = store.findAllById(List.of("legacy-1"));
+
+        // Assert
+        assertEquals(1, sessions.size());
+        assertEquals(Permission.MOBILE_VERIFIED.mask() | Permission.ACCOUNT_ACTIVE.mask(), sessions.get(0).getPermissions());
+    }
+
+    @Test
+    void testEvictOldest_MigratesLegacyIndexBeforeRunningScript() {
+        // Arrange
+        UserSession legacy = session("legacy-1", NOW.minusDays(1));
+        stubSets(Set.of("legacy-1"));
+        when(legacySessionRepository.findAllById(List.of("legacy-1"))).thenReturn(List.of(legacy));
+        stubPipelines(List.of(List.of(legacyValues("legacy-1")), List.of()));
+        when(redisTemplate.execute(ArgumentMatchers.<RedisScript<List<String>>>any(), eq(List.of(INDEX_KEY)), eq("3")))
+                .thenReturn(List.of("legacy-1"));
+
+        // Act
+        List<String> evicted = store.evictOldest(USER_ID, 3);
+
+        // Assert
+        assertEquals(List.of("legacy-1"), evicted);
+        InOrder inOrder = inOrder(connection.zSetCommands(), redisTemplate);
+        inOrder.verify(connection.zSetCommands()).zAdd(aryEq(bytes(INDEX_KEY)), anyDouble(), aryEq(bytes("legacy-1")), any());
+        inOrder.verify(redisTemplate).execute(ArgumentMatchers.<RedisScript<List<String>>>any(), eq(List.of(INDEX_KEY)), eq("3"));
+    }
+
+    @Test
+    void testEvictOldest_NoScriptResult_ReturnsEmpty() {
+        // Arrange
+        stubSets(Collections.emptySet());
+        when(redisTemplate.execute(ArgumentMatchers.<RedisScript<List<String>>>any(), eq(List.of(INDEX_KEY)), eq("5")))
+                .thenReturn(null);
+
+        // Act & Assert
+        assertTrue(store.evictOldest(USER_ID, 5).isEmpty());
+        verify(redisTemplate, never()).executePipelined(any(RedisCallback.class));
+    }
+
+    @Test
+    void testTouch_PassesSessionAndIndexKeys() {
+        // Arrange
+        when(redisTemplate.execute(ArgumentMatchers.<RedisScript<Long>>any(),
+                eq(List.of("user_sessions:session-1", INDEX_KEY)), any(), eq("3600"), eq("session-1")))
+                .thenReturn(1L);
+
+        // Act & Assert
+        assertTrue(store.touch("session-1", USER_ID, 3600));
+    }
+
+    @Test
+    void testTouch_MissingSession_ReturnsFalse() {
+        // Arrange
+        when(redisTemplate.execute(ArgumentMatchers.<RedisScript<Long>>any(),
+                eq(List.of("user_sessions:session-1", INDEX_KEY)), any(), eq("3600"), eq("session-1")))
+                .thenReturn(0L);
+
+        // Act & Assert
+        assertFalse(store.touch("session-1", USER_ID, 3600));
+    }
+
+    private void stubSets(Set<String> legacyIds) {
+        when(redisTemplate.opsForSet()).thenReturn(setOperations);
+        when(setOperations.members(LEGACY_INDEX_KEY)).thenReturn(legacyIds);
+        lenient().when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+    }
+
+    /**
+     * Stub the pipelines the store runs, in order; each result is the list of replies of one pipeline.
+     */
+    @SuppressWarnings("unchecked")
+    private void stubPipelines(List<List<Object>> results) {
+        pipelineResults.addAll(results);
+        when(redisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            invocation.<RedisCallback<Object>>getArgument(0).doInRedis(connection);
+            return pipelineResults.poll();
+        });
+    }
+
+    private static UserSession session(String sessionId, LocalDateTime lastAccessAt) {
+        return UserSession.builder()
+                .sessionId(sessionId)
+                .userId(USER_ID)
+                .deviceType("ANDROID")
+                .deviceId("device-" + sessionId)
+                .createdAt(lastAccessAt.minusHours(1))
+                .lastAccessAt(lastAccessAt)
+                .expiresAt(lastAccessAt.plusDays(7))
+                .ttl(604800L)
+                .build();
+    }
+
+    /**
+     * HMGET values of a compact session hash, in UserSessionStore read order.
+     */
+    private static List<Object> compactValues(UserSession session) {
+        Map<byte[], byte[]> hash = CompactRedisCodec.encodeSession(session);
+        List<Object> values = new ArrayList<>();
+        for (String field : CompactRedisCodec.SESSION_FIELDS) {
+            values.add(hash.entrySet().stream()
+                    .filter(entry -> Arrays.equals(entry.getKey(), bytes(field)))
+                    .map(entry -> (Object) entry.getValue())
+                    .findFirst().orElse(null));
+        }
+        values.addAll(Collections.nCopies(LEGACY_FIELD_COUNT, null));
+        return values;
+    }
+
+    /**
+     * HMGET values of a Spring Data session hash: the legacy session ID and permission list fields.
+     */
+    private static List<Object> legacyValues(String sessionId, Permission... permissions) {
+        List<Object> values = missingValues();
+        values.set(CompactRedisCodec.SESSION_FIELDS.length, bytes(sessionId));
+        for (int i = 0; i < permissions.length; i++) {
+            values.set(CompactRedisCodec.SESSION_FIELDS.length + 1 + i, bytes(permissions[i].name()));
+        }
+        return values;
+    }
+
+    private static List<Object> missingValues() {
+        return new ArrayList<>(Collections.nCopies(CompactRedisCodec.SESSION_FIELDS.length + LEGACY_FIELD_COUNT, null));
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
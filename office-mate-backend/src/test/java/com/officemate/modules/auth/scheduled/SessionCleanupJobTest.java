@@ -0,0 +1,110 @@
+package com.officemate.modules.auth.scheduled;
+
+import com.officemate.modules.auth.repository.SessionMetadataRepository;
+import com.officemate.modules.auth.repository.UserSessionStore;
+import com.officemate.modules.auth.service.SessionManagementService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.redis.core.Cursor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SessionCleanupJob.
+ * Tests the SSCAN expiry sweep and keyset-paginated state synchronization.
+ */
+@ExtendWith(MockitoExtension.class)
+class SessionCleanupJobTest {
+
+    @Mock
+    private UserSessionStore userSessionStore;
+
+    @Mock
+    private SessionMetadataRepository sessionMetadataRepository;
+
+    @Mock
+    private SessionManagementService sessionManagementService;
+
+    @InjectMocks
+    private SessionCleanupJob sessionCleanupJob;
+
+    @Test
+    void testSynchronizeSessionState_PagesByKeysetAndEndsMissingPerChunk() {
+        // Arrange
+        List<String> firstChunk = sessionIds(0, 1000);
+        List<String> secondChunk = sessionIds(1000, 1005);
+        when(sessionMetadataRepository.findActiveSessionIdsAfter("", Limit.of(1000))).thenReturn(firstChunk);
+        when(sessionMetadataRepository.findActiveSessionIdsAfter("session-0999", Limit.of(1000))).thenReturn(secondChunk);
+        when(userSessionStore.findMissing(firstChunk)).thenReturn(List.of("session-0001", "session-0002"));
+        when(userSessionStore.findMissing(secondChunk)).thenReturn(Collections.emptyList());
+
+        // Act
+        sessionCleanupJob.synchronizeSessionState();
+
+        // Assert
+        verify(sessionMetadataRepository, times(1)).endSessions(
+                eq(List.of("session-0001", "session-0002")), eq("EXPIRED_IN_REDIS"), any(LocalDateTime.class));
+        verify(sessionMetadataRepository, times(2)).findActiveSessionIdsAfter(anyString(), any(Limit.class));
+    }
+
+    @Test
+    void testSynchronizeSessionState_NoActiveSessions_NoRedisCalls() {
+        // Arrange
+        when(sessionMetadataRepository.findActiveSessionIdsAfter("", Limit.of(1000))).thenReturn(Collections.emptyList());
+
+        // Act
+        sessionCleanupJob.synchronizeSessionState();
+
+        // Assert
+        verifyNoInteractions(userSessionStore);
+        verify(sessionMetadataRepository, never()).endSessions(anyCollection(), anyString(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void testCleanupExpiredSessions_EndsOnlyExpiredFromScan() {
+        // Arrange
+        List<String> scanned = sessionIds(0, 3);
+        Cursor<String> cursor = cursorOf(scanned);
+        when(userSessionStore.scanSessionIds(anyInt())).thenReturn(cursor);
+        when(userSessionStore.findExpired(eq(scanned), any(LocalDateTime.class))).thenReturn(List.of("session-0001"));
+
+        // Act
+        sessionCleanupJob.cleanupExpiredSessions();
+
+        // Assert
+        verify(sessionManagementService).endExpiredSessions(List.of("session-0001"));
+        verify(userSessionStore, times(1)).findExpired(anyList(), any(LocalDateTime.class));
+    }
+
+    private List<String> sessionIds(int from, int to) {
+        return IntStream.range(from, to)
+                .mapToObj(i -> String.format("session-%04d", i))
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Cursor<String> cursorOf(List<String> values) {
+        Cursor<String> cursor = mock(Cursor.class);
+        var iterator = values.iterator();
+        when(cursor.hasNext()).thenAnswer(invocation -> iterator.hasNext());
+        when(cursor.next()).thenAnswer(invocation -> iterator.next());
+        return cursor;
+    }
+}
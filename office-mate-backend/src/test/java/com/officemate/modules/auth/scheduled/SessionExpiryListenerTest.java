@@ -0,0 +1,97 @@
+package com.officemate.modules.auth.scheduled;
+
+import com.officemate.modules.auth.service.SessionManagementService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SessionExpiryListener.
+ * Tests key filtering and batched flushing of expired sessions.
+ */
+@ExtendWith(MockitoExtension.class)
+class SessionExpiryListenerTest {
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+
+    @Mock
+    private SessionManagementService sessionManagementService;
+
+    private SessionExpiryListener listener;
+
+    @BeforeEach
+    void setUp() {
+        listener = new SessionExpiryListener(listenerContainer, redisTemplate, sessionManagementService);
+        ReflectionTestUtils.setField(listener, "enabled", false);
+        ReflectionTestUtils.setField(listener, "queueCapacity", 2);
+        ReflectionTestUtils.setField(listener, "batchSize", 1);
+        listener.init();
+    }
+
+    @Test
+    void testSessionIdFromKey_OnlySessionHashesQualify() {
+        assertEquals("abc-123", SessionExpiryListener.sessionIdFromKey("user_sessions:abc-123"));
+        assertNull(SessionExpiryListener.sessionIdFromKey("user_sessions:by_user:user-1"));
+        assertNull(SessionExpiryListener.sessionIdFromKey("user_sessions:abc-123:idx"));
+        assertNull(SessionExpiryListener.sessionIdFromKey("revoked_tokens:abc-123"));
+        assertNull(SessionExpiryListener.sessionIdFromKey("user_sessions:"));
+    }
+
+    @Test
+    void testFlush_EndsQueuedSessionsInBatches() {
+        // Arrange
+        listener.onMessage(expired("user_sessions:session-1"), null);
+        listener.onMessage(expired("otp:+919876543210"), null);
+        listener.onMessage(expired("user_sessions:session-2"), null);
+
+        // Act
+        listener.flush();
+
+        // Assert
+        verify(sessionManagementService).endExpiredSessions(List.of("session-1"));
+        verify(sessionManagementService).endExpiredSessions(List.of("session-2"));
+        assertEquals(0, listener.getPendingCount());
+    }
+
+    @Test
+    void testOnMessage_QueueFull_DropsEvent() {
+        // Act
+        listener.onMessage(expired("user_sessions:session-1"), null);
+        listener.onMessage(expired("user_sessions:session-2"), null);
+        listener.onMessage(expired("user_sessions:session-3"), null);
+
+        // Assert
+        assertEquals(2, listener.getPendingCount());
+    }
+
+    @Test
+    void testFlush_EmptyQueue_NoUpdate() {
+        // Act
+        listener.flush();
+
+        // Assert
+        verify(sessionManagementService, never()).endExpiredSessions(anyCollection());
+    }
+
+    private DefaultMessage expired(String key) {
+        return new DefaultMessage("__keyevent@0__:expired".getBytes(StandardCharsets.UTF_8),
+                key.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,279 @@
+package com.officemate.modules.auth.service;
+
+import com.officemate.config.JwtConfig;
+import com.officemate.config.security.TokenValidationCache;
+import com.officemate.shared.dto.TokenValidation;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for JwtTokenCodec.
+ * Tests signing, parsing, kid-based key lookup, key rotation and rejection of the default secret with a keyring.
+ */
+class JwtTokenCodecTest {
+
+    private static final String SECRET = "test-secret-key-for-testing-only-must-be-at-least-256-bits-long";
+    // Default of app.security.jwt.secret in application.yml
+    private static final String DEFAULT_SECRET = "changeme-this-is-a-development-secret-key-only";
+
+    private final TokenValidationCache tokenValidationCache = new TokenValidationCache();
+
+    private JwtTokenCodec codec;
+
+    @BeforeEach
+    void setUp() {
+        JwtConfig jwtConfig = new JwtConfig();
+        ReflectionTestUtils.setField(jwtConfig, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtConfig, "algorithm", "HS256");
+
+        codec = new JwtTokenCodec(jwtConfig, tokenValidationCache);
+        codec.init();
+    }
+
+    @Test
+    void testBuilderAndParse_RoundTrip() {
+        // Act
+        String token = issue("user-1");
+        Claims claims = codec.parse(token);
+
+        // Assert
+        assertEquals("user-1", claims.getSubject());
+        assertEquals(codec.getSigningKeyId(),
+                Jwts.parser().verifyWith(hmacKey(SECRET)).build().parseSignedClaims(token).getHeader().getKeyId());
+    }
+
+    @Test
+    void testParse_TokenWithoutKeyId_UsesConfiguredKey() {
+        // Arrange - token issued before kid headers were added
+        String legacyToken = Jwts.builder()
+                .subject("legacy-user")
+                .expiration(new Date(System.currentTimeMillis() + 60000))
+                .signWith(hmacKey(SECRET))
+                .compact();
+
+        // Act
+        Claims claims = codec.parse(legacyToken);
+
+        // Assert
+        assertEquals("legacy-user", claims.getSubject());
+    }
+
+    @Test
+    void testRotate_OldTokensStillValid_NewTokensUseNewKey() {
+        // Arrange
+        String oldKeyId = codec.getSigningKeyId();
+        String oldToken = issue("user-1");
+        SecretKey newKey = hmacKey("rotated-secret-key-for-testing-only-must-be-at-least-256-bits");
+
+        // Act
+        codec.rotate("key-2", newKey, newKey);
+        String newToken = issue("user-2");
+
+        // Assert
+        assertEquals("key-2", codec.getSigningKeyId());
+        assertTrue(codec.getVerificationKeyIds().contains(oldKeyId));
+        assertEquals("user-1", codec.parse(oldToken).getSubject());
+        assertEquals("user-2", codec.parse(newToken).getSubject());
+    }
+
+    @Test
+    void testRetire_TokensSignedWithRetiredKeyRejected() {
+        // Arrange
+        String oldKeyId = codec.getSigningKeyId();
+        String oldToken = issue("user-1");
+        SecretKey newKey = hmacKey("rotated-secret-key-for-testing-only-must-be-at-least-256-bits");
+        codec.rotate("key-2", newKey, newKey);
+
+        // Act
+        codec.retire(oldKeyId);
+
+        // Assert
+        assertFalse(codec.getVerificationKeyIds().contains(oldKeyId));
+        assertThrows(JwtException.class, () -> codec.parse(oldToken));
+        assertEquals("user-2", codec.parse(issue("user-2")).getSubject());
+    }
+
+    @Test
+    void testRetire_ActiveSigningKey_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> codec.retire(codec.getSigningKeyId()));
+    }
+
+    @Test
+    void testParse_UnknownKeyId_Rejected() {
+        // Arrange
+        String token = Jwts.builder()
+                .header().keyId("unknown").and()
+                .subject("user-1")
+                .signWith(hmacKey(SECRET))
+                .compact();
+
+        // Act & Assert
+        assertThrows(JwtException.class, () -> codec.parse(token));
+    }
+
+    @Test
+    void testKeyring_NewestKeySignsAndOlderKeysVerify() {
+        // Arrange
+        JwtConfig jwtConfig = keyringConfig(
+                keyEntry("2026-01", "keyring-secret-january-for-testing-only-at-least-256-bits", "2026-01-01T00:00:00Z", null),
+                keyEntry("2026-04", "keyring-secret-april-for-testing-only-must-be-at-least-256-bits", "2026-04-01T00:00:00Z", null));
+        JwtTokenCodec januaryOnly = new JwtTokenCodec(keyringConfig(
+                keyEntry("2026-01", "keyring-secret-january-for-testing-only-at-least-256-bits", "2026-01-01T00:00:00Z", null)), tokenValidationCache);
+        januaryOnly.init();
+        String januaryToken = januaryOnly.builder().subject("user-1").compact();
+
+        // Act
+        JwtTokenCodec keyringCodec = new JwtTokenCodec(jwtConfig, tokenValidationCache);
+        keyringCodec.init();
+
+        // Assert
+        assertEquals("2026-04", keyringCodec.getSigningKeyId());
+        assertEquals("user-1", keyringCodec.parse(januaryToken).getSubject());
+        assertEquals("user-2", keyringCodec.parse(keyringCodec.builder().subject("user-2").compact()).getSubject());
+    }
+
+    @Test
+    void testKeyring_ExpiredKeysAgeOut() throws InterruptedException {
+        // Arrange
+        Instant notAfter = Instant.now().plusMillis(200);
+        JwtConfig.KeyEntry retiring = keyEntry("old", "keyring-secret-old-for-testing-only-must-be-at-least-256-bits",
+                "2026-01-01T00:00:00Z", notAfter.toString());
+        JwtConfig.KeyEntry current = keyEntry("new", "keyring-secret-new-for-testing-only-must-be-at-least-256-bits",
+                "2026-04-01T00:00:00Z", null);
+        JwtTokenCodec keyringCodec = new JwtTokenCodec(keyringConfig(retiring, current), tokenValidationCache);
+        keyringCodec.init();
+        assertTrue(keyringCodec.getVerificationKeyIds().contains("old"));
+
+        // Act
+        awaitExpiry(notAfter);
+        keyringCodec.retireExpiredKeys();
+
+        // Assert
+        assertFalse(keyringCodec.getVerificationKeyIds().contains("old"));
+        assertEquals("new", keyringCodec.getSigningKeyId());
+    }
+
+    @Test
+    void testKeyring_TokensSignedWithDefaultSecretRejected() {
+        // Arrange - RS256 (the default algorithm) and HS256 keyrings, both with the default secret still set
+        for (String algorithm : List.of("RS256", "HS256")) {
+            JwtConfig jwtConfig = keyringConfig(algorithm, DEFAULT_SECRET,
+                    keyEntry("2026-04", "keyring-secret-april-for-testing-only-must-be-at-least-256-bits", "2026-04-01T00:00:00Z", null));
+            JwtTokenCodec keyringCodec = new JwtTokenCodec(jwtConfig, tokenValidationCache);
+            keyringCodec.init();
+            SecretKey defaultKey = hmacKey(DEFAULT_SECRET);
+            String withoutKeyId = Jwts.builder().subject("attacker").signWith(defaultKey).compact();
+            String withDerivedKeyId = Jwts.builder()
+                    .header().keyId(JwtTokenCodec.keyIdFor(defaultKey)).and()
+                    .subject("attacker")
+                    .signWith(defaultKey)
+                    .compact();
+
+            // Act & Assert
+            assertEquals(Set.of("2026-04"), keyringCodec.getVerificationKeyIds(), algorithm);
+            assertThrows(JwtException.class, () -> keyringCodec.parse(withoutKeyId), algorithm);
+            assertThrows(JwtException.class, () -> keyringCodec.parse(withDerivedKeyId), algorithm);
+        }
+    }
+
+    @Test
+    void testRetire_ClearsTokenValidationCache() {
+        // Arrange
+        String oldKeyId = codec.getSigningKeyId();
+        String oldToken = issue("user-1");
+        tokenValidationCache.put(oldToken, TokenValidation.builder()
+                .valid(true)
+                .userId("user-1")
+                .expiresAt(LocalDateTime.now().plusMinutes(5))
+                .build());
+        SecretKey newKey = hmacKey("rotated-secret-key-for-testing-only-must-be-at-least-256-bits");
+        codec.rotate("key-2", newKey, newKey);
+
+        // Act
+        codec.retire(oldKeyId);
+
+        // Assert
+        assertNull(tokenValidationCache.get(oldToken));
+    }
+
+    @Test
+    void testRetireExpiredKeys_ClearsTokenValidationCache() throws InterruptedException {
+        // Arrange
+        Instant notAfter = Instant.now().plusMillis(200);
+        JwtConfig.KeyEntry retiring = keyEntry("old", "keyring-secret-old-for-testing-only-must-be-at-least-256-bits",
+                "2026-01-01T00:00:00Z", notAfter.toString());
+        JwtConfig.KeyEntry current = keyEntry("new", "keyring-secret-new-for-testing-only-must-be-at-least-256-bits",
+                "2026-04-01T00:00:00Z", null);
+        JwtTokenCodec keyringCodec = new JwtTokenCodec(keyringConfig(retiring, current), tokenValidationCache);
+        keyringCodec.init();
+        String oldToken = Jwts.builder().header().keyId("old").and().subject("user-1")
+                .signWith(hmacKey("keyring-secret-old-for-testing-only-must-be-at-least-256-bits")).compact();
+        tokenValidationCache.put(oldToken, TokenValidation.builder()
+                .valid(true)
+                .userId("user-1")
+                .expiresAt(LocalDateTime.now().plusMinutes(5))
+                .build());
+
+        // Act
+        awaitExpiry(notAfter);
+        keyringCodec.retireExpiredKeys();
+
+        // Assert
+        assertNull(tokenValidationCache.get(oldToken));
+        assertThrows(JwtException.class, () -> keyringCodec.parse(oldToken));
+    }
+
+    private JwtConfig keyringConfig(JwtConfig.KeyEntry... entries) {
+        return keyringConfig("HS256", SECRET, entries);
+    }
+
+    private JwtConfig keyringConfig(String algorithm, String secret, JwtConfig.KeyEntry... entries) {
+        JwtConfig jwtConfig = new JwtConfig();
+        ReflectionTestUtils.setField(jwtConfig, "secret", secret);
+        ReflectionTestUtils.setField(jwtConfig, "algorithm", algorithm);
+        jwtConfig.setKeys(List.of(entries));
+        jwtConfig.init();
+        return jwtConfig;
+    }
+
+    private JwtConfig.KeyEntry keyEntry(String kid, String secret, String createdAt, String notAfter) {
+        JwtConfig.KeyEntry entry = new JwtConfig.KeyEntry();
+        entry.setKid(kid);
+        entry.setSecret(secret);
+        entry.setCreatedAt(Instant.parse(createdAt));
+        entry.setNotAfter(notAfter != null ? Instant.parse(notAfter) : null);
+        return entry;
+    }
+
+    private void awaitExpiry(Instant notAfter) throws InterruptedException {
+        while (!Instant.now().isAfter(notAfter)) {
+            Thread.sleep(20);
+        }
+    }
+
+    private String issue(String subject) {
+        return codec.builder()
+                .subject(subject)
+                .expiration(new Date(System.currentTimeMillis() + 60000))
+                .compact();
+    }
+
+    private SecretKey hmacKey(String secret) {
+        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,7 +1,7 @@
 package com.officemate.modules.auth.service;
 
 import com.officemate.modules.auth.entity.OTPRecord;
-import com.officemate.modules.auth.repository.OTPRepository;
+import com.officemate.modules.auth.repository.OTPStore;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -28,7 +28,7 @@ import static org.mockito.Mockito.lenient;
 class OTPServiceTest {
 
     @Mock
-    private OTPRepository otpRepository;
+    private OTPStore otpStore;
 
     @Mock
     private RedisTemplate<String, String> redisTemplate;
@@ -57,7 +57,7 @@ class OTPServiceTest {
         String phoneNumber = "+1234567890";
         when(valueOperations.get(anyString())).thenReturn(null); // No rate limit
         when(valueOperations.increment(anyString())).thenReturn(1L);
-        when(otpRepository.save(any(OTPRecord.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(otpStore.save(any(OTPRecord.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // Act
         String otp = otpService.generateMobileOTP(phoneNumber);
@@ -66,7 +66,7 @@ class OTPServiceTest {
         assertNotNull(otp);
         assertEquals(6, otp.length());
         assertTrue(otp.matches("\\d{6}")); // Should be 6 digits
-        verify(otpRepository, times(1)).save(any(OTPRecord.class));
+        verify(otpStore, times(1)).save(any(OTPRecord.class));
         verify(valueOperations, times(1)).increment(anyString());
     }
 
@@ -76,7 +76,7 @@ class OTPServiceTest {
         String email = "user@company.com";
         when(valueOperations.get(anyString())).thenReturn(null); // No rate limit
         when(valueOperations.increment(anyString())).thenReturn(1L);
-        when(otpRepository.save(any(OTPRecord.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(otpStore.save(any(OTPRecord.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // Act
         String otp = otpService.generateEmailOTP(email);
@@ -85,7 +85,7 @@ class OTPServiceTest {
         assertNotNull(otp);
         assertEquals(6, otp.length());
         assertTrue(otp.matches("\\d{6}")); // Should be 6 digits
-        verify(otpRepository, times(1)).save(any(OTPRecord.class));
+        verify(otpStore, times(1)).save(any(OTPRecord.class));
         verify(valueOperations, times(1)).increment(anyString());
     }
 
@@ -101,7 +101,7 @@ class OTPServiceTest {
         });
 
         assertTrue(exception.getMessage().contains("Too many OTP requests"));
-        verify(otpRepository, never()).save(any(OTPRecord.class));
+        verify(otpStore, never()).save(any(OTPRecord.class));
     }
 
     @Test
@@ -122,15 +122,15 @@ class OTPServiceTest {
                 .type(OTPRecord.OTPType.MOBILE)
                 .build();
 
-        when(otpRepository.findByKey(key)).thenReturn(Optional.of(otpRecord));
-        when(otpRepository.save(any(OTPRecord.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(otpStore.findByKey(key)).thenReturn(Optional.of(otpRecord));
+        when(otpStore.save(any(OTPRecord.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // Act
         boolean result = otpService.verifyMobileOTP(phoneNumber, otp);
 
         // Assert
         assertTrue(result);
-        verify(otpRepository, times(1)).save(any(OTPRecord.class));
+        verify(otpStore, times(1)).save(any(OTPRecord.class));
     }
 
     @Test
@@ -151,15 +151,15 @@ class OTPServiceTest {
                 .type(OTPRecord.OTPType.MOBILE)
                 .build();
 
-        when(otpRepository.findByKey(key)).thenReturn(Optional.of(otpRecord));
-        when(otpRepository.save(any(OTPRecord.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(otpStore.findByKey(key)).thenReturn(Optional.of(otpRecord));
+        when(otpStore.save(any(OTPRecord.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // Act
         boolean result = otpService.verifyMobileOTP(phoneNumber, wrongOtp);
 
         // Assert
         assertFalse(result);
-        verify(otpRepository, times(1)).save(any(OTPRecord.class));
+        verify(otpStore, times(1)).save(any(OTPRecord.class));
     }
 
     @Test
@@ -169,7 +169,7 @@ class OTPServiceTest {
         String otp = "123456";
         String key = "phone:" + phoneNumber;
 
-        when(otpRepository.findByKey(key)).thenReturn(Optional.empty());
+        when(otpStore.findByKey(key)).thenReturn(Optional.empty());
 
         // Act & Assert
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
@@ -196,7 +196,7 @@ class OTPServiceTest {
                 .type(OTPRecord.OTPType.MOBILE)
                 .build();
 
-        when(otpRepository.findByKey(key)).thenReturn(Optional.of(otpRecord));
+        when(otpStore.findByKey(key)).thenReturn(Optional.of(otpRecord));
 
         // Act & Assert
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
@@ -204,7 +204,7 @@ class OTPServiceTest {
         });
 
         assertTrue(exception.getMessage().contains("OTP expired"));
-        verify(otpRepository, times(1)).delete(otpRecord);
+        verify(otpStore, times(1)).delete(otpRecord);
     }
 
     @Test
@@ -224,7 +224,7 @@ class OTPServiceTest {
                 .type(OTPRecord.OTPType.MOBILE)
                 .build();
 
-        when(otpRepository.findByKey(key)).thenReturn(Optional.of(otpRecord));
+        when(otpStore.findByKey(key)).thenReturn(Optional.of(otpRecord));
 
         // Act & Assert
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
@@ -232,7 +232,7 @@ class OTPServiceTest {
         });
 
         assertTrue(exception.getMessage().contains("Maximum verification attempts exceeded"));
-        verify(otpRepository, times(1)).delete(otpRecord);
+        verify(otpStore, times(1)).delete(otpRecord);
     }
 
     @Test
@@ -252,7 +252,7 @@ class OTPServiceTest {
                 .type(OTPRecord.OTPType.MOBILE)
                 .build();
 
-        when(otpRepository.findByKey(key)).thenReturn(Optional.of(otpRecord));
+        when(otpStore.findByKey(key)).thenReturn(Optional.of(otpRecord));
 
         // Act & Assert
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
@@ -271,7 +271,7 @@ class OTPServiceTest {
         otpService.deleteMobileOTP(phoneNumber);
 
         // Assert
-        verify(otpRepository, times(1)).deleteByKey("phone:" + phoneNumber);
+        verify(otpStore, times(1)).deleteByKey("phone:" + phoneNumber);
     }
 
     @Test
@@ -290,7 +290,7 @@ class OTPServiceTest {
                 .type(OTPRecord.OTPType.MOBILE)
                 .build();
 
-        when(otpRepository.findByKey(key)).thenReturn(Optional.of(otpRecord));
+        when(otpStore.findByKey(key)).thenReturn(Optional.of(otpRecord));
 
         // Act
         boolean result = otpService.hasValidOTP(phoneNumber);
@@ -315,7 +315,7 @@ class OTPServiceTest {
                 .type(OTPRecord.OTPType.MOBILE)
                 .build();
 
-        when(otpRepository.findByKey(key)).thenReturn(Optional.of(otpRecord));
+        when(otpStore.findByKey(key)).thenReturn(Optional.of(otpRecord));
 
         // Act
         boolean result = otpService.hasValidOTP(phoneNumber);
@@ -1,32 +1,43 @@
 package com.officemate.modules.auth.service;
 
 import com.officemate.config.JwtConfig;
+import com.officemate.config.security.TokenValidationCache;
+import com.officemate.config.properties.SessionProperties;
+import com.officemate.modules.auth.entity.RevokedToken;
 import com.officemate.modules.auth.entity.SessionMetadata;
 import com.officemate.modules.auth.entity.UserAccount;
 import com.officemate.modules.auth.entity.UserSession;
-import com.officemate.modules.auth.repository.RevokedTokenRepository;
+import com.officemate.modules.auth.repository.RevokedTokenStore;
 import com.officemate.modules.auth.repository.SessionMetadataRepository;
-import com.officemate.modules.auth.repository.UserSessionRepository;
+import com.officemate.modules.auth.repository.SessionRevocationRepository;
+import com.officemate.modules.auth.repository.UserSessionStore;
 import com.officemate.shared.dto.DeviceInfo;
 import com.officemate.shared.dto.SessionTokens;
 import com.officemate.shared.dto.TokenValidation;
 import com.officemate.shared.enums.AccountStatus;
+import com.officemate.shared.enums.Permission;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -37,15 +48,19 @@ import static org.mockito.Mockito.*;
 class SessionManagementServiceTest {
 
     @Mock
-    private UserSessionRepository sessionRepository;
+    private UserSessionStore sessionStore;
 
     @Mock
     private SessionMetadataRepository sessionMetadataRepository;
 
     @Mock
-    private RevokedTokenRepository revokedTokenRepository;
+    private RevokedTokenStore revokedTokenStore;
+
+    @Mock
+    private SessionRevocationRepository sessionRevocationRepository;
 
     private JwtConfig jwtConfig;
+    private JwtTokenCodec jwtTokenCodec;
     private SessionManagementService sessionManagementService;
     private UserAccount testUserAccount;
     private DeviceInfo testDeviceInfo;
@@ -60,12 +75,18 @@ class SessionManagementServiceTest {
         ReflectionTestUtils.setField(jwtConfig, "algorithm", "HS256"); // Use HMAC for testing
         ReflectionTestUtils.setField(jwtConfig, "issuer", "officemate-test");
 
+        jwtTokenCodec = new JwtTokenCodec(jwtConfig, new TokenValidationCache());
+        jwtTokenCodec.init();
+
         // Create service with mocked repositories
         sessionManagementService = new SessionManagementService(
             jwtConfig, 
-            sessionRepository, 
+            jwtTokenCodec,
+            new SessionProperties(),
+            sessionStore, 
             sessionMetadataRepository,
-            revokedTokenRepository
+            revokedTokenStore,
+            sessionRevocationRepository
         );
 
         // Create test user account
@@ -92,7 +113,7 @@ class SessionManagementServiceTest {
     @Test
     void testCreateSession_Success() {
         // Arrange
-        when(sessionRepository.save(any(UserSession.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(sessionStore.save(any(UserSession.class))).thenAnswer(invocation -> invocation.getArgument(0));
         when(sessionMetadataRepository.save(any(SessionMetadata.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // Act
@@ -106,14 +127,14 @@ class SessionManagementServiceTest {
         assertNotNull(tokens.getExpiresAt());
         assertEquals(testUserAccount.getUserId().toString(), tokens.getUserId());
         assertEquals(3, tokens.getAccessToken().split("\\.").length); // JWT has 3 parts
-        verify(sessionRepository).save(any(UserSession.class));
+        verify(sessionStore).save(any(UserSession.class));
         verify(sessionMetadataRepository).save(any(SessionMetadata.class));
     }
 
     @Test
     void testCreateSession_WithNullDeviceInfo_Success() {
         // Arrange
-        when(sessionRepository.save(any(UserSession.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(sessionStore.save(any(UserSession.class))).thenAnswer(invocation -> invocation.getArgument(0));
         when(sessionMetadataRepository.save(any(SessionMetadata.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // Act
@@ -123,15 +144,15 @@ class SessionManagementServiceTest {
         assertNotNull(tokens);
         assertNotNull(tokens.getAccessToken());
         assertNotNull(tokens.getRefreshToken());
-        verify(sessionRepository).save(any(UserSession.class));
+        verify(sessionStore).save(any(UserSession.class));
     }
 
     @Test
     void testGenerateAccessToken_IncludesPermissions() {
         // Arrange
-        when(sessionRepository.save(any(UserSession.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(sessionStore.save(any(UserSession.class))).thenAnswer(invocation -> invocation.getArgument(0));
         when(sessionMetadataRepository.save(any(SessionMetadata.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        when(revokedTokenRepository.existsById(anyString())).thenReturn(false);
+        when(revokedTokenStore.existsById(anyString())).thenReturn(false);
 
         // Act
         SessionTokens tokens = sessionManagementService.createSession(testUserAccount, testDeviceInfo);
@@ -139,18 +160,17 @@ class SessionManagementServiceTest {
 
         // Assert
         assertTrue(validation.isValid());
-        assertNotNull(validation.getPermissions());
-        assertTrue(validation.getPermissions().contains("MOBILE_VERIFIED"));
-        assertFalse(validation.getPermissions().contains("EMAIL_VERIFIED"));
+        assertTrue(validation.hasPermission(Permission.MOBILE_VERIFIED));
+        assertFalse(validation.hasPermission(Permission.EMAIL_VERIFIED));
     }
 
     @Test
     void testGenerateAccessToken_WithFullVerification_IncludesAllPermissions() {
         // Arrange
         testUserAccount.verifyEmail(); // This also sets account to ACTIVE
-        when(sessionRepository.save(any(UserSession.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(sessionStore.save(any(UserSession.class))).thenAnswer(invocation -> invocation.getArgument(0));
         when(sessionMetadataRepository.save(any(SessionMetadata.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        when(revokedTokenRepository.existsById(anyString())).thenReturn(false);
+        when(revokedTokenStore.existsById(anyString())).thenReturn(false);
 
         // Act
         SessionTokens tokens = sessionManagementService.createSession(testUserAccount, testDeviceInfo);
@@ -160,11 +180,38 @@ class SessionManagementServiceTest {
         assertTrue(validation.isValid());
         assertTrue(validation.isMobileVerified());
         assertTrue(validation.isEmailVerified());
-        assertTrue(validation.getPermissions().contains("MOBILE_VERIFIED"));
-        assertTrue(validation.getPermissions().contains("EMAIL_VERIFIED"));
-        assertTrue(validation.getPermissions().contains("FULLY_VERIFIED"));
-        assertTrue(validation.getPermissions().contains("ACCESS_RIDE_FEATURES"));
-        assertTrue(validation.getPermissions().contains("ACCOUNT_ACTIVE"));
+        assertTrue(validation.hasPermission(Permission.MOBILE_VERIFIED));
+        assertTrue(validation.hasPermission(Permission.EMAIL_VERIFIED));
+        assertTrue(validation.hasPermission(Permission.FULLY_VERIFIED));
+        assertTrue(validation.hasPermission(Permission.ACCESS_RIDE_FEATURES));
+        assertTrue(validation.hasPermission(Permission.ACCOUNT_ACTIVE));
+    }
+
+    @Test
+    void testValidateToken_LegacyPermissionListClaim_MapsToMask() {
+        // Arrange
+        when(revokedTokenStore.existsById(anyString())).thenReturn(false);
+        String legacyToken = jwtTokenCodec.builder()
+                .claims(Map.of(
+                        "sessionId", "session-1",
+                        "mobileVerified", true,
+                        "emailVerified", false,
+                        "permissions", List.of("MOBILE_VERIFIED", "ACCOUNT_ACTIVE"),
+                        "tokenType", "ACCESS"))
+                .subject("user-1")
+                .issuer("officemate-test")
+                .id(UUID.randomUUID().toString())
+                .compact();
+
+        // Act
+        TokenValidation validation = sessionManagementService.validateToken(legacyToken);
+
+        // Assert
+        assertTrue(validation.isValid());
+        assertTrue(validation.isMobileVerified());
+        assertFalse(validation.isEmailVerified());
+        assertEquals(Permission.MOBILE_VERIFIED.mask() | Permission.ACCOUNT_ACTIVE.mask(),
+                validation.getPermissions());
     }
 
     // ========== Token Validation Tests ==========
@@ -172,10 +219,10 @@ class SessionManagementServiceTest {
     @Test
     void testValidateToken_ValidToken_Success() {
         // Arrange
-        when(sessionRepository.save(any(UserSession.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(sessionStore.save(any(UserSession.class))).thenAnswer(invocation -> invocation.getArgument(0));
         when(sessionMetadataRepository.save(any(SessionMetadata.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        when(revokedTokenRepository.existsById(anyString())).thenReturn(false);
-        when(sessionRepository.findById(anyString())).thenReturn(Optional.empty());
+        when(revokedTokenStore.existsById(anyString())).thenReturn(false);
+        when(sessionStore.touch(anyString(), anyString(), anyLong())).thenReturn(false);
 
         SessionTokens tokens = sessionManagementService.createSession(testUserAccount, testDeviceInfo);
 
@@ -187,18 +234,17 @@ class SessionManagementServiceTest {
         assertEquals(testUserAccount.getUserId().toString(), validation.getUserId());
         assertTrue(validation.isMobileVerified());
         assertFalse(validation.isEmailVerified());
-        assertNotNull(validation.getPermissions());
-        assertTrue(validation.getPermissions().contains("MOBILE_VERIFIED"));
+        assertTrue(validation.hasPermission(Permission.MOBILE_VERIFIED));
     }
 
     @Test
     void testValidateToken_RevokedToken_ReturnsFalse() {
         // Arrange
-        when(sessionRepository.save(any(UserSession.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(sessionStore.save(any(UserSession.class))).thenAnswer(invocation -> invocation.getArgument(0));
         when(sessionMetadataRepository.save(any(SessionMetadata.class))).thenAnswer(invocation -> invocation.getArgument(0));
         SessionTokens tokens = sessionManagementService.createSession(testUserAccount, testDeviceInfo);
         
-        when(revokedTokenRepository.existsById(anyString())).thenReturn(true);
+        when(revokedTokenStore.existsById(anyString())).thenReturn(true);
 
         // Act
         TokenValidation validation = sessionManagementService.validateToken(tokens.getAccessToken());
@@ -233,7 +279,7 @@ class SessionManagementServiceTest {
     @Test
     void testRefreshSession_ValidRefreshToken_Success() {
         // Arrange
-        when(sessionRepository.save(any(UserSession.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(sessionStore.save(any(UserSession.class))).thenAnswer(invocation -> invocation.getArgument(0));
         when(sessionMetadataRepository.save(any(SessionMetadata.class))).thenAnswer(invocation -> invocation.getArgument(0));
         SessionTokens originalTokens = sessionManagementService.createSession(testUserAccount, testDeviceInfo);
         
@@ -245,8 +291,8 @@ class SessionManagementServiceTest {
                 .emailVerified(false)
                 .build();
         
-        when(sessionRepository.findById(originalTokens.getSessionId())).thenReturn(Optional.of(mockSession));
-        when(revokedTokenRepository.existsById(anyString())).thenReturn(false);
+        when(sessionStore.findById(originalTokens.getSessionId())).thenReturn(Optional.of(mockSession));
+        when(revokedTokenStore.existsById(anyString())).thenReturn(false);
 
         // Act
         SessionTokens refreshedTokens = sessionManagementService.refreshSession(
@@ -259,13 +305,13 @@ class SessionManagementServiceTest {
         assertNotNull(refreshedTokens.getAccessToken());
         assertEquals(originalTokens.getRefreshToken(), refreshedTokens.getRefreshToken());
         assertEquals(originalTokens.getSessionId(), refreshedTokens.getSessionId());
-        verify(sessionRepository, atLeastOnce()).save(any(UserSession.class));
+        verify(sessionStore, atLeastOnce()).save(any(UserSession.class));
     }
 
     @Test
     void testRefreshSession_UpdatesVerificationStatus() {
         // Arrange
-        when(sessionRepository.save(any(UserSession.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(sessionStore.save(any(UserSession.class))).thenAnswer(invocation -> invocation.getArgument(0));
         when(sessionMetadataRepository.save(any(SessionMetadata.class))).thenAnswer(invocation -> invocation.getArgument(0));
         SessionTokens originalTokens = sessionManagementService.createSession(testUserAccount, testDeviceInfo);
         
@@ -280,8 +326,8 @@ class SessionManagementServiceTest {
                 .emailVerified(false)
                 .build();
         
-        when(sessionRepository.findById(originalTokens.getSessionId())).thenReturn(Optional.of(mockSession));
-        when(revokedTokenRepository.existsById(anyString())).thenReturn(false);
+        when(sessionStore.findById(originalTokens.getSessionId())).thenReturn(Optional.of(mockSession));
+        when(revokedTokenStore.existsById(anyString())).thenReturn(false);
 
         // Act
         SessionTokens refreshedTokens = sessionManagementService.refreshSession(
@@ -305,14 +351,14 @@ class SessionManagementServiceTest {
                 .refreshToken("mock.refresh.token")
                 .build();
         
-        when(sessionRepository.findById(sessionId)).thenReturn(Optional.of(mockSession));
+        when(sessionStore.findById(sessionId)).thenReturn(Optional.of(mockSession));
         when(sessionMetadataRepository.findBySessionId(sessionId)).thenReturn(Optional.empty());
 
         // Act
         sessionManagementService.revokeSession(sessionId);
 
         // Assert
-        verify(sessionRepository).deleteById(sessionId);
+        verify(sessionStore).delete(mockSession);
     }
 
     @Test
@@ -330,22 +376,85 @@ class SessionManagementServiceTest {
                 .refreshToken("refresh.token.2")
                 .build();
         
-        when(sessionRepository.findByUserId(userId)).thenReturn(Arrays.asList(session1, session2));
-        when(sessionMetadataRepository.findBySessionId(anyString())).thenReturn(Optional.empty());
+        when(sessionStore.findByUserId(userId)).thenReturn(Arrays.asList(session1, session2));
 
         // Act
         sessionManagementService.revokeAllSessions(userId);
 
         // Assert
-        verify(sessionRepository).deleteByUserId(userId);
-        verify(sessionRepository).findByUserId(userId);
+        verify(sessionStore).findByUserId(userId);
+        verify(sessionRevocationRepository).revokeAndDelete(anyList(), eq(Arrays.asList(session1, session2)));
+        verify(sessionMetadataRepository).endSessions(
+                eq(Arrays.asList("session-1", "session-2")), eq("SECURITY_EVENT"), any(LocalDateTime.class));
+        verify(sessionMetadataRepository, never()).findBySessionId(anyString());
+    }
+
+    @Test
+    void testRevokeAllSessions_MultipleUsers_SingleBatch() {
+        // Arrange
+        when(sessionStore.save(any(UserSession.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(sessionMetadataRepository.save(any(SessionMetadata.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        sessionManagementService.createSession(testUserAccount, testDeviceInfo);
+        ArgumentCaptor<UserSession> sessionCaptor = ArgumentCaptor.forClass(UserSession.class);
+        verify(sessionStore).save(sessionCaptor.capture());
+        UserSession storedSession = sessionCaptor.getValue();
+        UserSession otherSession = UserSession.builder()
+                .sessionId("other-session")
+                .userId("other-user")
+                .refreshToken("refresh.token.other")
+                .build();
+
+        when(sessionStore.findByUserId(storedSession.getUserId())).thenReturn(List.of(storedSession));
+        when(sessionStore.findByUserId("other-user")).thenReturn(List.of(otherSession));
+
+        // Act
+        int revoked = sessionManagementService.revokeAllSessions(
+                List.of(storedSession.getUserId(), "other-user"), "Incident response");
+
+        // Assert
+        assertEquals(2, revoked);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<RevokedToken>> tokensCaptor = ArgumentCaptor.forClass(List.class);
+        verify(sessionRevocationRepository, times(1)).revokeAndDelete(tokensCaptor.capture(), anyList());
+        assertEquals(1, tokensCaptor.getValue().size());
+        assertEquals(storedSession.getRefreshTokenId(), tokensCaptor.getValue().get(0).getTokenId());
+        assertTrue(tokensCaptor.getValue().get(0).getTtl() > 0);
+        verify(sessionMetadataRepository, times(1)).endSessions(anyList(), eq("SECURITY_EVENT"), any(LocalDateTime.class));
+    }
+
+    @Test
+    void testCreateSession_ExceedsMaxConcurrentSessions_EvictsOldest() {
+        // Arrange
+        String userId = testUserAccount.getUserId().toString();
+        UserSession oldestSession = UserSession.builder()
+                .sessionId("oldest-session")
+                .userId(userId)
+                .refreshTokenId("oldest-refresh-jti")
+                .expiresAt(LocalDateTime.now().plusHours(1))
+                .build();
+
+        when(sessionStore.save(any(UserSession.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(sessionMetadataRepository.save(any(SessionMetadata.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(sessionStore.evictOldest(userId, 5)).thenReturn(List.of("oldest-session"));
+        when(sessionStore.findAllById(List.of("oldest-session"))).thenReturn(List.of(oldestSession));
+
+        // Act
+        sessionManagementService.createSession(testUserAccount, testDeviceInfo);
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<RevokedToken>> tokensCaptor = ArgumentCaptor.forClass(List.class);
+        verify(sessionRevocationRepository).revokeAndDelete(tokensCaptor.capture(), eq(List.of(oldestSession)));
+        assertEquals("oldest-refresh-jti", tokensCaptor.getValue().get(0).getTokenId());
+        verify(sessionMetadataRepository).endSessions(eq(List.of("oldest-session")), eq("MAX_SESSIONS_EXCEEDED"),
+                any(LocalDateTime.class));
     }
 
     @Test
     void testIsSessionActive_ActiveSession_ReturnsTrue() {
         // Arrange
         String sessionId = "active-session-id";
-        when(sessionRepository.existsById(sessionId)).thenReturn(true);
+        when(sessionStore.existsById(sessionId)).thenReturn(true);
 
         // Act
         boolean isActive = sessionManagementService.isSessionActive(sessionId);
@@ -358,7 +467,7 @@ class SessionManagementServiceTest {
     void testIsSessionActive_InactiveSession_ReturnsFalse() {
         // Arrange
         String sessionId = "inactive-session-id";
-        when(sessionRepository.existsById(sessionId)).thenReturn(false);
+        when(sessionStore.existsById(sessionId)).thenReturn(false);
 
         // Act
         boolean isActive = sessionManagementService.isSessionActive(sessionId);
@@ -384,14 +493,14 @@ class SessionManagementServiceTest {
                 .deviceType("IOS")
                 .build();
         
-        when(sessionRepository.findByUserId(userId)).thenReturn(Arrays.asList(session1, session2));
+        when(sessionStore.findByUserId(userId)).thenReturn(Arrays.asList(session1, session2));
 
         // Act
         List<UserSession> sessions = sessionManagementService.getUserSessions(userId);
 
         // Assert
         assertEquals(2, sessions.size());
-        verify(sessionRepository).findByUserId(userId);
+        verify(sessionStore).findByUserId(userId);
     }
 
     @Test
@@ -413,15 +522,15 @@ class SessionManagementServiceTest {
                 .refreshToken("refresh.token.2")
                 .build();
         
-        when(sessionRepository.findByUserId(userId)).thenReturn(Arrays.asList(session1, session2));
+        when(sessionStore.findByUserId(userId)).thenReturn(Arrays.asList(session1, session2));
         when(sessionMetadataRepository.findBySessionId(anyString())).thenReturn(Optional.empty());
 
         // Act
         sessionManagementService.revokeDeviceSessions(userId, deviceIdToRevoke);
 
         // Assert
-        verify(sessionRepository).deleteById("session-1");
-        verify(sessionRepository, never()).deleteById("session-2");
+        verify(sessionStore).delete(session1);
+        verify(sessionStore, never()).delete(session2);
     }
 
     @Test
@@ -503,7 +612,7 @@ class SessionManagementServiceTest {
                 .active(true)
                 .build();
         
-        when(sessionRepository.findById(sessionId)).thenReturn(Optional.of(mockSession));
+        when(sessionStore.findById(sessionId)).thenReturn(Optional.of(mockSession));
         when(sessionMetadataRepository.findBySessionId(sessionId)).thenReturn(Optional.of(mockMetadata));
 
         // Act
@@ -511,14 +620,14 @@ class SessionManagementServiceTest {
 
         // Assert
         verify(sessionMetadataRepository).save(any(SessionMetadata.class));
-        verify(sessionRepository).deleteById(sessionId);
+        verify(sessionStore).delete(mockSession);
     }
 
     @Test
     void testGetUserSessions_EmptyList_WhenNoSessions() {
         // Arrange
         String userId = testUserAccount.getUserId().toString();
-        when(sessionRepository.findByUserId(userId)).thenReturn(Collections.emptyList());
+        when(sessionStore.findByUserId(userId)).thenReturn(Collections.emptyList());
 
         // Act
         List<UserSession> sessions = sessionManagementService.getUserSessions(userId);
@@ -0,0 +1,127 @@
+package com.officemate.shared.aspect;
+
+import com.officemate.shared.service.AuditService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AuditAspect and AuditedMethodRegistry
+ */
+@ExtendWith(MockitoExtension.class)
+class AuditAspectTest {
+
+    @Mock
+    private AuditService auditService;
+
+    private AuditedMethodRegistry registry;
+    private SampleService service;
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        registry = new AuditedMethodRegistry();
+        SampleService target = new SampleService();
+        registry.postProcessAfterInitialization(target, "sampleService");
+
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new AuditAspect(auditService, registry));
+        service = factory.getProxy();
+        userId = UUID.randomUUID();
+    }
+
+    @Test
+    void testDescriptorsPrecomputedForAnnotatedMethodsOnly() {
+        assertEquals(3, registry.size());
+    }
+
+    @Test
+    void testCreateLogsEntityCreationWithResultId() {
+        SampleResult result = service.createThing("name", userId);
+
+        verify(auditService).logEntityCreation(userId, "Thing", result.id.toString(),
+                "Thing creation via SampleService.createThing");
+    }
+
+    @Test
+    void testUpdateLogsBulkChangeWithUserId() {
+        service.updateThing(userId);
+
+        verify(auditService).logBulkProfileChange(userId, "Thing", userId.toString(),
+                "Thing update via SampleService.updateThing", "Modification through SampleService");
+    }
+
+    @Test
+    void testUserIdReadFromArgumentField() {
+        service.updateFromRequest(new SampleRequest(userId));
+
+        verify(auditService).logBulkProfileChange(eq(userId), eq("Thing"), eq("UNKNOWN"), anyString(), anyString());
+    }
+
+    @Test
+    void testUnannotatedMethodNotAudited() {
+        service.getThing(userId);
+        service.createThingWithoutAudit(userId);
+
+        verifyNoInteractions(auditService);
+    }
+
+    @Test
+    void testFailedMethodNotAudited() {
+        assertThrows(IllegalStateException.class, () -> service.updateThing(null));
+
+        verifyNoInteractions(auditService);
+    }
+
+    static class SampleService {
+
+        @Audited(entityType = "Thing", action = Audited.Action.CREATE)
+        public SampleResult createThing(String name, UUID userId) {
+            return new SampleResult(UUID.randomUUID());
+        }
+
+        @Audited(entityType = "Thing", action = Audited.Action.UPDATE, entityId = Audited.EntityIdSource.USER_ID)
+        public void updateThing(UUID userId) {
+            if (userId == null) {
+                throw new IllegalStateException("No user");
+            }
+        }
+
+        @Audited(entityType = "Thing", action = Audited.Action.UPDATE)
+        public void updateFromRequest(SampleRequest request) {
+        }
+
+        public SampleResult getThing(UUID userId) {
+            return new SampleResult(userId);
+        }
+
+        public SampleResult createThingWithoutAudit(UUID userId) {
+            return new SampleResult(userId);
+        }
+    }
+
+    static class SampleResult {
+        private final UUID id;
+
+        SampleResult(UUID id) {
+            this.id = id;
+        }
+    }
+
+    static class SampleRequest {
+        private final UUID userId;
+
+        SampleRequest(UUID userId) {
+            this.userId = userId;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.officemate.shared.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.officemate.shared.entity.AuditLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AuditLogSink.
+ * Tests batched inserts, spilling on database failure without retrying the database until replay
+ * succeeds, replay and dropping when full.
+ */
+@ExtendWith(MockitoExtension.class)
+class AuditLogSinkTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    Path spillDirectory;
+
+    private AuditLogSink sink;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        sink = new AuditLogSink(jdbcTemplate, objectMapper);
+        ReflectionTestUtils.setField(sink, "capacity", 1024);
+        ReflectionTestUtils.setField(sink, "batchSize", 100);
+        ReflectionTestUtils.setField(sink, "flushIntervalMs", 10L);
+        ReflectionTestUtils.setField(sink, "spillDirectoryPath", spillDirectory.toString());
+        ReflectionTestUtils.setField(sink, "replayIntervalMs", 0L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sink.shutdown();
+    }
+
+    @Test
+    void testSubmit_WritesRecordsWithMultiRowInsert() {
+        // Arrange
+        sink.init();
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            assertTrue(sink.submit(auditLog()));
+        }
+
+        // Assert
+        verify(jdbcTemplate, timeout(2000).atLeastOnce())
+                .update(startsWith("INSERT INTO audit_logs"), any(Object[].class));
+    }
+
+    @Test
+    void testSubmit_AssignsIdAndTimestamp() {
+        sink.init();
+        AuditLog auditLog = AuditLog.builder().userId(UUID.randomUUID()).entityType("Wallet")
+                .entityId("w-1").action("CREATE").build();
+
+        sink.submit(auditLog);
+
+        assertNotNull(auditLog.getAuditId());
+        assertNotNull(auditLog.getTimestamp());
+    }
+
+    @Test
+    void testDatabaseDown_SpillsAndReplaysWhenBack() throws Exception {
+        // Arrange
+        when(jdbcTemplate.update(anyString(), any(Object[].class)))
+                .thenThrow(new DataAccessResourceFailureException("Connection refused"))
+                .thenReturn(1);
+        sink.init();
+
+        // Act
+        sink.submit(auditLog());
+
+        // Assert - first insert fails and is spilled, replay inserts it and deletes the file
+        verify(jdbcTemplate, timeout(2000).times(2)).update(anyString(), any(Object[].class));
+        waitUntil(() -> spilledFileCount() == 0);
+        assertEquals(0, spilledFileCount());
+    }
+
+    @Test
+    void testDatabaseDown_SpillsLaterBatchesWithoutDroppingRecords() throws Exception {
+        // Arrange - every insert waits for a connection timeout, then fails; no replay probe during the test
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenAnswer(invocation -> {
+            Thread.sleep(200);
+            throw new DataAccessResourceFailureException("Connection is not available, request timed out");
+        });
+        ReflectionTestUtils.setField(sink, "replayIntervalMs", 60_000L);
+        sink.init();
+        sink.submit(auditLog());
+        waitUntil(() -> spilledRecordCount() == 1);
+
+        // Act - 5000 more records in about half a second, far more than the buffer holds
+        int submitted = 5001;
+        for (int i = 1; i < submitted; i++) {
+            assertTrue(sink.submit(auditLog()));
+            if (i % 10 == 9) {
+                Thread.sleep(1);
+            }
+        }
+
+        // Assert - only the first batch tried the database, everything else is on disk
+        waitUntil(() -> spilledRecordCount() == submitted);
+        assertEquals(submitted, spilledRecordCount());
+        verify(jdbcTemplate, times(1)).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    void testInvalidRecord_SkippedWithoutSpilling() throws Exception {
+        // Arrange - batch insert and the single-row retry both violate a constraint
+        when(jdbcTemplate.update(anyString(), any(Object[].class)))
+                .thenThrow(new DataIntegrityViolationException("value too long"));
+        sink.init();
+
+        // Act
+        sink.submit(auditLog());
+
+        // Assert
+        verify(jdbcTemplate, timeout(2000).times(2)).update(anyString(), any(Object[].class));
+        assertEquals(0, spilledFileCount());
+    }
+
+    @Test
+    void testSubmit_BufferFull_DropsWithoutBlocking() {
+        // Arrange - writer stopped so nothing drains
+        ReflectionTestUtils.setField(sink, "capacity", 2);
+        sink.init();
+        sink.shutdown();
+
+        // Act
+        boolean first = sink.submit(auditLog());
+        boolean second = sink.submit(auditLog());
+        boolean third = sink.submit(auditLog());
+
+        // Assert
+        assertTrue(first);
+        assertTrue(second);
+        assertFalse(third);
+        assertEquals(1, sink.getDroppedCount());
+    }
+
+    private AuditLog auditLog() {
+        return AuditLog.builder()
+                .userId(UUID.randomUUID())
+                .entityType("UserProfile")
+                .entityId("profile-1")
+                .action("UPDATE")
+                .fieldName("firstName")
+                .oldValue("John")
+                .newValue("Jane")
+                .build();
+    }
+
+    private long spilledFileCount() throws IOException {
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            return files.count();
+        }
+    }
+
+    private long spilledRecordCount() throws IOException {
+        long records = 0;
+        try (Stream<Path> files = Files.list(spillDirectory)) {
+            for (Path file : files.toList()) {
+                records += Files.readAllLines(file).size();
+            }
+        }
+        return records;
+    }
+
+    private void waitUntil(CheckedCondition condition) throws Exception {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (!condition.met() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    @FunctionalInterface
+    private interface CheckedCondition {
+        boolean met() throws Exception;
+    }
+}
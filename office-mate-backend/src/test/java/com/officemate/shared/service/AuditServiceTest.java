@@ -1,7 +1,7 @@
 package com.officemate.shared.service;
 
+import com.officemate.shared.context.AuditContext;
 import com.officemate.shared.entity.AuditLog;
-import com.officemate.shared.repository.AuditLogRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -9,6 +9,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.MDC;
 
 import java.util.UUID;
 
@@ -23,7 +24,7 @@ import static org.mockito.Mockito.*;
 class AuditServiceTest {
 
     @Mock
-    private AuditLogRepository auditLogRepository;
+    private AuditLogSink auditLogSink;
 
     @InjectMocks
     private AuditService auditService;
@@ -50,7 +51,7 @@ class AuditServiceTest {
 
         // Then
         ArgumentCaptor<AuditLog> auditLogCaptor = ArgumentCaptor.forClass(AuditLog.class);
-        verify(auditLogRepository, timeout(1000)).save(auditLogCaptor.capture());
+        verify(auditLogSink).submit(auditLogCaptor.capture());
 
         AuditLog capturedLog = auditLogCaptor.getValue();
         assertEquals(testUserId, capturedLog.getUserId());
@@ -76,7 +77,7 @@ class AuditServiceTest {
 
         // Then
         ArgumentCaptor<AuditLog> auditLogCaptor = ArgumentCaptor.forClass(AuditLog.class);
-        verify(auditLogRepository, timeout(1000)).save(auditLogCaptor.capture());
+        verify(auditLogSink).submit(auditLogCaptor.capture());
 
         AuditLog capturedLog = auditLogCaptor.getValue();
         assertEquals(testUserId, capturedLog.getUserId());
@@ -99,7 +100,7 @@ class AuditServiceTest {
 
         // Then
         ArgumentCaptor<AuditLog> auditLogCaptor = ArgumentCaptor.forClass(AuditLog.class);
-        verify(auditLogRepository, timeout(1000)).save(auditLogCaptor.capture());
+        verify(auditLogSink).submit(auditLogCaptor.capture());
 
         AuditLog capturedLog = auditLogCaptor.getValue();
         assertEquals(testUserId, capturedLog.getUserId());
@@ -123,7 +124,7 @@ class AuditServiceTest {
 
         // Then
         ArgumentCaptor<AuditLog> auditLogCaptor = ArgumentCaptor.forClass(AuditLog.class);
-        verify(auditLogRepository, timeout(1000)).save(auditLogCaptor.capture());
+        verify(auditLogSink).submit(auditLogCaptor.capture());
 
         AuditLog capturedLog = auditLogCaptor.getValue();
         assertEquals(testUserId, capturedLog.getUserId());
@@ -138,7 +139,7 @@ class AuditServiceTest {
     @Test
     void testLogProfileChangeHandlesException() {
         // Given
-        when(auditLogRepository.save(any(AuditLog.class))).thenThrow(new RuntimeException("Database error"));
+        when(auditLogSink.submit(any(AuditLog.class))).thenThrow(new RuntimeException("Sink error"));
 
         // When & Then - should not throw exception
         assertDoesNotThrow(() -> {
@@ -146,7 +147,44 @@ class AuditServiceTest {
                     "firstName", "John", "Jane", "Test update");
         });
 
-        // Verify that save was attempted
-        verify(auditLogRepository, timeout(1000)).save(any(AuditLog.class));
+        // Verify that submit was attempted
+        verify(auditLogSink).submit(any(AuditLog.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testLoggingRestoresCallerMdc() {
+        // Given
+        MDC.put("requestId", "req-1");
+
+        try {
+            // When
+            auditService.logEntityCreation(testUserId, "DriverProfile", testUserId.toString(), "Test");
+
+            // Then
+            assertEquals("req-1", MDC.get("requestId"));
+            assertNull(MDC.get("entityType"));
+        } finally {
+            MDC.clear();
+        }
+    }
+
+    @Test
+    void testLogEntityDeletion_UsesBoundAuditContext() {
+        // Given
+        AuditContext.set(new AuditContext("203.0.113.7", "OfficeMate/1.0", "session-42"));
+
+        try {
+            // When
+            auditService.logEntityDeletion(testUserId, "Vehicle", "vehicle-1", "Removed");
+
+            // Then
+            ArgumentCaptor<AuditLog> auditLogCaptor = ArgumentCaptor.forClass(AuditLog.class);
+            verify(auditLogSink).submit(auditLogCaptor.capture());
+            assertEquals("203.0.113.7", auditLogCaptor.getValue().getIpAddress());
+            assertEquals("OfficeMate/1.0", auditLogCaptor.getValue().getUserAgent());
+            assertEquals("session-42", auditLogCaptor.getValue().getSessionId());
+        } finally {
+            AuditContext.set(null);
+        }
+    }
+}
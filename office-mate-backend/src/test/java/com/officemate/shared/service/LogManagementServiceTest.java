@@ -0,0 +1,126 @@
+package com.officemate.shared.service;
+
+import com.officemate.shared.repository.AuditLogRepository;
+import com.officemate.shared.repository.CancellationLogRepository;
+import com.officemate.shared.repository.SecurityEventLogRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for LogManagementService.
+ * Reports must only use aggregate queries, never load log rows.
+ */
+@ExtendWith(MockitoExtension.class)
+class LogManagementServiceTest {
+
+    @Mock
+    private AuditLogRepository auditLogRepository;
+
+    @Mock
+    private SecurityEventLogRepository securityEventLogRepository;
+
+    @Mock
+    private CancellationLogRepository cancellationLogRepository;
+
+    @Mock
+    private LogPartitionManager logPartitionManager;
+
+    @Mock
+    private SecurityEventRollupService securityEventRollupService;
+
+    @InjectMocks
+    private LogManagementService logManagementService;
+
+    @Test
+    void testToCounts() {
+        Map<String, Long> counts = LogManagementService.toCounts(List.of(
+                new Object[] {"LOGIN_FAILURE", 12L},
+                new Object[] {"OTP_FAILURE", 3}));
+
+        assertEquals(12L, counts.get("LOGIN_FAILURE"));
+        assertEquals(3L, counts.get("OTP_FAILURE"));
+    }
+
+    @Test
+    void testDailySecurityReport_ReadsRollups() {
+        // Arrange
+        when(securityEventRollupService.countsSince(any(LocalDateTime.class))).thenReturn(Map.of("LOGIN_FAILURE", 5000L));
+        when(securityEventLogRepository.countRecentSuspiciousActivities(any(LocalDateTime.class))).thenReturn(2L);
+
+        // Act
+        logManagementService.generateDailySecurityReport();
+
+        // Assert
+        verify(securityEventRollupService).countsSince(any(LocalDateTime.class));
+        verify(securityEventLogRepository, never()).countByEventTypeAndTimestampAfter(anyString(), any());
+        verify(securityEventLogRepository, never()).findRecentSuspiciousActivities(any());
+        verify(securityEventLogRepository, never()).countByEventTypeAndTimestampAfter(anyString(), any());
+    }
+
+    @Test
+    void testWeeklyCancellationReport_UsesGroupedCounts() {
+        // Arrange
+        when(cancellationLogRepository.countByCancellationTypeBetween(any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(new Object[] {"DRIVER", 7L}, new Object[] {"RIDER", 4L}));
+        when(cancellationLogRepository.countActiveSuspensions(any(LocalDateTime.class))).thenReturn(1L);
+        when(cancellationLogRepository.countUsersApproachingCancellationLimit(anyInt(), anyInt(), eq(3L))).thenReturn(2L);
+
+        // Act
+        logManagementService.generateWeeklyCancellationReport();
+
+        // Assert
+        verify(cancellationLogRepository, never()).findByTimestampBetween(any(), any(), any());
+        verify(cancellationLogRepository, never()).findActiveSuspensions(any());
+        verify(cancellationLogRepository, never()).findUsersApproachingCancellationLimit(any(), any(), any());
+    }
+
+    @Test
+    void testMonthlyAuditSummary_CountsPreviousCalendarMonth() {
+        // Arrange
+        when(auditLogRepository.countByEntityTypeBetween(any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(new Object[] {"DriverProfile", 10L}, new Object[] {"Wallet", 5L}));
+
+        // Act
+        logManagementService.generateMonthlyAuditSummary();
+
+        // Assert
+        ArgumentCaptor<LocalDateTime> start = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> end = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(auditLogRepository).countByEntityTypeBetween(start.capture(), end.capture());
+        YearMonth lastMonth = YearMonth.now().minusMonths(1);
+        assertEquals(lastMonth.atDay(1).atStartOfDay(), start.getValue());
+        assertEquals(lastMonth.plusMonths(1).atDay(1).atStartOfDay(), end.getValue());
+        verify(auditLogRepository, never()).findRecentProfileChanges(any());
+    }
+
+    @Test
+    void testMonitorSuspiciousPatterns_ReadsRollupsAndCountsRecentCancellations() {
+        // Arrange
+        when(securityEventRollupService.countsSince(any(LocalDateTime.class)))
+                .thenReturn(Map.of("OTP_FAILURE", 80L, "ACCOUNT_LOCKED", 3L));
+        when(cancellationLogRepository.countByTimestampBetween(any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(150L);
+
+        // Act
+        logManagementService.monitorSuspiciousPatterns();
+
+        // Assert
+        verify(securityEventRollupService).countsSince(any(LocalDateTime.class));
+        verify(securityEventLogRepository, never()).countByEventTypeAndTimestampAfter(anyString(), any());
+        verify(cancellationLogRepository).countByTimestampBetween(any(LocalDateTime.class), any(LocalDateTime.class));
+        verify(cancellationLogRepository, never()).findByTimestampBetween(any(), any(), any());
+    }
+}
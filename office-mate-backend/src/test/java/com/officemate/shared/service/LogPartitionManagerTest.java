@@ -0,0 +1,193 @@
+package com.officemate.shared.service;
+
+import com.officemate.shared.service.LogPartitionManager.LogTable;
+import com.officemate.shared.service.LogPartitionManager.Partition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for LogPartitionManager
+ */
+@ExtendWith(MockitoExtension.class)
+class LogPartitionManagerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private LogPartitionManager manager;
+
+    @BeforeEach
+    void setUp() {
+        manager = new LogPartitionManager(jdbcTemplate);
+    }
+
+    @Test
+    void testUpperBoundParsing() {
+        assertEquals(LocalDateTime.of(2025, 2, 1, 0, 0),
+                LogPartitionManager.upperBound("FOR VALUES FROM ('2025-01-01 00:00:00') TO ('2025-02-01 00:00:00')"));
+        assertEquals(LocalDateTime.of(2025, 2, 1, 0, 0),
+                LogPartitionManager.upperBound("FOR VALUES FROM (MINVALUE) TO ('2025-02-01 00:00:00.5')"));
+        assertNull(LogPartitionManager.upperBound("DEFAULT"));
+    }
+
+    @Test
+    void testDropPartitionsBefore_DropsOnlyExpiredPartitions() {
+        // Arrange
+        stubPartitioned("audit_logs", List.of(
+                new Partition("audit_logs_legacy", LocalDateTime.of(2024, 2, 1, 0, 0)),
+                new Partition("audit_logs_p2024_02", LocalDateTime.of(2024, 3, 1, 0, 0)),
+                new Partition("audit_logs_p2024_06", LocalDateTime.of(2024, 7, 1, 0, 0)),
+                new Partition("audit_logs_default", null)));
+
+        // Act
+        int dropped = manager.dropPartitionsBefore(LogTable.AUDIT_LOGS, LocalDateTime.of(2024, 6, 1, 0, 0));
+
+        // Assert
+        assertEquals(2, dropped);
+        verify(jdbcTemplate).execute("ALTER TABLE \"audit_logs\" DETACH PARTITION \"audit_logs_legacy\"");
+        verify(jdbcTemplate).execute("DROP TABLE \"audit_logs_legacy\"");
+        verify(jdbcTemplate).execute("ALTER TABLE \"audit_logs\" DETACH PARTITION \"audit_logs_p2024_02\"");
+        verify(jdbcTemplate).execute("DROP TABLE \"audit_logs_p2024_02\"");
+        verify(jdbcTemplate, times(4)).execute(anyString());
+    }
+
+    @Test
+    void testDropPartitionsBefore_KeepsPartitionWithUnresolvedHighSeverityEvents() {
+        // Arrange
+        stubPartitioned("security_event_logs", List.of(
+                new Partition("security_event_logs_p2024_01", LocalDateTime.of(2024, 2, 1, 0, 0)),
+                new Partition("security_event_logs_p2024_02", LocalDateTime.of(2024, 3, 1, 0, 0))));
+        when(jdbcTemplate.queryForObject(contains("\"security_event_logs_p2024_01\" WHERE resolved = false AND severity IN ('HIGH', 'CRITICAL')"), eq(Boolean.class)))
+                .thenReturn(true);
+        when(jdbcTemplate.queryForObject(contains("\"security_event_logs_p2024_02\" WHERE resolved = false AND severity IN ('HIGH', 'CRITICAL')"), eq(Boolean.class)))
+                .thenReturn(false);
+
+        // Act
+        int dropped = manager.dropPartitionsBefore(LogTable.SECURITY_EVENT_LOGS, LocalDateTime.of(2024, 6, 1, 0, 0));
+
+        // Assert
+        assertEquals(1, dropped);
+        verify(jdbcTemplate).execute("DROP TABLE \"security_event_logs_p2024_02\"");
+        verify(jdbcTemplate, never()).execute("DROP TABLE \"security_event_logs_p2024_01\"");
+    }
+
+    @Test
+    void testDropPartitionsBefore_SecurityEventMix_KeepsOnlyPartitionsWithUnresolvedHighSeverity() {
+        // Arrange - partitions as plain H2 tables; only detaching needs PostgreSQL
+        JdbcTemplate h2 = spy(new JdbcTemplate(new DriverManagerDataSource("jdbc:h2:mem:log_partitions;DB_CLOSE_DELAY=-1")));
+        createSecurityEventPartition(h2, "security_event_logs_p2024_01",
+                "('LOW', false), ('MEDIUM', false), ('MEDIUM', false), ('HIGH', true), ('CRITICAL', true)");
+        createSecurityEventPartition(h2, "security_event_logs_p2024_02",
+                "('LOW', false), ('MEDIUM', false), ('CRITICAL', false), ('HIGH', true)");
+        createSecurityEventPartition(h2, "security_event_logs_p2024_03",
+                "('MEDIUM', false), (NULL, false), ('HIGH', false)");
+        doNothing().when(h2).execute(startsWith("ALTER TABLE"));
+        LogPartitionManager h2Manager = spy(new LogPartitionManager(h2));
+        doReturn(true).when(h2Manager).isPartitioned(LogTable.SECURITY_EVENT_LOGS);
+        doReturn(List.of(
+                new Partition("security_event_logs_p2024_01", LocalDateTime.of(2024, 2, 1, 0, 0)),
+                new Partition("security_event_logs_p2024_02", LocalDateTime.of(2024, 3, 1, 0, 0)),
+                new Partition("security_event_logs_p2024_03", LocalDateTime.of(2024, 4, 1, 0, 0))))
+                .when(h2Manager).partitions(LogTable.SECURITY_EVENT_LOGS);
+
+        // Act
+        int dropped = h2Manager.dropPartitionsBefore(LogTable.SECURITY_EVENT_LOGS, LocalDateTime.of(2024, 6, 1, 0, 0));
+
+        // Assert - unresolved LOW and MEDIUM events do not hold a partition back
+        assertEquals(1, dropped);
+        verify(h2).execute("DROP TABLE \"security_event_logs_p2024_01\"");
+        verify(h2, never()).execute("DROP TABLE \"security_event_logs_p2024_02\"");
+        verify(h2, never()).execute("DROP TABLE \"security_event_logs_p2024_03\"");
+        h2.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void testDropPartitionsBefore_SkipsTableThatIsNotPartitioned() {
+        // Arrange - e.g. H2, which has no pg_partitioned_table
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq("audit_logs")))
+                .thenThrow(new BadSqlGrammarException("check", "SELECT", new SQLException("Table not found")));
+
+        // Act
+        int dropped = manager.dropPartitionsBefore(LogTable.AUDIT_LOGS, LocalDateTime.now());
+
+        // Assert
+        assertEquals(0, dropped);
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    @Test
+    void testCreatePartitions_StartsAfterNewestPartition() {
+        // Arrange - the converted table covers everything before next month
+        YearMonth next = YearMonth.now().plusMonths(1);
+        stubPartitioned("cancellation_logs", List.of(
+                new Partition("cancellation_logs_legacy", next.atDay(1).atStartOfDay()),
+                new Partition("cancellation_logs_default", null)));
+
+        // Act
+        int created = manager.createPartitions(LogTable.CANCELLATION_LOGS, YearMonth.now().plusMonths(3));
+
+        // Assert
+        assertEquals(3, created);
+        DateTimeFormatter suffix = DateTimeFormatter.ofPattern("yyyy_MM");
+        verify(jdbcTemplate).execute(startsWith("CREATE TABLE IF NOT EXISTS \"cancellation_logs_p" + next.format(suffix)
+                + "\" PARTITION OF \"cancellation_logs\" FOR VALUES FROM ('" + next + "-01 00:00:00')"));
+        verify(jdbcTemplate).execute(startsWith("CREATE TABLE IF NOT EXISTS \"cancellation_logs_p"
+                + next.plusMonths(2).format(suffix) + "\""));
+        verify(jdbcTemplate, times(3)).execute(anyString());
+    }
+
+    @Test
+    void testCreatePartitions_MovesRowsOutOfDefaultPartition() {
+        // Arrange - rows for next month arrived before its partition existed
+        YearMonth current = YearMonth.now();
+        YearMonth next = current.plusMonths(1);
+        stubPartitioned("audit_logs", List.of(
+                new Partition("audit_logs_p" + current.format(DateTimeFormatter.ofPattern("yyyy_MM")), next.atDay(1).atStartOfDay()),
+                new Partition("audit_logs_default", null)));
+        when(jdbcTemplate.queryForObject(startsWith("SELECT COUNT(*) FROM \"audit_logs_default\" WHERE timestamp >= '"
+                + next + "-01 00:00:00'"), eq(Long.class))).thenReturn(4L);
+
+        // Act
+        int created = manager.createPartitions(LogTable.AUDIT_LOGS, next.plusMonths(1));
+
+        // Assert
+        assertEquals(2, created);
+        String partition = "\"audit_logs_p" + next.format(DateTimeFormatter.ofPattern("yyyy_MM")) + "\"";
+        verify(jdbcTemplate).execute(argThat((String sql) -> sql.startsWith("DO $$ BEGIN CREATE TABLE " + partition
+                + " (LIKE \"audit_logs\"")
+                && sql.contains("DELETE FROM \"audit_logs_default\" WHERE timestamp >= '" + next + "-01 00:00:00'")
+                && sql.contains("INSERT INTO " + partition + " SELECT * FROM moved")
+                && sql.contains("ATTACH PARTITION " + partition + " FOR VALUES FROM ('" + next + "-01 00:00:00')")));
+        verify(jdbcTemplate, never()).execute(startsWith("CREATE TABLE IF NOT EXISTS " + partition));
+        verify(jdbcTemplate).execute(startsWith("CREATE TABLE IF NOT EXISTS \"audit_logs_p"
+                + next.plusMonths(1).format(DateTimeFormatter.ofPattern("yyyy_MM")) + "\""));
+    }
+
+    private static void createSecurityEventPartition(JdbcTemplate jdbcTemplate, String name, String rows) {
+        jdbcTemplate.execute("CREATE TABLE \"" + name + "\" (severity VARCHAR(20), resolved BOOLEAN NOT NULL)");
+        jdbcTemplate.execute("INSERT INTO \"" + name + "\" (severity, resolved) VALUES " + rows);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubPartitioned(String tableName, List<Partition> partitions) {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq(tableName))).thenReturn(1);
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(tableName))).thenReturn((List) partitions);
+    }
+}
@@ -0,0 +1,203 @@
+package com.officemate.shared.service;
+
+import com.officemate.shared.entity.SecurityEventLog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SecurityEventAggregator
+ */
+@ExtendWith(MockitoExtension.class)
+class SecurityEventAggregatorTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private SecurityEventRollupService rollupService;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    private SecurityEventAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        aggregator = new SecurityEventAggregator(jdbcTemplate, rollupService, taskScheduler);
+        ReflectionTestUtils.setField(aggregator, "batchSize", 2);
+        ReflectionTestUtils.setField(aggregator, "maxPendingKeys", 100);
+    }
+
+    @Test
+    void testIdenticalEventsCollapsedIntoOneRow() {
+        // Arrange
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 10, 0);
+
+        // Act
+        for (int i = 0; i < 1000; i++) {
+            aggregator.record(loginFailure("+1234567890", "10.0.0.1", start.plusNanos(i * 1_000_000L)));
+        }
+        aggregator.flush();
+
+        // Assert
+        List<Object[]> rows = capturedRows(1).get(0);
+        assertEquals(1, rows.size());
+        Object[] row = rows.get(0);
+        assertEquals("+1234567890", row[2]);
+        assertEquals("LOGIN_FAILURE", row[4]);
+        assertEquals(start, row[9]);
+        assertEquals(1000, row[13]);
+        assertEquals(start, row[14]);
+        assertEquals(start.plusNanos(999_000_000L), row[15]);
+        assertEquals(0, aggregator.getPendingCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testEventsCountedInMetricsAndRollups() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+
+        // Act
+        aggregator.record(loginFailure("+1234567890", "10.0.0.1", now));
+        aggregator.record(loginFailure("+1234567890", "10.0.0.1", now));
+        aggregator.record(loginFailure("+1111111111", "10.0.0.1", now));
+        aggregator.flush();
+
+        // Assert - every event is counted, each aggregated row is one rollup increment
+        verify(rollupService, times(3)).countEvent("LOGIN_FAILURE", "MEDIUM");
+        ArgumentCaptor<List<SecurityEventRollupService.Increment>> captor = ArgumentCaptor.forClass(List.class);
+        verify(rollupService).apply(captor.capture());
+        assertEquals(2, captor.getValue().size());
+        assertEquals(3, captor.getValue().stream().mapToLong(SecurityEventRollupService.Increment::count).sum());
+    }
+
+    @Test
+    void testDistinctIdentifiersAndAddressesKeptApartAndBatched() {
+        // Arrange
+        LocalDateTime now = LocalDateTime.now();
+
+        // Act
+        aggregator.record(loginFailure("+1111111111", "10.0.0.1", now));
+        aggregator.record(loginFailure("+1111111111", "10.0.0.2", now));
+        aggregator.record(loginFailure("+2222222222", "10.0.0.1", now));
+        aggregator.flush();
+
+        // Assert - three rows in batches of at most two
+        List<List<Object[]>> batches = capturedRows(2);
+        assertEquals(3, batches.stream().mapToInt(List::size).sum());
+        assertTrue(batches.stream().allMatch(batch -> batch.size() <= 2));
+    }
+
+    @Test
+    void testSeverityAndActivityTypeKeptApart() {
+        // Arrange - the same source escalates from MEDIUM to CRITICAL
+        LocalDateTime now = LocalDateTime.now();
+        aggregator.record(suspiciousActivity("RAPID_ATTEMPTS: 5 attempts in 60s", "MEDIUM", now));
+        aggregator.record(suspiciousActivity("RAPID_ATTEMPTS: 6 attempts in 60s", "MEDIUM", now.plusSeconds(1)));
+        aggregator.record(suspiciousActivity("CREDENTIAL_STUFFING: 40 identifiers", "CRITICAL", now.plusSeconds(2)));
+        aggregator.record(suspiciousActivity("DISTRIBUTED_ATTACK: 12 addresses", "CRITICAL", now.plusSeconds(3)));
+
+        // Act
+        aggregator.flush();
+
+        // Assert - repeats of the same activity are still collapsed
+        List<Object[]> rows = capturedRows(2).stream().flatMap(List::stream).toList();
+        assertEquals(3, rows.size());
+        Object[] rapid = rows.stream().filter(row -> "MEDIUM".equals(row[10])).findFirst().orElseThrow();
+        assertEquals(2, rapid[13]);
+        List<String> critical = rows.stream().filter(row -> "CRITICAL".equals(row[10]))
+                .map(row -> (String) row[5]).sorted().toList();
+        assertEquals(List.of("CREDENTIAL_STUFFING: 40 identifiers", "DISTRIBUTED_ATTACK: 12 addresses"), critical);
+    }
+
+    @Test
+    void testFlushWithoutEventsWritesNothing() {
+        aggregator.flush();
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void testFullWindowFlushScheduledOffCallerThread() {
+        // Arrange
+        ReflectionTestUtils.setField(aggregator, "maxPendingKeys", 2);
+        ArgumentCaptor<Runnable> flushTask = ArgumentCaptor.forClass(Runnable.class);
+
+        // Act - the window fills up, and keeps growing until the scheduled flush runs
+        aggregator.record(loginFailure("+1111111111", "10.0.0.1", LocalDateTime.now()));
+        aggregator.record(loginFailure("+2222222222", "10.0.0.1", LocalDateTime.now()));
+        aggregator.record(loginFailure("+3333333333", "10.0.0.1", LocalDateTime.now()));
+
+        // Assert - one flush is scheduled and nothing is written on the recording thread
+        verify(taskScheduler, times(1)).schedule(flushTask.capture(), any(Instant.class));
+        verifyNoInteractions(jdbcTemplate);
+        assertEquals(3, aggregator.getPendingCount());
+
+        flushTask.getValue().run();
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyList());
+        assertEquals(0, aggregator.getPendingCount());
+
+        // A later full window schedules a new flush
+        aggregator.record(loginFailure("+1111111111", "10.0.0.1", LocalDateTime.now()));
+        aggregator.record(loginFailure("+2222222222", "10.0.0.1", LocalDateTime.now()));
+        verify(taskScheduler, times(2)).schedule(any(Runnable.class), any(Instant.class));
+    }
+
+    @Test
+    void testWriteFailureDoesNotPropagate() {
+        // Arrange
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("Database down"));
+        aggregator.record(loginFailure("+1234567890", "10.0.0.1", LocalDateTime.now()));
+
+        // Act & Assert
+        assertDoesNotThrow(() -> aggregator.flush());
+        assertEquals(0, aggregator.getPendingCount());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<Object[]>> capturedRows(int batches) {
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(batches)).batchUpdate(startsWith("INSERT INTO security_event_logs"), captor.capture());
+        return captor.getAllValues();
+    }
+
+    private SecurityEventLog suspiciousActivity(String description, String severity, LocalDateTime timestamp) {
+        return SecurityEventLog.builder()
+                .phoneNumber("+1234567890")
+                .eventType("SUSPICIOUS_ACTIVITY")
+                .eventDescription(description)
+                .ipAddress("10.0.0.1")
+                .severity(severity)
+                .timestamp(timestamp)
+                .build();
+    }
+
+    private SecurityEventLog loginFailure(String phoneNumber, String ipAddress, LocalDateTime timestamp) {
+        return SecurityEventLog.builder()
+                .phoneNumber(phoneNumber)
+                .eventType("LOGIN_FAILURE")
+                .eventDescription("Failed login attempt: Invalid OTP")
+                .ipAddress(ipAddress)
+                .severity("MEDIUM")
+                .timestamp(timestamp)
+                .build();
+    }
+}
@@ -0,0 +1,123 @@
+package com.officemate.shared.service;
+
+import com.officemate.shared.repository.SecurityEventRollupRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SecurityEventRollupService
+ */
+@ExtendWith(MockitoExtension.class)
+class SecurityEventRollupServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private SecurityEventRollupRepository rollupRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private SecurityEventRollupService rollupService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        rollupService = new SecurityEventRollupService(jdbcTemplate, rollupRepository, meterRegistry);
+        ReflectionTestUtils.setField(rollupService, "minuteRetentionHours", 48);
+        ReflectionTestUtils.setField(rollupService, "hourRetentionDays", 400);
+    }
+
+    @Test
+    void testCountEventIncrementsTaggedCounter() {
+        rollupService.countEvent("LOGIN_FAILURE", "MEDIUM");
+        rollupService.countEvent("LOGIN_FAILURE", "MEDIUM");
+        rollupService.countEvent("ACCOUNT_LOCKED", null);
+
+        assertEquals(2.0, meterRegistry.get("security.events")
+                .tag("event_type", "LOGIN_FAILURE").tag("severity", "MEDIUM").counter().count());
+        assertEquals(1.0, meterRegistry.get("security.events")
+                .tag("event_type", "ACCOUNT_LOCKED").tag("severity", "UNKNOWN").counter().count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testApplyMergesIncrementsIntoMinuteAndHourBuckets() {
+        // Arrange
+        LocalDateTime hour = LocalDateTime.of(2025, 1, 1, 10, 0);
+
+        // Act
+        rollupService.apply(List.of(
+                new SecurityEventRollupService.Increment("LOGIN_FAILURE", hour.plusMinutes(1).plusSeconds(5), 40),
+                new SecurityEventRollupService.Increment("LOGIN_FAILURE", hour.plusMinutes(1).plusSeconds(30), 2),
+                new SecurityEventRollupService.Increment("LOGIN_FAILURE", hour.plusMinutes(7), 1)));
+
+        // Assert - two minute buckets and one hour bucket
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO security_event_rollups"), captor.capture());
+        List<Object[]> rows = captor.getValue();
+        assertEquals(3, rows.size());
+        assertTrue(rows.stream().anyMatch(row -> row[0].equals("MINUTE") && row[1].equals(hour.plusMinutes(1))
+                && row[3].equals(42L)));
+        assertTrue(rows.stream().anyMatch(row -> row[0].equals("MINUTE") && row[1].equals(hour.plusMinutes(7))
+                && row[3].equals(1L)));
+        assertTrue(rows.stream().anyMatch(row -> row[0].equals("HOUR") && row[1].equals(hour) && row[3].equals(43L)));
+    }
+
+    @Test
+    void testApplyWithoutIncrementsWritesNothing() {
+        rollupService.apply(List.of());
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void testCountsSinceReadsMinuteBucketsForRecentPeriods() {
+        // Arrange
+        LocalDateTime since = LocalDateTime.now().minusHours(1);
+        when(rollupRepository.sumByEventTypeSince("MINUTE", since.truncatedTo(ChronoUnit.MINUTES)))
+                .thenReturn(List.<Object[]>of(new Object[] {"OTP_FAILURE", 55L}));
+
+        // Act
+        Map<String, Long> counts = rollupService.countsSince(since);
+
+        // Assert
+        assertEquals(Map.of("OTP_FAILURE", 55L), counts);
+        assertEquals(55L, rollupService.countSince("OTP_FAILURE", since));
+        assertEquals(0L, rollupService.countSince("ACCOUNT_LOCKED", since));
+    }
+
+    @Test
+    void testCountsSinceReadsHourBucketsBeyondMinuteRetention() {
+        // Arrange
+        LocalDateTime since = LocalDateTime.now().minusDays(7);
+        when(rollupRepository.sumByEventTypeSince("HOUR", since.truncatedTo(ChronoUnit.HOURS)))
+                .thenReturn(List.<Object[]>of(new Object[] {"LOGIN_FAILURE", 1200L}));
+
+        // Act & Assert
+        assertEquals(1200L, rollupService.countSince("LOGIN_FAILURE", since));
+    }
+
+    @Test
+    void testPurgeExpiredBuckets() {
+        rollupService.purgeExpiredBuckets();
+
+        verify(rollupRepository).deleteByGranularityBefore(eq("MINUTE"), any(LocalDateTime.class));
+        verify(rollupRepository).deleteByGranularityBefore(eq("HOUR"), any(LocalDateTime.class));
+    }
+}
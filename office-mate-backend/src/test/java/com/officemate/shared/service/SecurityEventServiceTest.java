@@ -9,6 +9,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.MDC;
 
 import java.util.UUID;
 
@@ -25,6 +26,9 @@ class SecurityEventServiceTest {
     @Mock
     private SecurityEventLogRepository securityEventLogRepository;
 
+    @Mock
+    private SecurityEventAggregator securityEventAggregator;
+
     @InjectMocks
     private SecurityEventService securityEventService;
 
@@ -48,7 +52,7 @@ class SecurityEventServiceTest {
 
         // Then
         ArgumentCaptor<SecurityEventLog> eventCaptor = ArgumentCaptor.forClass(SecurityEventLog.class);
-        verify(securityEventLogRepository, timeout(1000)).save(eventCaptor.capture());
+        verify(securityEventAggregator).record(eventCaptor.capture());
 
         SecurityEventLog capturedEvent = eventCaptor.getValue();
         assertNull(capturedEvent.getUserId()); // No user ID for failed login
@@ -60,6 +64,27 @@ class SecurityEventServiceTest {
         assertNotNull(capturedEvent.getTimestamp());
     }
 
+    @Test
+    void testLoggingRestoresCallerMdc() {
+        // Given - the caller's request already carries a user and session
+        MDC.put("requestId", "req-1");
+        MDC.put("userId", "caller-user");
+        MDC.put("sessionId", "caller-session");
+
+        try {
+            // When
+            securityEventService.logSuccessfulLogin(testUserId, testPhoneNumber);
+
+            // Then
+            assertEquals("req-1", MDC.get("requestId"));
+            assertEquals("caller-user", MDC.get("userId"));
+            assertEquals("caller-session", MDC.get("sessionId"));
+            assertNull(MDC.get("eventType"));
+        } finally {
+            MDC.clear();
+        }
+    }
+
     @Test
     void testLogSuccessfulLogin() {
         // When
@@ -67,7 +92,7 @@ class SecurityEventServiceTest {
 
         // Then
         ArgumentCaptor<SecurityEventLog> eventCaptor = ArgumentCaptor.forClass(SecurityEventLog.class);
-        verify(securityEventLogRepository, timeout(1000)).save(eventCaptor.capture());
+        verify(securityEventAggregator).record(eventCaptor.capture());
 
         SecurityEventLog capturedEvent = eventCaptor.getValue();
         assertEquals(testUserId, capturedEvent.getUserId());
@@ -89,7 +114,7 @@ class SecurityEventServiceTest {
 
         // Then
         ArgumentCaptor<SecurityEventLog> eventCaptor = ArgumentCaptor.forClass(SecurityEventLog.class);
-        verify(securityEventLogRepository, timeout(1000)).save(eventCaptor.capture());
+        verify(securityEventAggregator).record(eventCaptor.capture());
 
         SecurityEventLog capturedEvent = eventCaptor.getValue();
         assertEquals(testUserId, capturedEvent.getUserId());
@@ -110,7 +135,7 @@ class SecurityEventServiceTest {
 
         // Then
         ArgumentCaptor<SecurityEventLog> eventCaptor = ArgumentCaptor.forClass(SecurityEventLog.class);
-        verify(securityEventLogRepository, timeout(1000)).save(eventCaptor.capture());
+        verify(securityEventAggregator).record(eventCaptor.capture());
 
         SecurityEventLog capturedEvent = eventCaptor.getValue();
         assertEquals(testUserId, capturedEvent.getUserId());
@@ -135,7 +160,7 @@ class SecurityEventServiceTest {
 
         // Then
         ArgumentCaptor<SecurityEventLog> eventCaptor = ArgumentCaptor.forClass(SecurityEventLog.class);
-        verify(securityEventLogRepository, timeout(1000)).save(eventCaptor.capture());
+        verify(securityEventAggregator).record(eventCaptor.capture());
 
         SecurityEventLog capturedEvent = eventCaptor.getValue();
         assertEquals(testUserId, capturedEvent.getUserId());
@@ -158,7 +183,7 @@ class SecurityEventServiceTest {
 
         // Then
         ArgumentCaptor<SecurityEventLog> eventCaptor = ArgumentCaptor.forClass(SecurityEventLog.class);
-        verify(securityEventLogRepository, timeout(1000)).save(eventCaptor.capture());
+        verify(securityEventAggregator).record(eventCaptor.capture());
 
         SecurityEventLog capturedEvent = eventCaptor.getValue();
         assertNull(capturedEvent.getUserId());
@@ -172,14 +197,14 @@ class SecurityEventServiceTest {
     @Test
     void testSecurityEventLoggingHandlesException() {
         // Given
-        when(securityEventLogRepository.save(any(SecurityEventLog.class))).thenThrow(new RuntimeException("Database error"));
+        doThrow(new RuntimeException("Aggregation error")).when(securityEventAggregator).record(any(SecurityEventLog.class));
 
         // When & Then - should not throw exception
         assertDoesNotThrow(() -> {
             securityEventService.logFailedLogin(testPhoneNumber, "Test failure", null);
         });
 
-        // Verify that save was attempted
-        verify(securityEventLogRepository, timeout(1000)).save(any(SecurityEventLog.class));
+        // Verify that recording was attempted
+        verify(securityEventAggregator).record(any(SecurityEventLog.class));
     }
 }
\ No newline at end of file
@@ -0,0 +1,96 @@
+package com.officemate.shared.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CountMinSketch.
+ * Tests counting, conservative update, overcount bounds and clearing.
+ */
+class CountMinSketchTest {
+
+    @Test
+    void testAdd_ReturnsEstimateAfterUpdate() {
+        CountMinSketch sketch = new CountMinSketch(4, 1024);
+
+        sketch.add("192.168.1.1", 1);
+        int estimate = sketch.add("192.168.1.1", 2);
+
+        assertEquals(3, estimate);
+        assertEquals(3, sketch.estimate("192.168.1.1"));
+        assertEquals(0, sketch.estimate("192.168.1.2"));
+    }
+
+    @Test
+    void testEstimate_NeverUndercountsUnderCollisions() {
+        // Arrange - far more keys than counters per row
+        CountMinSketch sketch = new CountMinSketch(4, 64);
+        for (int i = 0; i < 5000; i++) {
+            sketch.add("10.0." + (i / 256) + "." + (i % 256), 1);
+        }
+        sketch.add("heavy", 500);
+
+        // Act & Assert
+        assertTrue(sketch.estimate("heavy") >= 500);
+        assertTrue(sketch.estimate("10.0.0.1") >= 1);
+    }
+
+    @Test
+    void testAddConservative_OvercountsLessThanAdd() {
+        // Arrange - the same collision-heavy stream into both sketches
+        CountMinSketch plain = new CountMinSketch(4, 64);
+        CountMinSketch conservative = new CountMinSketch(4, 64);
+        for (int i = 0; i < 500; i++) {
+            String key = "10.0.0." + (i % 250);
+            plain.add(key, 1);
+            conservative.addConservative(key, 1);
+        }
+
+        // Act
+        long plainTotal = 0;
+        long conservativeTotal = 0;
+        for (int i = 0; i < 250; i++) {
+            int estimate = conservative.estimate("10.0.0." + i);
+            assertTrue(estimate >= 2);
+            assertTrue(estimate <= plain.estimate("10.0.0." + i));
+            plainTotal += plain.estimate("10.0.0." + i);
+            conservativeTotal += estimate;
+        }
+
+        // Assert
+        assertTrue(conservativeTotal < plainTotal);
+        assertThrows(IllegalArgumentException.class, () -> conservative.addConservative("key", 0));
+    }
+
+    @Test
+    void testAddRowCounts_SumsAcrossSketches() {
+        CountMinSketch first = new CountMinSketch(4, 1024);
+        CountMinSketch second = new CountMinSketch(4, 1024);
+        first.addConservative("key", 2);
+        second.addConservative("key", 3);
+
+        long[] totals = new long[4];
+        first.addRowCounts("key", totals);
+        second.addRowCounts("key", totals);
+
+        assertArrayEquals(new long[] {5, 5, 5, 5}, totals);
+    }
+
+    @Test
+    void testWidth_RoundedUpToPowerOfTwo() {
+        assertEquals(1024, new CountMinSketch(2, 1000).getWidth());
+        assertEquals(1024, new CountMinSketch(2, 1024).getWidth());
+        assertEquals(1, new CountMinSketch(2, 1).getWidth());
+    }
+
+    @Test
+    void testClear_ResetsCounts() {
+        CountMinSketch sketch = new CountMinSketch(4, 1024);
+        sketch.add("key", 10);
+
+        sketch.clear();
+
+        assertEquals(0, sketch.estimate("key"));
+    }
+}
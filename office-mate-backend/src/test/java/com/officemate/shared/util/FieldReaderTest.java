@@ -0,0 +1,65 @@
+package com.officemate.shared.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for FieldReader.
+ * Tests reading private fields and caching of absent fields.
+ */
+class FieldReaderTest {
+
+    private final FieldReader userIdReader = new FieldReader("userId");
+
+    @Test
+    void testRead_PrivateField() {
+        UUID userId = UUID.randomUUID();
+
+        assertEquals(userId, userIdReader.read(new WithUserId(userId)));
+        assertTrue(userIdReader.isDeclaredBy(WithUserId.class));
+    }
+
+    @Test
+    void testRead_AbsentField_ReturnsNull() {
+        assertNull(userIdReader.read(new WithoutUserId()));
+        assertNull(userIdReader.read(new WithoutUserId()));
+        assertFalse(userIdReader.isDeclaredBy(WithoutUserId.class));
+    }
+
+    @Test
+    void testRead_StaticFieldAndJdkClassesIgnored() {
+        assertNull(userIdReader.read(new WithStaticUserId()));
+        assertNull(userIdReader.read("a string"));
+        assertNull(userIdReader.read(null));
+    }
+
+    @Test
+    void testRead_FieldOfSuperclassNotConsidered() {
+        assertNull(userIdReader.read(new SubclassOfWithUserId(UUID.randomUUID())));
+    }
+
+    private static class WithUserId {
+        private final UUID userId;
+
+        WithUserId(UUID userId) {
+            this.userId = userId;
+        }
+    }
+
+    private static class SubclassOfWithUserId extends WithUserId {
+        SubclassOfWithUserId(UUID userId) {
+            super(userId);
+        }
+    }
+
+    private static class WithoutUserId {
+        private final String name = "none";
+    }
+
+    private static class WithStaticUserId {
+        private static final UUID userId = UUID.randomUUID();
+    }
+}
@@ -0,0 +1,89 @@
+package com.officemate.shared.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for MpscRingBuffer.
+ * Tests ordering, capacity limits and concurrent producers.
+ */
+class MpscRingBufferTest {
+
+    @Test
+    void testDrainTo_ReturnsElementsInOrder() {
+        MpscRingBuffer<String> buffer = new MpscRingBuffer<>(8);
+        buffer.offer("a");
+        buffer.offer("b");
+        buffer.offer("c");
+
+        List<String> drained = new ArrayList<>();
+        int count = buffer.drainTo(drained, 2);
+
+        assertEquals(2, count);
+        assertEquals(List.of("a", "b"), drained);
+        assertEquals(1, buffer.size());
+    }
+
+    @Test
+    void testOffer_WhenFull_ReturnsFalseUntilDrained() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+
+        assertFalse(buffer.offer(4));
+        buffer.drainTo(new ArrayList<>(), 1);
+        assertTrue(buffer.offer(4));
+    }
+
+    @Test
+    void testCapacity_RoundedUpToPowerOfTwo() {
+        assertEquals(1024, new MpscRingBuffer<>(1000).getCapacity());
+    }
+
+    @Test
+    void testConcurrentProducers_NoElementLostOrDuplicated() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 10000;
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(256);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch done = new CountDownLatch(producers);
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            executor.submit(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(base + i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+                done.countDown();
+            });
+        }
+
+        Set<Integer> seen = new HashSet<>();
+        List<Integer> batch = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (seen.size() < producers * perProducer) {
+            assertTrue(System.nanoTime() < deadline, "timed out draining");
+            buffer.drainTo(batch, 64);
+            for (Integer value : batch) {
+                assertTrue(seen.add(value), "duplicate " + value);
+            }
+            batch.clear();
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertEquals(0, buffer.size());
+    }
+}
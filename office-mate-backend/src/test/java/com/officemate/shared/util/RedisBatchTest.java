@@ -0,0 +1,86 @@
+package com.officemate.shared.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for RedisBatch.
+ * Tests that commands are sent in one pipeline and replies are matched to their commands.
+ */
+class RedisBatchTest {
+
+    @SuppressWarnings("unchecked")
+    private final RedisOperations<String, String> redis = mock(RedisOperations.class);
+    private final RedisConnection connection = mock(RedisConnection.class, RETURNS_DEEP_STUBS);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testExecute_SendsCommandsInOnePipelineAndSkipsStatusReplies() {
+        // Arrange
+        when(redis.executePipelined(any(RedisCallback.class), any(RedisSerializer.class))).thenAnswer(invocation -> {
+            invocation.<RedisCallback<Object>>getArgument(0).doInRedis(connection);
+            // LTRIM has no entry in pipeline results
+            return List.of(Set.of("9", "10"), 2L, 1L, true);
+        });
+        RedisBatch batch = new RedisBatch();
+        RedisBatch.Reply<Set<String>> hours = batch.sMembers("time_pattern:u1");
+        RedisBatch.Reply<Long> attempts = batch.incr("velocity_check:u1");
+        batch.lTrim("login_pattern:u1", 0, 99);
+        RedisBatch.Reply<Long> pushed = batch.lPush("login_pattern:u1", "attempt");
+        RedisBatch.Reply<Boolean> expired = batch.expire("login_pattern:u1", Duration.ofDays(30));
+
+        // Act
+        batch.execute(redis);
+
+        // Assert
+        verify(redis, times(1)).executePipelined(any(RedisCallback.class), any(RedisSerializer.class));
+        verify(connection.setCommands()).sMembers(bytes("time_pattern:u1"));
+        verify(connection.stringCommands()).incr(bytes("velocity_check:u1"));
+        verify(connection.listCommands()).lTrim(bytes("login_pattern:u1"), 0, 99);
+        verify(connection.keyCommands()).expire(bytes("login_pattern:u1"), Duration.ofDays(30).toSeconds());
+        assertEquals(Set.of("9", "10"), hours.get());
+        assertEquals(2L, attempts.get());
+        assertEquals(1L, pushed.get());
+        assertTrue(expired.get());
+    }
+
+    @Test
+    void testReply_BeforeExecute_Throws() {
+        RedisBatch batch = new RedisBatch();
+        RedisBatch.Reply<String> value = batch.get("key");
+
+        assertThrows(IllegalStateException.class, value::get);
+    }
+
+    @Test
+    void testExecute_Twice_Throws() {
+        RedisBatch batch = new RedisBatch();
+        batch.execute(redis);
+
+        assertThrows(IllegalStateException.class, () -> batch.execute(redis));
+        assertThrows(IllegalStateException.class, () -> batch.get("key"));
+    }
+
+    @Test
+    void testExecute_Empty_DoesNotContactRedis() {
+        new RedisBatch().execute(redis);
+
+        verifyNoInteractions(redis);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
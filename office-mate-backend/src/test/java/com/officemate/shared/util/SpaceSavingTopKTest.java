@@ -0,0 +1,87 @@
+package com.officemate.shared.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SpaceSavingTopK.
+ * Tests exact counting below capacity, eviction with inherited error and draining.
+ */
+class SpaceSavingTopKTest {
+
+    @Test
+    void testOffer_BelowCapacity_CountsExactly() {
+        SpaceSavingTopK topK = new SpaceSavingTopK(4);
+
+        topK.offer("a");
+        topK.offer("a");
+        topK.offer("b");
+
+        List<SpaceSavingTopK.Entry> entries = topK.drain();
+        SpaceSavingTopK.Entry a = find(entries, "a");
+        assertEquals(2, entries.size());
+        assertEquals(2, a.getCount());
+        assertEquals(0, a.getError());
+    }
+
+    @Test
+    void testOffer_WhenFull_ReplacesMinimumAndInheritsError() {
+        SpaceSavingTopK topK = new SpaceSavingTopK(2);
+        topK.offer("a");
+        topK.offer("a");
+        topK.offer("b");
+
+        topK.offer("c");
+
+        List<SpaceSavingTopK.Entry> entries = topK.drain();
+        SpaceSavingTopK.Entry c = find(entries, "c");
+        assertNull(find(entries, "b"));
+        assertEquals(2, c.getCount());
+        assertEquals(1, c.getError());
+        assertEquals(1, c.getGuaranteedCount());
+    }
+
+    @Test
+    void testOffer_FrequentKeyTrackedAmongManyRareKeys() {
+        SpaceSavingTopK topK = new SpaceSavingTopK(10);
+        for (int i = 0; i < 1000; i++) {
+            topK.offer("rare-" + i);
+            if (i % 5 == 0) {
+                topK.offer("heavy");
+            }
+        }
+
+        SpaceSavingTopK.Entry heavy = find(topK.drain(), "heavy");
+        assertNotNull(heavy);
+        assertTrue(heavy.getCount() >= 200);
+    }
+
+    @Test
+    void testGuaranteedCount_ExcludesInheritedError() {
+        SpaceSavingTopK topK = new SpaceSavingTopK(1);
+        topK.offer("a");
+        topK.offer("a");
+
+        topK.offer("b");
+
+        assertEquals(1, topK.guaranteedCount("b"));
+        assertEquals(0, topK.guaranteedCount("a"));
+    }
+
+    @Test
+    void testDrain_ResetsCounter() {
+        SpaceSavingTopK topK = new SpaceSavingTopK(4);
+        topK.offer("a");
+
+        topK.drain();
+
+        assertEquals(0, topK.size());
+    }
+
+    private static SpaceSavingTopK.Entry find(List<SpaceSavingTopK.Entry> entries, String key) {
+        return entries.stream().filter(entry -> entry.getKey().equals(key)).findFirst().orElse(null);
+    }
+}